@@ -0,0 +1,358 @@
+/*
+ * Copyright 2015-2020 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.builder;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.EncodingException;
+import uk.co.real_logic.artio.fields.DecimalFloat;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static uk.co.real_logic.artio.util.AsciiBuffer.SEPARATOR;
+
+/**
+ * A message that has been encoded once, by a generated {@link Encoder}, so that it can be sent repeatedly with only a
+ * few of its fields changing. For example an order entry message whose comp ids, account, symbol and order type are
+ * the same for every order.
+ *
+ * The fields given as variable tags are cut out of the encoded message, everything else is kept as static segments
+ * along with their checksums. Each message is then encoded by copying the static segments and writing just the values
+ * of the variable fields, using the cached checksums so that only the variable values are summed.
+ *
+ * Variable fields must be set on the encoder when the template is created, they are written in the order that they
+ * appeared within the encoded message, see {@link #variableTag(int)}, and must occur exactly once in that message,
+ * so they can't be within repeating groups. Static fields must not be data fields containing the separator character.
+ *
+ * Templates are not thread safe and encode messages in the same format as {@link Encoder#encode(MutableAsciiBuffer,
+ * int)}. MsgSeqNum is normally a variable field, so messages encoded from a template should be sent with an API that
+ * accepts a pre-encoded message and its sequence number.
+ */
+public final class MessageTemplate
+{
+    private static final int TEMPLATE_ENCODE_LENGTH = 64 * 1024;
+    private static final int CHECKSUM_FIELD_LENGTH = "10=000\001".length();
+    private static final byte[] BODY_LENGTH_HEADER = "9=".getBytes(US_ASCII);
+    private static final byte[] CHECKSUM_HEADER = "10=".getBytes(US_ASCII);
+    // long enough for the body length digits and its separator
+    private static final int BODY_LENGTH_RESERVED_LENGTH = 16;
+    private static final byte EQUALS = (byte)'=';
+
+    private final byte[] beginStringField;
+    private final UnsafeBuffer staticBytes;
+    private final int[] segmentOffsets;
+    private final int[] segmentLengths;
+    private final int[] segmentChecksums;
+    private final int[] variableTags;
+    private final byte[][] variableTagHeaders;
+    private final int[] variableTagHeaderChecksums;
+    private final int variableFieldCount;
+
+    // Per message state
+    private MutableAsciiBuffer buffer;
+    private int bodyStart;
+    private int position;
+    private int checksum;
+    private int nextVariableField;
+
+    /**
+     * Create a template by encoding a message.
+     *
+     * @param encoder the encoder with every field of the template set, including the variable ones.
+     * @param variableTags the tags of the fields that can change between messages.
+     * @throws IllegalArgumentException if a variable tag isn't in the message or is in it more than once.
+     */
+    public MessageTemplate(final Encoder encoder, final int... variableTags)
+    {
+        final MutableAsciiBuffer templateBuffer = new MutableAsciiBuffer(new byte[TEMPLATE_ENCODE_LENGTH]);
+        final long result = encoder.encode(templateBuffer, 0);
+        final int messageOffset = Encoder.offset(result);
+        final int messageEnd = messageOffset + Encoder.length(result);
+
+        // 8=...| is the same for every message, 9=...| is calculated for every message
+        final int beginStringEnd = templateBuffer.scan(messageOffset, messageEnd, SEPARATOR) + 1;
+        beginStringField = new byte[beginStringEnd - messageOffset];
+        templateBuffer.getBytes(messageOffset, beginStringField);
+        final int bodyStart = templateBuffer.scan(beginStringEnd, messageEnd, SEPARATOR) + 1;
+        final int bodyEnd = messageEnd - CHECKSUM_FIELD_LENGTH;
+
+        variableFieldCount = variableTags.length;
+        this.variableTags = new int[variableFieldCount];
+        variableTagHeaders = new byte[variableFieldCount][];
+        variableTagHeaderChecksums = new int[variableFieldCount];
+        segmentOffsets = new int[variableFieldCount + 1];
+        segmentLengths = new int[variableFieldCount + 1];
+        segmentChecksums = new int[variableFieldCount + 1];
+        staticBytes = new UnsafeBuffer(new byte[bodyEnd - bodyStart]);
+
+        int staticLength = 0;
+        int segmentStart = bodyStart;
+        int fieldStart = bodyStart;
+        int variableIndex = 0;
+        while (fieldStart < bodyEnd)
+        {
+            final int equalsIndex = templateBuffer.scan(fieldStart, bodyEnd, EQUALS);
+            final int fieldEnd = templateBuffer.scan(equalsIndex + 1, bodyEnd, SEPARATOR) + 1;
+            final int tag = templateBuffer.getNatural(fieldStart, equalsIndex);
+
+            if (contains(variableTags, tag))
+            {
+                if (contains(this.variableTags, variableIndex, tag))
+                {
+                    throw new IllegalArgumentException("Variable field occurs more than once: " + tag);
+                }
+
+                staticLength = addSegment(
+                    variableIndex, templateBuffer, segmentStart, fieldStart, staticLength);
+
+                final int tagHeaderLength = equalsIndex + 1 - fieldStart;
+                final byte[] tagHeader = new byte[tagHeaderLength];
+                templateBuffer.getBytes(fieldStart, tagHeader);
+                this.variableTags[variableIndex] = tag;
+                variableTagHeaders[variableIndex] = tagHeader;
+                variableTagHeaderChecksums[variableIndex] = templateBuffer.computeChecksum(fieldStart, equalsIndex + 1);
+
+                variableIndex++;
+                segmentStart = fieldEnd;
+            }
+
+            fieldStart = fieldEnd;
+        }
+
+        if (variableIndex != variableFieldCount)
+        {
+            throw new IllegalArgumentException("Not every variable field is set on the encoder");
+        }
+
+        addSegment(variableIndex, templateBuffer, segmentStart, bodyEnd, staticLength);
+    }
+
+    private int addSegment(
+        final int index,
+        final MutableAsciiBuffer templateBuffer,
+        final int start,
+        final int end,
+        final int staticLength)
+    {
+        final int length = end - start;
+        staticBytes.putBytes(staticLength, templateBuffer, start, length);
+        segmentOffsets[index] = staticLength;
+        segmentLengths[index] = length;
+        segmentChecksums[index] = templateBuffer.computeChecksum(start, end);
+        return staticLength + length;
+    }
+
+    private static boolean contains(final int[] tags, final int tag)
+    {
+        return contains(tags, tags.length, tag);
+    }
+
+    private static boolean contains(final int[] tags, final int length, final int tag)
+    {
+        for (int i = 0; i < length; i++)
+        {
+            if (tags[i] == tag)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Gets the number of variable fields in the template.
+     *
+     * @return the number of variable fields in the template.
+     */
+    public int variableFieldCount()
+    {
+        return variableFieldCount;
+    }
+
+    /**
+     * Gets the tag of a variable field, in the order that the values must be written.
+     *
+     * @param index the index of the variable field, from 0 until {@link #variableFieldCount()}.
+     * @return the tag of the variable field.
+     */
+    public int variableTag(final int index)
+    {
+        return variableTags[index];
+    }
+
+    /**
+     * Start encoding a message. The values of each variable field must then be written in order before calling
+     * {@link #finish()}.
+     *
+     * @param buffer the buffer to encode the message to.
+     * @param offset the offset within the buffer to start encoding the message at.
+     * @return this
+     */
+    public MessageTemplate wrap(final MutableAsciiBuffer buffer, final int offset)
+    {
+        this.buffer = buffer;
+        bodyStart = offset + beginStringField.length + BODY_LENGTH_HEADER.length + BODY_LENGTH_RESERVED_LENGTH;
+        position = bodyStart;
+        checksum = 0;
+        nextVariableField = 0;
+        return this;
+    }
+
+    public MessageTemplate putInt(final int value)
+    {
+        startVariableField();
+        final int start = position;
+        position += buffer.putIntAscii(start, value);
+        return endVariableField(start);
+    }
+
+    public MessageTemplate putLong(final long value)
+    {
+        startVariableField();
+        final int start = position;
+        position += buffer.putLongAscii(start, value);
+        return endVariableField(start);
+    }
+
+    public MessageTemplate putFloat(final DecimalFloat value)
+    {
+        startVariableField();
+        final int start = position;
+        position += buffer.putFloatAscii(start, value);
+        return endVariableField(start);
+    }
+
+    public MessageTemplate putChar(final char value)
+    {
+        startVariableField();
+        final int start = position;
+        position += buffer.putCharAscii(start, value);
+        return endVariableField(start);
+    }
+
+    public MessageTemplate putBytes(final byte[] value, final int length)
+    {
+        return putBytes(value, 0, length);
+    }
+
+    public MessageTemplate putBytes(final byte[] value, final int offset, final int length)
+    {
+        startVariableField();
+        final int start = position;
+        buffer.putBytes(start, value, offset, length);
+        position += length;
+        return endVariableField(start);
+    }
+
+    public MessageTemplate putBytes(final DirectBuffer value, final int offset, final int length)
+    {
+        startVariableField();
+        final int start = position;
+        buffer.putBytes(start, value, offset, length);
+        position += length;
+        return endVariableField(start);
+    }
+
+    public MessageTemplate putAscii(final CharSequence value)
+    {
+        startVariableField();
+        final int start = position;
+        final MutableAsciiBuffer buffer = this.buffer;
+        for (int i = 0, length = value.length(); i < length; i++)
+        {
+            buffer.putByte(start + i, (byte)value.charAt(i));
+        }
+        position += value.length();
+        return endVariableField(start);
+    }
+
+    /**
+     * Finish encoding a message, after every variable field has been written.
+     *
+     * @return the offset and length of the encoded message on the buffer packed into a long, see {@link Encoder}.
+     * @throws EncodingException if the values of some variable fields haven't been written.
+     */
+    public long finish()
+    {
+        if (nextVariableField != variableFieldCount)
+        {
+            throw new EncodingException("Missing variable field: " + variableTags[nextVariableField]);
+        }
+
+        putSegment(variableFieldCount);
+
+        final MutableAsciiBuffer buffer = this.buffer;
+        final int bodyStart = this.bodyStart;
+        final int bodyLength = position - bodyStart;
+
+        // 8=...|9=...| is written backwards from the start of the body, as in the generated encoders
+        final int bodyLengthEnd = bodyStart - 1;
+        buffer.putSeparator(bodyLengthEnd);
+        int messageStart = buffer.putNaturalIntAsciiFromEnd(bodyLength, bodyLengthEnd);
+        messageStart -= BODY_LENGTH_HEADER.length;
+        buffer.putBytes(messageStart, BODY_LENGTH_HEADER);
+        messageStart -= beginStringField.length;
+        buffer.putBytes(messageStart, beginStringField);
+
+        final int checkSum = (checksum + buffer.computeChecksum(messageStart, bodyStart)) & 0xFF;
+
+        int position = this.position;
+        buffer.putBytes(position, CHECKSUM_HEADER);
+        position += CHECKSUM_HEADER.length;
+        buffer.putNaturalPaddedIntAscii(position, 3, checkSum);
+        position += 3;
+        buffer.putSeparator(position);
+        position++;
+
+        return Encoder.result(position - messageStart, messageStart);
+    }
+
+    private void startVariableField()
+    {
+        final int index = nextVariableField;
+        if (index == variableFieldCount)
+        {
+            throw new EncodingException("Every variable field has already been written");
+        }
+
+        putSegment(index);
+
+        final byte[] tagHeader = variableTagHeaders[index];
+        buffer.putBytes(position, tagHeader);
+        position += tagHeader.length;
+        checksum += variableTagHeaderChecksums[index];
+    }
+
+    private MessageTemplate endVariableField(final int valueStart)
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+        final int valueEnd = position;
+        checksum += buffer.computeChecksum(valueStart, valueEnd) + SEPARATOR;
+        buffer.putSeparator(valueEnd);
+        position = valueEnd + 1;
+        nextVariableField++;
+        return this;
+    }
+
+    private void putSegment(final int index)
+    {
+        final int length = segmentLengths[index];
+        buffer.putBytes(position, staticBytes, segmentOffsets[index], length);
+        position += length;
+        checksum += segmentChecksums[index];
+    }
+}
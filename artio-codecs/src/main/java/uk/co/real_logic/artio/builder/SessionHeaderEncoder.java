@@ -22,6 +22,8 @@ import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 // The expectation is that every realistic dictionary will have those defined with the right names.
 public interface SessionHeaderEncoder
 {
+    int NO_VALUE_OFFSET = -1;
+
     SessionHeaderEncoder beginString(byte[] value, int length);
 
     SessionHeaderEncoder beginString(byte[] value, int offset, int length);
@@ -168,6 +170,19 @@ public interface SessionHeaderEncoder
 
     long startMessage(MutableAsciiBuffer buffer, int offset);
 
+    // Offsets within the buffer of the values written for these fields by the last call to startMessage,
+    // or NO_VALUE_OFFSET if they weren't written. Generated encoders override these, the defaults keep encoders
+    // from older generators and hand-written implementations compiling and their fields are found by parsing.
+    default int sendingTimeValueOffset()
+    {
+        return NO_VALUE_OFFSET;
+    }
+
+    default int possDupFlagValueOffset()
+    {
+        return NO_VALUE_OFFSET;
+    }
+
     SessionHeaderEncoder msgType(CharSequence value);
 
     SessionHeaderEncoder msgType(DirectBuffer value);
@@ -45,12 +45,19 @@ public class CodecConfiguration
     public static final String FIX_CODECS_ALLOW_DUPLICATE_FIELDS_PROPERTY = "fix.codecs.allow_duplicate_fields";
     public static final String PARENT_PACKAGE_PROPERTY = "fix.codecs.parent_package";
     public static final String FLYWEIGHTS_ENABLED_PROPERTY = "fix.codecs.flyweight";
+    /**
+     * Boolean system property to cache the values of fields in flyweight decoders the first time that they're
+     * accessed, rather than converting them from the underlying buffer on every access. Only has an effect if
+     * {@link #FLYWEIGHTS_ENABLED_PROPERTY} is also set. Defaults to false.
+     */
+    public static final String FLYWEIGHT_CACHING_ENABLED_PROPERTY = "fix.codecs.flyweight_caching";
     public static final String REJECT_UNKNOWN_ENUM_VALUE_PROPERTY = "reject.unknown.enum.value";
 
     public static final String DEFAULT_PARENT_PACKAGE = "uk.co.real_logic.artio";
 
     private String parentPackage = System.getProperty(PARENT_PACKAGE_PROPERTY, DEFAULT_PARENT_PACKAGE);
     private boolean flyweightsEnabled = Boolean.getBoolean(FLYWEIGHTS_ENABLED_PROPERTY);
+    private boolean flyweightCachingEnabled = Boolean.getBoolean(FLYWEIGHT_CACHING_ENABLED_PROPERTY);
     private boolean allowDuplicateFields = Boolean.getBoolean(FIX_CODECS_ALLOW_DUPLICATE_FIELDS_PROPERTY);
 
     private String codecRejectUnknownEnumValueEnabled;
@@ -80,6 +87,12 @@ public class CodecConfiguration
         return this;
     }
 
+    public CodecConfiguration flyweightCachingEnabled(final boolean flyweightCachingEnabled)
+    {
+        this.flyweightCachingEnabled = flyweightCachingEnabled;
+        return this;
+    }
+
     public CodecConfiguration allowDuplicateFields(final boolean allowDuplicateFields)
     {
         this.allowDuplicateFields = allowDuplicateFields;
@@ -134,6 +147,11 @@ public class CodecConfiguration
         return flyweightsEnabled;
     }
 
+    public boolean flyweightCachingEnabled()
+    {
+        return flyweightCachingEnabled;
+    }
+
     public boolean allowDuplicateFields()
     {
         return allowDuplicateFields;
@@ -105,6 +105,7 @@ public final class CodecGenerator
                     RejectUnknownField.class,
                     RejectUnknownEnumValue.class,
                     true,
+                    configuration.flyweightCachingEnabled(),
                     codecRejectUnknownEnumValueEnabled).generate();
             }
         }
@@ -111,6 +111,7 @@ class DecoderGenerator extends Generator
 
     private final int initialBufferSize;
     private final String encoderPackage;
+    private final boolean flyweightCachingEnabled;
 
     DecoderGenerator(
         final Dictionary dictionary,
@@ -124,11 +125,31 @@ class DecoderGenerator extends Generator
         final Class<?> rejectUnknownEnumValueClass,
         final boolean flyweightsEnabled,
         final String codecRejectUnknownEnumValueEnabled)
+    {
+        this(dictionary, initialBufferSize, thisPackage, commonPackage, encoderPackage, outputManager,
+            validationClass, rejectUnknownFieldClass, rejectUnknownEnumValueClass, flyweightsEnabled, false,
+            codecRejectUnknownEnumValueEnabled);
+    }
+
+    DecoderGenerator(
+        final Dictionary dictionary,
+        final int initialBufferSize,
+        final String thisPackage,
+        final String commonPackage,
+        final String encoderPackage,
+        final OutputManager outputManager,
+        final Class<?> validationClass,
+        final Class<?> rejectUnknownFieldClass,
+        final Class<?> rejectUnknownEnumValueClass,
+        final boolean flyweightsEnabled,
+        final boolean flyweightCachingEnabled,
+        final String codecRejectUnknownEnumValueEnabled)
     {
         super(dictionary, thisPackage, commonPackage, outputManager, validationClass, rejectUnknownFieldClass,
             rejectUnknownEnumValueClass, flyweightsEnabled, codecRejectUnknownEnumValueEnabled);
         this.initialBufferSize = initialBufferSize;
         this.encoderPackage = encoderPackage;
+        this.flyweightCachingEnabled = flyweightsEnabled && flyweightCachingEnabled;
     }
 
     public void generate()
@@ -390,7 +411,8 @@ class DecoderGenerator extends Generator
             "        {\n" +
             "            invalidTagId = Decoder.NO_ERROR;\n" +
             "            rejectReason = Decoder.NO_ERROR;\n" +
-            "            missingRequiredFields.clear();\n" +
+            // Nothing is reported as missing after a reset
+            "            System.arraycopy(requiredFieldBits, 0, visitedFieldBits, 0, visitedFieldBits.length);\n" +
             (isGroup ? "" :
                 "            unknownFields.clear();\n" +
                 "            alreadyVisitedFields.clear();\n") +
@@ -452,9 +474,9 @@ class DecoderGenerator extends Generator
 
         out.append(String.format(
             (isGroup ? generateAllGroupFields(aggregate) :
-            "    private final IntHashSet alreadyVisitedFields = new IntHashSet(%5$d);\n\n" +
+            "    private final IntHashSet alreadyVisitedFields = new IntHashSet(%4$d);\n\n" +
             "    private final IntHashSet unknownFields = new IntHashSet(10);\n\n") +
-            "    private final IntHashSet missingRequiredFields = new IntHashSet(%1$d);\n\n" +
+            "%5$s" +
             "    private int invalidTagId = Decoder.NO_ERROR;\n\n" +
             "    public int invalidTagId()\n" +
             "    {\n" +
@@ -472,24 +494,107 @@ class DecoderGenerator extends Generator
             "        {\n" +
             "            return false;\n" +
             "        }\n" +
-            "        final IntIterator missingFieldsIterator = missingRequiredFields.iterator();\n" +
+            "        final int missingRequiredTag = missingRequiredTag();\n" +
             (isMessage ? "        final IntIterator unknownFieldsIterator = unknownFields.iterator();\n" : "") +
-            "%2$s" +
-            "        if (missingFieldsIterator.hasNext())\n" +
+            "%1$s" +
+            "        if (missingRequiredTag != Decoder.NO_ERROR)\n" +
             "        {\n" +
-            "            invalidTagId = missingFieldsIterator.nextValue();\n" +
+            "            invalidTagId = missingRequiredTag;\n" +
             "            rejectReason = " + REQUIRED_TAG_MISSING + ";\n" +
             "            return false;\n" +
             "        }\n" +
+            "%2$s" +
             "%3$s" +
-            "%4$s" +
             "        return true;\n" +
             "    }\n\n",
-            sizeHashSet(requiredFields),
             messageValidation,
             enumValidation,
             groupValidation,
-            2 * aggregate.allFieldsIncludingComponents().count()));
+            2 * aggregate.allFieldsIncludingComponents().count(),
+            generateFieldBitsets(aggregate, requiredFields)));
+    }
+
+    // Validation tracks the fields that the decode method has a case for in bitsets, indexed by a dense ordinal
+    // for each field. Other tags, for example unknown fields, are tracked in the alreadyVisitedFields set.
+    private String generateFieldBitsets(final Aggregate aggregate, final List<Field> requiredFields)
+    {
+        final List<Field> decodedFields = decodedFields(aggregate.entries()).distinct().collect(toList());
+        final int fieldCount = decodedFields.size();
+        final int wordCount = (fieldCount + Long.SIZE - 1) / Long.SIZE;
+
+        final long[] requiredFieldBits = new long[wordCount];
+        final StringBuilder ordinalCases = new StringBuilder();
+        for (int ordinal = 0; ordinal < fieldCount; ordinal++)
+        {
+            final Field field = decodedFields.get(ordinal);
+            if (requiredFields.contains(field))
+            {
+                requiredFieldBits[ordinal / Long.SIZE] |= 1L << ordinal;
+            }
+
+            ordinalCases.append(String.format(
+                "        case Constants.%1$s:\n" +
+                "            return %2$d;\n",
+                constantName(field.name()),
+                ordinal));
+        }
+
+        final String fieldOrdinalTags = decodedFields
+            .stream()
+            .map(field -> "Constants." + constantName(field.name()))
+            .collect(joining(", "));
+        final String requiredFieldBitValues = Arrays
+            .stream(requiredFieldBits)
+            .mapToObj(bits -> String.format("0x%XL", bits))
+            .collect(joining(", "));
+
+        return String.format(
+            "    private static final int NO_FIELD_ORDINAL = -1;\n\n" +
+            "    private final int[] fieldOrdinalTags = { %1$s };\n\n" +
+            "    private final long[] requiredFieldBits = { %2$s };\n\n" +
+            "    private final long[] visitedFieldBits = new long[%3$d];\n\n" +
+            "    private int fieldOrdinal(final int tag)\n" +
+            "    {\n" +
+            "        switch (tag)\n" +
+            "        {\n" +
+            "%4$s" +
+            "        default:\n" +
+            "            return NO_FIELD_ORDINAL;\n" +
+            "        }\n" +
+            "    }\n\n" +
+            "    private int missingRequiredTag()\n" +
+            "    {\n" +
+            "        final long[] visitedFieldBits = this.visitedFieldBits;\n" +
+            "        for (int i = 0; i < visitedFieldBits.length; i++)\n" +
+            "        {\n" +
+            "            final long missingFieldBits = requiredFieldBits[i] & ~visitedFieldBits[i];\n" +
+            "            if (missingFieldBits != 0)\n" +
+            "            {\n" +
+            "                return fieldOrdinalTags[i * 64 + Long.numberOfTrailingZeros(missingFieldBits)];\n" +
+            "            }\n" +
+            "        }\n" +
+            "        return Decoder.NO_ERROR;\n" +
+            "    }\n\n",
+            fieldOrdinalTags,
+            requiredFieldBitValues,
+            wordCount,
+            ordinalCases);
+    }
+
+    // The fields that have a case in the switch statement of the decode method
+    private Stream<Field> decodedFields(final List<Entry> entries)
+    {
+        return entries
+            .stream()
+            .flatMap(this::extractDecodedFields);
+    }
+
+    private Stream<Field> extractDecodedFields(final Entry entry)
+    {
+        return entry.match(
+            (e, field) -> Stream.of(field),
+            (e, group) -> Stream.of((Field)group.numberField().element()),
+            (e, component) -> decodedFields(component.entries()));
     }
 
     private String generateAllGroupFields(final Aggregate groupAggregate)
@@ -1096,7 +1201,7 @@ class DecoderGenerator extends Generator
             javaTypeOf(type),
             fieldName,
             fieldInitialisation(type),
-            hasField(entry),
+            hasField(entry) + cachedField(type, fieldName),
             optionalCheck,
             optionalGetter(entry),
             offsetField,
@@ -1104,6 +1209,18 @@ class DecoderGenerator extends Generator
             flyweightsEnabled ? lazyInitialisation : "");
     }
 
+    // When caching flyweight values, each lazily decoded field has a flag for whether its value has been decoded
+    // from the buffer since the field was last parsed.
+    private boolean hasCachedValue(final Type type)
+    {
+        return flyweightCachingEnabled && type.hasOffsetField(true) && !type.isDataBased();
+    }
+
+    private String cachedField(final Type type, final String fieldName)
+    {
+        return hasCachedValue(type) ? String.format("    private boolean %1$sCached;\n\n", fieldName) : "";
+    }
+
     private String generateAsStringBody(final Entry entry, final String name, final String fieldName)
     {
         final String asStringBody;
@@ -1127,7 +1244,7 @@ class DecoderGenerator extends Generator
         return asStringBody;
     }
 
-    private static String fieldLazyInstantialisation(final Field field, final String fieldName)
+    private String fieldLazyInstantialisation(final Field field, final String fieldName)
     {
         final String decodeMethod;
         switch (field.type())
@@ -1193,6 +1310,18 @@ class DecoderGenerator extends Generator
                 return "";
         }
 
+        if (hasCachedValue(field.type()))
+        {
+            return String.format(
+                "        if (!%1$sCached && buffer != null && %1$sLength > 0)\n" +
+                "        {\n" +
+                "            %1$s = %2$s;\n" +
+                "            %1$sCached = true;\n" +
+                "        }\n",
+                fieldName,
+                decodeMethod);
+        }
+
         return String.format(
             "        if (buffer != null && %1$sLength > 0)\n" +
             "        {\n" +
@@ -1352,7 +1481,11 @@ class DecoderGenerator extends Generator
             "        int seenFieldCount = 0;\n" +
             "        if (" + CODEC_VALIDATION_ENABLED + ")\n" +
             "        {\n" +
-            "            missingRequiredFields.copy(" + REQUIRED_FIELDS + ");\n" +
+            "            final long[] visitedFieldBits = this.visitedFieldBits;\n" +
+            "            for (int i = 0; i < visitedFieldBits.length; i++)\n" +
+            "            {\n" +
+            "                visitedFieldBits[i] = 0;\n" +
+            "            }\n" +
             (isGroup ? "" : "            alreadyVisitedFields.clear();\n") +
             "        }\n" +
             "        this.buffer = buffer;\n" +
@@ -1387,14 +1520,25 @@ class DecoderGenerator extends Generator
             "                    rejectReason = " + TAG_SPECIFIED_WITHOUT_A_VALUE + ";\n" +
             "                }\n" +
             headerValidation(isHeader) +
+            "                final int fieldOrdinal = fieldOrdinal(tag);\n" +
+            "                if (fieldOrdinal != NO_FIELD_ORDINAL)\n" +
+            "                {\n" +
+            "                    final long fieldBit = 1L << fieldOrdinal;\n" +
+            "                    final int fieldWord = fieldOrdinal >> 6;\n" +
             (isGroup ? "" :
-            "                if (!alreadyVisitedFields.add(tag))\n" +
+            "                    if ((visitedFieldBits[fieldWord] & fieldBit) != 0)\n" +
+            "                    {\n" +
+            "                        invalidTagId = tag;\n" +
+            "                        rejectReason = " + TAG_APPEARS_MORE_THAN_ONCE + ";\n" +
+            "                    }\n") +
+            "                    visitedFieldBits[fieldWord] |= fieldBit;\n" +
+            "                }\n" +
+            (isGroup ? "" :
+            "                else if (!alreadyVisitedFields.add(tag))\n" +
             "                {\n" +
             "                    invalidTagId = tag;\n" +
             "                    rejectReason = " + TAG_APPEARS_MORE_THAN_ONCE + ";\n" +
             "                }\n") +
-
-            "                missingRequiredFields.remove(tag);\n" +
             "                seenFieldCount++;\n" +
             "            }\n\n" +
             "            switch (tag)\n" +
@@ -1627,6 +1771,14 @@ class DecoderGenerator extends Generator
 
     private String storeOffsetForVariableLengthFields(final Type type, final String fieldName)
     {
+        if (hasCachedValue(type))
+        {
+            return String.format(
+                "                %1$sOffset = valueOffset;\n" +
+                "                %1$sCached = false;\n",
+                fieldName);
+        }
+
         return type.hasOffsetField(flyweightsEnabled) ?
             String.format("                %sOffset = valueOffset;\n", fieldName) :
             "";
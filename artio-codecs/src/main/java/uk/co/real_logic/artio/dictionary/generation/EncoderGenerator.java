@@ -115,7 +115,29 @@ class EncoderGenerator extends Generator
         "    public long startMessage(final MutableAsciiBuffer buffer, final int offset)\n" +
         "    {\n" +
         "        final int start = offset + beginStringLength + 16;\n" +
-        "        int position = start;";
+        "        int position = start;\n" +
+        "        sendingTimeValueOffset = NO_VALUE_OFFSET;\n" +
+        "        possDupFlagValueOffset = NO_VALUE_OFFSET;";
+
+    private static final String HEADER_VALUE_OFFSETS =
+        "    private int sendingTimeValueOffset = NO_VALUE_OFFSET;\n" +
+        "    private int possDupFlagValueOffset = NO_VALUE_OFFSET;\n" +
+        "\n" +
+        "    public int sendingTimeValueOffset()\n" +
+        "    {\n" +
+        "        return sendingTimeValueOffset;\n" +
+        "    }\n" +
+        "\n" +
+        "    public int possDupFlagValueOffset()\n" +
+        "    {\n" +
+        "        return possDupFlagValueOffset;\n" +
+        "    }\n" +
+        "\n";
+
+    // Header fields whose value offsets are recorded when they're encoded, see SessionHeaderEncoder
+    private static final Set<String> HEADER_FIELDS_WITH_VALUE_OFFSETS = new HashSet<>(Arrays.asList(
+        "SendingTime",
+        "PossDupFlag"));
 
     private static final String GROUP_ENCODE_PREFIX =
         "    public int encode(final MutableAsciiBuffer buffer, final int offset, final int remainingElements)\n" +
@@ -282,6 +304,7 @@ class EncoderGenerator extends Generator
                 "    private static final byte[] DEFAULT_BEGIN_STRING=\"%s\".getBytes(StandardCharsets.US_ASCII);" +
                 "\n\n",
                 beginString));
+            out.append(HEADER_VALUE_OFFSETS);
         }
 
         precomputedHeaders(out, aggregate.entries());
@@ -828,7 +851,7 @@ class EncoderGenerator extends Generator
         }
 
         final String body = entries.stream()
-            .map(this::encodeEntry)
+            .map(entry -> encodeEntry(entry, aggregateType))
             .collect(joining("\n"));
 
         String suffix;
@@ -873,7 +896,7 @@ class EncoderGenerator extends Generator
         return prefix + body + suffix;
     }
 
-    private String encodeEntry(final Entry entry)
+    private String encodeEntry(final Entry entry, final AggregateType aggregateType)
     {
         if (isBodyLength(entry) || isBeginString(entry) || isCheckSum(entry))
         {
@@ -881,11 +904,18 @@ class EncoderGenerator extends Generator
         }
         else
         {
-            return entry.matchEntry(this::encodeField, this::encodeGroup, this::encodeComponent);
+            final boolean isHeader = aggregateType == HEADER;
+            return entry.matchEntry(
+                field -> encodeField(field, isHeader), this::encodeGroup, this::encodeComponent);
         }
     }
 
     private String encodeField(final Entry entry)
+    {
+        return encodeField(entry, false);
+    }
+
+    private String encodeField(final Entry entry, final boolean isHeader)
     {
         final Element element = entry.element();
         final Field field = (Field)element;
@@ -916,8 +946,12 @@ class EncoderGenerator extends Generator
         }
 
         final String enablingSuffix = enablingSuffix(name, mustCheckFlag, mustCheckLength, needsMissingThrow);
-        final String tag = formatTag(fieldName, enablingPrefix);
         final String indent = indent(needsIndent);
+        String tag = formatTag(fieldName, enablingPrefix);
+        if (isHeader && HEADER_FIELDS_WITH_VALUE_OFFSETS.contains(name))
+        {
+            tag += String.format("%1$s        %2$sValueOffset = position;\n", indent, fieldName);
+        }
         switch (type)
         {
             case INT:
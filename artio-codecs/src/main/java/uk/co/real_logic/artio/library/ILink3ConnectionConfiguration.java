@@ -34,6 +34,7 @@ import static java.lang.Long.parseLong;
 public final class ILink3ConnectionConfiguration
 {
     public static final int DEFAULT_MAX_RETRANSMIT_QUEUE_SIZE = 1024 * 1024 * 128;
+    public static final int DEFAULT_RETRANSMIT_QUEUE_SEGMENT_SIZE = 64 * 1024;
     public static final int DEFAULT_REQUESTED_KEEP_ALIVE_INTERVAL = 10_000;
     public static final int DEFAULT_RETRANSMIT_TIMEOUT_IN_MS = 30_000;
     public static final int KEEP_ALIVE_INTERVAL_MAX_VALUE = 65534;
@@ -69,6 +70,9 @@ public final class ILink3ConnectionConfiguration
     private final boolean useBackupHost;
     private final String backupHost;
     private final int maxRetransmitQueueSize;
+    private final int retransmitQueueSegmentSize;
+    private final int maxInMemoryRetransmitQueueSize;
+    private final String retransmitQueueSpillDirectory;
     private final int retransmitNotificationTimeoutInMs;
 
     /**
@@ -208,6 +212,21 @@ public final class ILink3ConnectionConfiguration
         return maxRetransmitQueueSize;
     }
 
+    public int retransmitQueueSegmentSize()
+    {
+        return retransmitQueueSegmentSize;
+    }
+
+    public int maxInMemoryRetransmitQueueSize()
+    {
+        return maxInMemoryRetransmitQueueSize;
+    }
+
+    public String retransmitQueueSpillDirectory()
+    {
+        return retransmitQueueSpillDirectory;
+    }
+
     public int retransmitNotificationTimeoutInMs()
     {
         return retransmitNotificationTimeoutInMs;
@@ -249,6 +268,18 @@ public final class ILink3ConnectionConfiguration
                 "maxRetransmitQueueSize must be positive, but is: " + maxRetransmitQueueSize);
         }
 
+        if (retransmitQueueSegmentSize <= 0)
+        {
+            throw new IllegalArgumentException(
+                "retransmitQueueSegmentSize must be positive, but is: " + retransmitQueueSegmentSize);
+        }
+
+        if (maxInMemoryRetransmitQueueSize <= 0)
+        {
+            throw new IllegalArgumentException(
+                "maxInMemoryRetransmitQueueSize must be positive, but is: " + maxInMemoryRetransmitQueueSize);
+        }
+
         if (retransmitNotificationTimeoutInMs <= 0)
         {
             throw new IllegalArgumentException(
@@ -271,6 +302,9 @@ public final class ILink3ConnectionConfiguration
             ", accessKeyId=" + accessKeyId +
             ", handler=" + handler +
             ", maxRetransmitQueueSize=" + maxRetransmitQueueSize +
+            ", retransmitQueueSegmentSize=" + retransmitQueueSegmentSize +
+            ", maxInMemoryRetransmitQueueSize=" + maxInMemoryRetransmitQueueSize +
+            ", retransmitQueueSpillDirectory='" + retransmitQueueSpillDirectory + '\'' +
             ", retransmitNotificationTimeoutInMs=" + retransmitNotificationTimeoutInMs +
             '}';
     }
@@ -293,6 +327,9 @@ public final class ILink3ConnectionConfiguration
         final boolean useBackupHost,
         final String backupHost,
         final int maxRetransmitQueueSize,
+        final int retransmitQueueSegmentSize,
+        final int maxInMemoryRetransmitQueueSize,
+        final String retransmitQueueSpillDirectory,
         final int retransmitNotificationTimeoutInMs)
     {
         this.host = host;
@@ -313,6 +350,9 @@ public final class ILink3ConnectionConfiguration
         this.useBackupHost = useBackupHost;
         this.backupHost = backupHost;
         this.maxRetransmitQueueSize = maxRetransmitQueueSize;
+        this.retransmitQueueSegmentSize = retransmitQueueSegmentSize;
+        this.maxInMemoryRetransmitQueueSize = maxInMemoryRetransmitQueueSize;
+        this.retransmitQueueSpillDirectory = retransmitQueueSpillDirectory;
         this.retransmitNotificationTimeoutInMs = retransmitNotificationTimeoutInMs;
 
         validate();
@@ -337,6 +377,9 @@ public final class ILink3ConnectionConfiguration
         private boolean useBackupHost;
         private String backupHost;
         private int maxRetransmitQueueSize = DEFAULT_MAX_RETRANSMIT_QUEUE_SIZE;
+        private int retransmitQueueSegmentSize = DEFAULT_RETRANSMIT_QUEUE_SEGMENT_SIZE;
+        private int maxInMemoryRetransmitQueueSize = DEFAULT_MAX_RETRANSMIT_QUEUE_SIZE;
+        private String retransmitQueueSpillDirectory;
         private int retransmitNotificationTimeoutInMs = DEFAULT_RETRANSMIT_TIMEOUT_IN_MS;
 
         public ILink3ConnectionConfiguration build()
@@ -359,6 +402,9 @@ public final class ILink3ConnectionConfiguration
                 useBackupHost,
                 backupHost,
                 maxRetransmitQueueSize,
+                retransmitQueueSegmentSize,
+                maxInMemoryRetransmitQueueSize,
+                retransmitQueueSpillDirectory,
                 retransmitNotificationTimeoutInMs);
         }
 
@@ -579,9 +625,9 @@ public final class ILink3ConnectionConfiguration
         }
 
         /**
-         * Sets the maximum size for the retransmit queue. This is an in-memory on heap buffer that is used to queue
+         * Sets the maximum size for the retransmit queue. This is an off-heap buffer that is used to queue
          * received messages from a server that were sent out of order whilst a retransmit is occurring. The maximum
-         * allows users to stop OOME from occuring in the case of large retransmits.
+         * allows users to stop running out of memory in the case of large retransmits.
          *
          * @param maxRetransmitQueueSize the maximum size for the retransmit queue.
          * @return this
@@ -592,6 +638,36 @@ public final class ILink3ConnectionConfiguration
             return this;
         }
 
+        /**
+         * Sets the size of the segments that the retransmit queue is allocated in. Memory is only allocated for the
+         * retransmit queue a segment at a time as messages are queued.
+         *
+         * @param retransmitQueueSegmentSize the size of the segments that the retransmit queue is allocated in.
+         * @return this
+         */
+        public Builder retransmitQueueSegmentSizeInBytes(final int retransmitQueueSegmentSize)
+        {
+            this.retransmitQueueSegmentSize = retransmitQueueSegmentSize;
+            return this;
+        }
+
+        /**
+         * Sets a directory that the retransmit queue spills into once the in-memory part of the queue has reached
+         * its maximum size. Spilled segments are memory mapped from files in this directory which are deleted once
+         * the segment has been processed. By default the retransmit queue doesn't spill.
+         *
+         * @param retransmitQueueSpillDirectory the directory that the retransmit queue spills into.
+         * @param maxInMemoryRetransmitQueueSize the maximum size of the in-memory part of the retransmit queue.
+         * @return this
+         */
+        public Builder retransmitQueueSpill(
+            final String retransmitQueueSpillDirectory, final int maxInMemoryRetransmitQueueSize)
+        {
+            this.retransmitQueueSpillDirectory = retransmitQueueSpillDirectory;
+            this.maxInMemoryRetransmitQueueSize = maxInMemoryRetransmitQueueSize;
+            return this;
+        }
+
         /**
          * Sets a timeout used in retransmit operations. The timeout is started when a retransmit request is sent. If
          * this timeout is breached then the {@link ILink3ConnectionHandler#onRetransmitTimeout(ILink3Connection)}
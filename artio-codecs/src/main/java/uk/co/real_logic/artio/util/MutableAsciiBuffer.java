@@ -19,12 +19,13 @@ import org.agrona.AsciiNumberFormatException;
 import org.agrona.DirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.artio.fields.*;
-import uk.co.real_logic.artio.util.float_parsing.AsciiBufferCharReader;
 import uk.co.real_logic.artio.util.float_parsing.DecimalFloatParser;
 
 import java.nio.ByteBuffer;
 
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
 import static uk.co.real_logic.artio.dictionary.generation.CodecUtil.MISSING_INT;
 
 public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffer
@@ -34,6 +35,20 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
 
     private static final byte Y = (byte)'Y';
     private static final byte N = (byte)'N';
+    private static final byte MINUS = (byte)'-';
+
+    // Constants for the word at a time (SWAR) operations, which process 8 bytes of the buffer within a long.
+    private static final long EVERY_BYTE_ONE = 0x0101010101010101L;
+    private static final long EVERY_BYTE_LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long EVERY_BYTE_HIGH_BIT = 0x8080808080808080L;
+    private static final long EVERY_BYTE_HIGH_NIBBLE = 0xF0F0F0F0F0F0F0F0L;
+    private static final long EVERY_BYTE_ZERO_DIGIT = 0x3030303030303030L;
+    private static final long EVERY_BYTE_SIX = 0x0606060606060606L;
+    private static final long EVERY_OTHER_BYTE = 0x00FF00FF00FF00FFL;
+    private static final long EVERY_SHORT_ONE = 0x0001000100010001L;
+    private static final long EVERY_OTHER_INT_LOW_BYTE = 0x000000FF000000FFL;
+
+    private static final long NOT_EIGHT_DIGITS = -1;
 
     public MutableAsciiBuffer()
     {
@@ -77,6 +92,12 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
 
     public int getNatural(final int startInclusive, final int endExclusive)
     {
+        final long value = getEightDigits(startInclusive, endExclusive);
+        if (value != NOT_EIGHT_DIGITS)
+        {
+            return (int)value;
+        }
+
         return super.parseNaturalIntAscii(startInclusive, endExclusive - startInclusive);
     }
 
@@ -94,9 +115,49 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
             return MISSING_INT;
         }
 
+        final boolean negative = getByte(startInclusive) == MINUS;
+        final long value = getEightDigits(negative ? startInclusive + 1 : startInclusive, endExclusive);
+        if (value != NOT_EIGHT_DIGITS)
+        {
+            return negative ? (int)-value : (int)value;
+        }
+
         return super.parseIntAscii(startInclusive, length);
     }
 
+    // Parses up to 8 digits in a single word, returns NOT_EIGHT_DIGITS if the slow path needs to handle the value,
+    // for example due to being too long or not being a valid number.
+    private long getEightDigits(final int startInclusive, final int endExclusive)
+    {
+        final int length = endExclusive - startInclusive;
+        final int wordOffset = endExclusive - SIZE_OF_LONG;
+        if (length <= 0 || length > SIZE_OF_LONG || wordOffset < 0)
+        {
+            return NOT_EIGHT_DIGITS;
+        }
+
+        // The number is in the most significant bytes of the word, pad the bytes before it with zero digits
+        final long word = getLong(wordOffset, LITTLE_ENDIAN);
+        final int paddingBits = (SIZE_OF_LONG - length) << 3;
+        final long digits = paddingBits == 0 ? word :
+            (word & (-1L << paddingBits)) | (EVERY_BYTE_ZERO_DIGIT >>> (Long.SIZE - paddingBits));
+
+        // Every byte must be within '0' to '9'
+        if ((digits & EVERY_BYTE_HIGH_NIBBLE) != EVERY_BYTE_ZERO_DIGIT ||
+            ((digits + EVERY_BYTE_SIX) & EVERY_BYTE_HIGH_NIBBLE) != EVERY_BYTE_ZERO_DIGIT)
+        {
+            return NOT_EIGHT_DIGITS;
+        }
+
+        // Combine adjacent digits, then pairs of pairs and so on
+        long value = digits - EVERY_BYTE_ZERO_DIGIT;
+        value = (value * 10) + (value >>> 8);
+        value = (((value & EVERY_OTHER_INT_LOW_BYTE) * (100 + (1000000L << 32))) +
+            (((value >>> 16) & EVERY_OTHER_INT_LOW_BYTE) * (1 + (10000L << 32)))) >>> 32;
+
+        return value;
+    }
+
     public int getDigit(final int index)
     {
         final byte value = getByte(index);
@@ -168,7 +229,7 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
     @SuppressWarnings("FinalParameters")
     public DecimalFloat getFloat(final DecimalFloat number, int offset, int length)
     {
-        return DecimalFloatParser.extract(number, AsciiBufferCharReader.INSTANCE, this, offset, length);
+        return DecimalFloatParser.extract(number, this, offset, length);
     }
 
     public int getLocalMktDate(final int offset, final int length)
@@ -198,7 +259,18 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
 
     public int scanBack(final int startInclusive, final int endExclusive, final byte terminator)
     {
-        for (int index = startInclusive; index > endExclusive; index--)
+        final long pattern = EVERY_BYTE_ONE * (terminator & 0xFF);
+        int index = startInclusive;
+        for (final int lastWordIndex = endExclusive + SIZE_OF_LONG; index >= lastWordIndex; index -= SIZE_OF_LONG)
+        {
+            final long matches = matchingBytes(getLong(index - (SIZE_OF_LONG - 1), LITTLE_ENDIAN), pattern);
+            if (matches != 0)
+            {
+                return index - (Long.numberOfLeadingZeros(matches) >>> 3);
+            }
+        }
+
+        for (; index > endExclusive; index--)
         {
             final byte value = getByte(index);
             if (value == terminator)
@@ -217,24 +289,48 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
 
     public int scan(final int startInclusive, final int endExclusive, final byte terminator)
     {
-        int indexValue = UNKNOWN_INDEX;
-        for (int i = startInclusive; i < endExclusive; i++)
+        final long pattern = EVERY_BYTE_ONE * (terminator & 0xFF);
+        int index = startInclusive;
+        for (final int lastWordIndex = endExclusive - SIZE_OF_LONG; index <= lastWordIndex; index += SIZE_OF_LONG)
         {
-            final byte value = getByte(i);
-            if (value == terminator)
+            final long matches = matchingBytes(getLong(index, LITTLE_ENDIAN), pattern);
+            if (matches != 0)
             {
-                indexValue = i;
-                break;
+                return index + (Long.numberOfTrailingZeros(matches) >>> 3);
+            }
+        }
+
+        for (; index < endExclusive; index++)
+        {
+            if (getByte(index) == terminator)
+            {
+                return index;
             }
         }
 
-        return indexValue;
+        return UNKNOWN_INDEX;
+    }
+
+    // Sets the high bit of every byte in the word that equals the corresponding byte in the pattern, and no other bits.
+    private static long matchingBytes(final long word, final long pattern)
+    {
+        final long difference = word ^ pattern;
+        return ~(((difference & EVERY_BYTE_LOW_SEVEN_BITS) + EVERY_BYTE_LOW_SEVEN_BITS) |
+            difference | EVERY_BYTE_LOW_SEVEN_BITS);
     }
 
     public int computeChecksum(final int startInclusive, final int endExclusive)
     {
         int total = 0;
-        for (int index = startInclusive; index < endExclusive; index++)
+        int index = startInclusive;
+        for (final int lastWordIndex = endExclusive - SIZE_OF_LONG; index <= lastWordIndex; index += SIZE_OF_LONG)
+        {
+            // Bytes are summed as signed values, so subtract 256 for each one with its high bit set
+            final long word = getLong(index);
+            total += unsignedByteSum(word) - (Long.bitCount(word & EVERY_BYTE_HIGH_BIT) << 8);
+        }
+
+        for (; index < endExclusive; index++)
         {
             total += getByte(index);
         }
@@ -242,6 +338,13 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
         return total % 256;
     }
 
+    private static int unsignedByteSum(final long word)
+    {
+        // Add adjacent bytes into 4 shorts, then sum the shorts into the most significant one
+        final long shorts = (word & EVERY_OTHER_BYTE) + ((word >>> 8) & EVERY_OTHER_BYTE);
+        return (int)((shorts * EVERY_SHORT_ONE) >>> 48);
+    }
+
     public int putAscii(final int index, final String string)
     {
         final byte[] bytes = string.getBytes(US_ASCII);
@@ -2,7 +2,9 @@ package uk.co.real_logic.artio.util.float_parsing;
 
 
 import uk.co.real_logic.artio.fields.DecimalFloat;
+import uk.co.real_logic.artio.util.AsciiBuffer;
 
+import static uk.co.real_logic.artio.util.PowerOf10.HIGHEST_POWER_OF_TEN;
 import static uk.co.real_logic.artio.util.PowerOf10.pow10;
 
 public final class DecimalFloatParser
@@ -11,6 +13,64 @@ public final class DecimalFloatParser
     private static final char PLUS = '+';
     private static final char MINUS = '-';
     private static final byte DOT = '.';
+    private static final byte ZERO = '0';
+    private static final int NO_DOT = -1;
+
+    /**
+     * Parses a decimal float from an ascii buffer. Numbers of the form <code>[-]digits[.digits]</code>, which is how
+     * prices and quantities are almost always formatted, are parsed in a single pass over the buffer. Anything else,
+     * for example padded numbers, scientific notation or invalid input, is parsed by
+     * {@link #extract(DecimalFloat, CharReader, Object, int, int)}.
+     *
+     * @param number the decimal float to set.
+     * @param buffer the buffer to parse the number from.
+     * @param offset the offset of the number within the buffer.
+     * @param length the length of the number.
+     * @return number
+     */
+    public static DecimalFloat extract(
+        final DecimalFloat number,
+        final AsciiBuffer buffer,
+        final int offset,
+        final int length)
+    {
+        // At most HIGHEST_POWER_OF_TEN digits can't overflow a long
+        if (length <= 0 || length > HIGHEST_POWER_OF_TEN)
+        {
+            return extract(number, AsciiBufferCharReader.INSTANCE, buffer, offset, length);
+        }
+
+        final int end = offset + length;
+        int index = offset;
+        final boolean negative = buffer.getByte(index) == MINUS;
+        if (negative)
+        {
+            index++;
+        }
+
+        long value = 0;
+        int dotIndex = NO_DOT;
+        for (; index < end; index++)
+        {
+            final byte byteValue = buffer.getByte(index);
+            final int digit = byteValue - ZERO;
+            if (digit >= 0 && digit <= 9)
+            {
+                value = value * 10 + digit;
+            }
+            else if (byteValue == DOT && dotIndex == NO_DOT)
+            {
+                dotIndex = index;
+            }
+            else
+            {
+                return extract(number, AsciiBufferCharReader.INSTANCE, buffer, offset, length);
+            }
+        }
+
+        final int scale = dotIndex == NO_DOT ? 0 : end - (dotIndex + 1);
+        return number.set(negative ? -value : value, scale);
+    }
 
     public static <Data> DecimalFloat extract(
         final DecimalFloat number,
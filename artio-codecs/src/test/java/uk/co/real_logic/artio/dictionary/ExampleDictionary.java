@@ -68,6 +68,7 @@ public final class ExampleDictionary
     public static final String OTHER_MESSAGE_ENCODER = TEST_PACKAGE + ".OtherMessageEncoder";
     public static final String ENUM_TEST_MESSAGE_DECODER = TEST_PACKAGE + ".EnumTestMessageDecoder";
     public static final String ENUM_TEST_MESSAGE_ENCODER = TEST_PACKAGE + ".EnumTestMessageEncoder";
+    public static final String MANY_FIELDS_MESSAGE_DECODER = TEST_PACKAGE + ".ManyFieldsMessageDecoder";
 
     public static final String PRINTER = TEST_PACKAGE + ".PrinterImpl";
 
@@ -451,6 +452,13 @@ public final class ExampleDictionary
     public static final long OTHER_MESSAGE_TYPE_PACKED = MessageTypeEncoding.packMessageType(OTHER_MESSAGE_TYPE);
     public static final int INT_FIELD_TAG = 116;
 
+    // Has more fields than fit in a single word of a decoder's field bitsets
+    public static final String MANY_FIELDS_MESSAGE_TYPE = "MF";
+    public static final int MANY_FIELDS_FIRST_TAG = 2001;
+    public static final int MANY_FIELDS_COUNT = 70;
+    public static final int MANY_FIELDS_FIRST_WORD_REQUIRED_TAG = 2040;
+    public static final int MANY_FIELDS_SECOND_WORD_REQUIRED_TAG = 2066;
+
     private static final String ENUM_TEST_MESSAGE = "EnumTestMessage";
     private static final String ENUM_TEST_MESSAGE_TYPE = "ET";
     static final String DATA_FIELD_LENGTH = "DataFieldLength";
@@ -651,8 +659,22 @@ public final class ExampleDictionary
         allReqFieldTypesMessage.requiredEntry(registerField(messageEgFields, 707, CURRENCY_ENUM_RF, CURRENCY)
             .addValue("USD", "US_Dollar").addValue("GBP", "Pound"));
 
+        final Message manyFieldsMessage = new Message("ManyFieldsMessage", MANY_FIELDS_MESSAGE_TYPE, APP);
+        for (int tag = MANY_FIELDS_FIRST_TAG; tag < MANY_FIELDS_FIRST_TAG + MANY_FIELDS_COUNT; tag++)
+        {
+            final Field field = registerField(messageEgFields, tag, "ManyField" + tag, INT);
+            if (tag == MANY_FIELDS_FIRST_WORD_REQUIRED_TAG || tag == MANY_FIELDS_SECOND_WORD_REQUIRED_TAG)
+            {
+                manyFieldsMessage.requiredEntry(field);
+            }
+            else
+            {
+                manyFieldsMessage.optionalEntry(field);
+            }
+        }
+
         final List<Message> messages = asList(heartbeat, otherMessage, fieldsMessage, lowerCaseMessage,
-            allReqFieldTypesMessage, enumTestMessage);
+            allReqFieldTypesMessage, enumTestMessage, manyFieldsMessage);
 
         final Map<String, Component> components = new HashMap<>();
         components.put(EG_COMPONENT, egComponent);
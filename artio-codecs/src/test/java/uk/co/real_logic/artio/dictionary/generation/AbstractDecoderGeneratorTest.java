@@ -76,19 +76,26 @@ public abstract class AbstractDecoderGeneratorTest
     private static Class<?> fieldsMessage;
     private static Class<?> allReqFieldTypesMessage;
     private static Class<?> enumTestMessage;
+    private static Class<?> manyFieldsMessage;
 
     private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[8 * 1024]);
 
     static void generate(final boolean flyweightStringsEnabled) throws Exception
+    {
+        generate(flyweightStringsEnabled, false);
+    }
+
+    static void generate(final boolean flyweightStringsEnabled, final boolean flyweightCachingEnabled)
+        throws Exception
     {
         final Map<String, CharSequence> sourcesWithValidation = generateSources(
-            true, false, true, flyweightStringsEnabled);
+            true, false, true, flyweightStringsEnabled, flyweightCachingEnabled);
         final Map<String, CharSequence> sourcesWithNoEnumValueValidation = generateSources(
-            true, false, false, flyweightStringsEnabled);
+            true, false, false, flyweightStringsEnabled, flyweightCachingEnabled);
         final Map<String, CharSequence> sourcesWithoutValidation = generateSources(
-            false, false, true, flyweightStringsEnabled);
+            false, false, true, flyweightStringsEnabled, flyweightCachingEnabled);
         final Map<String, CharSequence> sourcesRejectingUnknownFields = generateSources(
-            true, true, true, flyweightStringsEnabled);
+            true, true, true, flyweightStringsEnabled, flyweightCachingEnabled);
         heartbeat = compileInMemory(HEARTBEAT_DECODER, sourcesWithValidation);
         if (heartbeat == null || CODEC_LOGGING)
         {
@@ -96,6 +103,7 @@ public abstract class AbstractDecoderGeneratorTest
         }
         component = heartbeat.getClassLoader().loadClass(COMPONENT_DECODER);
         fieldsMessage = heartbeat.getClassLoader().loadClass(FIELDS_MESSAGE_DECODER);
+        manyFieldsMessage = heartbeat.getClassLoader().loadClass(MANY_FIELDS_MESSAGE_DECODER);
         compileInMemory(HEADER_DECODER, sourcesWithValidation);
         otherMessage = compileInMemory(OTHER_MESSAGE_DECODER, sourcesWithValidation);
         enumTestMessage = compileInMemory(ENUM_TEST_MESSAGE_DECODER, sourcesWithValidation);
@@ -112,7 +120,7 @@ public abstract class AbstractDecoderGeneratorTest
 
     private static Map<String, CharSequence> generateSources(
         final boolean validation, final boolean rejectingUnknownFields, final boolean rejectingUnknownEnumValue,
-        final boolean flyweightStringsEnabled)
+        final boolean flyweightStringsEnabled, final boolean flyweightCachingEnabled)
     {
         final Class<?> validationClass = validation ? ValidationOn.class : ValidationOff.class;
         final Class<?> rejectUnknownField = rejectingUnknownFields ?
@@ -126,7 +134,8 @@ public abstract class AbstractDecoderGeneratorTest
         final DecoderGenerator decoderGenerator = new DecoderGenerator(
             MESSAGE_EXAMPLE, 1, TEST_PACKAGE, TEST_PARENT_PACKAGE, TEST_PACKAGE,
             outputManager, validationClass, rejectUnknownField,
-            rejectUnknownEnumValue, flyweightStringsEnabled, String.valueOf(rejectingUnknownEnumValue));
+            rejectUnknownEnumValue, flyweightStringsEnabled, flyweightCachingEnabled,
+            String.valueOf(rejectingUnknownEnumValue));
         final EncoderGenerator encoderGenerator = new EncoderGenerator(MESSAGE_EXAMPLE, TEST_PACKAGE,
             TEST_PARENT_PACKAGE, outputManager, ValidationOn.class, RejectUnknownFieldOn.class,
             RejectUnknownEnumValueOn.class, RUNTIME_REJECT_UNKNOWN_ENUM_VALUE_PROPERTY);
@@ -429,6 +438,20 @@ public abstract class AbstractDecoderGeneratorTest
         assertEquals(MISSING_INT, getIntField(decoder));
     }
 
+    @Test
+    public void shouldDecodeNewValuesWhenDecoderIsReused() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(ENCODED_MESSAGE);
+        assertEquals(2, getIntField(decoder));
+        assertEquals(new DecimalFloat(11, 1), getFloatField(decoder));
+
+        decoder.reset();
+        decode(ENCODED_MESSAGE.replace("116=2", "116=5").replace("117=1.1", "117=2.3"), decoder);
+
+        assertEquals(5, getIntField(decoder));
+        assertEquals(new DecimalFloat(23, 1), getFloatField(decoder));
+    }
+
     @Test
     public void shouldToString() throws Exception
     {
@@ -664,6 +687,95 @@ public abstract class AbstractDecoderGeneratorTest
         assertInvalid(decoder, REQUIRED_TAG_MISSING, 117);
     }
 
+    @Test
+    public void shouldReportFirstMissingRequiredFieldInDictionaryOrder() throws Exception
+    {
+        final Decoder decoder = newHeartbeat();
+
+        decode(headerAnd("127=19700101-00:00:00.001\001"), decoder);
+        assertInvalid(decoder, REQUIRED_TAG_MISSING, 115);
+
+        decoder.reset();
+        decode(headerAnd("127=19700101-00:00:00.001\001115=abc\001"), decoder);
+        assertInvalid(decoder, REQUIRED_TAG_MISSING, INT_FIELD_TAG);
+
+        decoder.reset();
+        decode(headerAnd("127=19700101-00:00:00.001\001116=2\001115=abc\001"), decoder);
+        assertInvalid(decoder, REQUIRED_TAG_MISSING, 117);
+    }
+
+    @Test
+    public void shouldValidateMessageWithMoreFieldsThanFitInOneBitsetWord() throws Exception
+    {
+        final Decoder decoder = newManyFieldsMessage();
+
+        decode(manyFieldsMessage(), decoder);
+
+        assertValid(decoder);
+    }
+
+    @Test
+    public void shouldValidateMissingRequiredFieldInSecondBitsetWord() throws Exception
+    {
+        final Decoder decoder = newManyFieldsMessage();
+
+        decode(manyFieldsMessage(MANY_FIELDS_SECOND_WORD_REQUIRED_TAG), decoder);
+
+        assertInvalid(decoder, REQUIRED_TAG_MISSING, MANY_FIELDS_SECOND_WORD_REQUIRED_TAG);
+    }
+
+    @Test
+    public void shouldReportMissingRequiredFieldInFirstBitsetWordBeforeSecond() throws Exception
+    {
+        final Decoder decoder = newManyFieldsMessage();
+
+        decode(manyFieldsMessage(MANY_FIELDS_SECOND_WORD_REQUIRED_TAG, MANY_FIELDS_FIRST_WORD_REQUIRED_TAG), decoder);
+
+        assertInvalid(decoder, REQUIRED_TAG_MISSING, MANY_FIELDS_FIRST_WORD_REQUIRED_TAG);
+    }
+
+    @Test
+    public void shouldValidateKnownFieldAppearingTwiceInSecondBitsetWord() throws Exception
+    {
+        final Decoder decoder = newManyFieldsMessage();
+
+        decode(manyFieldsMessage(MANY_FIELDS_SECOND_WORD_REQUIRED_TAG + "=2\001"), decoder);
+
+        assertInvalid(decoder, TAG_APPEARS_MORE_THAN_ONCE, MANY_FIELDS_SECOND_WORD_REQUIRED_TAG);
+    }
+
+    @Test
+    public void shouldValidateUnknownFieldAppearingTwice() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(headerAnd(
+            "115=abc\001116=2\001117=1.1\0011000=UNKNOWN\0011000=AGAIN\001127=19700101-00:00:00.001\001"));
+
+        assertInvalid(decoder, TAG_APPEARS_MORE_THAN_ONCE, 1000);
+    }
+
+    @Test
+    public void shouldClearVisitedFieldsWhenReset() throws Exception
+    {
+        final Decoder decoder = newManyFieldsMessage();
+
+        decode(manyFieldsMessage(), decoder);
+        assertValid(decoder);
+
+        decoder.reset();
+        assertValid(decoder);
+
+        decode(manyFieldsMessage(MANY_FIELDS_SECOND_WORD_REQUIRED_TAG), decoder);
+        assertInvalid(decoder, REQUIRED_TAG_MISSING, MANY_FIELDS_SECOND_WORD_REQUIRED_TAG);
+
+        decoder.reset();
+        decode(manyFieldsMessage(), decoder);
+        assertValid(decoder);
+
+        decoder.reset();
+        decode(manyFieldsMessage(), decoder);
+        assertValid(decoder);
+    }
+
     // --------------------------------------------------------------
     // Without Validation
     // --------------------------------------------------------------
@@ -1739,6 +1851,37 @@ public abstract class AbstractDecoderGeneratorTest
         return (Decoder)heartbeat.getConstructor().newInstance();
     }
 
+    private Decoder newManyFieldsMessage() throws Exception
+    {
+        return (Decoder)manyFieldsMessage.getConstructor().newInstance();
+    }
+
+    private static String manyFieldsMessage(final int... missingTags)
+    {
+        return manyFieldsMessage("", missingTags);
+    }
+
+    private static String manyFieldsMessage(final String extraFields, final int... missingTags)
+    {
+        final StringBuilder message = new StringBuilder("8=FIX.4.4\0019=0049\00135=")
+            .append(MANY_FIELDS_MESSAGE_TYPE)
+            .append('\001');
+        for (int tag = MANY_FIELDS_FIRST_TAG; tag < MANY_FIELDS_FIRST_TAG + MANY_FIELDS_COUNT; tag++)
+        {
+            final int fieldTag = tag;
+            if (Arrays.stream(missingTags).noneMatch(missingTag -> missingTag == fieldTag))
+            {
+                message.append(tag).append("=1\001");
+            }
+        }
+        return message.append(extraFields).append("10=209\001").toString();
+    }
+
+    private static String headerAnd(final String body)
+    {
+        return "8=FIX.4.4\0019=0027\00135=0\001" + body + "10=161\001";
+    }
+
     private Decoder decodeHeartbeatWithoutEnumValue(final String example) throws Exception
     {
         final Decoder decoder = (Decoder)heartbeatWithoutEnumValueValidation.getConstructor().newInstance();
@@ -24,6 +24,7 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import uk.co.real_logic.artio.EncodingException;
 import uk.co.real_logic.artio.builder.Encoder;
+import uk.co.real_logic.artio.builder.SessionHeaderEncoder;
 import uk.co.real_logic.artio.fields.DecimalFloat;
 import uk.co.real_logic.artio.fields.UtcTimestampEncoder;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
@@ -442,6 +443,25 @@ public class EncoderGeneratorTest
         assertEncodesTo(encoder, DERIVED_FIELDS_MESSAGE);
     }
 
+    @Test
+    public void shouldRecordOffsetsOfSendingTimeAndPossDupFlagValues() throws Exception
+    {
+        final Encoder encoder = newHeartbeat();
+        setRequiredFields(encoder);
+        final SessionHeaderEncoder header = encoder.header();
+        header.sendingTime("19700101-00:00:00.001".getBytes(StandardCharsets.US_ASCII));
+
+        long result = encoder.encode(buffer, 1);
+        assertValueOffset(result, "\00152=", header.sendingTimeValueOffset());
+        assertEquals(SessionHeaderEncoder.NO_VALUE_OFFSET, header.possDupFlagValueOffset());
+
+        header.possDupFlag(true);
+
+        result = encoder.encode(buffer, 1);
+        assertValueOffset(result, "\00152=", header.sendingTimeValueOffset());
+        assertValueOffset(result, "\00143=", header.possDupFlagValueOffset());
+    }
+
     @Test
     public void shouldGenerateHumanReadableToString() throws Exception
     {
@@ -1063,6 +1083,13 @@ public class EncoderGeneratorTest
         assertEquals(expectedValue.length(), length);
     }
 
+    private void assertValueOffset(final long result, final String fieldPrefix, final int valueOffset)
+    {
+        final int offset = Encoder.offset(result);
+        final String message = buffer.getAscii(offset, Encoder.length(result));
+        assertEquals(message, message.indexOf(fieldPrefix) + fieldPrefix.length(), valueOffset - offset);
+    }
+
     private void assertTestReqIsValue(final Object encoder) throws Exception
     {
         assertArrayEquals(VALUE_IN_BYTES, getTestReqIdBytes(encoder));
@@ -91,6 +91,12 @@ public class DecimalFloatDecodingTest
             {"0.00000001", 1, 8},
             {"6456.123456789", 6456123456789L, 9},
             {"6456.000000001", 6456000000001L, 9},
+
+            {"123456789012345678", 123456789012345678L, 0},
+            {"-12345678901234567", -12345678901234567L, 0},
+            {"1234567890.1234567", 12345678901234567L, 7},
+            {"0.123456789012345678", 123456789012345678L, 18},
+            {"-0.12345678901234567", -12345678901234567L, 17},
         });
     }
 
@@ -15,6 +15,7 @@
  */
 package uk.co.real_logic.artio.util;
 
+import org.agrona.AsciiNumberFormatException;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -140,6 +141,92 @@ public class AsciiBufferTest
         assertEquals(-1, value);
     }
 
+    @Test
+    public void shouldFindCharactersWhenScanningAcrossWords()
+    {
+        final String message = "8=FIX.4.4\0019=0103\00135=A\00149=ABC_DEFG01\00156=CCG\00134=10\001";
+        putAscii(message);
+
+        int start = 0;
+        int expected;
+        while ((expected = message.indexOf('\001', start)) != -1)
+        {
+            assertEquals(expected, buffer.scan(start, message.length(), AsciiBuffer.SEPARATOR));
+            start = expected + 1;
+        }
+
+        assertEquals(UNKNOWN_INDEX, buffer.scan(0, message.length(), 'Z'));
+        assertEquals(UNKNOWN_INDEX, buffer.scan(0, message.indexOf("35="), '5'));
+    }
+
+    @Test
+    public void shouldFindLastCharactersWhenScanningBackwardsAcrossWords()
+    {
+        final String message = "8=FIX.4.4\0019=0103\00135=A\00149=ABC_DEFG01\00156=CCG\00134=10\001";
+        putAscii(message);
+
+        for (int start = message.length() - 1; start > 0; start--)
+        {
+            final int expected = message.lastIndexOf('=', start);
+            assertEquals(expected > 0 ? expected : UNKNOWN_INDEX, buffer.scanBack(start, 0, '='));
+        }
+    }
+
+    @Test
+    public void shouldComputeChecksumsIncludingNonAsciiBytes()
+    {
+        final byte[] bytes = new byte[37];
+        for (int i = 0; i < bytes.length; i++)
+        {
+            bytes[i] = (byte)(i * 31);
+        }
+        buffer.putBytes(0, bytes);
+
+        for (int end = 0; end <= bytes.length; end++)
+        {
+            int total = 0;
+            for (int i = 1; i < end; i++)
+            {
+                total += bytes[i];
+            }
+
+            assertEquals(total % 256, buffer.computeChecksum(1, end));
+        }
+    }
+
+    @Test
+    public void shouldGetIntegersOfEveryLength()
+    {
+        final String digits = "1234567891";
+        for (int length = 1; length <= digits.length(); length++)
+        {
+            final String number = digits.substring(0, length);
+            putAscii("        " + number);
+
+            assertEquals(number, Integer.parseInt(number), buffer.getNatural(8, 8 + length));
+            assertEquals(number, Integer.parseInt(number), buffer.getInt(8, 8 + length));
+
+            putAscii("        -" + number);
+            assertEquals(number, -Integer.parseInt(number), buffer.getInt(8, 9 + length));
+        }
+    }
+
+    @Test
+    public void shouldGetIntegersAtStartOfBuffer()
+    {
+        putAscii("42");
+
+        assertEquals(42, buffer.getNatural(0, 2));
+    }
+
+    @Test(expected = AsciiNumberFormatException.class)
+    public void shouldValidateIntegers()
+    {
+        putAscii("        12a4");
+
+        buffer.getInt(8, 12);
+    }
+
     private void putAscii(final String value)
     {
         buffer.putBytes(0, value.getBytes(US_ASCII));
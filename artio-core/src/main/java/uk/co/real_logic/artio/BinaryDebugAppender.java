@@ -0,0 +1,299 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.agrona.LangUtil;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.MessageHandler;
+import org.agrona.concurrent.SleepingMillisIdleStrategy;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.ringbuffer.ManyToOneRingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBuffer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.*;
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+import static org.agrona.concurrent.ringbuffer.RingBufferDescriptor.TRAILER_LENGTH;
+import static uk.co.real_logic.artio.CommonConfiguration.*;
+
+/**
+ * Debug appender that logs lines as binary records into a many to one ring buffer, rather than formatting and
+ * flushing them on the logging thread. A background thread drains the ring buffer into
+ * {@link CommonConfiguration#DEBUG_FILE_PROPERTY}, which can be turned back into the text format of
+ * {@link PrintingDebugAppender} using {@link BinaryDebugLogDecoder}.
+ *
+ * Logging never blocks: lines logged while the ring buffer is full are dropped and the number of dropped lines is
+ * recorded in the file. Characters of logged lines are stored as single bytes, so this appender is intended for
+ * ASCII content such as FIX messages.
+ */
+public class BinaryDebugAppender extends AbstractDebugAppender implements AutoCloseable
+{
+    public static final String DEFAULT_BINARY_DEBUG_FILE = "artio-debug.bin";
+
+    // File format: a header followed by records. All values are big endian.
+    static final int MAGIC = 0x41444247;
+    static final int VERSION = 1;
+    static final int RECORD_HEADER_LENGTH = SIZE_OF_INT + SIZE_OF_INT;
+
+    // Record type ids, log lines have a type id of LOG_TYPE_ID_OFFSET + the ordinal of their LogTag
+    static final int THREAD_NAME_TYPE_ID = 1;
+    static final int DROPPED_TYPE_ID = 2;
+    static final int LOG_TYPE_ID_OFFSET = 16;
+
+    // Thread name: thread id, name. Dropped: timestamp, count. Log: timestamp, thread id, message.
+    static final int THREAD_ID_LENGTH = SIZE_OF_INT;
+    static final int DROPPED_LENGTH = SIZE_OF_LONG + SIZE_OF_LONG;
+    static final int LOG_HEADER_LENGTH = SIZE_OF_LONG + SIZE_OF_INT;
+
+    private static final int MIN_OUTPUT_BUFFER_SIZE = 64 * 1024;
+    private static final int DRAIN_LIMIT = 1024;
+
+    private final AtomicInteger threadIds = new AtomicInteger();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final RingBuffer ringBuffer;
+    private final FileChannel output;
+    private final ByteBuffer outputBuffer;
+    private final Thread drainThread;
+
+    private volatile boolean running = true;
+    private long reportedDroppedCount;
+
+    public BinaryDebugAppender()
+    {
+        this(new File(DEBUG_FILE == null ? DEFAULT_BINARY_DEBUG_FILE : DEBUG_FILE), DEBUG_BINARY_BUFFER_SIZE);
+
+        final Thread shutdownHook = new Thread(this::close, "artio-debug-appender-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    BinaryDebugAppender(final File file, final int bufferSize)
+    {
+        ringBuffer = new ManyToOneRingBuffer(new UnsafeBuffer(ByteBuffer.allocateDirect(bufferSize + TRAILER_LENGTH)));
+        outputBuffer = ByteBuffer.allocateDirect(
+            Math.max(MIN_OUTPUT_BUFFER_SIZE, RECORD_HEADER_LENGTH + ringBuffer.maxMsgLength()));
+
+        try
+        {
+            output = FileChannel.open(file.toPath(), CREATE, WRITE, TRUNCATE_EXISTING);
+        }
+        catch (final IOException ex)
+        {
+            throw new IllegalStateException(
+                "Unable to configure DebugLogger, please check " + DEBUG_FILE_PROPERTY, ex);
+        }
+
+        outputBuffer.putInt(MAGIC).putInt(VERSION);
+
+        drainThread = new Thread(this::drain, "artio-debug-appender");
+        drainThread.setDaemon(true);
+        drainThread.start();
+    }
+
+    public ThreadLocalAppender makeLocalAppender()
+    {
+        return new BinaryThreadLocalAppender(threadIds.getAndIncrement(), DebugLogger.threadName());
+    }
+
+    /**
+     * Stops the background thread once it has written all the lines logged so far to the file.
+     */
+    public void close()
+    {
+        running = false;
+
+        try
+        {
+            drainThread.join();
+        }
+        catch (final InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    class BinaryThreadLocalAppender extends ThreadLocalAppender
+    {
+        private final int threadId;
+        private final byte[] threadName;
+
+        private boolean registered;
+
+        BinaryThreadLocalAppender(final int threadId, final String threadName)
+        {
+            this.threadId = threadId;
+            this.threadName = threadName.getBytes(UTF_8);
+        }
+
+        public void log(final LogTag tag, final StringBuilder stringBuilder)
+        {
+            if (!registered && !register())
+            {
+                droppedCount.getAndIncrement();
+                return;
+            }
+
+            final RingBuffer ringBuffer = BinaryDebugAppender.this.ringBuffer;
+            final int messageLength = Math.min(stringBuilder.length(), ringBuffer.maxMsgLength() - LOG_HEADER_LENGTH);
+            final int index = ringBuffer.tryClaim(
+                LOG_TYPE_ID_OFFSET + tag.ordinal(), LOG_HEADER_LENGTH + messageLength);
+            if (index < 0)
+            {
+                droppedCount.getAndIncrement();
+                return;
+            }
+
+            final MutableDirectBuffer buffer = ringBuffer.buffer();
+            buffer.putLong(index, System.currentTimeMillis());
+            buffer.putInt(index + SIZE_OF_LONG, threadId);
+            final int messageOffset = index + LOG_HEADER_LENGTH;
+            for (int i = 0; i < messageLength; i++)
+            {
+                buffer.putByte(messageOffset + i, (byte)stringBuilder.charAt(i));
+            }
+            ringBuffer.commit(index);
+        }
+
+        private boolean register()
+        {
+            final byte[] threadName = this.threadName;
+            final int index = ringBuffer.tryClaim(THREAD_NAME_TYPE_ID, THREAD_ID_LENGTH + threadName.length);
+            if (index < 0)
+            {
+                return false;
+            }
+
+            final MutableDirectBuffer buffer = ringBuffer.buffer();
+            buffer.putInt(index, threadId);
+            buffer.putBytes(index + THREAD_ID_LENGTH, threadName);
+            ringBuffer.commit(index);
+            registered = true;
+            return true;
+        }
+    }
+
+    private void drain()
+    {
+        final IdleStrategy idleStrategy = new SleepingMillisIdleStrategy(1);
+        final MessageHandler handler = this::onRecord;
+        final RingBuffer ringBuffer = this.ringBuffer;
+
+        try
+        {
+            while (running)
+            {
+                final int read = ringBuffer.read(handler, DRAIN_LIMIT);
+                if (read == 0)
+                {
+                    writeDroppedCount();
+                    flush();
+                }
+                idleStrategy.idle(read);
+            }
+
+            int read;
+            do
+            {
+                read = ringBuffer.read(handler, DRAIN_LIMIT);
+            }
+            while (read > 0);
+
+            writeDroppedCount();
+            flush();
+            output.close();
+        }
+        catch (final IOException ex)
+        {
+            LangUtil.rethrowUnchecked(ex);
+        }
+    }
+
+    private void onRecord(final int msgTypeId, final MutableDirectBuffer buffer, final int index, final int length)
+    {
+        final ByteBuffer outputBuffer = this.outputBuffer;
+        if (outputBuffer.remaining() < RECORD_HEADER_LENGTH + length)
+        {
+            flush();
+        }
+
+        outputBuffer.putInt(msgTypeId).putInt(length);
+        if (msgTypeId == THREAD_NAME_TYPE_ID)
+        {
+            outputBuffer.putInt(buffer.getInt(index));
+            putBytes(buffer, index + THREAD_ID_LENGTH, length - THREAD_ID_LENGTH);
+        }
+        else
+        {
+            outputBuffer.putLong(buffer.getLong(index));
+            outputBuffer.putInt(buffer.getInt(index + SIZE_OF_LONG));
+            putBytes(buffer, index + LOG_HEADER_LENGTH, length - LOG_HEADER_LENGTH);
+        }
+    }
+
+    private void putBytes(final MutableDirectBuffer buffer, final int index, final int length)
+    {
+        final ByteBuffer outputBuffer = this.outputBuffer;
+        final int position = outputBuffer.position();
+        buffer.getBytes(index, outputBuffer, position, length);
+        outputBuffer.position(position + length);
+    }
+
+    private void writeDroppedCount()
+    {
+        final long droppedCount = this.droppedCount.get();
+        if (droppedCount != reportedDroppedCount)
+        {
+            final ByteBuffer outputBuffer = this.outputBuffer;
+            if (outputBuffer.remaining() < RECORD_HEADER_LENGTH + DROPPED_LENGTH)
+            {
+                flush();
+            }
+
+            outputBuffer
+                .putInt(DROPPED_TYPE_ID)
+                .putInt(DROPPED_LENGTH)
+                .putLong(System.currentTimeMillis())
+                .putLong(droppedCount - reportedDroppedCount);
+            reportedDroppedCount = droppedCount;
+        }
+    }
+
+    private void flush()
+    {
+        final ByteBuffer outputBuffer = this.outputBuffer;
+        outputBuffer.flip();
+        try
+        {
+            while (outputBuffer.hasRemaining())
+            {
+                output.write(outputBuffer);
+            }
+        }
+        catch (final IOException ex)
+        {
+            LangUtil.rethrowUnchecked(ex);
+        }
+        outputBuffer.clear();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.agrona.collections.Int2ObjectHashMap;
+
+import java.io.*;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static uk.co.real_logic.artio.BinaryDebugAppender.*;
+
+/**
+ * Decodes a file written by the {@link BinaryDebugAppender} into the same text format that the
+ * {@link PrintingDebugAppender} logs.
+ */
+public final class BinaryDebugLogDecoder
+{
+    private static final LogTag[] LOG_TAGS = LogTag.values();
+
+    public static void main(final String[] args) throws IOException
+    {
+        if (args.length < 1)
+        {
+            System.err.println("Usage: BinaryDebugLogDecoder <logFile> [<outputFile>]");
+            System.err.println("Where <logFile> is the path to binary debug log file and <outputFile> is the path " +
+                "to write the decoded log to, defaulting to standard out");
+            System.exit(-1);
+        }
+
+        final OutputStream outputStream = args.length > 1 ? new FileOutputStream(args[1]) : System.out;
+        try (InputStream input = new FileInputStream(args[0]);
+            Writer output = new OutputStreamWriter(outputStream, UTF_8))
+        {
+            decode(input, output);
+        }
+    }
+
+    /**
+     * Decode a binary debug log.
+     *
+     * @param input the contents of the file written by the {@link BinaryDebugAppender}.
+     * @param output the writer to write the text log lines to.
+     * @throws IOException if the log can't be read or written, or isn't a binary debug log.
+     */
+    public static void decode(final InputStream input, final Writer output) throws IOException
+    {
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(input));
+        final Int2ObjectHashMap<String> threadIdToName = new Int2ObjectHashMap<>();
+
+        final int magic = in.readInt();
+        final int version = in.readInt();
+        if (magic != MAGIC || version != VERSION)
+        {
+            throw new IOException("Not a binary debug log of version " + VERSION +
+                ", magic = " + magic + ", version = " + version);
+        }
+
+        byte[] bytes = new byte[0];
+        final StringBuilder line = new StringBuilder();
+        while (true)
+        {
+            final int typeId;
+            try
+            {
+                typeId = in.readInt();
+            }
+            catch (final EOFException ex)
+            {
+                break;
+            }
+            final int length = in.readInt();
+
+            line.setLength(0);
+            if (typeId == THREAD_NAME_TYPE_ID)
+            {
+                final int threadId = in.readInt();
+                final int nameLength = length - THREAD_ID_LENGTH;
+                bytes = readBytes(in, bytes, nameLength);
+                threadIdToName.put(threadId, new String(bytes, 0, nameLength, UTF_8));
+            }
+            else if (typeId == DROPPED_TYPE_ID)
+            {
+                final long timestamp = in.readLong();
+                final long droppedCount = in.readLong();
+                line.append(timestamp).append(":[DROPPED]")
+                    .append(droppedCount).append(" log lines dropped due to a full buffer")
+                    .append(System.lineSeparator());
+            }
+            else
+            {
+                final long timestamp = in.readLong();
+                final int threadId = in.readInt();
+                final int messageLength = length - LOG_HEADER_LENGTH;
+                bytes = readBytes(in, bytes, messageLength);
+
+                final int tagOrdinal = typeId - LOG_TYPE_ID_OFFSET;
+                line.append(timestamp).append(':').append(threadIdToName.get(threadId));
+                if (tagOrdinal >= 0 && tagOrdinal < LOG_TAGS.length)
+                {
+                    line.append(LOG_TAGS[tagOrdinal].logStr());
+                }
+                else
+                {
+                    line.append("[UNKNOWN_").append(tagOrdinal).append(']');
+                }
+                line.append(new String(bytes, 0, messageLength, ISO_8859_1));
+            }
+
+            output.append(line);
+        }
+
+        output.flush();
+    }
+
+    private static byte[] readBytes(final DataInputStream in, final byte[] bytes, final int length)
+        throws IOException
+    {
+        final byte[] result = bytes.length < length ? new byte[length] : bytes;
+        in.readFully(result, 0, length);
+        return result;
+    }
+}
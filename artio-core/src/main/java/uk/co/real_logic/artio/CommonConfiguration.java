@@ -94,15 +94,28 @@ public class CommonConfiguration
      * Property name for the flag to enable or disable message timing
      */
     public static final String TIME_MESSAGES_PROPERTY = "fix.core.timing";
+    /**
+     * Property name for the number of groups that sessions are split into when timing messages, each group has its
+     * own latency histograms, and Aeron counters, for every stage of message processing. Sessions are assigned to
+     * a group by their session id. Default is 0, which only times messages over all sessions.
+     */
+    public static final String TIMING_SESSION_GROUPS_PROPERTY = "fix.core.timing.session_groups";
     /**
      * Property name for the file to log debug messages to, default is standard output
      */
     public static final String DEBUG_FILE_PROPERTY = "fix.core.debug.file";
     /**
      * Property name for the implementation of {@link AbstractDebugAppender} to use in order
-     * print debug logging. If none set then defaults to {@link PrintingDebugAppender}
+     * print debug logging. If none set then an appender registered with the {@link java.util.ServiceLoader} is used,
+     * otherwise defaults to {@link PrintingDebugAppender}. Set to {@link BinaryDebugAppender} in order to log
+     * asynchronously in a binary format that can be decoded with {@link BinaryDebugLogDecoder}.
      */
     public static final String APPENDER_CLASS_PROPERTY = "fix.core.debug.appender";
+    /**
+     * Property name for the size in bytes of the ring buffer that {@link BinaryDebugAppender} logs into. Must be a
+     * power of two.
+     */
+    public static final String DEBUG_BINARY_BUFFER_SIZE_PROPERTY = "fix.core.debug.binary.buffer_size";
     /**
      * Property name for the period at which histogram intervals are polled and logged
      */
@@ -183,7 +196,11 @@ public class CommonConfiguration
 
     public static final String DEBUG_FILE = System.getProperty(DEBUG_FILE_PROPERTY);
     public static final String APPENDER_CLASS = System.getProperty(APPENDER_CLASS_PROPERTY);
+    public static final int DEFAULT_DEBUG_BINARY_BUFFER_SIZE = 8 * 1024 * 1024;
+    public static final int DEBUG_BINARY_BUFFER_SIZE = Integer.getInteger(
+        DEBUG_BINARY_BUFFER_SIZE_PROPERTY, DEFAULT_DEBUG_BINARY_BUFFER_SIZE);
     public static final boolean TIME_MESSAGES = Boolean.getBoolean(TIME_MESSAGES_PROPERTY);
+    public static final int TIMING_SESSION_GROUPS = Integer.getInteger(TIMING_SESSION_GROUPS_PROPERTY, 0);
     public static final boolean FORCE_WRITES = Boolean.getBoolean(FORCE_WRITES_MESSAGES_PROPERTY);
 
     public static final int BACKOFF_SPINS = Integer.getInteger("fix.core.spins", 100);
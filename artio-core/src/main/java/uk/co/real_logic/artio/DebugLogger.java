@@ -41,15 +41,35 @@ public final class DebugLogger
 
     static
     {
-        final ServiceLoader<AbstractDebugAppender> loader = ServiceLoader.load(AbstractDebugAppender.class);
-        final Iterator<AbstractDebugAppender> it = loader.iterator();
-        if (it.hasNext())
+        if (APPENDER_CLASS != null)
         {
-            APPENDER = it.next();
+            APPENDER = newAppender(APPENDER_CLASS);
         }
         else
         {
-            APPENDER = new PrintingDebugAppender();
+            final ServiceLoader<AbstractDebugAppender> loader = ServiceLoader.load(AbstractDebugAppender.class);
+            final Iterator<AbstractDebugAppender> it = loader.iterator();
+            if (it.hasNext())
+            {
+                APPENDER = it.next();
+            }
+            else
+            {
+                APPENDER = new PrintingDebugAppender();
+            }
+        }
+    }
+
+    private static AbstractDebugAppender newAppender(final String className)
+    {
+        try
+        {
+            return (AbstractDebugAppender)Class.forName(className).getConstructor().newInstance();
+        }
+        catch (final ReflectiveOperationException | ClassCastException ex)
+        {
+            throw new IllegalStateException(
+                "Unable to configure DebugLogger, please check " + APPENDER_CLASS_PROPERTY, ex);
         }
     }
 
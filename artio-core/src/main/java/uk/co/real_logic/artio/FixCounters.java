@@ -45,7 +45,13 @@ public class FixCounters implements AutoCloseable
         CURRENT_REPLAY_COUNT_TYPE_ID(10_008),
         NEGATIVE_TIMESTAMP_TYPE_ID(10_009),
         FAILED_ADMIN_TYPE_ID(10_010),
-        FAILED_ADMIN_REPLY_TYPE_ID(10_011);
+        FAILED_ADMIN_REPLY_TYPE_ID(10_011),
+        BACKPRESSURED_TIME_TYPE_ID(10_012),
+        PENDING_AUTHENTICATIONS_TYPE_ID(10_013),
+        REJECTED_AUTHENTICATIONS_TYPE_ID(10_014),
+        TIMER_MAX_LATENCY_TYPE_ID(10_015),
+        RETRANSMIT_QUEUE_DEPTH_TYPE_ID(10_016),
+        RETRANSMIT_QUEUE_MAX_TIME_TYPE_ID(10_017);
 
         final int id;
 
@@ -142,6 +148,12 @@ public class FixCounters implements AutoCloseable
         return currentReplayCount;
     }
 
+    public AtomicCounter currentReplayCount(final int replayerShardIndex)
+    {
+        return newCounter(FixCountersId.CURRENT_REPLAY_COUNT_TYPE_ID.id(),
+            "Current Replay Count: shard " + replayerShardIndex);
+    }
+
     public AtomicCounter negativeTimestamps()
     {
         return negativeTimestamps;
@@ -159,6 +171,30 @@ public class FixCounters implements AutoCloseable
                 "Quarantined bytes for " + address + " id = " + connectionId);
     }
 
+    public AtomicCounter backpressuredTime(final long connectionId, final String address)
+    {
+        return newCounter(FixCountersId.BACKPRESSURED_TIME_TYPE_ID.id(),
+                "Back-pressured nanoseconds for " + address + " id = " + connectionId);
+    }
+
+    public AtomicCounter pendingAuthentications()
+    {
+        return newCounter(FixCountersId.PENDING_AUTHENTICATIONS_TYPE_ID.id(),
+                "Pending Authentications");
+    }
+
+    public AtomicCounter rejectedAuthentications()
+    {
+        return newCounter(FixCountersId.REJECTED_AUTHENTICATIONS_TYPE_ID.id(),
+                "Authentications rejected as the queue was full");
+    }
+
+    public AtomicCounter timerMaxLatency(final String timerName)
+    {
+        return newCounter(FixCountersId.TIMER_MAX_LATENCY_TYPE_ID.id(),
+                "Max latency in nanoseconds of the last histogram interval for " + timerName);
+    }
+
     public AtomicCounter invalidLibraryAttempts(final long connectionId, final String address)
     {
         return newCounter(FixCountersId.INVALID_LIBRARY_ATTEMPTS_TYPE_ID.id(),
@@ -175,6 +211,18 @@ public class FixCounters implements AutoCloseable
         return newCounter(FixCountersId.RECV_MSG_SEQ_NO_TYPE_ID.id(), "Last Received MsgSeqNo for " + connectionId);
     }
 
+    public AtomicCounter retransmitQueueDepth(final long connectionId)
+    {
+        return newCounter(FixCountersId.RETRANSMIT_QUEUE_DEPTH_TYPE_ID.id(),
+                "Retransmit queue bytes for " + connectionId);
+    }
+
+    public AtomicCounter retransmitQueueMaxTime(final long connectionId)
+    {
+        return newCounter(FixCountersId.RETRANSMIT_QUEUE_MAX_TIME_TYPE_ID.id(),
+                "Max nanoseconds in retransmit queue since last empty for " + connectionId);
+    }
+
     private AtomicCounter newCounter(final int typeId, final String label)
     {
         final Counter counter = aeron.addCounter(typeId, label);
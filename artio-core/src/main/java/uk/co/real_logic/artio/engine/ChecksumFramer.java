@@ -19,12 +19,14 @@ import org.agrona.ErrorHandler;
 import org.agrona.concurrent.AtomicBuffer;
 
 import java.nio.ByteBuffer;
+import java.util.BitSet;
+import java.util.function.IntConsumer;
 import java.util.zip.CRC32;
 
-// TODO: optimisation: write and checksum only needed bytes
 public class ChecksumFramer extends SectorFramer
 {
     private final CRC32 crc32 = new CRC32();
+    private final BitSet dirtySectors;
     private final AtomicBuffer buffer;
     private final ChecksumConsumer saveChecksumFunc;
     private final ErrorHandler errorHandler;
@@ -40,6 +42,7 @@ public class ChecksumFramer extends SectorFramer
         final String fileName)
     {
         super(capacity);
+        dirtySectors = new BitSet(capacity / SECTOR_SIZE);
         this.buffer = buffer;
         saveChecksumFunc = buffer::putInt;
         this.errorHandler = errorHandler;
@@ -56,6 +59,55 @@ public class ChecksumFramer extends SectorFramer
     public void updateChecksums()
     {
         withChecksums(saveChecksumFunc);
+        dirtySectors.clear();
+    }
+
+    /**
+     * Mark the sector containing an offset as having been written to since the last checksum update.
+     *
+     * @param offset the offset within the buffer that has been written to.
+     */
+    public void markDirty(final int offset)
+    {
+        dirtySectors.set(offset / SECTOR_SIZE);
+    }
+
+    public void markAllDirty()
+    {
+        dirtySectors.set(0, capacity / SECTOR_SIZE);
+    }
+
+    public boolean hasDirtySectors()
+    {
+        return !dirtySectors.isEmpty();
+    }
+
+    /**
+     * Update the checksums of only the sectors that have been marked as dirty since the last checksum update.
+     *
+     * @param onSectorUpdated called with the start offset of each sector whose checksum has been updated.
+     */
+    public void updateDirtyChecksums(final IntConsumer onSectorUpdated)
+    {
+        final BitSet dirtySectors = this.dirtySectors;
+        final byte[] inMemoryBytes = buffer.byteArray();
+        final ByteBuffer inMemoryByteBuffer = buffer.byteBuffer();
+        final int wrapAdjustment = buffer.wrapAdjustment();
+
+        for (int sector = dirtySectors.nextSetBit(0); sector >= 0; sector = dirtySectors.nextSetBit(sector + 1))
+        {
+            final int sectorEnd = (sector + 1) * SECTOR_SIZE;
+            saveChecksumFunc.accept(
+                sectorEnd - CHECKSUM_SIZE,
+                sectorChecksum(inMemoryBytes, inMemoryByteBuffer, sectorEnd - SECTOR_SIZE + wrapAdjustment));
+            onSectorUpdated.accept(sectorEnd - SECTOR_SIZE);
+        }
+
+        if (inMemoryByteBuffer != null)
+        {
+            inMemoryByteBuffer.clear();
+        }
+        dirtySectors.clear();
     }
 
     private void validateChecksum(final int checksumOffset, final int calculatedChecksum)
@@ -78,19 +130,7 @@ public class ChecksumFramer extends SectorFramer
             final int sectorStart = sectorEnd - SECTOR_SIZE + wrapAdjustment;
             final int checksumOffset = sectorEnd - CHECKSUM_SIZE;
 
-            crc32.reset();
-            if (inMemoryBytes != null)
-            {
-                crc32.update(inMemoryBytes, sectorStart, SECTOR_DATA_LENGTH);
-            }
-            else
-            {
-                ByteBufferUtil.limit(inMemoryByteBuffer, sectorStart + SECTOR_DATA_LENGTH);
-                ByteBufferUtil.position(inMemoryByteBuffer, sectorStart);
-                crc32.update(inMemoryByteBuffer);
-            }
-            final int sectorChecksum = (int)crc32.getValue();
-            consumer.accept(checksumOffset, sectorChecksum);
+            consumer.accept(checksumOffset, sectorChecksum(inMemoryBytes, inMemoryByteBuffer, sectorStart));
         }
 
         if (inMemoryByteBuffer != null)
@@ -99,6 +139,23 @@ public class ChecksumFramer extends SectorFramer
         }
     }
 
+    private int sectorChecksum(final byte[] inMemoryBytes, final ByteBuffer inMemoryByteBuffer, final int sectorStart)
+    {
+        final CRC32 crc32 = this.crc32;
+        crc32.reset();
+        if (inMemoryBytes != null)
+        {
+            crc32.update(inMemoryBytes, sectorStart, SECTOR_DATA_LENGTH);
+        }
+        else
+        {
+            ByteBufferUtil.limit(inMemoryByteBuffer, sectorStart + SECTOR_DATA_LENGTH);
+            ByteBufferUtil.position(inMemoryByteBuffer, sectorStart);
+            crc32.update(inMemoryByteBuffer);
+        }
+        return (int)crc32.getValue();
+    }
+
     private interface ChecksumConsumer
     {
         void accept(int checksumOffset, int sectorChecksum);
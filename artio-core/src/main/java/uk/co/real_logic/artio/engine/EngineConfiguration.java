@@ -30,6 +30,7 @@ import uk.co.real_logic.artio.dictionary.FixDictionary;
 import uk.co.real_logic.artio.dictionary.SessionConstants;
 import uk.co.real_logic.artio.engine.framer.DefaultTcpChannelSupplier;
 import uk.co.real_logic.artio.engine.framer.TcpChannelSupplier;
+import uk.co.real_logic.artio.engine.logger.TimeIndexDescriptor;
 import uk.co.real_logic.artio.library.SessionConfiguration;
 import uk.co.real_logic.artio.messages.InitialAcceptedSessionOwner;
 import uk.co.real_logic.artio.validation.AuthenticationProxy;
@@ -40,6 +41,7 @@ import java.io.File;
 import java.net.InetSocketAddress;
 import java.util.*;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static java.lang.Integer.getInteger;
 import static java.lang.System.getProperty;
@@ -74,6 +76,14 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
      * Property name for size of logging index files
      */
     public static final String REPLAY_INDEX_FILE_SIZE_PROP = "logging.index.size";
+    /**
+     * Property name for size of the time index files
+     */
+    public static final String TIME_INDEX_FILE_SIZE_PROP = "logging.time_index.size";
+    /**
+     * Property name for the period in nanoseconds between records in the time index files
+     */
+    public static final String TIME_INDEX_PERIOD_IN_NS_PROP = "logging.time_index.period_in_ns";
 
     // Care needs to be taken when setting the fragment limits, and buffer sizes
     // The inbound bytes received and buffer sizes should always be set low enough
@@ -120,6 +130,43 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
      * Property name for the timeout before a connection that hasn't sent a logon is disconnected
      */
     public static final String NO_LOGON_DISCONNECT_TIMEOUT_PROP = "fix.core.no_logon_disconnect";
+    /**
+     * Property name for the number of framer shards that read from FIX TCP connections on their own threads.
+     */
+    public static final String FRAMER_SHARD_COUNT_PROP = "fix.core.framer_shard_count";
+    /**
+     * Property name for the size in bytes of the buffer used to batch writes of outbound messages to a TCP connection.
+     */
+    public static final String SENDER_WRITE_BATCH_SIZE_PROP = "fix.core.sender_write_batch_size";
+    /**
+     * Property name for the flag to poll inbound TCP connections fairly when the inbound stream is back-pressured.
+     */
+    public static final String FAIR_RECEIVER_POLLING_PROP = "fix.core.fair_receiver_polling";
+    /**
+     * Property name for the flag to enable journalled flushing of the sequence number index files.
+     */
+    public static final String SEQUENCE_NUMBER_INDEX_JOURNALLED_PROP = "fix.core.sequence_number_index_journalled";
+    /**
+     * Property name for the number of recently sent messages per session to cache for resend requests.
+     */
+    public static final String RECENT_MESSAGE_CACHE_SIZE_PROP = "fix.core.recent_message_cache_size";
+    /**
+     * Property name for the maximum length in bytes of a message that can be stored in the recent message cache.
+     */
+    public static final String RECENT_MESSAGE_CACHE_MAX_MESSAGE_LENGTH_PROP =
+        "fix.core.recent_message_cache_max_message_length";
+    /**
+     * Property name for the number of replayer shards that resend requests are partitioned between.
+     */
+    public static final String REPLAYER_SHARD_COUNT_PROP = "fix.core.replayer_shard_count";
+    /**
+     * Property name for the number of threads that run the authentication strategy of acceptor logons.
+     */
+    public static final String AUTHENTICATION_THREAD_COUNT_PROP = "fix.core.authentication_thread_count";
+    /**
+     * Property name for the maximum number of acceptor logons that can wait for an authentication thread.
+     */
+    public static final String AUTHENTICATION_QUEUE_CAPACITY_PROP = "fix.core.authentication_queue_capacity";
 
     // ------------------------------------------------
     //          Configuration Defaults
@@ -127,6 +174,8 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
 
     public static final String DEFAULT_LOG_FILE_DIR = "logs";
     public static final int DEFAULT_REPLAY_INDEX_FILE_SIZE = 2 * 1024 * 1024 + INITIAL_RECORD_OFFSET;
+    public static final int DEFAULT_TIME_INDEX_FILE_SIZE = 1024 * 1024 + TimeIndexDescriptor.INITIAL_RECORD_OFFSET;
+    public static final long DEFAULT_TIME_INDEX_PERIOD_IN_NS = SECONDS.toNanos(1);
     public static final int DEFAULT_LOGGER_CACHE_NUM_SETS = 8;
     public static final int DEFAULT_LOGGER_CACHE_SET_SIZE = 4;
 
@@ -138,8 +187,14 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     public static final int DEFAULT_SENDER_SOCKET_BUFFER_SIZE = 1024 * 1024;
     public static final int DEFAULT_SEQUENCE_NUMBER_INDEX_SIZE = 8 * 1024 * 1024;
     public static final int DEFAULT_SESSION_ID_BUFFER_SIZE = 4 * 1024 * 1024;
+    public static final int DEFAULT_FRAMER_SHARD_COUNT = 0;
+    public static final int DEFAULT_SENDER_WRITE_BATCH_SIZE = 0;
     public static final int DEFAULT_SENDER_MAX_BYTES_IN_BUFFER = 4 * 1024 * 1024;
     public static final int DEFAULT_REPLAY_POSITION_BUFFER_SIZE = 4 * 1024;
+    public static final int DEFAULT_RECENT_MESSAGE_CACHE_SIZE = 0;
+    public static final int DEFAULT_RECENT_MESSAGE_CACHE_MAX_MESSAGE_LENGTH = 1024;
+    public static final int DEFAULT_AUTHENTICATION_THREAD_COUNT = 0;
+    public static final int DEFAULT_AUTHENTICATION_QUEUE_CAPACITY = 1024;
     public static final int DEFAULT_NO_LOGON_DISCONNECT_TIMEOUT = (int)SECONDS.toMillis(5);
     public static final String DEFAULT_SESSION_ID_FILE = "session_id_buffer";
     public static final String DEFAULT_ILINK3_ID_FILE = "ilink3_id_buffer";
@@ -160,6 +215,7 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     public static final long DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS = 10_000;
     public static final long DEFAULT_AUTHENTICATION_TIMEOUT_IN_MS = 60_000;
     public static final int DEFAULT_MAX_CONCURRENT_SESSION_REPLAYS = 5;
+    public static final int DEFAULT_REPLAYER_SHARD_COUNT = 1;
     public static final long DEFAULT_DUPLICATE_ENGINE_TIMEOUT_IN_MS = SECONDS.toMillis(10);
 
     static
@@ -177,12 +233,15 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     public static final int DEFAULT_OUTBOUND_REPLAY_STREAM = 3;
     public static final int DEFAULT_ARCHIVE_REPLAY_STREAM = 4;
     public static final int DEFAULT_ARCHIVE_SCANNER_STREAM = 5;
+    public static final int DEFAULT_REPLICATION_STREAM = 6;
 
     public static final int DEFAULT_INITIAL_SEQUENCE_INDEX = 0;
 
     private String host = null;
     private int port;
     private int replayIndexFileSize = getInteger(REPLAY_INDEX_FILE_SIZE_PROP, DEFAULT_REPLAY_INDEX_FILE_SIZE);
+    private int timeIndexFileSize = getInteger(TIME_INDEX_FILE_SIZE_PROP, DEFAULT_TIME_INDEX_FILE_SIZE);
+    private long timeIndexPeriodInNs = Long.getLong(TIME_INDEX_PERIOD_IN_NS_PROP, DEFAULT_TIME_INDEX_PERIOD_IN_NS);
     private String logFileDir = getProperty(LOG_FILE_DIR_PROP, DEFAULT_LOG_FILE_DIR);
     private int loggerCacheNumSets = DEFAULT_LOGGER_CACHE_NUM_SETS;
     private int loggerCacheSetSize = DEFAULT_LOGGER_CACHE_SET_SIZE;
@@ -209,6 +268,7 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         getInteger(REPLAY_FRAGMENT_LIMIT_PROP, DEFAULT_REPLAY_FRAGMENT_LIMIT);
     private int inboundBytesReceivedLimit =
         getInteger(INBOUND_BYTES_RECEIVED_LIMIT_PROP, DEFAULT_INBOUND_BYTES_RECEIVED_LIMIT);
+    private int framerShardCount = getInteger(FRAMER_SHARD_COUNT_PROP, DEFAULT_FRAMER_SHARD_COUNT);
     private int receiverBufferSize =
         getInteger(RECEIVER_BUFFER_SIZE_PROP, DEFAULT_RECEIVER_BUFFER_SIZE);
     private int receiverSocketBufferSize =
@@ -221,6 +281,9 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         getInteger(SESSION_ID_BUFFER_SIZE_PROP, DEFAULT_SESSION_ID_BUFFER_SIZE);
     private int senderMaxBytesInBuffer =
         getInteger(SENDER_MAX_BYTES_IN_BUFFER_PROP, DEFAULT_SENDER_MAX_BYTES_IN_BUFFER);
+    private int senderWriteBatchSize =
+        getInteger(SENDER_WRITE_BATCH_SIZE_PROP, DEFAULT_SENDER_WRITE_BATCH_SIZE);
+    private boolean fairReceiverPolling = Boolean.getBoolean(FAIR_RECEIVER_POLLING_PROP);
     private int noLogonDisconnectTimeoutInMs =
         getInteger(NO_LOGON_DISCONNECT_TIMEOUT_PROP, DEFAULT_NO_LOGON_DISCONNECT_TIMEOUT);
 
@@ -233,6 +296,8 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     private ILink3RetransmitHandler iLink3RetransmitHandler = DEFAULT_ILINK3_RETRANSMIT_HANDLER;
     private int outboundReplayStream = DEFAULT_OUTBOUND_REPLAY_STREAM;
     private int archiveReplayStream = DEFAULT_ARCHIVE_REPLAY_STREAM;
+    private String replicationChannel = null;
+    private int replicationStream = DEFAULT_REPLICATION_STREAM;
     private boolean acceptedSessionClosedResendInterval = DEFAULT_CLOSED_RESEND_INTERVAL;
     private int acceptedSessionResendRequestChunkSize = NO_RESEND_REQUEST_CHUNK_SIZE;
     private boolean acceptedSessionSendRedundantResendRequests = DEFAULT_SEND_REDUNDANT_RESEND_REQUESTS;
@@ -240,6 +305,11 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     private InitialAcceptedSessionOwner initialAcceptedSessionOwner = InitialAcceptedSessionOwner.ENGINE;
     private AuthenticationStrategy authenticationStrategy = AuthenticationStrategy.none();
     private long indexFileStateFlushTimeoutInMs = DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS;
+    private boolean sequenceNumberIndexJournalled = Boolean.getBoolean(SEQUENCE_NUMBER_INDEX_JOURNALLED_PROP);
+    private int recentMessageCacheSize =
+        getInteger(RECENT_MESSAGE_CACHE_SIZE_PROP, DEFAULT_RECENT_MESSAGE_CACHE_SIZE);
+    private int recentMessageCacheMaxMessageLength =
+        getInteger(RECENT_MESSAGE_CACHE_MAX_MESSAGE_LENGTH_PROP, DEFAULT_RECENT_MESSAGE_CACHE_MAX_MESSAGE_LENGTH);
     private FixDictionary acceptorfixDictionary;
     private boolean lookupDefaultAcceptorfixDictionary = true;
     private final Map<String, FixDictionary> acceptorFixDictionaryOverrides = new HashMap<>();
@@ -249,6 +319,12 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     private int initialSequenceIndex = DEFAULT_INITIAL_SEQUENCE_INDEX;
     private MessageTimingHandler messageTimingHandler = null;
     private int maxConcurrentSessionReplays = DEFAULT_MAX_CONCURRENT_SESSION_REPLAYS;
+    private int replayerShardCount = getInteger(REPLAYER_SHARD_COUNT_PROP, DEFAULT_REPLAYER_SHARD_COUNT);
+    private Supplier<IdleStrategy> replayerShardIdleStrategySupplier = CommonConfiguration::backoffIdleStrategy;
+    private int authenticationThreadCount =
+        getInteger(AUTHENTICATION_THREAD_COUNT_PROP, DEFAULT_AUTHENTICATION_THREAD_COUNT);
+    private int authenticationQueueCapacity =
+        getInteger(AUTHENTICATION_QUEUE_CAPACITY_PROP, DEFAULT_AUTHENTICATION_QUEUE_CAPACITY);
     private int replayPositionBufferSize = DEFAULT_REPLAY_POSITION_BUFFER_SIZE;
     private long duplicateEngineTimeoutInMs = DEFAULT_DUPLICATE_ENGINE_TIMEOUT_IN_MS;
     private boolean errorIfDuplicateEngineDetected = true;
@@ -359,6 +435,40 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Sets the size of time index files. There is one time index file for each of the inbound and outbound streams,
+     * it maps timestamps to positions within the archive so that the
+     * {@link uk.co.real_logic.artio.engine.logger.FixArchiveScanner} can skip messages that are before the time
+     * range that it is searching. Should be a power of two + TimeIndexDescriptor.INITIAL_RECORD_OFFSET. Each record
+     * in the index is TimeIndexDescriptor.RECORD_LENGTH bytes long.
+     *
+     * @param timeIndexFileSize the size of time index files.
+     * @return this
+     * @see EngineConfiguration#TIME_INDEX_FILE_SIZE_PROP
+     * @see EngineConfiguration#DEFAULT_TIME_INDEX_FILE_SIZE
+     */
+    public EngineConfiguration timeIndexFileSize(final int timeIndexFileSize)
+    {
+        this.timeIndexFileSize = timeIndexFileSize;
+        return this;
+    }
+
+    /**
+     * Sets the period between records in the time index files. At most one record is written per period for each
+     * recording, so a smaller period lets scans skip closer to the start of their time range but means that the
+     * index file covers a shorter time span.
+     *
+     * @param timeIndexPeriodInNs the period between records in the time index files.
+     * @return this
+     * @see EngineConfiguration#TIME_INDEX_PERIOD_IN_NS_PROP
+     * @see EngineConfiguration#DEFAULT_TIME_INDEX_PERIOD_IN_NS
+     */
+    public EngineConfiguration timeIndexPeriodInNs(final long timeIndexPeriodInNs)
+    {
+        this.timeIndexPeriodInNs = timeIndexPeriodInNs;
+        return this;
+    }
+
     /**
      * Sets the set size of the logger's caches.
      * <p>
@@ -497,12 +607,67 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Sets the number of framer shards. Each shard reads data from a partition of the FIX TCP connections on its own
+     * thread and hands it to the Framer thread to be framed, so the cost of the socket reads is spread over multiple
+     * cores. The default of 0 means that the Framer reads from all the TCP connections itself.
+     *
+     * Shards are run on their own threads by the {@link ShardedFramerEngineScheduler}, other schedulers run them on
+     * the Framer's thread.
+     *
+     * @param framerShardCount the number of framer shards.
+     * @return this
+     * @see EngineConfiguration#FRAMER_SHARD_COUNT_PROP
+     */
+    public EngineConfiguration framerShardCount(final int framerShardCount)
+    {
+        this.framerShardCount = framerShardCount;
+        return this;
+    }
+
     public EngineConfiguration senderMaxBytesInBuffer(final int senderMaxBytesInBuffer)
     {
         this.senderMaxBytesInBuffer = senderMaxBytesInBuffer;
         return this;
     }
 
+    /**
+     * Sets the size of the buffer used to batch writes of outbound messages to a TCP connection. When this is
+     * greater than 0 the messages for a connection that are read from the library or replay streams in a single poll
+     * are copied into a per-connection buffer of this size and written to the TCP connection using a single write
+     * rather than one write per message. Messages that are larger than the buffer are written individually.
+     *
+     * The default of 0 disables write batching.
+     *
+     * @param senderWriteBatchSize the size in bytes of the write batching buffer for each connection.
+     * @return this
+     * @see EngineConfiguration#SENDER_WRITE_BATCH_SIZE_PROP
+     */
+    public EngineConfiguration senderWriteBatchSize(final int senderWriteBatchSize)
+    {
+        this.senderWriteBatchSize = senderWriteBatchSize;
+        return this;
+    }
+
+    /**
+     * Sets whether inbound TCP connections are polled fairly. By default when a connection's messages are
+     * back-pressured by the inbound stream then no other connection is read until that connection's messages have
+     * been framed. When polling fairly only the back-pressured connections wait, with the unframed data kept in each
+     * connection's own receive buffer, the other connections carry on being read and the connection that is read
+     * first changes on each poll. This stops a single connection that floods the engine from starving the others.
+     *
+     * The time that each connection spends back-pressured is recorded in a counter in either mode.
+     *
+     * @param fairReceiverPolling true to poll connections fairly, false otherwise.
+     * @return this
+     * @see EngineConfiguration#FAIR_RECEIVER_POLLING_PROP
+     */
+    public EngineConfiguration fairReceiverPolling(final boolean fairReceiverPolling)
+    {
+        this.fairReceiverPolling = fairReceiverPolling;
+        return this;
+    }
+
     /**
      * Set the timeout in milliseconds for TCP connections which don't send a logon message.
      *
@@ -577,7 +742,8 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     }
 
     /**
-     * Sets a handler that will be invoked when a message is replayed.
+     * Sets a handler that will be invoked when a message is replayed. When there's more than one
+     * {@link #replayerShardCount(int) replayer shard} the handler is called from several threads at once.
      *
      * @param replayHandler the replay handler
      * @return this
@@ -589,7 +755,8 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     }
 
     /**
-     * Sets a handler that will be invoked when an iLink3 message is replayed.
+     * Sets a handler that will be invoked when an iLink3 message is replayed. When there's more than one
+     * {@link #replayerShardCount(int) replayer shard} the handler is called from several threads at once.
      *
      * @param iLink3RetransmitHandler the replay handler
      * @return this
@@ -612,6 +779,26 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Sets the aeron channel that session id changes are replicated over to a {@link StandbyEngine}. When set on
+     * a FixEngine every session id that it allocates or updates is published on this channel, a StandbyEngine
+     * uses it to subscribe to those changes. Replication is disabled by default.
+     *
+     * @param replicationChannel the aeron channel to replicate session ids over, or null to disable replication.
+     * @return this
+     */
+    public EngineConfiguration replicationChannel(final String replicationChannel)
+    {
+        this.replicationChannel = replicationChannel;
+        return this;
+    }
+
+    public EngineConfiguration replicationStream(final int replicationStream)
+    {
+        this.replicationStream = replicationStream;
+        return this;
+    }
+
     /**
      * Sets the {@link SessionConfiguration#closedResendInterval()} property for accepted Sessions.
      *
@@ -718,6 +905,58 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Sets whether the sequence number index files are flushed using a journal. By default each flush copies the
+     * whole in-memory index into a second file, syncs it and then renames the files. When journalled, only the
+     * sectors of the index that have changed since the last flush are synced to a journal file and then copied
+     * into the index file in place, which makes flushes much cheaper for large
+     * {@link #SEQUENCE_NUMBER_INDEX_SIZE_PROP} values.
+     *
+     * @param sequenceNumberIndexJournalled true to flush the sequence number index files using a journal.
+     * @return this
+     * @see EngineConfiguration#SEQUENCE_NUMBER_INDEX_JOURNALLED_PROP
+     */
+    public EngineConfiguration sequenceNumberIndexJournalled(final boolean sequenceNumberIndexJournalled)
+    {
+        this.sequenceNumberIndexJournalled = sequenceNumberIndexJournalled;
+        return this;
+    }
+
+    /**
+     * Sets the number of recently sent messages for each session that are kept in memory in order to serve
+     * resend requests without replaying from the archive. Resend requests that aren't entirely covered by the
+     * cache, for example because they ask for older messages, are still replayed from the archive.
+     *
+     * The cache uses <code>recentMessageCacheSize * recentMessageCacheMaxMessageLength</code> bytes of off-heap
+     * memory for each session, up to the number of sessions configured by {@link #loggerCacheNumSets(int)} and
+     * {@link #loggerCacheSetSize(int)}. Defaults to 0, which disables the cache. The cache can only be used with a
+     * single {@link #replayerShardCount(int) replayer shard}.
+     *
+     * @param recentMessageCacheSize the number of messages per session to cache, must be 0 or a power of two.
+     * @return this
+     * @see EngineConfiguration#RECENT_MESSAGE_CACHE_SIZE_PROP
+     */
+    public EngineConfiguration recentMessageCacheSize(final int recentMessageCacheSize)
+    {
+        this.recentMessageCacheSize = recentMessageCacheSize;
+        return this;
+    }
+
+    /**
+     * Sets the maximum length of a message, including Artio's framing header, that will be stored in the recent
+     * message cache. Sending a longer message stops the preceding messages of that session being served from the
+     * cache.
+     *
+     * @param recentMessageCacheMaxMessageLength the maximum length in bytes of a cached message.
+     * @return this
+     * @see EngineConfiguration#RECENT_MESSAGE_CACHE_MAX_MESSAGE_LENGTH_PROP
+     */
+    public EngineConfiguration recentMessageCacheMaxMessageLength(final int recentMessageCacheMaxMessageLength)
+    {
+        this.recentMessageCacheMaxMessageLength = recentMessageCacheMaxMessageLength;
+        return this;
+    }
+
     /**
      * Specify a single acceptor FIX Dictionary. If an override for a given FIX version is specified using
      * {@link #overrideAcceptorFixDictionary(Class)} then this FIX Dictionary will be used as a catch-all for any
@@ -781,6 +1020,40 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Sets the number of threads that run the {@link AuthenticationStrategy} of acceptor logons. By default it's 0
+     * and the strategy is run on the Framer thread, so a strategy that blocks, for example on a database or LDAP
+     * lookup, stalls every other session whilst it does so. When this is greater than 0 the strategy is run on a
+     * bounded pool of that many threads instead and it must be thread safe.
+     *
+     * Logons still waiting for a thread when the queue is full are rejected and logons whose strategy doesn't
+     * complete within {@link #authenticationTimeoutInMs(long)} are disconnected, as they are without the pool.
+     *
+     * @param authenticationThreadCount the number of authentication threads, must be at least 0.
+     * @return this
+     * @see EngineConfiguration#AUTHENTICATION_THREAD_COUNT_PROP
+     * @see #authenticationQueueCapacity(int)
+     */
+    public EngineConfiguration authenticationThreadCount(final int authenticationThreadCount)
+    {
+        this.authenticationThreadCount = authenticationThreadCount;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of acceptor logons that can wait for an authentication thread, only used when
+     * {@link #authenticationThreadCount(int)} is greater than 0.
+     *
+     * @param authenticationQueueCapacity the maximum number of waiting logons, must be at least 1.
+     * @return this
+     * @see EngineConfiguration#AUTHENTICATION_QUEUE_CAPACITY_PROP
+     */
+    public EngineConfiguration authenticationQueueCapacity(final int authenticationQueueCapacity)
+    {
+        this.authenticationQueueCapacity = authenticationQueueCapacity;
+        return this;
+    }
+
     public EngineConfiguration messageTimingHandler(final MessageTimingHandler messageTimingHandler)
     {
         this.messageTimingHandler = messageTimingHandler;
@@ -802,6 +1075,45 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Sets the number of replayer shards. Resend requests are partitioned between the shards by session id, so a
+     * large number of sessions requesting resends at the same time, for example after a failover, are replayed in
+     * parallel.
+     *
+     * When there's more than one shard each shard runs on its own thread, with its own replay publication, archive
+     * replay subscription, replay index cache, command queue from the Framer and current replay count counter. The
+     * archiving agent reads the inbound stream once and hands each shard the resend requests of its sessions. The
+     * {@link #maxConcurrentSessionReplays(int)} limit is applied independently by each shard to its own sessions.
+     * The {@link #replayHandler(ReplayHandler)} and {@link #iLink3RetransmitHandler(ILink3RetransmitHandler)} are
+     * called from every shard's thread. The {@link #recentMessageCacheSize(int) recent message cache} can't be used
+     * with more than one shard, as it's written by the outbound indexer's thread.
+     * Defaults to 1, which runs the replayer on the archiving agent's thread.
+     *
+     * @param replayerShardCount the number of replayer shards, must be at least 1.
+     * @return this
+     * @see EngineConfiguration#REPLAYER_SHARD_COUNT_PROP
+     * @see EngineConfiguration#replayerShardIdleStrategy(Supplier)
+     */
+    public EngineConfiguration replayerShardCount(final int replayerShardCount)
+    {
+        this.replayerShardCount = replayerShardCount;
+        return this;
+    }
+
+    /**
+     * Sets the idle strategy of each replayer shard's thread, only used when the
+     * {@link #replayerShardCount(int)} is more than 1. A new idle strategy is created for each shard.
+     *
+     * @param replayerShardIdleStrategySupplier creates the idle strategy for each replayer shard.
+     * @return this
+     */
+    public EngineConfiguration replayerShardIdleStrategy(
+        final Supplier<IdleStrategy> replayerShardIdleStrategySupplier)
+    {
+        this.replayerShardIdleStrategySupplier = replayerShardIdleStrategySupplier;
+        return this;
+    }
+
     /**
      * Sets the initial sequenceIndex for the new session.
      * Doesnt affects existing session.
@@ -873,6 +1185,16 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return replayIndexFileSize;
     }
 
+    public int timeIndexFileSize()
+    {
+        return timeIndexFileSize;
+    }
+
+    public long timeIndexPeriodInNs()
+    {
+        return timeIndexPeriodInNs;
+    }
+
     public int loggerCacheSetSize()
     {
         return loggerCacheSetSize;
@@ -933,6 +1255,11 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return inboundBytesReceivedLimit;
     }
 
+    public int framerShardCount()
+    {
+        return framerShardCount;
+    }
+
     public MappedFile sentSequenceNumberIndex()
     {
         return sentSequenceNumberIndex;
@@ -982,6 +1309,16 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return senderMaxBytesInBuffer;
     }
 
+    public int senderWriteBatchSize()
+    {
+        return senderWriteBatchSize;
+    }
+
+    public boolean fairReceiverPolling()
+    {
+        return fairReceiverPolling;
+    }
+
     public int noLogonDisconnectTimeoutInMs()
     {
         return noLogonDisconnectTimeoutInMs;
@@ -1027,6 +1364,21 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return indexFileStateFlushTimeoutInMs;
     }
 
+    public boolean sequenceNumberIndexJournalled()
+    {
+        return sequenceNumberIndexJournalled;
+    }
+
+    public int recentMessageCacheSize()
+    {
+        return recentMessageCacheSize;
+    }
+
+    public int recentMessageCacheMaxMessageLength()
+    {
+        return recentMessageCacheMaxMessageLength;
+    }
+
     public FixDictionary acceptorfixDictionary()
     {
         return acceptorfixDictionary;
@@ -1057,6 +1409,26 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return maxConcurrentSessionReplays;
     }
 
+    public int replayerShardCount()
+    {
+        return replayerShardCount;
+    }
+
+    public IdleStrategy newReplayerShardIdleStrategy()
+    {
+        return replayerShardIdleStrategySupplier.get();
+    }
+
+    public int authenticationThreadCount()
+    {
+        return authenticationThreadCount;
+    }
+
+    public int authenticationQueueCapacity()
+    {
+        return authenticationQueueCapacity;
+    }
+
     public int replayPositionBufferSize()
     {
         return replayPositionBufferSize;
@@ -1220,6 +1592,16 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return archiveReplayStream;
     }
 
+    public String replicationChannel()
+    {
+        return replicationChannel;
+    }
+
+    public int replicationStream()
+    {
+        return replicationStream;
+    }
+
     public boolean acceptedSessionClosedResendInterval()
     {
         return acceptedSessionClosedResendInterval;
@@ -1279,6 +1661,47 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
                 sessionBufferSize()));
         }
 
+        if (framerShardCount() < 0)
+        {
+            throw new IllegalArgumentException("framerShardCount must be >= 0, but is " + framerShardCount());
+        }
+
+        if (replayerShardCount() < 1)
+        {
+            throw new IllegalArgumentException("replayerShardCount must be >= 1, but is " + replayerShardCount());
+        }
+
+        if (replayerShardCount() > 1 && recentMessageCacheSize() > 0)
+        {
+            throw new IllegalArgumentException(String.format(
+                "The recent message cache can't be used with replayer shards: recentMessageCacheSize(%d), " +
+                "replayerShardCount(%d)",
+                recentMessageCacheSize(),
+                replayerShardCount()));
+        }
+
+        if (authenticationThreadCount() < 0)
+        {
+            throw new IllegalArgumentException(
+                "authenticationThreadCount must be >= 0, but is " + authenticationThreadCount());
+        }
+
+        if (authenticationQueueCapacity() < 1)
+        {
+            throw new IllegalArgumentException(
+                "authenticationQueueCapacity must be >= 1, but is " + authenticationQueueCapacity());
+        }
+
+        if (timeIndexPeriodInNs() <= 0)
+        {
+            throw new IllegalArgumentException("timeIndexPeriodInNs must be > 0, but is " + timeIndexPeriodInNs());
+        }
+
+        if (senderWriteBatchSize() < 0)
+        {
+            throw new IllegalArgumentException("senderWriteBatchSize must be >= 0, but is " + senderWriteBatchSize());
+        }
+
         if (deleteLogFileDirOnStart())
         {
             final File logFileDir = new File(logFileDir());
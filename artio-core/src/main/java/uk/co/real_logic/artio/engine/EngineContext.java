@@ -24,6 +24,9 @@ import io.aeron.logbuffer.BufferClaim;
 import org.agrona.ErrorHandler;
 import org.agrona.collections.Long2LongHashMap;
 import org.agrona.concurrent.*;
+import org.agrona.concurrent.ringbuffer.OneToOneRingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBuffer;
+import org.agrona.concurrent.status.AtomicCounter;
 import uk.co.real_logic.artio.FixCounters;
 import uk.co.real_logic.artio.Reply;
 import uk.co.real_logic.artio.StreamInformation;
@@ -35,15 +38,18 @@ import uk.co.real_logic.artio.fields.EpochFractionFormat;
 import uk.co.real_logic.artio.protocol.GatewayPublication;
 import uk.co.real_logic.artio.protocol.Streams;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
 import static java.util.Arrays.asList;
+import static org.agrona.concurrent.ringbuffer.RingBufferDescriptor.TRAILER_LENGTH;
 import static uk.co.real_logic.artio.dictionary.generation.Exceptions.suppressingClose;
 import static uk.co.real_logic.artio.engine.SessionInfo.UNK_SESSION;
 
 public class EngineContext implements AutoCloseable
 {
+    private static final int REPLAYER_SHARD_BUFFER_CAPACITY = 256 * 1024;
 
     private final PruneOperation.Formatters pruneOperationFormatters = new PruneOperation.Formatters();
     private final CompletionPosition inboundCompletionPosition = new CompletionPosition();
@@ -55,11 +61,12 @@ public class EngineContext implements AutoCloseable
     private final ErrorHandler errorHandler;
     private final FixCounters fixCounters;
     private final Aeron aeron;
-    private final ReplayerCommandQueue replayerCommandQueue;
-    private final SenderSequenceNumbers senderSequenceNumbers;
+    // One of each per replayer shard
+    private final ReplayerCommandQueue[] replayerCommandQueues;
+    private final SenderSequenceNumbers[] senderSequenceNumbers;
+    private final ExclusivePublication[] replayPublications;
     private final AeronArchive aeronArchive;
     private final RecordingCoordinator recordingCoordinator;
-    private final ExclusivePublication replayPublication;
     private final SequenceNumberIndexWriter sentSequenceNumberIndex;
     private final SequenceNumberIndexWriter receivedSequenceNumberIndex;
 
@@ -69,6 +76,7 @@ public class EngineContext implements AutoCloseable
     // Indexers are owned by the indexingAgent
     private Indexer inboundIndexer;
     private Indexer outboundIndexer;
+    private RecentMessageCache recentMessageCache;
     private Agent indexingAgent;
     private ReplayQuery pruneInboundReplayQuery;
     private ReplayQuery outboundReplayQuery;
@@ -77,7 +85,7 @@ public class EngineContext implements AutoCloseable
     EngineContext(
         final EngineConfiguration configuration,
         final ErrorHandler errorHandler,
-        final ExclusivePublication replayPublication,
+        final ExclusivePublication[] replayPublications,
         final FixCounters fixCounters,
         final Aeron aeron,
         final AeronArchive aeronArchive,
@@ -88,12 +96,20 @@ public class EngineContext implements AutoCloseable
         this.fixCounters = fixCounters;
         this.aeron = aeron;
         this.clock = configuration.epochNanoClock();
-        this.replayPublication = replayPublication;
+        this.replayPublications = replayPublications;
         this.aeronArchive = aeronArchive;
         this.recordingCoordinator = recordingCoordinator;
 
-        replayerCommandQueue = new ReplayerCommandQueue(configuration.framerIdleStrategy());
-        senderSequenceNumbers = new SenderSequenceNumbers(replayerCommandQueue);
+        final int replayerCount = replayPublications.length;
+        replayerCommandQueues = new ReplayerCommandQueue[replayerCount];
+        senderSequenceNumbers = new SenderSequenceNumbers[replayerCount];
+        SenderSequenceNumbers nextShard = null;
+        for (int i = replayerCount - 1; i >= 0; i--)
+        {
+            replayerCommandQueues[i] = new ReplayerCommandQueue(configuration.framerIdleStrategy());
+            nextShard = new SenderSequenceNumbers(replayerCommandQueues[i], nextShard);
+            senderSequenceNumbers[i] = nextShard;
+        }
 
         try
         {
@@ -106,6 +122,7 @@ public class EngineContext implements AutoCloseable
                 configuration.outboundLibraryStream(),
                 recordingCoordinator.indexerOutboundRecordingIdLookup(),
                 configuration.indexFileStateFlushTimeoutInMs(),
+                configuration.sequenceNumberIndexJournalled(),
                 epochClock,
                 configuration.logFileDir(),
                 connectionIdToILinkUuid);
@@ -116,6 +133,7 @@ public class EngineContext implements AutoCloseable
                 configuration.inboundLibraryStream(),
                 recordingCoordinator.indexerInboundRecordingIdLookup(),
                 configuration.indexFileStateFlushTimeoutInMs(),
+                configuration.sequenceNumberIndexJournalled(),
                 epochClock,
                 null,
                 connectionIdToILinkUuid);
@@ -179,6 +197,17 @@ public class EngineContext implements AutoCloseable
             connectionIdToILinkUuid);
     }
 
+    private TimeIndexWriter newTimeIndexWriter(
+        final String logFileDir, final int streamId, final RecordingIdLookup recordingIdLookup)
+    {
+        return new TimeIndexWriter(
+            logFileDir,
+            streamId,
+            configuration.timeIndexFileSize(),
+            configuration.timeIndexPeriodInNs(),
+            recordingIdLookup);
+    }
+
     private ReplayQuery newReplayQuery(final IdleStrategy idleStrategy, final int streamId)
     {
         final String logFileDir = configuration.logFileDir();
@@ -199,31 +228,74 @@ public class EngineContext implements AutoCloseable
     }
 
     private Replayer newReplayer(
-        final ExclusivePublication replayPublication, final ReplayQuery replayQuery)
+        final ReplayQuery replayQuery,
+        final IdleStrategy idleStrategy,
+        final Subscription inboundSubscription,
+        final RingBuffer shardBuffer,
+        final AtomicCounter currentReplayCount,
+        final int shardIndex)
     {
         final EpochFractionFormat epochFractionFormat = configuration.sessionEpochFractionFormat();
         return new Replayer(
             replayQuery,
-            replayPublication,
+            replayPublications[shardIndex],
             new BufferClaim(),
-            configuration.archiverIdleStrategy(),
+            idleStrategy,
             errorHandler,
             configuration.outboundMaxClaimAttempts(),
-            inboundLibraryStreams.subscription("replayer"),
+            inboundSubscription,
             configuration.agentNamePrefix(),
             new SystemEpochClock(),
             configuration.gapfillOnReplayMessageTypes(),
             configuration.gapfillOnRetransmitILinkTemplateIds(),
             configuration.replayHandler(),
             configuration.iLink3RetransmitHandler(),
-            senderSequenceNumbers,
+            senderSequenceNumbers[shardIndex],
             new FixSessionCodecsFactory(epochFractionFormat),
             configuration.senderMaxBytesInBuffer(),
-            replayerCommandQueue,
+            replayerCommandQueues[shardIndex],
             epochFractionFormat,
-            fixCounters.currentReplayCount(),
+            currentReplayCount,
             configuration.maxConcurrentSessionReplays(),
-            configuration.epochNanoClock());
+            configuration.epochNanoClock(),
+            recentMessageCache,
+            shardBuffer,
+            shardIndex);
+    }
+
+    private Agent newShardedReplayer()
+    {
+        final int shardCount = replayPublications.length;
+        final RingBuffer[] shardBuffers = new RingBuffer[shardCount];
+        final AgentRunner[] shardRunners = new AgentRunner[shardCount];
+        for (int shardIndex = 0; shardIndex < shardCount; shardIndex++)
+        {
+            // Each shard runs on its own thread, so needs its own idle strategy and replay query
+            final IdleStrategy idleStrategy = configuration.newReplayerShardIdleStrategy();
+            final ReplayQuery replayQuery = newReplayQuery(idleStrategy, configuration.outboundLibraryStream());
+            if (shardIndex == 0)
+            {
+                outboundReplayQuery = replayQuery;
+            }
+
+            shardBuffers[shardIndex] = new OneToOneRingBuffer(new UnsafeBuffer(
+                ByteBuffer.allocateDirect(REPLAYER_SHARD_BUFFER_CAPACITY + TRAILER_LENGTH)));
+            final Replayer replayer = newReplayer(
+                replayQuery,
+                idleStrategy,
+                null,
+                shardBuffers[shardIndex],
+                fixCounters.currentReplayCount(shardIndex),
+                shardIndex);
+            shardRunners[shardIndex] = new AgentRunner(idleStrategy, errorHandler, null, replayer);
+        }
+
+        return new ShardedReplayer(
+            inboundLibraryStreams.subscription("shardedReplayer"),
+            shardBuffers,
+            shardRunners,
+            configuration.threadFactory(),
+            configuration.agentNamePrefix());
     }
 
     private void newIndexers()
@@ -242,7 +314,13 @@ public class EngineContext implements AutoCloseable
             connectionIdToILinkUuid);
 
         inboundIndexer = new Indexer(
-            asList(inboundReplayIndex, receivedSequenceNumberIndex),
+            asList(
+                inboundReplayIndex,
+                receivedSequenceNumberIndex,
+                newTimeIndexWriter(
+                    logFileDir,
+                    configuration.inboundLibraryStream(),
+                    recordingCoordinator.indexerInboundRecordingIdLookup())),
             inboundLibraryStreams.subscription("inboundIndexer"),
             configuration.agentNamePrefix(),
             inboundCompletionPosition,
@@ -260,6 +338,23 @@ public class EngineContext implements AutoCloseable
             recordingCoordinator.indexerOutboundRecordingIdLookup(),
             connectionIdToILinkUuid));
         outboundIndices.add(sentSequenceNumberIndex);
+        outboundIndices.add(newTimeIndexWriter(
+            logFileDir,
+            configuration.outboundLibraryStream(),
+            recordingCoordinator.indexerOutboundRecordingIdLookup()));
+
+        final int recentMessageCacheSize = configuration.recentMessageCacheSize();
+        if (recentMessageCacheSize > 0)
+        {
+            recentMessageCache = new RecentMessageCache(
+                configuration.outboundLibraryStream(),
+                recentMessageCacheSize,
+                configuration.recentMessageCacheMaxMessageLength(),
+                cacheNumSets,
+                cacheSetSize,
+                errorHandler);
+            outboundIndices.add(recentMessageCache);
+        }
 
         outboundIndexer = new Indexer(
             outboundIndices,
@@ -278,21 +373,33 @@ public class EngineContext implements AutoCloseable
         {
             newIndexers();
 
-            outboundReplayQuery = newReplayQuery(
-                configuration.archiverIdleStrategy(), configuration.outboundLibraryStream());
-            final Replayer replayer = newReplayer(replayPublication, outboundReplayQuery);
-
             final List<Agent> agents = new ArrayList<>();
             agents.add(inboundIndexer);
             agents.add(outboundIndexer);
-            agents.add(replayer);
+
+            if (replayPublications.length == 1)
+            {
+                outboundReplayQuery = newReplayQuery(
+                    configuration.archiverIdleStrategy(), configuration.outboundLibraryStream());
+                agents.add(newReplayer(
+                    outboundReplayQuery,
+                    configuration.archiverIdleStrategy(),
+                    inboundLibraryStreams.subscription("replayer"),
+                    null,
+                    fixCounters.currentReplayCount(),
+                    0));
+            }
+            else
+            {
+                agents.add(newShardedReplayer());
+            }
 
             indexingAgent = new CompositeAgent(agents);
         }
         else
         {
             final GatewayPublication replayGatewayPublication = new GatewayPublication(
-                replayPublication,
+                replayPublications[0],
                 fixCounters.failedReplayPublications(),
                 configuration.archiverIdleStrategy(),
                 clock,
@@ -302,8 +409,8 @@ public class EngineContext implements AutoCloseable
                 inboundLibraryStreams.subscription("replayer"),
                 replayGatewayPublication,
                 configuration.agentNamePrefix(),
-                senderSequenceNumbers,
-                replayerCommandQueue,
+                senderSequenceNumbers[0],
+                replayerCommandQueues[0],
                 new FixSessionCodecsFactory(configuration.sessionEpochFractionFormat()));
         }
     }
@@ -365,9 +472,10 @@ public class EngineContext implements AutoCloseable
         return indexingAgent;
     }
 
+    // Publishes new senders to every replayer shard
     public SenderSequenceNumbers senderSequenceNumbers()
     {
-        return senderSequenceNumbers;
+        return senderSequenceNumbers[0];
     }
 
     public void framerContext(final FramerContext framerContext)
@@ -394,7 +502,7 @@ public class EngineContext implements AutoCloseable
             outboundReplayQuery,
             pruneInboundReplayQuery,
             aeronArchive,
-            replayerCommandQueue,
+            replayerCommandQueues[0],
             recordingCoordinator);
 
         if (!framerContext.offer(operation))
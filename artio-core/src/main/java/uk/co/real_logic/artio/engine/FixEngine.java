@@ -258,7 +258,7 @@ public final class FixEngine extends GatewayProcess
             scheduler = configuration.scheduler();
             scheduler.configure(configuration.aeronContext());
             init(configuration);
-            timers = new EngineTimers(configuration.epochNanoClock(), fixCounters.negativeTimestamps());
+            timers = new EngineTimers(configuration.epochNanoClock(), fixCounters);
             final AeronArchive.Context archiveContext = configuration.aeronArchiveContext();
             final AeronArchive aeronArchive =
                 configuration.logAnyMessages() ? AeronArchive.connect(archiveContext.aeron(aeron)) : null;
@@ -269,16 +269,16 @@ public final class FixEngine extends GatewayProcess
                 configuration.archiverIdleStrategy(),
                 errorHandler);
 
-            final ExclusivePublication replayPublication = replayPublication();
+            final ExclusivePublication[] replayPublications = replayPublications();
             engineContext = new EngineContext(
                 configuration,
                 errorHandler,
-                replayPublication,
+                replayPublications,
                 fixCounters,
                 aeron,
                 aeronArchive,
                 recordingCoordinator);
-            initFramer(configuration, fixCounters, replayPublication.sessionId());
+            initFramer(configuration, fixCounters, replayPublications);
             initMonitoringAgent(timers.all(), configuration, aeronArchive, duplicateEngineChecker);
         }
         catch (final Exception e)
@@ -294,24 +294,33 @@ public final class FixEngine extends GatewayProcess
         }
     }
 
-    private ExclusivePublication replayPublication()
+    // One per replayer shard, gap filling isn't sharded
+    private ExclusivePublication[] replayPublications()
     {
-        final ExclusivePublication publication = aeron.addExclusivePublication(
-            IPC_CHANNEL, configuration.outboundReplayStream());
-        StreamInformation.print("replayPublication", publication, configuration);
-        return publication;
+        final int replayerCount = configuration.logOutboundMessages() ? configuration.replayerShardCount() : 1;
+        final ExclusivePublication[] publications = new ExclusivePublication[replayerCount];
+        for (int i = 0; i < replayerCount; i++)
+        {
+            final ExclusivePublication publication = aeron.addExclusivePublication(
+                IPC_CHANNEL, configuration.outboundReplayStream());
+            StreamInformation.print("replayPublication", publication, configuration);
+            publications[i] = publication;
+        }
+        return publications;
     }
 
     private void initFramer(
-        final EngineConfiguration configuration, final FixCounters fixCounters, final int replaySessionId)
+        final EngineConfiguration configuration,
+        final FixCounters fixCounters,
+        final ExclusivePublication[] replayPublications)
     {
         framerContext = new FramerContext(
             configuration,
             fixCounters,
             engineContext,
             errorHandler,
-            replayImage("replay", replaySessionId),
-            replayImage("slow-replay", replaySessionId),
+            replayImages("replay", replayPublications),
+            replayImages("slow-replay", replayPublications),
             timers,
             aeron.conductorAgentInvoker(),
             recordingCoordinator,
@@ -320,12 +329,22 @@ public final class FixEngine extends GatewayProcess
         engineContext.framerContext(framerContext);
     }
 
-    private Image replayImage(final String name, final int replaySessionId)
+    private Image[] replayImages(final String name, final ExclusivePublication[] replayPublications)
     {
         final Subscription subscription = aeron.addSubscription(
             IPC_CHANNEL, configuration.outboundReplayStream());
         StreamInformation.print(name, subscription, configuration);
 
+        final Image[] images = new Image[replayPublications.length];
+        for (int i = 0; i < images.length; i++)
+        {
+            images[i] = replayImage(subscription, replayPublications[i].sessionId());
+        }
+        return images;
+    }
+
+    private Image replayImage(final Subscription subscription, final int replaySessionId)
+    {
         // Await replay publication
         while (true)
         {
@@ -357,6 +376,7 @@ public final class FixEngine extends GatewayProcess
             configuration,
             errorHandler,
             framerContext.framer(),
+            framerContext.framerShards(),
             engineContext.indexingAgent(),
             monitoringAgent,
             conductorAgent(),
@@ -21,7 +21,9 @@ import org.agrona.DirectBuffer;
  * A callback that can be implemented to inspect the messages that get retransmitted on an Ilink3 connection.
  *
  * This callback is called for every message that needs to be replayed, even those that are replaced with
- * a sequence message. The handler is invoked on the Replay Agent.
+ * a sequence message. The handler is invoked on the Replay Agent. If the
+ * {@link EngineConfiguration#replayerShardCount(int)} is more than 1 then the handler is invoked concurrently by each
+ * replayer shard's thread, so it must be thread safe.
  */
 @FunctionalInterface
 public interface ILink3RetransmitHandler
@@ -27,6 +27,7 @@ import uk.co.real_logic.artio.LogTag;
 import uk.co.real_logic.artio.dictionary.LongDictionary;
 import uk.co.real_logic.artio.fields.UtcTimestampEncoder;
 import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.FixMessageEncoder;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
 import uk.co.real_logic.artio.otf.OtfParser;
 import uk.co.real_logic.artio.protocol.GatewayPublication;
@@ -44,12 +45,14 @@ import static java.nio.charset.StandardCharsets.US_ASCII;
 import static uk.co.real_logic.artio.engine.PossDupFinder.NO_ENTRY;
 import static uk.co.real_logic.artio.engine.framer.CatchupReplayer.FRAME_LENGTH;
 import static uk.co.real_logic.artio.messages.FixMessageDecoder.metaDataHeaderLength;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.NO_FIELD_OFFSET;
 import static uk.co.real_logic.artio.util.AsciiBuffer.SEPARATOR_LENGTH;
 import static uk.co.real_logic.artio.util.MutableAsciiBuffer.SEPARATOR;
 
 public class PossDupEnabler
 {
     private static final byte[] POSS_DUP_FIELD = "43=Y\001".getBytes(US_ASCII);
+    private static final int POSS_DUP_TAG_LENGTH = "43=".length();
     public static final String ORIG_SENDING_TIME_PREFIX_AS_STR = "122=";
     private static final byte[] ORIG_SENDING_TIME_PREFIX = ORIG_SENDING_TIME_PREFIX_AS_STR.getBytes(US_ASCII);
 
@@ -60,6 +63,7 @@ public class PossDupEnabler
     private final PossDupFinder possDupFinder = new PossDupFinder();
     private final OtfParser parser = new OtfParser(possDupFinder, new LongDictionary());
     private final MutableAsciiBuffer mutableAsciiFlyweight = new MutableAsciiBuffer();
+    private final MutableAsciiBuffer srcAsciiFlyweight = new MutableAsciiBuffer();
     private final UtcTimestampEncoder utcTimestampEncoder;
 
     private final BufferClaim bufferClaim;
@@ -100,7 +104,6 @@ public class PossDupEnabler
         this.logTag = logTag;
     }
 
-    // Only return abort if genuinely back pressured
     public Action enablePossDupFlag(
         final DirectBuffer srcBuffer,
         final int messageOffset,
@@ -109,7 +112,36 @@ public class PossDupEnabler
         final int srcLength,
         final int metaDataAdjustment)
     {
-        parser.onMessage(srcBuffer, messageOffset, messageLength);
+        return enablePossDupFlag(
+            srcBuffer,
+            messageOffset,
+            messageLength,
+            srcOffset,
+            srcLength,
+            metaDataAdjustment,
+            NO_FIELD_OFFSET,
+            NO_FIELD_OFFSET);
+    }
+
+    // Only return abort if genuinely back pressured.
+    // If the sending time offset was recorded in the frame then the message doesn't need to be parsed.
+    public Action enablePossDupFlag(
+        final DirectBuffer srcBuffer,
+        final int messageOffset,
+        final int messageLength,
+        final int srcOffset,
+        final int srcLength,
+        final int metaDataAdjustment,
+        final int sendingTimeOffset,
+        final int possDupOffset)
+    {
+        final boolean hasRecordedOffsets = sendingTimeOffset > NO_FIELD_OFFSET && findRecordedOffsets(
+            srcBuffer, messageOffset, messageLength, sendingTimeOffset, possDupOffset);
+        if (!hasRecordedOffsets)
+        {
+            parser.onMessage(srcBuffer, messageOffset, messageLength);
+        }
+
         final int possDupSrcOffset = possDupFinder.possDupOffset();
         if (possDupSrcOffset == NO_ENTRY)
         {
@@ -144,6 +176,14 @@ public class PossDupEnabler
                     newLength,
                     metaDataAdjustment))
                 {
+                    if (hasRecordedOffsets)
+                    {
+                        // Later fields have moved if the body length got longer
+                        updateFrameFieldOffsets(
+                            sendingTimeOffset + lengthDelta,
+                            possDupFinder.sendingTimeEnd() - messageOffset + lengthDelta + POSS_DUP_TAG_LENGTH);
+                    }
+
                     return commit(true);
                 }
                 else
@@ -169,9 +209,9 @@ public class PossDupEnabler
             {
                 final MutableDirectBuffer writeBuffer = writeBuffer();
                 final int writeOffset = writeOffset();
-                writeBuffer.putBytes(writeOffset, srcBuffer, messageOffset, messageLength);
-                setPossDupFlag(possDupSrcOffset, messageOffset, writeOffset, writeBuffer);
-                updateSendingTime(messageOffset);
+                writeBuffer.putBytes(writeOffset, srcBuffer, srcOffset, srcLength);
+                setPossDupFlag(possDupSrcOffset, srcOffset, writeOffset, writeBuffer);
+                updateSendingTime(srcOffset);
 
                 return commit(false);
             }
@@ -185,6 +225,29 @@ public class PossDupEnabler
         return CONTINUE;
     }
 
+    private boolean findRecordedOffsets(
+        final DirectBuffer srcBuffer,
+        final int messageOffset,
+        final int messageLength,
+        final int sendingTimeOffset,
+        final int possDupOffset)
+    {
+        final MutableAsciiBuffer srcAsciiFlyweight = this.srcAsciiFlyweight;
+        srcAsciiFlyweight.wrap(srcBuffer);
+        return possDupFinder.onRecordedOffsets(
+            srcAsciiFlyweight, messageOffset, messageLength, sendingTimeOffset, possDupOffset);
+    }
+
+    private void updateFrameFieldOffsets(final int sendingTimeOffset, final int possDupOffset)
+    {
+        final MutableDirectBuffer writeBuffer = writeBuffer();
+        final int frameOffset = writeOffset() + MessageHeaderDecoder.ENCODED_LENGTH;
+        writeBuffer.putInt(
+            frameOffset + FixMessageEncoder.sendingTimeOffsetEncodingOffset(), sendingTimeOffset, LITTLE_ENDIAN);
+        writeBuffer.putInt(
+            frameOffset + FixMessageEncoder.possDupOffsetEncodingOffset(), possDupOffset, LITTLE_ENDIAN);
+    }
+
     private void abort()
     {
         if (isProcessingFragmentedMessage())
@@ -426,7 +489,7 @@ public class PossDupEnabler
     {
         final int possDupClaimOffset = srcToClaim(possDupSrcOffset, messageOffset, claimOffset);
         mutableAsciiFlyweight.wrap(claimBuffer);
-        mutableAsciiFlyweight.putChar(possDupClaimOffset, 'Y');
+        mutableAsciiFlyweight.putBooleanAscii(possDupClaimOffset, true);
     }
 
     private int srcToClaim(final int srcIndexedOffset, final int srcOffset, final int claimOffset)
@@ -22,10 +22,15 @@ import uk.co.real_logic.artio.otf.MessageControl;
 import uk.co.real_logic.artio.otf.OtfMessageAcceptor;
 import uk.co.real_logic.artio.util.AsciiBuffer;
 
+import static uk.co.real_logic.artio.util.AsciiBuffer.UNKNOWN_INDEX;
+import static uk.co.real_logic.artio.util.MutableAsciiBuffer.SEPARATOR;
+
 public class PossDupFinder implements OtfMessageAcceptor
 {
     public static final int NO_ENTRY = -1;
 
+    private static final int BODY_LENGTH_TAG_LENGTH = "9=".length();
+
     private int possDupOffset;
     private int sendingTimeOffset;
     private int sendingTimeLength;
@@ -75,6 +80,54 @@ public class PossDupFinder implements OtfMessageAcceptor
         return MessageControl.CONTINUE;
     }
 
+    /**
+     * Finds the fields of a message using the offsets of its SendingTime and PossDupFlag values that were recorded
+     * when it was sent, rather than parsing it. Only the BodyLength field, which immediately follows the BeginString
+     * field, and the length of the SendingTime value are read from the message.
+     *
+     * @param buffer the buffer containing the message.
+     * @param messageOffset the offset within the buffer that the message starts at.
+     * @param messageLength the length of the message.
+     * @param sendingTimeOffset the offset of the SendingTime value from the start of the message.
+     * @param possDupOffset the offset of the PossDupFlag value from the start of the message, or a value that isn't
+     *                      positive if the message doesn't have a PossDupFlag field.
+     * @return true if the fields were found, false if the message needs to be parsed.
+     */
+    public boolean onRecordedOffsets(
+        final AsciiBuffer buffer,
+        final int messageOffset,
+        final int messageLength,
+        final int sendingTimeOffset,
+        final int possDupOffset)
+    {
+        onNext();
+
+        final int messageEnd = messageOffset + messageLength;
+        final int beginStringEnd = buffer.scan(messageOffset, messageEnd, SEPARATOR);
+        if (beginStringEnd == UNKNOWN_INDEX || sendingTimeOffset >= messageLength)
+        {
+            return false;
+        }
+
+        final int bodyLengthOffset = beginStringEnd + 1 + BODY_LENGTH_TAG_LENGTH;
+        final int bodyLengthEnd = buffer.scan(bodyLengthOffset, messageEnd, SEPARATOR);
+        final int sendingTimeStart = messageOffset + sendingTimeOffset;
+        final int sendingTimeEnd = buffer.scan(sendingTimeStart, messageEnd, SEPARATOR);
+        if (bodyLengthEnd == UNKNOWN_INDEX || sendingTimeEnd == UNKNOWN_INDEX)
+        {
+            return false;
+        }
+
+        this.bodyLengthOffset = bodyLengthOffset;
+        lengthOfBodyLength = bodyLengthEnd - bodyLengthOffset;
+        bodyLength = buffer.getNatural(bodyLengthOffset, bodyLengthEnd);
+        this.sendingTimeOffset = sendingTimeStart;
+        sendingTimeLength = sendingTimeEnd - sendingTimeStart;
+        this.possDupOffset = possDupOffset > 0 ? messageOffset + possDupOffset : NO_ENTRY;
+
+        return true;
+    }
+
     public MessageControl onGroupHeader(final int tag, final int numInGroup)
     {
         return MessageControl.CONTINUE;
@@ -6,7 +6,9 @@ import org.agrona.DirectBuffer;
  * A callback that can be implemented to inspect the messages that get replayed.
  *
  * This callback is called for every message that needs to be replayed, even those that are replaced with
- * a gap fill message. The handler is invoked on the Replay Agent.
+ * a gap fill message. The handler is invoked on the Replay Agent. If the
+ * {@link EngineConfiguration#replayerShardCount(int)} is more than 1 then the handler is invoked concurrently by each
+ * replayer shard's thread, for the sessions of that shard, so it must be thread safe.
  */
 @FunctionalInterface
 public interface ReplayHandler
@@ -30,14 +30,23 @@ public class SenderSequenceNumber implements ReplayerCommand
     private final long connectionId;
     private final AtomicCounter bytesInBuffer;
     private final SenderSequenceNumbers senderSequenceNumbers;
-    private final AtomicInteger lastSentSequenceNumber = new AtomicInteger();
+    // Shared with the instances for the same connection on other replayer shards
+    private final AtomicInteger lastSentSequenceNumber;
+    // The instance for the same connection on the next replayer shard, or null
+    private final SenderSequenceNumber nextShard;
 
     SenderSequenceNumber(
-        final long connectionId, final AtomicCounter bytesInBuffer, final SenderSequenceNumbers senderSequenceNumbers)
+        final long connectionId,
+        final AtomicCounter bytesInBuffer,
+        final AtomicInteger lastSentSequenceNumber,
+        final SenderSequenceNumbers senderSequenceNumbers,
+        final SenderSequenceNumber nextShard)
     {
         this.connectionId = connectionId;
         this.bytesInBuffer = bytesInBuffer;
+        this.lastSentSequenceNumber = lastSentSequenceNumber;
         this.senderSequenceNumbers = senderSequenceNumbers;
+        this.nextShard = nextShard;
     }
 
     public void onNewMessage(final int sequenceNumber)
@@ -63,6 +72,10 @@ public class SenderSequenceNumber implements ReplayerCommand
     public void close()
     {
         senderSequenceNumbers.onSenderClosed(this);
+        if (nextShard != null)
+        {
+            nextShard.close();
+        }
     }
 
     public void execute()
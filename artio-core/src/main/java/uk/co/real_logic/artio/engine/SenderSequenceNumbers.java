@@ -19,8 +19,13 @@ import org.agrona.collections.Long2ObjectHashMap;
 import org.agrona.collections.LongHashSet;
 import org.agrona.concurrent.status.AtomicCounter;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * For publishing the last sent sequence number to the replay system.
+ *
+ * When there are multiple replayer shards each has its own instance, as its state is only accessed on that shard's
+ * thread, and new senders are published to every shard's instance via the first.
  */
 public class SenderSequenceNumbers
 {
@@ -28,6 +33,8 @@ public class SenderSequenceNumbers
 
     // Written on Framer, Read on Indexer
     private final ReplayerCommandQueue queue;
+    // The next replayer shard's instance, or null
+    private final SenderSequenceNumbers nextShard;
 
     // Indexer State
     private final Long2ObjectHashMap<SenderSequenceNumber> connectionIdToSequencePosition
@@ -35,15 +42,29 @@ public class SenderSequenceNumbers
     private final LongHashSet oldConnectionIds = new LongHashSet();
 
     public SenderSequenceNumbers(final ReplayerCommandQueue queue)
+    {
+        this(queue, null);
+    }
+
+    public SenderSequenceNumbers(final ReplayerCommandQueue queue, final SenderSequenceNumbers nextShard)
     {
         this.queue = queue;
+        this.nextShard = nextShard;
     }
 
     // Called on Framer Thread
     public SenderSequenceNumber onNewSender(final long connectionId, final AtomicCounter bytesInBuffer)
     {
+        return onNewSender(connectionId, bytesInBuffer, new AtomicInteger());
+    }
+
+    private SenderSequenceNumber onNewSender(
+        final long connectionId, final AtomicCounter bytesInBuffer, final AtomicInteger lastSentSequenceNumber)
+    {
+        final SenderSequenceNumber nextShardPosition = nextShard == null ? null :
+            nextShard.onNewSender(connectionId, bytesInBuffer, lastSentSequenceNumber);
         final SenderSequenceNumber position = new SenderSequenceNumber(
-            connectionId, bytesInBuffer, this);
+            connectionId, bytesInBuffer, lastSentSequenceNumber, this, nextShardPosition);
         enqueue(position);
         return position;
     }
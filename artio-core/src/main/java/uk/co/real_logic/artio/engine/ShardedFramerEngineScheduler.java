@@ -0,0 +1,150 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine;
+
+import io.aeron.Aeron;
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.AgentRunner;
+import org.agrona.concurrent.IdleStrategy;
+import uk.co.real_logic.artio.CommonConfiguration;
+import uk.co.real_logic.artio.dictionary.generation.Exceptions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+
+import static org.agrona.concurrent.AgentRunner.startOnThread;
+
+/**
+ * Scheduler that runs each framer shard on its own thread, in addition to the threads that the
+ * {@link DefaultEngineScheduler} uses. Configure the number of shards using
+ * {@link EngineConfiguration#framerShardCount(int)}.
+ *
+ * NB: Ensure that a new instance is created for each engine.
+ */
+public class ShardedFramerEngineScheduler implements EngineScheduler
+{
+    private final Supplier<IdleStrategy> shardIdleStrategySupplier;
+    private final List<AgentRunner> shardRunners = new ArrayList<>();
+
+    private AgentRunner framerRunner;
+    private AgentRunner archivingRunner;
+    private AgentRunner monitoringRunner;
+    private RecordingCoordinator recordingCoordinator;
+
+    public ShardedFramerEngineScheduler()
+    {
+        this(CommonConfiguration::backoffIdleStrategy);
+    }
+
+    /**
+     * Create the scheduler.
+     *
+     * @param shardIdleStrategySupplier creates the idle strategy for each framer shard thread.
+     */
+    public ShardedFramerEngineScheduler(final Supplier<IdleStrategy> shardIdleStrategySupplier)
+    {
+        this.shardIdleStrategySupplier = shardIdleStrategySupplier;
+    }
+
+    public void launch(
+        final EngineConfiguration configuration,
+        final ErrorHandler errorHandler,
+        final Agent framer,
+        final Agent indexingAgent,
+        final Agent monitoringAgent,
+        final Agent conductorAgent,
+        final RecordingCoordinator recordingCoordinator)
+    {
+        launch(
+            configuration,
+            errorHandler,
+            framer,
+            Collections.emptyList(),
+            indexingAgent,
+            monitoringAgent,
+            conductorAgent,
+            recordingCoordinator);
+    }
+
+    public void launch(
+        final EngineConfiguration configuration,
+        final ErrorHandler errorHandler,
+        final Agent framer,
+        final List<Agent> framerShards,
+        final Agent indexingAgent,
+        final Agent monitoringAgent,
+        final Agent conductorAgent,
+        final RecordingCoordinator recordingCoordinator)
+    {
+        this.recordingCoordinator = recordingCoordinator;
+        if (framerRunner != null)
+        {
+            EngineScheduler.fail();
+        }
+
+        framerRunner = new AgentRunner(
+            configuration.framerIdleStrategy(), errorHandler, null, framer);
+        archivingRunner = new AgentRunner(
+            configuration.archiverIdleStrategy(), errorHandler, null, indexingAgent);
+        for (final Agent framerShard : framerShards)
+        {
+            shardRunners.add(new AgentRunner(shardIdleStrategySupplier.get(), errorHandler, null, framerShard));
+        }
+
+        final ThreadFactory threadFactory = configuration.threadFactory();
+        startOnThread(framerRunner, threadFactory);
+        startOnThread(archivingRunner, threadFactory);
+        for (final AgentRunner shardRunner : shardRunners)
+        {
+            startOnThread(shardRunner, threadFactory);
+        }
+
+        if (monitoringAgent != null)
+        {
+            monitoringRunner = new AgentRunner(
+                configuration.monitoringThreadIdleStrategy(),
+                errorHandler,
+                null,
+                monitoringAgent);
+            startOnThread(monitoringRunner, configuration.threadFactory());
+        }
+    }
+
+    public void close()
+    {
+        EngineScheduler.awaitRunnerStart(framerRunner);
+        EngineScheduler.awaitRunnerStart(archivingRunner);
+        EngineScheduler.awaitRunnerStart(monitoringRunner);
+        shardRunners.forEach(EngineScheduler::awaitRunnerStart);
+
+        // Shards are closed after the Framer as it hands connections over to them.
+        final List<AutoCloseable> closeables = new ArrayList<>();
+        closeables.add(framerRunner);
+        closeables.addAll(shardRunners);
+        closeables.add(archivingRunner);
+        closeables.add(recordingCoordinator);
+        closeables.add(monitoringRunner);
+        Exceptions.closeAll(closeables);
+    }
+
+    public void configure(final Aeron.Context aeronContext)
+    {
+    }
+}
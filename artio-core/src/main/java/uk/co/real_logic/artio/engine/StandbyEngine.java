@@ -0,0 +1,339 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine;
+
+import io.aeron.ChannelUri;
+import io.aeron.FragmentAssembler;
+import io.aeron.Image;
+import io.aeron.Subscription;
+import io.aeron.archive.client.AeronArchive;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.AgentRunner;
+import org.agrona.concurrent.CompositeAgent;
+import org.agrona.concurrent.SystemEpochClock;
+import uk.co.real_logic.artio.DebugLogger;
+import uk.co.real_logic.artio.GatewayProcess;
+import uk.co.real_logic.artio.LogTag;
+import uk.co.real_logic.artio.StreamInformation;
+import uk.co.real_logic.artio.engine.framer.SessionContexts;
+import uk.co.real_logic.artio.engine.logger.Indexer;
+import uk.co.real_logic.artio.engine.logger.RecordingIdLookup;
+import uk.co.real_logic.artio.engine.logger.SequenceNumberIndexWriter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static io.aeron.CommonContext.TETHER_PARAM_NAME;
+import static java.util.Collections.singletonList;
+import static org.agrona.concurrent.AgentRunner.startOnThread;
+import static uk.co.real_logic.artio.dictionary.generation.Exceptions.closeAll;
+import static uk.co.real_logic.artio.dictionary.generation.Exceptions.suppressingClose;
+import static uk.co.real_logic.artio.engine.SessionInfo.UNK_SESSION;
+
+/**
+ * A hot standby for a {@link FixEngine} that keeps the sequence number indices and session ids in its
+ * {@link EngineConfiguration#logFileDir()} up to date with those of a running primary engine, so that a FixEngine can
+ * take over from the primary without rebuilding them.
+ * <p>
+ * The standby indexes the primary's library streams itself, so its {@link EngineConfiguration#libraryAeronChannel()}
+ * and library stream ids must be those of the primary and that channel must be reachable from the standby's media
+ * driver, for example by sharing a media driver and using an IPC channel. The standby's subscriptions to those streams
+ * are untethered so that it never applies back pressure to the primary: a standby that falls too far behind is dropped
+ * from the stream by the media driver and later rejoins it, reporting an error as anything that it missed hasn't been
+ * indexed. Session id changes are received over {@link EngineConfiguration#replicationChannel()}, which must also be
+ * set on the primary engine. The archive recordings of the primary must be available from the archive that the standby
+ * connects to, for example the same archive or a replica made with Aeron Archive's replication, as the standby's
+ * indices refer to them and use them to catch up on anything indexed whilst it wasn't running. A standby that is
+ * started after the primary should be started from a copy of the primary's log file directory.
+ * <p>
+ * In order to take over, {@link #close()} the standby and then launch a FixEngine with a new configuration that has the
+ * same log file directory.
+ */
+public final class StandbyEngine extends GatewayProcess
+{
+    private final CompletionPosition inboundCompletionPosition = new CompletionPosition();
+    private final CompletionPosition outboundCompletionPosition = new CompletionPosition();
+
+    private final EngineConfiguration configuration;
+    private final DuplicateEngineChecker duplicateEngineChecker;
+
+    private AeronArchive aeronArchive;
+    private SequenceNumberIndexWriter sentSequenceNumberIndex;
+    private SequenceNumberIndexWriter receivedSequenceNumberIndex;
+    private AgentRunner runner;
+
+    private volatile boolean isClosed = false;
+
+    /**
+     * Launch the standby engine. This method starts up the standby's thread and then returns.
+     *
+     * @param configuration the configuration to use for this standby engine.
+     * @return the new standby engine instance.
+     */
+    public static StandbyEngine launch(final EngineConfiguration configuration)
+    {
+        configuration.conclude();
+
+        if (configuration.replicationChannel() == null)
+        {
+            throw new IllegalArgumentException("Missing required configuration: replication channel");
+        }
+
+        return new StandbyEngine(configuration).launch();
+    }
+
+    private StandbyEngine(final EngineConfiguration configuration)
+    {
+        try
+        {
+            this.configuration = configuration;
+
+            duplicateEngineChecker = new DuplicateEngineChecker(
+                configuration.duplicateEngineTimeoutInMs(),
+                configuration.logFileDir(),
+                configuration.errorIfDuplicateEngineDetected());
+            duplicateEngineChecker.check();
+
+            init(configuration);
+            aeronArchive = AeronArchive.connect(configuration.aeronArchiveContext().aeron(aeron));
+            initMonitoringAgent(Collections.emptyList(), configuration, aeronArchive, duplicateEngineChecker);
+        }
+        catch (final Exception e)
+        {
+            suppressingClose(this, e);
+
+            throw e;
+        }
+    }
+
+    private StandbyEngine launch()
+    {
+        try
+        {
+            final List<Agent> agents = new ArrayList<>();
+            newIndexers(agents);
+            agents.add(newSessionReplicationAgent());
+            if (monitoringAgent != null)
+            {
+                agents.add(monitoringAgent);
+            }
+            final Agent conductorAgent = conductorAgent();
+            if (conductorAgent != null)
+            {
+                agents.add(conductorAgent);
+            }
+
+            runner = new AgentRunner(
+                configuration.archiverIdleStrategy(), errorHandler, null, new CompositeAgent(agents));
+            startOnThread(runner, configuration.threadFactory());
+
+            return this;
+        }
+        catch (final Exception e)
+        {
+            inboundCompletionPosition.completeDuringStartup();
+            outboundCompletionPosition.completeDuringStartup();
+
+            suppressingClose(this, e);
+
+            throw e;
+        }
+    }
+
+    private void newIndexers(final List<Agent> agents)
+    {
+        final Long2LongHashMap connectionIdToILinkUuid = new Long2LongHashMap(UNK_SESSION);
+        final SystemEpochClock epochClock = new SystemEpochClock();
+
+        sentSequenceNumberIndex = new SequenceNumberIndexWriter(
+            configuration.sentSequenceNumberBuffer(),
+            configuration.sentSequenceNumberIndex(),
+            errorHandler,
+            configuration.outboundLibraryStream(),
+            newRecordingIdLookup(),
+            configuration.indexFileStateFlushTimeoutInMs(),
+            configuration.sequenceNumberIndexJournalled(),
+            epochClock,
+            configuration.logFileDir(),
+            connectionIdToILinkUuid);
+        receivedSequenceNumberIndex = new SequenceNumberIndexWriter(
+            configuration.receivedSequenceNumberBuffer(),
+            configuration.receivedSequenceNumberIndex(),
+            errorHandler,
+            configuration.inboundLibraryStream(),
+            newRecordingIdLookup(),
+            configuration.indexFileStateFlushTimeoutInMs(),
+            configuration.sequenceNumberIndexJournalled(),
+            epochClock,
+            null,
+            connectionIdToILinkUuid);
+
+        agents.add(new Indexer(
+            singletonList(receivedSequenceNumberIndex),
+            librarySubscription("standbyInboundIndexer", configuration.inboundLibraryStream()),
+            configuration.agentNamePrefix(),
+            inboundCompletionPosition,
+            aeronArchive,
+            errorHandler,
+            configuration.archiveReplayStream(),
+            configuration.gracefulShutdown()));
+        agents.add(new Indexer(
+            singletonList(sentSequenceNumberIndex),
+            librarySubscription("standbyOutboundIndexer", configuration.outboundLibraryStream()),
+            configuration.agentNamePrefix(),
+            outboundCompletionPosition,
+            aeronArchive,
+            errorHandler,
+            configuration.archiveReplayStream(),
+            configuration.gracefulShutdown()));
+    }
+
+    private RecordingIdLookup newRecordingIdLookup()
+    {
+        return new RecordingIdLookup(configuration.archiverIdleStrategy(), aeron.countersReader());
+    }
+
+    private Subscription librarySubscription(final String name, final int streamId)
+    {
+        final ChannelUri channelUri = ChannelUri.parse(configuration.libraryAeronChannel());
+        channelUri.put(TETHER_PARAM_NAME, "false");
+        final Subscription subscription = aeron.addSubscription(
+            channelUri.toString(), streamId, null, this::onLibraryImageUnavailable);
+        StreamInformation.print(name, subscription, configuration);
+        return subscription;
+    }
+
+    private void onLibraryImageUnavailable(final Image image)
+    {
+        // The primary closing its publication is the end of the stream, anything else means the standby fell behind
+        if (!image.subscription().isClosed() && !image.isEndOfStream())
+        {
+            errorHandler.onError(new IllegalStateException(String.format(
+                "Standby fell behind the primary's library stream %d at position %d, any messages that it misses " +
+                "aren't indexed so it should be restarted from a copy of the primary's log file directory",
+                image.subscription().streamId(),
+                image.position())));
+        }
+    }
+
+    private Agent newSessionReplicationAgent()
+    {
+        final SessionContexts sessionContexts = new SessionContexts(
+            configuration.sessionIdBuffer(),
+            configuration.sessionIdStrategy(),
+            configuration.initialSequenceIndex(),
+            errorHandler);
+        final Subscription subscription = aeron.addSubscription(
+            configuration.replicationChannel(), configuration.replicationStream());
+        StreamInformation.print("replicationSubscription", subscription, configuration);
+
+        return new SessionReplicationAgent(
+            subscription,
+            new FragmentAssembler(sessionContexts::onReplicationFragment),
+            configuration.agentNamePrefix());
+    }
+
+    /**
+     * Stops indexing and receiving session ids from the primary engine, flushing the indices to the log file
+     * directory. Once this method returns a FixEngine can be launched using the same log file directory.
+     */
+    public void close()
+    {
+        if (!isClosed)
+        {
+            DebugLogger.log(LogTag.CLOSE, "Shutdown initiated through StandbyEngine.close()");
+
+            // There's no framer to wait for, the indexers stop at whatever they've indexed so far.
+            inboundCompletionPosition.completeDuringStartup();
+            outboundCompletionPosition.completeDuringStartup();
+
+            try
+            {
+                closeAll(
+                    runner,
+                    this::closeIndices,
+                    aeronArchive,
+                    configuration,
+                    super::close,
+                    duplicateEngineChecker::finalClose);
+            }
+            finally
+            {
+                isClosed = true;
+            }
+        }
+    }
+
+    private void closeIndices()
+    {
+        // The indexers have already closed their indices if they shutdown gracefully
+        if (!configuration.gracefulShutdown())
+        {
+            closeAll(sentSequenceNumberIndex, receivedSequenceNumberIndex);
+        }
+    }
+
+    public boolean isClosed()
+    {
+        return isClosed;
+    }
+
+    public EngineConfiguration configuration()
+    {
+        return configuration;
+    }
+
+    protected boolean shouldRethrowExceptionInErrorHandler()
+    {
+        return false;
+    }
+
+    static final class SessionReplicationAgent implements Agent
+    {
+        private static final int LIMIT = 10;
+
+        private final Subscription subscription;
+        private final FragmentAssembler fragmentAssembler;
+        private final String agentNamePrefix;
+
+        SessionReplicationAgent(
+            final Subscription subscription,
+            final FragmentAssembler fragmentAssembler,
+            final String agentNamePrefix)
+        {
+            this.subscription = subscription;
+            this.fragmentAssembler = fragmentAssembler;
+            this.agentNamePrefix = agentNamePrefix;
+        }
+
+        public int doWork()
+        {
+            return subscription.poll(fragmentAssembler, LIMIT);
+        }
+
+        public String roleName()
+        {
+            return agentNamePrefix + "SessionReplication";
+        }
+
+        public void onClose()
+        {
+            subscription.close();
+        }
+    }
+}
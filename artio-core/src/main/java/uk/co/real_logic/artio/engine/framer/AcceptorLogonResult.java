@@ -9,4 +9,9 @@ public interface AcceptorLogonResult
     boolean isAccepted();
 
     DisconnectReason reason();
+
+    /**
+     * Called when the connection is disconnected, eg due to an authentication timeout, before the logon completes.
+     */
+    void onDisconnect();
 }
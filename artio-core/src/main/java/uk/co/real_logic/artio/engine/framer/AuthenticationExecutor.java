@@ -0,0 +1,104 @@
+/*
+ * Copyright 2015-2020 Real Logic Limited, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.concurrent.status.AtomicCounter;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the authentication strategy of acceptor logons on a bounded pool of threads so that a slow strategy doesn't
+ * stop the Framer from servicing the sessions that are already logged on.
+ *
+ * Logons are submitted from the Framer thread, the strategy then completes them through the thread safe
+ * {@link uk.co.real_logic.artio.validation.AuthenticationProxy} which the Framer polls as normal.
+ */
+class AuthenticationExecutor implements AutoCloseable
+{
+    private final ThreadPoolExecutor executor;
+    private final AtomicCounter pendingAuthentications;
+    private final AtomicCounter rejectedAuthentications;
+
+    AuthenticationExecutor(
+        final int threadCount,
+        final int queueCapacity,
+        final String agentNamePrefix,
+        final AtomicCounter pendingAuthentications,
+        final AtomicCounter rejectedAuthentications)
+    {
+        this.pendingAuthentications = pendingAuthentications;
+        this.rejectedAuthentications = rejectedAuthentications;
+
+        final AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+            threadCount,
+            threadCount,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable ->
+            {
+                final Thread thread = new Thread(
+                    runnable, agentNamePrefix + "authentication-" + threadIndex.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queue an authentication to be run on one of the pool's threads.
+     *
+     * @param authentication the authentication to run.
+     * @return true if the authentication was queued, false if the queue is full or the pool has been closed.
+     */
+    boolean execute(final Runnable authentication)
+    {
+        pendingAuthentications.increment();
+        try
+        {
+            executor.execute(() ->
+            {
+                try
+                {
+                    authentication.run();
+                }
+                finally
+                {
+                    pendingAuthentications.decrement();
+                }
+            });
+
+            return true;
+        }
+        catch (final RejectedExecutionException e)
+        {
+            pendingAuthentications.decrement();
+            rejectedAuthentications.increment();
+
+            return false;
+        }
+    }
+
+    public void close()
+    {
+        executor.shutdownNow();
+    }
+}
@@ -22,6 +22,7 @@ import uk.co.real_logic.artio.engine.EngineConfiguration;
 import uk.co.real_logic.artio.engine.MessageTimingHandler;
 import uk.co.real_logic.artio.engine.SenderSequenceNumbers;
 import uk.co.real_logic.artio.protocol.GatewayPublication;
+import uk.co.real_logic.artio.timing.Timer;
 
 class EndPointFactory
 {
@@ -36,8 +37,9 @@ class EndPointFactory
     private final GatewaySessions gatewaySessions;
     private final SenderSequenceNumbers senderSequenceNumbers;
     private final MessageTimingHandler messageTimingHandler;
+    private final Timer readTimer;
 
-    private SlowPeeker replaySlowPeeker;
+    private BlockablePosition replaySlowPeeker;
 
     EndPointFactory(
         final EngineConfiguration configuration,
@@ -47,7 +49,8 @@ class EndPointFactory
         final ErrorHandler errorHandler,
         final GatewaySessions gatewaySessions,
         final SenderSequenceNumbers senderSequenceNumbers,
-        final MessageTimingHandler messageTimingHandler)
+        final MessageTimingHandler messageTimingHandler,
+        final Timer readTimer)
     {
         this.configuration = configuration;
         this.sessionContexts = sessionContexts;
@@ -57,6 +60,7 @@ class EndPointFactory
         this.gatewaySessions = gatewaySessions;
         this.senderSequenceNumbers = senderSequenceNumbers;
         this.messageTimingHandler = messageTimingHandler;
+        this.readTimer = readTimer;
     }
 
     FixReceiverEndPoint receiverEndPoint(
@@ -76,11 +80,13 @@ class EndPointFactory
             sequenceIndex,
             sessionContexts,
             fixCounters.messagesRead(connectionId, channel.remoteAddress()),
+            fixCounters.backpressuredTime(connectionId, channel.remoteAddress()),
             framer,
             errorHandler,
             libraryId,
             gatewaySessions,
             configuration.epochNanoClock(),
+            readTimer,
             framer.acceptorFixDictionaryLookup(),
             formatters);
     }
@@ -108,10 +114,11 @@ class EndPointFactory
             configuration.slowConsumerTimeoutInMs(),
             System.currentTimeMillis(),
             senderSequenceNumbers.onNewSender(connectionId, bytesInBuffer),
-            messageTimingHandler);
+            messageTimingHandler,
+            configuration.senderWriteBatchSize());
     }
 
-    void replaySlowPeeker(final SlowPeeker replaySlowPeeker)
+    void replaySlowPeeker(final BlockablePosition replaySlowPeeker)
     {
         this.replaySlowPeeker = replaySlowPeeker;
     }
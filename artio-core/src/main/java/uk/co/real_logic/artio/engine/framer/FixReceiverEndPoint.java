@@ -28,6 +28,7 @@ import uk.co.real_logic.artio.dictionary.generation.Exceptions;
 import uk.co.real_logic.artio.engine.ByteBufferUtil;
 import uk.co.real_logic.artio.messages.DisconnectReason;
 import uk.co.real_logic.artio.protocol.GatewayPublication;
+import uk.co.real_logic.artio.timing.Timer;
 import uk.co.real_logic.artio.util.CharFormatter;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
@@ -44,6 +45,7 @@ import static uk.co.real_logic.artio.dictionary.SessionConstants.*;
 import static uk.co.real_logic.artio.messages.DisconnectReason.AUTHENTICATION_TIMEOUT;
 import static uk.co.real_logic.artio.messages.DisconnectReason.NO_LOGON;
 import static uk.co.real_logic.artio.messages.MessageStatus.*;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.NO_RECEIVED_SEQUENCE_NUMBER;
 import static uk.co.real_logic.artio.session.Session.UNKNOWN;
 import static uk.co.real_logic.artio.util.AsciiBuffer.SEPARATOR;
 import static uk.co.real_logic.artio.util.AsciiBuffer.UNKNOWN_INDEX;
@@ -134,6 +136,8 @@ class FixReceiverEndPoint extends ReceiverEndPoint
     private static final int BREAK = -1;
 
     private static final int UNKNOWN_INDEX_BACKPRESSURED = -2;
+    private static final long NOT_BACKPRESSURED = Long.MIN_VALUE;
+    private static final byte[] MSG_SEQ_NUM_TAG = "\00134=".getBytes(US_ASCII);
 
     static class FixReceiverEndPointFormatters
     {
@@ -146,9 +150,11 @@ class FixReceiverEndPoint extends ReceiverEndPoint
 
     private final SessionContexts sessionContexts;
     private final AtomicCounter messagesRead;
+    private final AtomicCounter backpressuredTime;
     private final PasswordCleaner passwordCleaner = new PasswordCleaner();
     private final GatewaySessions gatewaySessions;
     private final EpochNanoClock clock;
+    private final Timer readTimer;
     private final AcceptorFixDictionaryLookup acceptorFixDictionaryLookup;
     private final FixReceiverEndPointFormatters formatters;
 
@@ -161,9 +167,18 @@ class FixReceiverEndPoint extends ReceiverEndPoint
     private int pendingAcceptorLogonMsgOffset;
     private int pendingAcceptorLogonMsgLength;
     private long lastReadTimestamp;
+    private long backpressuredSinceTimestamp = NOT_BACKPRESSURED;
     private String address;
     private boolean requiresProxyCheck = true;
 
+    // Only set if the TCP connection is read by a FramerShard rather than the Framer itself.
+    private FramerShard shard;
+    // Hands ownership of the buffer between the shard and the Framer: true when the shard has read data that the
+    // Framer hasn't finished framing yet, the shard doesn't touch the buffer until it is false again.
+    private volatile boolean shardReadComplete;
+    private int shardBytesRead;
+    private IOException shardReadException;
+
     FixReceiverEndPoint(
         final TcpChannel channel,
         final int bufferSize,
@@ -173,11 +188,13 @@ class FixReceiverEndPoint extends ReceiverEndPoint
         final int sequenceIndex,
         final SessionContexts sessionContexts,
         final AtomicCounter messagesRead,
+        final AtomicCounter backpressuredTime,
         final Framer framer,
         final ErrorHandler errorHandler,
         final int libraryId,
         final GatewaySessions gatewaySessions,
         final EpochNanoClock clock,
+        final Timer readTimer,
         final AcceptorFixDictionaryLookup acceptorFixDictionaryLookup,
         final FixReceiverEndPointFormatters formatters)
     {
@@ -185,14 +202,17 @@ class FixReceiverEndPoint extends ReceiverEndPoint
         Objects.requireNonNull(sessionContexts, "sessionContexts");
         Objects.requireNonNull(gatewaySessions, "gatewaySessions");
         Objects.requireNonNull(clock, "clock");
+        Objects.requireNonNull(readTimer, "readTimer");
 
         this.formatters = formatters;
         this.sessionId = sessionId;
         this.sequenceIndex = sequenceIndex - 1; // Incremented on first logon
         this.sessionContexts = sessionContexts;
         this.messagesRead = messagesRead;
+        this.backpressuredTime = backpressuredTime;
         this.gatewaySessions = gatewaySessions;
         this.clock = clock;
+        this.readTimer = readTimer;
         this.acceptorFixDictionaryLookup = acceptorFixDictionaryLookup;
 
         address = channel.remoteAddress();
@@ -200,7 +220,7 @@ class FixReceiverEndPoint extends ReceiverEndPoint
 
     private int readData() throws IOException
     {
-        final int dataRead = channel.read(byteBuffer);
+        final int dataRead = shard == null ? channel.read(byteBuffer) : takeShardRead();
         if (dataRead != SOCKET_DISCONNECTED)
         {
             if (dataRead > 0)
@@ -217,6 +237,67 @@ class FixReceiverEndPoint extends ReceiverEndPoint
         return dataRead;
     }
 
+    private int takeShardRead() throws IOException
+    {
+        final IOException shardReadException = this.shardReadException;
+        if (shardReadException != null)
+        {
+            this.shardReadException = null;
+            throw shardReadException;
+        }
+
+        final int bytesRead = shardBytesRead;
+        shardBytesRead = 0;
+        return bytesRead;
+    }
+
+    // Called on the shard's thread, returns true if the Framer needs to frame the data that has been read.
+    boolean shardRead()
+    {
+        if (shardReadComplete)
+        {
+            return false;
+        }
+
+        try
+        {
+            final int bytesRead = channel.read(byteBuffer);
+            if (bytesRead == 0)
+            {
+                return false;
+            }
+
+            shardBytesRead = bytesRead;
+        }
+        catch (final IOException ex)
+        {
+            shardReadException = ex;
+        }
+
+        shardReadComplete = true;
+        return true;
+    }
+
+    void shard(final FramerShard shard)
+    {
+        this.shard = shard;
+        // Any data that is already in the buffer gets framed by the Framer before the shard starts reading.
+        shardReadComplete = true;
+    }
+
+    boolean awaitingFraming()
+    {
+        return shardReadComplete && !hasDisconnected();
+    }
+
+    private void releaseToShard()
+    {
+        if (shard != null)
+        {
+            shardReadComplete = false;
+        }
+    }
+
     int poll()
     {
         if (isPaused || hasDisconnected())
@@ -229,6 +310,11 @@ class FixReceiverEndPoint extends ReceiverEndPoint
             return pollPendingLogon();
         }
 
+        if (shard != null && !shardReadComplete)
+        {
+            return 0;
+        }
+
         try
         {
             final long latestReadTimestamp = clock.nanoTime();
@@ -236,11 +322,14 @@ class FixReceiverEndPoint extends ReceiverEndPoint
             if (frameMessages(bytesRead == 0 ? lastReadTimestamp : latestReadTimestamp))
             {
                 lastReadTimestamp = latestReadTimestamp;
+                releaseToShard();
+                onBackpressureCleared();
                 return bytesRead;
             }
             else
             {
                 lastReadTimestamp = latestReadTimestamp;
+                onBackpressured(latestReadTimestamp);
                 return -bytesRead;
             }
         }
@@ -326,7 +415,8 @@ class FixReceiverEndPoint extends ReceiverEndPoint
         final long sessionId = gatewaySession.sessionId();
         final int sequenceIndex = gatewaySession.sequenceIndex();
 
-        if (saveMessage(offset, LOGON_MESSAGE_TYPE, length, sessionId, sequenceIndex, lastReadTimestamp))
+        if (saveMessage(offset, LOGON_MESSAGE_TYPE, length, sessionId, sequenceIndex, lastReadTimestamp,
+            NO_RECEIVED_SEQUENCE_NUMBER))
         {
             // Authentication is only complete (ie this state set) when the actual logon message has been saved.
             this.sessionId = sessionId;
@@ -348,7 +438,32 @@ class FixReceiverEndPoint extends ReceiverEndPoint
 
     boolean retryFrameMessages()
     {
-        return frameMessages(lastReadTimestamp);
+        if (frameMessages(lastReadTimestamp))
+        {
+            releaseToShard();
+            onBackpressureCleared();
+            return true;
+        }
+
+        return false;
+    }
+
+    private void onBackpressured(final long timestamp)
+    {
+        if (backpressuredSinceTimestamp == NOT_BACKPRESSURED)
+        {
+            backpressuredSinceTimestamp = timestamp;
+        }
+    }
+
+    private void onBackpressureCleared()
+    {
+        final long backpressuredSinceTimestamp = this.backpressuredSinceTimestamp;
+        if (backpressuredSinceTimestamp != NOT_BACKPRESSURED)
+        {
+            backpressuredTime.getAndAddOrdered(clock.nanoTime() - backpressuredSinceTimestamp);
+            this.backpressuredSinceTimestamp = NOT_BACKPRESSURED;
+        }
     }
 
     // true - no more framed messages in the buffer data to process. This could mean no more messages, or some data
@@ -432,7 +547,9 @@ class FixReceiverEndPoint extends ReceiverEndPoint
                         sequenceIndex++;
                     }
                     messagesRead.incrementOrdered();
-                    if (!saveMessage(offset, messageType, length, readTimestamp))
+                    final int receivedSequenceNumber = scanReceivedSequenceNumber(
+                        endOfBodyLength, startOfChecksumTag, messageType);
+                    if (!saveMessage(offset, messageType, length, readTimestamp, receivedSequenceNumber))
                     {
                         return false;
                     }
@@ -750,9 +867,15 @@ class FixReceiverEndPoint extends ReceiverEndPoint
         return backPressured;
     }
 
-    private boolean saveMessage(final int offset, final long messageType, final int length, final long readTimestamp)
+    private boolean saveMessage(
+        final int offset,
+        final long messageType,
+        final int length,
+        final long readTimestamp,
+        final int receivedSequenceNumber)
     {
-        return saveMessage(offset, messageType, length, sessionId, sequenceIndex, readTimestamp);
+        return saveMessage(
+            offset, messageType, length, sessionId, sequenceIndex, readTimestamp, receivedSequenceNumber);
     }
 
     private boolean saveMessage(
@@ -761,7 +884,8 @@ class FixReceiverEndPoint extends ReceiverEndPoint
         final int messageLength,
         final long sessionId,
         final int sequenceIndex,
-        final long readTimestamp)
+        final long readTimestamp,
+        final int receivedSequenceNumber)
     {
         DirectBuffer buffer = this.buffer;
         int offset = messageOffset;
@@ -783,7 +907,7 @@ class FixReceiverEndPoint extends ReceiverEndPoint
             length = passwordCleaner.cleanedLength();
         }
 
-        final long position = publication.saveMessage(
+        final long position = publication.saveReceivedMessage(
             buffer,
             offset,
             length,
@@ -793,8 +917,8 @@ class FixReceiverEndPoint extends ReceiverEndPoint
             sequenceIndex,
             connectionId,
             OK,
-            0,
-            readTimestamp);
+            readTimestamp,
+            receivedSequenceNumber);
 
         if (Pressure.isBackPressured(position))
         {
@@ -803,6 +927,7 @@ class FixReceiverEndPoint extends ReceiverEndPoint
         }
         else
         {
+            readTimer.recordSince(sessionId, readTimestamp);
             gatewaySession.onMessage(buffer, offset, length, messageType, position);
             return true;
         }
@@ -821,6 +946,47 @@ class FixReceiverEndPoint extends ReceiverEndPoint
             buffer.getByte(startOfChecksumTag + 3) == CHECKSUM3;
     }
 
+    // Finds the MsgSeqNum of a message so that indexers don't have to parse the message to find it. SequenceResets
+    // are indexed at their NewSeqNo rather than their MsgSeqNum, so they're left for the indexers to parse.
+    private int scanReceivedSequenceNumber(
+        final int endOfBodyLength, final int startOfChecksumTag, final long messageType)
+    {
+        if (messageType == SEQUENCE_RESET_MESSAGE_TYPE)
+        {
+            return NO_RECEIVED_SEQUENCE_NUMBER;
+        }
+
+        final MutableAsciiBuffer buffer = this.buffer;
+        final int lastTagStart = startOfChecksumTag - MSG_SEQ_NUM_TAG.length;
+        for (int index = endOfBodyLength; index < lastTagStart; index++)
+        {
+            if (buffer.getByte(index) == START_OF_HEADER &&
+                buffer.getByte(index + 1) == MSG_SEQ_NUM_TAG[1] &&
+                buffer.getByte(index + 2) == MSG_SEQ_NUM_TAG[2] &&
+                buffer.getByte(index + 3) == MSG_SEQ_NUM_TAG[3])
+            {
+                final int startOfValue = index + MSG_SEQ_NUM_TAG.length;
+                final int endOfValue = buffer.scan(startOfValue, startOfChecksumTag, START_OF_HEADER);
+                if (endOfValue == UNKNOWN_INDEX || endOfValue == startOfValue)
+                {
+                    return NO_RECEIVED_SEQUENCE_NUMBER;
+                }
+
+                try
+                {
+                    return buffer.getNatural(startOfValue, endOfValue);
+                }
+                catch (final NumberFormatException ex)
+                {
+                    // Left for validation to reject
+                    return NO_RECEIVED_SEQUENCE_NUMBER;
+                }
+            }
+        }
+
+        return NO_RECEIVED_SEQUENCE_NUMBER;
+    }
+
     private long getMessageType(final int endOfBodyLength, final int indexOfLastByteOfMessage)
     {
         final int start = buffer.scan(endOfBodyLength, indexOfLastByteOfMessage, '=');
@@ -938,6 +1104,7 @@ class FixReceiverEndPoint extends ReceiverEndPoint
         {
             channel.close();
             messagesRead.close();
+            backpressuredTime.close();
         }
         catch (final Exception ex)
         {
@@ -962,6 +1129,11 @@ class FixReceiverEndPoint extends ReceiverEndPoint
 
     void cleanupDisconnectState(final DisconnectReason reason)
     {
+        if (pendingAcceptorLogon != null)
+        {
+            pendingAcceptorLogon.onDisconnect();
+        }
+
         sessionContexts.onDisconnect(sessionId);
         gatewaySessions.onDisconnect(sessionId, connectionId, reason);
     }
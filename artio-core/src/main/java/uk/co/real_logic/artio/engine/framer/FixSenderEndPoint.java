@@ -19,6 +19,7 @@ import io.aeron.logbuffer.ControlledFragmentHandler.Action;
 import io.aeron.protocol.DataHeaderFlyweight;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
+import org.agrona.concurrent.UnsafeBuffer;
 import org.agrona.concurrent.status.AtomicCounter;
 import uk.co.real_logic.artio.DebugLogger;
 import uk.co.real_logic.artio.engine.ByteBufferUtil;
@@ -30,6 +31,7 @@ import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
 import static uk.co.real_logic.artio.LogTag.FIX_MESSAGE_TCP;
@@ -42,6 +44,7 @@ class FixSenderEndPoint
 {
     private static final int HEADER_LENGTH = MessageHeaderDecoder.ENCODED_LENGTH;
     private static final int REPLAY_MESSAGE = -1;
+    private static final int WRITE_BATCH_MESSAGE_CAPACITY = 64;
 
     private final long connectionId;
     private final TcpChannel channel;
@@ -55,6 +58,19 @@ class FixSenderEndPoint
     private final StreamTracker replayTracker;
     private final SenderSequenceNumber senderSequenceNumber;
     private final MessageTimingHandler messageTimingHandler;
+    private final int writeBatchSize;
+
+    // Messages that have been copied into the write batch but not yet written to the TCP connection.
+    // Only allocated if write batching is enabled.
+    private ByteBuffer writeBatchByteBuffer;
+    private UnsafeBuffer writeBatchBuffer;
+    private long[] writeBatchPositions;
+    private int[] writeBatchBodyLengths;
+    private int[] writeBatchSequenceNumbers;
+    private StreamTracker[] writeBatchTrackers;
+    private int writeBatchCount;
+    private int writeBatchLength;
+    private long writeBatchTimeInMs;
 
     private int libraryId;
     private long sessionId;
@@ -75,7 +91,8 @@ class FixSenderEndPoint
         final long slowConsumerTimeoutInMs,
         final long timeInMs,
         final SenderSequenceNumber senderSequenceNumber,
-        final MessageTimingHandler messageTimingHandler)
+        final MessageTimingHandler messageTimingHandler,
+        final int writeBatchSize)
     {
         this.connectionId = connectionId;
         this.libraryId = libraryId;
@@ -91,6 +108,7 @@ class FixSenderEndPoint
         outboundTracker = new StreamTracker(outboundBlockablePosition);
         replayTracker = new StreamTracker(replayBlockablePosition);
         this.messageTimingHandler = messageTimingHandler;
+        this.writeBatchSize = writeBatchSize;
         sendingTimeoutTimeInMs = timeInMs + slowConsumerTimeoutInMs;
     }
 
@@ -116,11 +134,7 @@ class FixSenderEndPoint
             return;
         }
 
-        if (attemptFramedMessage(directBuffer, offset, bodyLength, timeInMs, position, outboundTracker) &&
-            messageTimingHandler != null)
-        {
-            messageTimingHandler.onMessage(sequenceNumber, connectionId);
-        }
+        attemptFramedMessage(directBuffer, offset, bodyLength, timeInMs, position, outboundTracker, sequenceNumber);
 
         senderSequenceNumber.onNewMessage(sequenceNumber);
     }
@@ -137,7 +151,7 @@ class FixSenderEndPoint
             replayPaused = true;
         }
 
-        attemptFramedMessage(directBuffer, offset, bodyLength, timeInMs, position, replayTracker);
+        attemptFramedMessage(directBuffer, offset, bodyLength, timeInMs, position, replayTracker, REPLAY_MESSAGE);
 
         return CONTINUE;
     }
@@ -163,19 +177,35 @@ class FixSenderEndPoint
             metaDataLength, REPLAY_MESSAGE);
     }
 
-    private boolean attemptFramedMessage(
+    private void attemptFramedMessage(
         final DirectBuffer directBuffer,
         final int offset,
         final int bodyLength,
         final long timeInMs,
         final long position,
-        final StreamTracker tracker)
+        final StreamTracker tracker,
+        final int sequenceNumber)
     {
+        if (writeBatchSize > 0)
+        {
+            if (writeBatchLength + bodyLength > writeBatchSize || writeBatchCount == WRITE_BATCH_MESSAGE_CAPACITY)
+            {
+                // Messages must be written in order, so a message that doesn't fit flushes the batch first.
+                flushWriteBatch();
+            }
+
+            if (bodyLength <= writeBatchSize && !isSlowConsumer())
+            {
+                addToWriteBatch(directBuffer, offset, bodyLength, timeInMs, position, tracker, sequenceNumber);
+                return;
+            }
+        }
+
         if (isSlowConsumer())
         {
             dropFurtherBehind(bodyLength);
 
-            return false;
+            return;
         }
 
         try
@@ -189,26 +219,168 @@ class FixSenderEndPoint
             else
             {
                 tracker.sentPosition = position;
-                return true;
+                onMessageSent(sequenceNumber);
             }
         }
         catch (final IOException ex)
         {
             onError(ex);
         }
+    }
 
-        return false;
+    private void onMessageSent(final int sequenceNumber)
+    {
+        if (sequenceNumber != REPLAY_MESSAGE && messageTimingHandler != null)
+        {
+            messageTimingHandler.onMessage(sequenceNumber, connectionId);
+        }
     }
 
-    private void dropFurtherBehind(final int bodyLength)
+    private void addToWriteBatch(
+        final DirectBuffer directBuffer,
+        final int offset,
+        final int bodyLength,
+        final long timeInMs,
+        final long position,
+        final StreamTracker tracker,
+        final int sequenceNumber)
+    {
+        if (writeBatchBuffer == null)
+        {
+            writeBatchByteBuffer = ByteBuffer.allocateDirect(writeBatchSize);
+            writeBatchBuffer = new UnsafeBuffer(writeBatchByteBuffer);
+            writeBatchPositions = new long[WRITE_BATCH_MESSAGE_CAPACITY];
+            writeBatchBodyLengths = new int[WRITE_BATCH_MESSAGE_CAPACITY];
+            writeBatchSequenceNumbers = new int[WRITE_BATCH_MESSAGE_CAPACITY];
+            writeBatchTrackers = new StreamTracker[WRITE_BATCH_MESSAGE_CAPACITY];
+        }
+
+        final int writeBatchCount = this.writeBatchCount;
+        writeBatchBuffer.putBytes(writeBatchLength, directBuffer, offset, bodyLength);
+        writeBatchPositions[writeBatchCount] = position;
+        writeBatchBodyLengths[writeBatchCount] = bodyLength;
+        writeBatchSequenceNumbers[writeBatchCount] = sequenceNumber;
+        writeBatchTrackers[writeBatchCount] = tracker;
+        this.writeBatchCount = writeBatchCount + 1;
+        writeBatchLength += bodyLength;
+        writeBatchTimeInMs = timeInMs;
+    }
+
+    boolean hasBatchedWrites()
+    {
+        return writeBatchCount > 0;
+    }
+
+    /**
+     * Write all the batched messages to the TCP connection in a single write, then account for them in the same
+     * way as if they had been written individually: messages after a partial write make this a slow consumer.
+     */
+    void flushWriteBatch()
+    {
+        final int writeBatchCount = this.writeBatchCount;
+        if (writeBatchCount == 0)
+        {
+            return;
+        }
+
+        final int writeBatchLength = this.writeBatchLength;
+        this.writeBatchCount = 0;
+        this.writeBatchLength = 0;
+
+        final int written;
+        try
+        {
+            written = writeBatch(writeBatchLength);
+        }
+        catch (final IOException ex)
+        {
+            onError(ex);
+            return;
+        }
+
+        int remaining = written;
+        for (int i = 0; i < writeBatchCount; i++)
+        {
+            final long position = writeBatchPositions[i];
+            final int bodyLength = writeBatchBodyLengths[i];
+            final StreamTracker tracker = writeBatchTrackers[i];
+            writeBatchTrackers[i] = null;
+
+            if (isSlowConsumer())
+            {
+                if (dropFurtherBehind(bodyLength))
+                {
+                    break;
+                }
+            }
+            else if (remaining >= bodyLength)
+            {
+                remaining -= bodyLength;
+                tracker.sentPosition = position;
+                onMessageSent(writeBatchSequenceNumbers[i]);
+            }
+            else
+            {
+                becomeSlowConsumer(remaining, bodyLength, position, tracker);
+                remaining = 0;
+            }
+        }
+    }
+
+    // Called when the connection is about to be disconnected, any messages that were sent by the library before
+    // requesting the disconnect, eg: a logout, are written on a best effort basis.
+    void flushWriteBatchBeforeDisconnect()
+    {
+        final int writeBatchLength = this.writeBatchLength;
+        if (writeBatchLength == 0)
+        {
+            return;
+        }
+
+        writeBatchCount = 0;
+        this.writeBatchLength = 0;
+        Arrays.fill(writeBatchTrackers, null);
+
+        try
+        {
+            writeBatch(writeBatchLength);
+        }
+        catch (final IOException ex)
+        {
+            // Deliberately blank: the connection is being disconnected anyway.
+        }
+    }
+
+    private int writeBatch(final int writeBatchLength) throws IOException
+    {
+        final ByteBuffer buffer = writeBatchByteBuffer;
+        ByteBufferUtil.limit(buffer, writeBatchLength);
+        ByteBufferUtil.position(buffer, 0);
+
+        final int written = channel.write(buffer);
+        if (written > 0)
+        {
+            ByteBufferUtil.position(buffer, 0);
+            DebugLogger.log(FIX_MESSAGE_TCP, "Written  ", buffer, written);
+            updateSendingTimeoutTimeInMs(writeBatchTimeInMs, written);
+        }
+
+        return written;
+    }
+
+    // returns true if the end point has been disconnected
+    private boolean dropFurtherBehind(final int bodyLength)
     {
         final long bytesInBuffer = bytesInBufferWeak() + bodyLength;
-        if (bytesInBuffer > maxBytesInBuffer)
+        final boolean disconnect = bytesInBuffer > maxBytesInBuffer;
+        if (disconnect)
         {
             removeEndpoint(SLOW_CONSUMER);
         }
 
         this.bytesInBuffer.setOrdered(bytesInBuffer);
+
+        return disconnect;
     }
 
     private int writeFramedMessage(
@@ -495,6 +667,9 @@ class FixSenderEndPoint
 
     Action onReplayComplete()
     {
+        // Whether the replay has been completely sent depends upon any batched writes.
+        flushWriteBatch();
+
         if (!replayTracker.partiallySentMessage)
         {
             replayPaused = false;
@@ -24,6 +24,7 @@ import uk.co.real_logic.artio.engine.FixEngine;
 import uk.co.real_logic.artio.messages.FixMessageDecoder;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
 
+import java.util.ArrayList;
 import java.util.function.LongToIntFunction;
 
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
@@ -37,6 +38,8 @@ class FixSenderEndPoints implements AutoCloseable, ControlledFragmentHandler
     private final Long2ObjectHashMap<FixSenderEndPoint> connectionIdToSenderEndpoint = new Long2ObjectHashMap<>();
     private final ErrorHandler errorHandler;
     private final LongToIntFunction libraryLookup = this::libraryLookup;
+    // End points that have messages in their write batch, only used if write batching is enabled.
+    private final ArrayList<FixSenderEndPoint> batchingEndPoints = new ArrayList<>();
 
     private int libraryLookup(final long sessionId)
     {
@@ -84,7 +87,9 @@ class FixSenderEndPoints implements AutoCloseable, ControlledFragmentHandler
         final FixSenderEndPoint endPoint = connectionIdToSenderEndpoint.get(connectionId);
         if (endPoint != null)
         {
+            final boolean wasBatching = endPoint.hasBatchedWrites();
             endPoint.onOutboundMessage(libraryId, buffer, offset, length, sequenceNumber, position, timeInMs);
+            checkBatching(endPoint, wasBatching);
             return true;
         }
 
@@ -97,7 +102,10 @@ class FixSenderEndPoints implements AutoCloseable, ControlledFragmentHandler
         final FixSenderEndPoint endPoint = connectionIdToSenderEndpoint.get(connectionId);
         if (endPoint != null)
         {
-            return endPoint.onReplayMessage(buffer, offset, length, timeInMs, position);
+            final boolean wasBatching = endPoint.hasBatchedWrites();
+            final Action action = endPoint.onReplayMessage(buffer, offset, length, timeInMs, position);
+            checkBatching(endPoint, wasBatching);
+            return action;
         }
         else
         {
@@ -129,6 +137,36 @@ class FixSenderEndPoints implements AutoCloseable, ControlledFragmentHandler
         }
     }
 
+    private void checkBatching(final FixSenderEndPoint endPoint, final boolean wasBatching)
+    {
+        if (!wasBatching && endPoint.hasBatchedWrites())
+        {
+            batchingEndPoints.add(endPoint);
+        }
+    }
+
+    int flushWriteBatches()
+    {
+        final ArrayList<FixSenderEndPoint> batchingEndPoints = this.batchingEndPoints;
+        final int size = batchingEndPoints.size();
+        for (int i = 0; i < size; i++)
+        {
+            batchingEndPoints.get(i).flushWriteBatch();
+        }
+        batchingEndPoints.clear();
+
+        return size;
+    }
+
+    void flushWriteBatchBeforeDisconnect(final long connectionId)
+    {
+        final FixSenderEndPoint senderEndPoint = connectionIdToSenderEndpoint.get(connectionId);
+        if (senderEndPoint != null)
+        {
+            senderEndPoint.flushWriteBatchBeforeDisconnect();
+        }
+    }
+
     private void logReplayError(final long connectionId, final DirectBuffer buffer, final int offset, final int length)
     {
         errorHandler.onError(new IllegalArgumentException(String.format(
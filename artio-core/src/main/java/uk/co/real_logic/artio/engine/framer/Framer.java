@@ -132,11 +132,13 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     private final Timer sendTimer;
 
     private final ControlledFragmentHandler librarySubscriber;
-    private final ControlledFragmentHandler replaySubscriber;
+    // One per replayer shard's image
+    private final ControlledFragmentHandler[] replaySubscribers;
     private final ControlledFragmentHandler replaySlowSubscriber;
     private final AdminEngineProtocolSubscription adminEngineProtocolSubscription;
     private final Subscription adminEngineSubscription;
     private final ReceiverEndPoints receiverEndPoints;
+    private final FramerShard[] shards;
     private final ControlledFragmentAssembler senderEndPointAssembler;
     private final FixSenderEndPoints fixSenderEndPoints;
     private final ILink3SenderEndPoints iLink3SenderEndPoints;
@@ -146,8 +148,8 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     private final EndPointFactory endPointFactory;
     private final Subscription librarySubscription;
     private final SubscriptionSlowPeeker librarySlowPeeker;
-    private final Image replayImage;
-    private final SlowPeeker replaySlowPeeker;
+    private final Image[] replayImages;
+    private final ReplaySlowPeeker replaySlowPeeker;
     private final BlockablePosition engineBlockablePosition;
     private final GatewayPublication inboundPublication;
     private final String agentNamePrefix;
@@ -196,8 +198,8 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         final EndPointFactory endPointFactory,
         final Subscription librarySubscription,
         final Subscription slowSubscription,
-        final Image replayImage,
-        final Image replaySlowImage,
+        final Image[] replayImages,
+        final Image[] replaySlowImages,
         final ReplayQuery inboundMessages,
         final GatewayPublication outboundPublication,
         final GatewayPublication inboundPublication,
@@ -224,7 +226,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         this.adminReplyPublication = adminReplyPublication;
         this.endPointFactory = endPointFactory;
         this.librarySubscription = librarySubscription;
-        this.replayImage = replayImage;
+        this.replayImages = replayImages;
         this.gatewaySessions = gatewaySessions;
         this.inboundMessages = inboundMessages;
         this.errorHandler = errorHandler;
@@ -252,7 +254,12 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
             configuration.acceptorfixDictionary(),
             configuration.acceptorFixDictionaryOverrides());
 
-        receiverEndPoints = new ReceiverEndPoints(errorHandler);
+        shards = new FramerShard[configuration.framerShardCount()];
+        for (int i = 0; i < shards.length; i++)
+        {
+            shards[i] = new FramerShard(i, errorHandler, agentNamePrefix);
+        }
+        receiverEndPoints = new ReceiverEndPoints(errorHandler, shards, configuration.fairReceiverPolling());
 
         this.librarySlowPeeker = new SubscriptionSlowPeeker(slowSubscription, librarySubscription);
 
@@ -260,7 +267,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         this.replayFragmentLimit = configuration.replayFragmentLimit();
         this.inboundBytesReceivedLimit = configuration.inboundBytesReceivedLimit();
 
-        this.replaySlowPeeker = new SlowPeeker(replaySlowImage, replayImage);
+        this.replaySlowPeeker = new ReplaySlowPeeker(replaySlowImages, replayImages);
         endPointFactory.replaySlowPeeker(replaySlowPeeker);
 
         engineBlockablePosition = getOutboundSlowPeeker(outboundPublication);
@@ -271,7 +278,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
 
         // We lookup replayed message by session id, since the connection id may have changed
         // if it's a persistent session.
-        replaySubscriber = new ImageControlledFragmentAssembler(ProtocolSubscription.of(
+        final ControlledFragmentHandler replayProtocolSubscription = ProtocolSubscription.of(
             new ProtocolHandler()
             {
                 public Action onMessage(
@@ -284,6 +291,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
                     final int sequenceIndex,
                     final long messageType,
                     final long timestamp,
+                    final long publishedTimestamp,
                     final MessageStatus status,
                     final int sequenceNumber,
                     final long position,
@@ -311,9 +319,12 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
                     return iLink3SenderEndPoints.onReplayComplete(connectionId);
                 }
                 return action;
-            })),
-            0,
-            true);
+            }));
+        replaySubscribers = new ControlledFragmentHandler[replayImages.length];
+        for (int i = 0; i < replaySubscribers.length; i++)
+        {
+            replaySubscribers[i] = new ImageControlledFragmentAssembler(replayProtocolSubscription, 0, true);
+        }
 
         replaySlowSubscriber = new ControlledFragmentAssembler(ProtocolSubscription.of(
             new ProtocolHandler()
@@ -328,6 +339,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
                     final int sequenceIndex,
                     final long messageType,
                     final long timestamp,
+                    final long publishedTimestamp,
                     final MessageStatus status,
                     final int sequenceNumber,
                     final long position,
@@ -392,7 +404,8 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     {
         return removeIf(replies, ResetSequenceNumberCommand::poll) +
             resendSaveNotifications(resendSlowStatus, SlowStatus.SLOW) +
-            resendSaveNotifications(resendNotSlowStatus, SlowStatus.NOT_SLOW);
+            resendSaveNotifications(resendNotSlowStatus, SlowStatus.NOT_SLOW) +
+            sessionContexts.pollReplication();
     }
 
     private int resendSaveNotifications(final Long2LongHashMap resend, final SlowStatus status)
@@ -420,14 +433,24 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
 
     private int sendReplayMessages()
     {
-        return replayImage.controlledPoll(replaySubscriber, replayFragmentLimit) +
-            replaySlowPeeker.peek(replaySlowSubscriber);
+        int work = 0;
+        final Image[] replayImages = this.replayImages;
+        for (int i = 0; i < replayImages.length; i++)
+        {
+            work += replayImages[i].controlledPoll(replaySubscribers[i], replayFragmentLimit);
+        }
+
+        // Flushed after peeking so that messages batched by slow end points are written in this duty cycle
+        return work +
+            replaySlowPeeker.peek(replaySlowSubscriber) +
+            fixSenderEndPoints.flushWriteBatches();
     }
 
     private int sendOutboundMessages()
     {
         return librarySubscription.controlledPoll(librarySubscriber, outboundLibraryFragmentLimit) +
             librarySlowPeeker.peek(senderEndPointAssembler) +
+            fixSenderEndPoints.flushWriteBatches() +
             adminEngineSubscription.poll(adminEngineProtocolSubscription, outboundLibraryFragmentLimit);
     }
 
@@ -1420,12 +1443,13 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         final int sequenceIndex,
         final long messageType,
         final long timestamp,
+        final long publishedTimestamp,
         final MessageStatus status,
         final int sequenceNumber,
         final long position,
         final int metaDataLength)
     {
-        final long now = outboundTimer.recordSince(timestamp);
+        final long now = outboundTimer.recordSince(sessionId, timestamp);
 
         final boolean online = fixSenderEndPoints.onMessage(
             libraryId, connectionId, buffer, offset, length, sequenceNumber, position);
@@ -1435,7 +1459,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
             checkOfflineSequenceReset(sessionId, messageType, buffer, offset, length);
         }
 
-        sendTimer.recordSince(now);
+        sendTimer.recordSince(sessionId, now);
 
         return CONTINUE;
     }
@@ -1446,20 +1470,18 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         if (messageType == LOGON_MESSAGE_TYPE)
         {
             // Always a sequence reset
-            final Map.Entry<CompositeKey, SessionContext> entry = sessionContexts.lookupById(sessionId);
-            if (entry != null)
+            final SessionContext context = sessionContexts.lookupById(sessionId);
+            if (context != null)
             {
-                final SessionContext context = entry.getValue();
                 context.onSequenceReset(clock.nanoTime());
             }
         }
         else if (messageType == SEQUENCE_RESET_MESSAGE_TYPE)
         {
             // If it's not a gap-fill it's a sequence reset
-            final Map.Entry<CompositeKey, SessionContext> entry = sessionContexts.lookupById(sessionId);
-            if (entry != null)
+            final SessionContext context = sessionContexts.lookupById(sessionId);
+            if (context != null)
             {
-                final SessionContext context = entry.getValue();
                 final AbstractSequenceResetDecoder decoder = acceptorFixDictionaryLookup.lookupSequenceResetDecoder(
                     context.lastFixDictionary());
                 asciiBuffer.wrap(buffer);
@@ -1544,6 +1566,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
 
     public Action onDisconnect(final int libraryId, final long connectionId, final DisconnectReason reason)
     {
+        fixSenderEndPoints.flushWriteBatchBeforeDisconnect(connectionId);
         receiverEndPoints.removeConnection(connectionId, reason);
         fixSenderEndPoints.removeConnection(connectionId);
         gatewaySessions.releaseByConnectionId(connectionId);
@@ -1880,8 +1903,8 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         final int replayFromSequenceIndex,
         final int replayFromSequenceNumber)
     {
-        final Map.Entry<CompositeKey, SessionContext> entry = sessionContexts.lookupById(sessionId);
-        if (entry == null)
+        final SessionContext context = sessionContexts.lookupById(sessionId);
+        if (context == null)
         {
             return false;
         }
@@ -1899,8 +1922,8 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
                 correlationId,
                 replayFromSequenceIndex,
                 replayFromSequenceNumber,
-                entry.getKey(),
-                entry.getValue()));
+                context.sessionKey(),
+                context));
         }
 
         return true;
@@ -2663,7 +2686,8 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
                 fixSenderEndPoints,
                 channelSupplier,
                 sentSequenceNumberIndex,
-                receivedSequenceNumberIndex);
+                receivedSequenceNumberIndex,
+                gatewaySessions::close);
         }
         else
         {
@@ -2671,7 +2695,8 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
                 inboundMessages,
                 channelSupplier,
                 sentSequenceNumberIndex,
-                receivedSequenceNumberIndex);
+                receivedSequenceNumberIndex,
+                gatewaySessions::close);
         }
     }
 
@@ -2703,6 +2728,11 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         return agentNamePrefix + "Framer";
     }
 
+    FramerShard[] shards()
+    {
+        return shards;
+    }
+
     void schedule(final Continuation continuation)
     {
         retryManager.schedule(continuation);
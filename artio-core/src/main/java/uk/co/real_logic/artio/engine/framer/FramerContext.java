@@ -38,6 +38,7 @@ import uk.co.real_logic.artio.timing.EngineTimers;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -69,8 +70,8 @@ public class FramerContext
         final FixCounters fixCounters,
         final EngineContext engineContext,
         final ErrorHandler errorHandler,
-        final Image replayImage,
-        final Image slowReplayImage,
+        final Image[] replayImages,
+        final Image[] slowReplayImages,
         final EngineTimers timers,
         final AgentInvoker conductorAgentInvoker,
         final RecordingCoordinator recordingCoordinator,
@@ -85,6 +86,14 @@ public class FramerContext
 
         this.sessionContexts = new SessionContexts(
             configuration.sessionIdBuffer(), sessionIdStrategy, configuration.initialSequenceIndex(), errorHandler);
+        final String replicationChannel = configuration.replicationChannel();
+        if (replicationChannel != null)
+        {
+            final ExclusivePublication replicationPublication = aeron.addExclusivePublication(
+                replicationChannel, configuration.replicationStream());
+            StreamInformation.print("replicationPublication", replicationPublication, configuration);
+            sessionContexts.replicationPublication(replicationPublication);
+        }
 
         this.inboundPublication = engineContext.inboundPublication();
         this.outboundPublication = outboundLibraryStreams.gatewayPublication(idleStrategy,
@@ -123,7 +132,8 @@ public class FramerContext
             errorHandler,
             gatewaySessions,
             engineContext.senderSequenceNumbers(),
-            configuration.messageTimingHandler());
+            configuration.messageTimingHandler(),
+            timers.readTimer());
 
         final FinalImagePositions finalImagePositions = new FinalImagePositions();
 
@@ -139,8 +149,8 @@ public class FramerContext
                 "outboundLibrarySubscription", finalImagePositions),
             engineContext.outboundLibrarySubscription(
                 "outboundSlowSubscription", null),
-            replayImage,
-            slowReplayImage,
+            replayImages,
+            slowReplayImages,
             engineContext.inboundReplayQuery(),
             outboundPublication,
             inboundPublication,
@@ -187,6 +197,11 @@ public class FramerContext
         return framer;
     }
 
+    public List<Agent> framerShards()
+    {
+        return Arrays.asList(framer.shards());
+    }
+
     public Reply<List<LibraryInfo>> libraries()
     {
         final QueryLibrariesCommand reply = new QueryLibrariesCommand();
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.OneToOneConcurrentArrayQueue;
+import org.agrona.nio.TransportPoller;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Reads data from the TCP connections of a partition of the engine's FIX connections on its own thread.
+ *
+ * Only the socket reads are performed by the shard. Once a shard has read data for an end point it hands the end
+ * point over to the Framer thread, which frames and publishes the messages in the same way as it would for end points
+ * that it reads itself. The end point isn't read again by the shard until the Framer has finished framing it, so all
+ * ordering and back-pressure guarantees on the inbound stream are unchanged.
+ */
+class FramerShard extends TransportPoller implements Agent
+{
+    private static final int CAPACITY = 1024;
+
+    // Written on Framer, Read on Shard
+    private final OneToOneConcurrentArrayQueue<FixReceiverEndPoint> addedEndPoints =
+        new OneToOneConcurrentArrayQueue<>(CAPACITY);
+    // Written on Shard, Read on Framer
+    private final OneToOneConcurrentArrayQueue<FixReceiverEndPoint> readEndPoints =
+        new OneToOneConcurrentArrayQueue<>(CAPACITY);
+
+    private final Consumer<FixReceiverEndPoint> onAddedEndPoint = this::onAddedEndPoint;
+    private final int shardId;
+    private final ErrorHandler errorHandler;
+    // End points that have been read but couldn't be handed over to the Framer because the queue was full.
+    private final ArrayList<FixReceiverEndPoint> pendingHandOvers = new ArrayList<>();
+    private final String roleName;
+
+    FramerShard(
+        final int shardId,
+        final ErrorHandler errorHandler,
+        final String agentNamePrefix)
+    {
+        this.shardId = shardId;
+        this.errorHandler = errorHandler;
+        this.roleName = agentNamePrefix + "FramerShard-" + shardId;
+    }
+
+    // Called on Framer Thread, returns false if the end point should be retried on a later duty cycle. Never waits
+    // for the shard to make space, as the shard may be running on the Framer thread.
+    boolean add(final FixReceiverEndPoint endPoint)
+    {
+        return addedEndPoints.offer(endPoint);
+    }
+
+    // Called on Framer Thread
+    int drainReadEndPoints(final Consumer<FixReceiverEndPoint> handler)
+    {
+        return readEndPoints.drain(handler, CAPACITY);
+    }
+
+    public int doWork() throws IOException
+    {
+        return addedEndPoints.drain(onAddedEndPoint, CAPACITY) + retryHandOvers() + pollEndPoints();
+    }
+
+    private int retryHandOvers()
+    {
+        final ArrayList<FixReceiverEndPoint> pendingHandOvers = this.pendingHandOvers;
+        final int size = pendingHandOvers.size();
+        if (size == 0)
+        {
+            return 0;
+        }
+
+        int i = 0;
+        while (i < size && readEndPoints.offer(pendingHandOvers.get(i)))
+        {
+            i++;
+        }
+
+        pendingHandOvers.subList(0, i).clear();
+
+        return i;
+    }
+
+    private void onAddedEndPoint(final FixReceiverEndPoint endPoint)
+    {
+        try
+        {
+            endPoint.register(selector);
+        }
+        catch (final ClosedChannelException ex)
+        {
+            // Deliberately blank: the Framer has disconnected the end point before the shard registered it.
+        }
+        catch (final IOException ex)
+        {
+            errorHandler.onError(ex);
+        }
+    }
+
+    private int pollEndPoints() throws IOException
+    {
+        int endPointsRead = 0;
+        selector.selectNow();
+
+        final SelectionKey[] keys = selectedKeySet.keys();
+        final int size = selectedKeySet.size();
+        for (int i = 0; i < size; i++)
+        {
+            final FixReceiverEndPoint endPoint = (FixReceiverEndPoint)keys[i].attachment();
+            if (endPoint.shardRead())
+            {
+                handOver(endPoint);
+                endPointsRead++;
+            }
+        }
+
+        selectedKeySet.reset();
+
+        return endPointsRead;
+    }
+
+    private void handOver(final FixReceiverEndPoint endPoint)
+    {
+        if (!pendingHandOvers.isEmpty() || !readEndPoints.offer(endPoint))
+        {
+            pendingHandOvers.add(endPoint);
+        }
+    }
+
+    public void onClose()
+    {
+        close();
+    }
+
+    public String roleName()
+    {
+        return roleName;
+    }
+
+    public String toString()
+    {
+        return "FramerShard{" +
+            "shardId=" + shardId +
+            '}';
+    }
+}
@@ -91,6 +91,8 @@ class GatewaySessions
     private final EpochNanoClock clock;
     private final EpochFractionFormat epochFractionPrecision;
     private final UtcTimestampEncoder sendingTimeEncoder;
+    // null when authentication strategies are run on the Framer thread
+    private final AuthenticationExecutor authenticationExecutor;
 
     // Initialised after logon processed.
     private SessionContext sessionContext;
@@ -139,6 +141,21 @@ class GatewaySessions
             epochFractionPrecision);
 
         sendingTimeEncoder = new UtcTimestampEncoder(epochFractionPrecision);
+
+        final int authenticationThreadCount = configuration.authenticationThreadCount();
+        if (authenticationThreadCount > 0)
+        {
+            authenticationExecutor = new AuthenticationExecutor(
+                authenticationThreadCount,
+                configuration.authenticationQueueCapacity(),
+                configuration.agentNamePrefix(),
+                fixCounters.pendingAuthentications(),
+                fixCounters.rejectedAuthentications());
+        }
+        else
+        {
+            authenticationExecutor = null;
+        }
     }
 
     static GatewaySession removeSessionByConnectionId(final long connectionId, final List<GatewaySession> sessions)
@@ -284,6 +301,14 @@ class GatewaySessions
         return UNK_SESSION;
     }
 
+    void close()
+    {
+        if (authenticationExecutor != null)
+        {
+            authenticationExecutor.close();
+        }
+    }
+
     void releaseByConnectionId(final long connectionId)
     {
         final GatewaySession session = removeSessionByConnectionId(connectionId, sessions);
@@ -394,7 +419,8 @@ class GatewaySessions
         ACCEPTED,
         SENDING_REJECT_MESSAGE,
         LINGERING_REJECT_MESSAGE,
-        REJECTED
+        REJECTED,
+        DISCONNECTED
     }
 
     private final class PendingAcceptorLogon implements AuthenticationProxy, AcceptorLogonResult
@@ -477,6 +503,27 @@ class GatewaySessions
 
         private void authenticate(final AbstractLogonDecoder logon, final long connectionId)
         {
+            final AuthenticationExecutor authenticationExecutor = GatewaySessions.this.authenticationExecutor;
+            if (authenticationExecutor == null)
+            {
+                invokeAuthenticationStrategy(logon, connectionId);
+            }
+            else if (!authenticationExecutor.execute(() -> invokeAuthenticationStrategy(logon, connectionId)))
+            {
+                onError(new FixGatewayException(String.format(
+                    "Rejected logon for connectionId=%d as the authentication queue is full", connectionId)));
+                reject();
+            }
+        }
+
+        private void invokeAuthenticationStrategy(final AbstractLogonDecoder logon, final long connectionId)
+        {
+            // The logon may have timed out, disconnected or been rejected whilst it was queued for a thread.
+            if (state != AuthenticationState.PENDING)
+            {
+                return;
+            }
+
             try
             {
                 authenticationStrategy.authenticateAsync(logon, this);
@@ -485,7 +532,8 @@ class GatewaySessions
             {
                 onStrategyError("authentication", throwable, connectionId, "false", logon);
 
-                if (state != AuthenticationState.REJECTED)
+                final AuthenticationState state = this.state;
+                if (state != AuthenticationState.REJECTED && state != AuthenticationState.DISCONNECTED)
                 {
                     reject();
                 }
@@ -529,30 +577,42 @@ class GatewaySessions
 
         public void accept()
         {
-            validateState();
-
-            state = AuthenticationState.AUTHENTICATED;
+            if (validateState())
+            {
+                state = AuthenticationState.AUTHENTICATED;
+            }
         }
 
         public void accept(final Class<? extends FixDictionary> fixDictionaryClass)
         {
-            validateState();
+            if (!validateState())
+            {
+                return;
+            }
 
             this.fixDictionaryClass = fixDictionaryClass;
             state = AuthenticationState.AUTHENTICATED;
         }
 
-        private void validateState()
+        // returns false if the connection has disconnected, so the result of the authentication is ignored
+        private boolean validateState()
         {
             // NB: simple best efforts state check to catch programming errors.
             // Technically can race if two different threads call accept and reject at the exact same moment.
             final AuthenticationState state = this.state;
 
+            if (state == AuthenticationState.DISCONNECTED)
+            {
+                return false;
+            }
+
             if (!(state == AuthenticationState.PENDING || state == AuthenticationState.AUTHENTICATED))
             {
                 throw new IllegalStateException(String.format(
                     "Cannot reject and accept a pending operation at the same time (state=%s)", state));
             }
+
+            return true;
         }
 
         public boolean poll()
@@ -740,8 +800,6 @@ class GatewaySessions
 
         public void reject()
         {
-            validateState();
-
             reject(DisconnectReason.FAILED_AUTHENTICATION);
         }
 
@@ -755,6 +813,11 @@ class GatewaySessions
                     "lingerTimeoutInMs should not be negative, (%d)", lingerTimeoutInMs));
             }
 
+            if (state == AuthenticationState.DISCONNECTED)
+            {
+                return;
+            }
+
             this.encoder = encoder;
             this.reason = DisconnectReason.FAILED_AUTHENTICATION;
             this.lingerTimeoutInMs = lingerTimeoutInMs;
@@ -768,10 +831,19 @@ class GatewaySessions
 
         private void reject(final DisconnectReason reason)
         {
-            validateState();
+            if (validateState())
+            {
+                this.reason = reason;
+                this.state = AuthenticationState.REJECTED;
+            }
+        }
 
-            this.reason = reason;
-            this.state = AuthenticationState.REJECTED;
+        public void onDisconnect()
+        {
+            if (state == AuthenticationState.PENDING)
+            {
+                state = AuthenticationState.DISCONNECTED;
+            }
         }
 
         public boolean isAccepted()
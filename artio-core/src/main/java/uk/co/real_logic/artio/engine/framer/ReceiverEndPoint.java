@@ -46,6 +46,9 @@ public abstract class ReceiverEndPoint
     protected int usedBufferData = 0;
     protected SelectionKey selectionKey;
 
+    // Only used by ReceiverEndPoints when polling fairly, true whilst waiting to retry framing back-pressured data.
+    boolean backpressured = false;
+
     public ReceiverEndPoint(
         final GatewayPublication publication,
         final TcpChannel channel,
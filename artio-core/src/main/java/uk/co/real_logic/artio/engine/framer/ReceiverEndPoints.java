@@ -23,7 +23,9 @@ import uk.co.real_logic.artio.messages.DisconnectReason;
 
 import java.io.IOException;
 import java.nio.channels.SelectionKey;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.function.Consumer;
 import java.util.function.LongConsumer;
 import java.util.stream.Stream;
 
@@ -33,6 +35,7 @@ import static uk.co.real_logic.artio.messages.DisconnectReason.ENGINE_SHUTDOWN;
 class ReceiverEndPoints extends TransportPoller
 {
     private final ErrorHandler errorHandler;
+    private final boolean fairPolling;
 
     // Authentication flow requires periodic polling of the receiver end points until the authentication is
     // complete, so these endpoints are always polled, rather than using the selector.
@@ -42,9 +45,31 @@ class ReceiverEndPoints extends TransportPoller
     // the data into the Aeron stream.
     private ReceiverEndPoint backpressuredEndPoint = null;
 
+    // In fair polling mode each end point keeps its own back-pressured data in its buffer, so only the end points
+    // that are back-pressured wait to be retried and the others carry on being polled, starting from a different
+    // end point each time.
+    private final ArrayList<ReceiverEndPoint> backpressuredEndPoints = new ArrayList<>();
+    private int nextPollIndex = 0;
+
+    // If there are any shards then FIX end points are read by their shard rather than using the selector.
+    private final FramerShard[] shards;
+    private FixReceiverEndPoint[] shardedEndPoints = new FixReceiverEndPoint[0];
+    // Sharded end points that have had data read by their shard that hasn't been framed yet.
+    private final ArrayList<FixReceiverEndPoint> readShardedEndPoints = new ArrayList<>();
+    private final Consumer<FixReceiverEndPoint> onShardRead = readShardedEndPoints::add;
+    // Sharded end points that their shard's queue didn't have space for, retried on each duty cycle.
+    private final ArrayList<FixReceiverEndPoint> pendingShardAdds = new ArrayList<>();
+
     ReceiverEndPoints(final ErrorHandler errorHandler)
+    {
+        this(errorHandler, new FramerShard[0], false);
+    }
+
+    ReceiverEndPoints(final ErrorHandler errorHandler, final FramerShard[] shards, final boolean fairPolling)
     {
         this.errorHandler = errorHandler;
+        this.shards = shards;
+        this.fairPolling = fairPolling;
     }
 
     void add(final ReceiverEndPoint endPoint)
@@ -61,6 +86,22 @@ class ReceiverEndPoints extends TransportPoller
 
     private void addToNormalEndpoints(final ReceiverEndPoint endPoint)
     {
+        final FramerShard[] shards = this.shards;
+        if (shards.length > 0 && endPoint instanceof FixReceiverEndPoint)
+        {
+            final FixReceiverEndPoint fixEndPoint = (FixReceiverEndPoint)endPoint;
+            final FramerShard shard = shardFor(fixEndPoint);
+            shardedEndPoints = ArrayUtil.add(shardedEndPoints, fixEndPoint);
+            fixEndPoint.shard(shard);
+            // frame anything left in the buffer before the shard reads the connection
+            readShardedEndPoints.add(fixEndPoint);
+            if (!pendingShardAdds.isEmpty() || !shard.add(fixEndPoint))
+            {
+                pendingShardAdds.add(fixEndPoint);
+            }
+            return;
+        }
+
         try
         {
             endPoints = ArrayUtil.add(endPoints, endPoint);
@@ -81,15 +122,33 @@ class ReceiverEndPoints extends TransportPoller
         {
             this.endPoints = ArrayUtil.remove(endPoints, index);
         }
+        else if ((index = findAndCloseEndPoint(connectionId, reason, shardedEndPoints)) != UNKNOWN_INDEX)
+        {
+            this.shardedEndPoints = ArrayUtil.remove(shardedEndPoints, index);
+        }
         else
         {
             index = findAndCloseEndPoint(connectionId, reason, requiredPollingEndPoints);
             this.requiredPollingEndPoints = ArrayUtil.remove(requiredPollingEndPoints, index);
         }
 
+        removeBackpressuredEndPoint(connectionId);
         selectNowToForceProcessing();
     }
 
+    private void removeBackpressuredEndPoint(final long connectionId)
+    {
+        final ArrayList<ReceiverEndPoint> backpressuredEndPoints = this.backpressuredEndPoints;
+        for (int i = 0, size = backpressuredEndPoints.size(); i < size; i++)
+        {
+            if (backpressuredEndPoints.get(i).connectionId() == connectionId)
+            {
+                backpressuredEndPoints.remove(i);
+                return;
+            }
+        }
+    }
+
     void receiverEndPointPollingOptional(final long connectionId)
     {
         final ReceiverEndPoint[] requiredPollingEndPoints = this.requiredPollingEndPoints;
@@ -154,11 +213,21 @@ class ReceiverEndPoints extends TransportPoller
         int bytesReceived = 0;
         try
         {
+            if (!pendingShardAdds.isEmpty())
+            {
+                bytesReceived += retryShardAdds();
+            }
+
             final ReceiverEndPoint[] requiredPollingEndPoints = this.requiredPollingEndPoints;
             final ReceiverEndPoint backpressuredEndPoint = this.backpressuredEndPoint;
             final int numRequiredPollingEndPoints = requiredPollingEndPoints.length;
 
-            if (backpressuredEndPoint != null)
+            if (fairPolling)
+            {
+                bytesReceived += retryBackpressuredEndPoints();
+                bytesReceived += pollNormalEndPoints(numRequiredPollingEndPoints);
+            }
+            else if (backpressuredEndPoint != null)
             {
                 if (backpressuredEndPoint.retryFrameMessages())
                 {
@@ -182,6 +251,71 @@ class ReceiverEndPoints extends TransportPoller
         return bytesReceived;
     }
 
+    private int retryBackpressuredEndPoints()
+    {
+        final ArrayList<ReceiverEndPoint> backpressuredEndPoints = this.backpressuredEndPoints;
+        final int size = backpressuredEndPoints.size();
+        int retained = 0;
+        for (int i = 0; i < size; i++)
+        {
+            final ReceiverEndPoint endPoint = backpressuredEndPoints.get(i);
+            if (endPoint.hasDisconnected || endPoint.retryFrameMessages())
+            {
+                endPoint.backpressured = false;
+            }
+            else
+            {
+                backpressuredEndPoints.set(retained++, endPoint);
+            }
+        }
+        backpressuredEndPoints.subList(retained, size).clear();
+
+        return size;
+    }
+
+    private int pollFairly(final ReceiverEndPoint endPoint)
+    {
+        if (endPoint.backpressured)
+        {
+            return 0;
+        }
+
+        final int polledBytes = endPoint.poll();
+        if (polledBytes < 0)
+        {
+            endPoint.backpressured = true;
+            backpressuredEndPoints.add(endPoint);
+            return -polledBytes;
+        }
+
+        return polledBytes;
+    }
+
+    private int pollArrayFairly(final ReceiverEndPoint[] endPoints, final int numEndPoints)
+    {
+        if (numEndPoints == 0)
+        {
+            return 0;
+        }
+
+        // Round robin the end point that gets to publish first
+        final int start = nextPollIndex < numEndPoints ? nextPollIndex : 0;
+        nextPollIndex = start + 1;
+
+        int bytesReceived = 0;
+        for (int i = 0; i < numEndPoints; i++)
+        {
+            int index = start + i;
+            if (index >= numEndPoints)
+            {
+                index -= numEndPoints;
+            }
+
+            bytesReceived += pollFairly(endPoints[index]);
+        }
+        return bytesReceived;
+    }
+
     private int pollNormalEndPoints(final int numRequiredPollingEndPoints) throws IOException
     {
         int bytesReceived = 0;
@@ -190,7 +324,14 @@ class ReceiverEndPoints extends TransportPoller
         final int threshold = ITERATION_THRESHOLD - numRequiredPollingEndPoints;
         if (numEndPoints <= threshold)
         {
-            bytesReceived = pollArray(bytesReceived, endPoints, numEndPoints);
+            if (fairPolling)
+            {
+                bytesReceived = pollArrayFairly(endPoints, numEndPoints);
+            }
+            else
+            {
+                bytesReceived = pollArray(bytesReceived, endPoints, numEndPoints);
+            }
         }
         else
         {
@@ -202,6 +343,12 @@ class ReceiverEndPoints extends TransportPoller
             for (i = 0; i < size; i++)
             {
                 final ReceiverEndPoint endPoint = (ReceiverEndPoint)keys[i].attachment();
+                if (fairPolling)
+                {
+                    bytesReceived += pollFairly(endPoint);
+                    continue;
+                }
+
                 final int polledBytes = endPoint.poll();
                 if (polledBytes < 0)
                 {
@@ -219,6 +366,83 @@ class ReceiverEndPoints extends TransportPoller
                 selectedKeySet.reset(i);
             }
         }
+
+        if (shards.length > 0 && (fairPolling || backpressuredEndPoint == null))
+        {
+            bytesReceived += pollShardedEndPoints();
+        }
+
+        return bytesReceived;
+    }
+
+    private FramerShard shardFor(final FixReceiverEndPoint endPoint)
+    {
+        return shards[(int)Math.floorMod(endPoint.connectionId(), (long)shards.length)];
+    }
+
+    private int retryShardAdds()
+    {
+        final ArrayList<FixReceiverEndPoint> pendingShardAdds = this.pendingShardAdds;
+        final int size = pendingShardAdds.size();
+        int retained = 0;
+        for (int i = 0; i < size; i++)
+        {
+            final FixReceiverEndPoint endPoint = pendingShardAdds.get(i);
+            if (!endPoint.hasDisconnected && (retained > 0 || !shardFor(endPoint).add(endPoint)))
+            {
+                pendingShardAdds.set(retained++, endPoint);
+            }
+        }
+        pendingShardAdds.subList(retained, size).clear();
+
+        return size - retained;
+    }
+
+    private int pollShardedEndPoints()
+    {
+        final ArrayList<FixReceiverEndPoint> readShardedEndPoints = this.readShardedEndPoints;
+        for (final FramerShard shard : shards)
+        {
+            shard.drainReadEndPoints(onShardRead);
+        }
+
+        int bytesReceived = 0;
+        int retained = 0;
+        int i;
+        final int size = readShardedEndPoints.size();
+        for (i = 0; i < size; i++)
+        {
+            final FixReceiverEndPoint endPoint = readShardedEndPoints.get(i);
+            if (fairPolling)
+            {
+                bytesReceived += pollFairly(endPoint);
+            }
+            else
+            {
+                final int polledBytes = endPoint.poll();
+                if (polledBytes < 0)
+                {
+                    backpressuredEndPoint = endPoint;
+                    bytesReceived -= polledBytes;
+                    break;
+                }
+
+                bytesReceived += polledBytes;
+            }
+
+            // paused and back-pressured end points still have data to frame
+            if (endPoint.backpressured || endPoint.awaitingFraming())
+            {
+                readShardedEndPoints.set(retained++, endPoint);
+            }
+        }
+
+        for (; i < size; i++)
+        {
+            readShardedEndPoints.set(retained++, readShardedEndPoints.get(i));
+        }
+        readShardedEndPoints.subList(retained, size).clear();
+
         return bytesReceived;
     }
 
@@ -235,7 +459,7 @@ class ReceiverEndPoints extends TransportPoller
 
     int size()
     {
-        return requiredPollingEndPoints.length + endPoints.length;
+        return requiredPollingEndPoints.length + endPoints.length + shardedEndPoints.length;
     }
 
     void closeRequiredPollingEndPoints()
@@ -248,6 +472,10 @@ class ReceiverEndPoints extends TransportPoller
     {
         closeRequiredPollingEndPoints();
         closeAll(endPoints);
+        closeAll(shardedEndPoints);
+        readShardedEndPoints.clear();
+        pendingShardAdds.clear();
+        backpressuredEndPoints.clear();
         super.close();
     }
 
@@ -299,7 +527,9 @@ class ReceiverEndPoints extends TransportPoller
             "errorHandler=" + errorHandler +
             ", requiredPollingEndPoints=" + Arrays.toString(requiredPollingEndPoints) +
             ", endPoints=" + Arrays.toString(endPoints) +
+            ", shardedEndPoints=" + Arrays.toString(shardedEndPoints) +
             ", backpressuredEndPoint=" + backpressuredEndPoint +
+            ", backpressuredEndPoints=" + backpressuredEndPoints +
             '}';
     }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import io.aeron.Image;
+import io.aeron.logbuffer.ControlledFragmentHandler;
+
+/**
+ * Peeks the replay image of each replayer shard. All of a connection's replays come from the shard that owns its
+ * session, so end points block the position of whichever shard's image is being peeked.
+ */
+class ReplaySlowPeeker extends BlockablePosition
+{
+    private final SlowPeeker[] shardPeekers;
+
+    private SlowPeeker peekingShard;
+
+    ReplaySlowPeeker(final Image[] peekImages, final Image[] normalImages)
+    {
+        shardPeekers = new SlowPeeker[peekImages.length];
+        for (int i = 0; i < shardPeekers.length; i++)
+        {
+            shardPeekers[i] = new SlowPeeker(peekImages[i], normalImages[i]);
+        }
+        peekingShard = shardPeekers[0];
+    }
+
+    int peek(final ControlledFragmentHandler handler)
+    {
+        int bytesRead = 0;
+        for (final SlowPeeker shardPeeker : shardPeekers)
+        {
+            peekingShard = shardPeeker;
+            bytesRead += shardPeeker.peek(handler);
+        }
+        return bytesRead;
+    }
+
+    void blockPosition(final long blockPosition)
+    {
+        peekingShard.blockPosition(blockPosition);
+    }
+}
@@ -75,6 +75,19 @@ class SessionContext implements SessionInfo
         save();
     }
 
+    void onReplicated(
+        final int sequenceIndex,
+        final long lastLogonTime,
+        final long lastSequenceResetTimeInNs,
+        final FixDictionary lastFixDictionary)
+    {
+        this.sequenceIndex = sequenceIndex;
+        lastLogonTime(lastLogonTime);
+        this.lastSequenceResetTimeInNs = lastSequenceResetTimeInNs;
+        this.lastFixDictionary = lastFixDictionary;
+        save();
+    }
+
     void updateAndSaveFrom(final Session session)
     {
         updateFrom(session);
@@ -100,6 +113,11 @@ class SessionContext implements SessionInfo
         this.filePosition = filePosition;
     }
 
+    int filePosition()
+    {
+        return filePosition;
+    }
+
     void updateFrom(final Session session)
     {
         sequenceIndex = session.sequenceIndex();
@@ -15,7 +15,12 @@
  */
 package uk.co.real_logic.artio.engine.framer;
 
+import io.aeron.ExclusivePublication;
+import io.aeron.logbuffer.Header;
+import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.collections.Long2ObjectHashMap;
 import org.agrona.collections.LongHashSet;
 import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
@@ -27,6 +32,12 @@ import uk.co.real_logic.artio.engine.SessionInfo;
 import uk.co.real_logic.artio.engine.logger.LoggerUtil;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
 import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+import uk.co.real_logic.artio.messages.ResetSessionIdsDecoder;
+import uk.co.real_logic.artio.messages.ResetSessionIdsEncoder;
+import uk.co.real_logic.artio.messages.SessionIdsSnapshotBeginDecoder;
+import uk.co.real_logic.artio.messages.SessionIdsSnapshotBeginEncoder;
+import uk.co.real_logic.artio.messages.SessionIdsSnapshotEndDecoder;
+import uk.co.real_logic.artio.messages.SessionIdsSnapshotEndEncoder;
 import uk.co.real_logic.artio.session.CompositeKey;
 import uk.co.real_logic.artio.session.Session;
 import uk.co.real_logic.artio.session.SessionIdStrategy;
@@ -38,10 +49,11 @@ import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.zip.CRC32;
 
+import static io.aeron.Publication.NOT_CONNECTED;
+import static org.agrona.BitUtil.SIZE_OF_INT;
 import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_INITIAL_SEQUENCE_INDEX;
 import static uk.co.real_logic.artio.engine.SectorFramer.*;
 import static uk.co.real_logic.artio.session.SessionIdStrategy.INSUFFICIENT_SPACE;
@@ -53,6 +65,12 @@ import static uk.co.real_logic.artio.storage.messages.SessionIdEncoder.BLOCK_LEN
  * The session ids table is saved into a file. Records are written out using the {@link SessionIdEncoder}
  * and aren't allowed to span sectors. Each sector has a CRC32 checksum and each checksum is updated after writing
  * each session id record.
+ * <p>
+ * If a replication publication is set then each record is also published when it is written, along with a
+ * snapshot of every record whenever a standby engine connects, so that a standby engine's session ids can be kept
+ * in sync by handing the fragments to {@link #onReplicationFragment(DirectBuffer, int, int, Header)}. A standby
+ * only replaces its session ids with a snapshot once the whole snapshot has been received. Snapshots are published
+ * over as many duty cycles as back pressure requires, with any records written in the meantime queued up behind them.
  */
 public class SessionContexts
 {
@@ -84,17 +102,23 @@ public class SessionContexts
 
     private static final int ENCODING_BUFFER_SIZE = SECTOR_SIZE - CHECKSUM_SIZE;
     private final UnsafeBuffer compositeKeyBuffer = new UnsafeBuffer(new byte[ENCODING_BUFFER_SIZE]);
+    private final UnsafeBuffer replicationBuffer = new UnsafeBuffer(new byte[HEADER_SIZE + SECTOR_DATA_LENGTH]);
 
     private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
     private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final MessageHeaderDecoder replicationHeaderDecoder = new MessageHeaderDecoder();
     private final SessionIdEncoder sessionIdEncoder = new SessionIdEncoder();
     private final SessionIdDecoder sessionIdDecoder = new SessionIdDecoder();
+    private final ResetSessionIdsEncoder resetSessionIdsEncoder = new ResetSessionIdsEncoder();
+    private final SessionIdsSnapshotBeginEncoder snapshotBeginEncoder = new SessionIdsSnapshotBeginEncoder();
+    private final SessionIdsSnapshotEndEncoder snapshotEndEncoder = new SessionIdsSnapshotEndEncoder();
     private final int actingBlockLength = sessionIdEncoder.sbeBlockLength();
     private final int actingVersion = sessionIdEncoder.sbeSchemaVersion();
 
     private final LongHashSet currentlyAuthenticatedSessionIds = new LongHashSet();
     private final CopyOnWriteArrayList<SessionInfo> allSessions = new CopyOnWriteArrayList<>();
     private final Map<CompositeKey, SessionContext> compositeToContext = new HashMap<>();
+    private final Long2ObjectHashMap<SessionContext> sessionIdToContext = new Long2ObjectHashMap<>();
 
     private final CRC32 crc32 = new CRC32();
     private final SectorFramer sectorFramer;
@@ -109,6 +133,21 @@ public class SessionContexts
     private int filePosition;
     private long counter = LOWEST_VALID_SESSION_ID;
 
+    private ExclusivePublication replicationPublication;
+    private boolean replicationConnected;
+    private ReplicationState replicationState = ReplicationState.SNAPSHOT_BEGIN;
+    // The session id to carry on publishing the current snapshot from
+    private long snapshotSessionId;
+    // Records that are waiting to be published behind a snapshot or back pressure, each prefixed by its length.
+    private final ExpandableArrayBuffer queuedReplication = new ExpandableArrayBuffer();
+    private int queuedReplicationPosition;
+    private int queuedReplicationLength;
+
+    // Only used by a standby, the records of a snapshot that is being received, each prefixed by its length.
+    private final ExpandableArrayBuffer stagedSnapshot = new ExpandableArrayBuffer();
+    private int stagedSnapshotLength;
+    private boolean isStagingSnapshot;
+
     public SessionContexts(
         final MappedFile mappedFile,
         final SessionIdStrategy idStrategy,
@@ -201,6 +240,7 @@ public class SessionContexts
                     sessionIdDecoder.initialOffset(),
                     initialSequenceIndex, thisDictionary);
                 compositeToContext.put(compositeKey, sessionContext);
+                sessionIdToContext.put(sessionId, sessionContext);
 
                 counter = Math.max(counter, sessionId + 1);
 
@@ -294,6 +334,7 @@ public class SessionContexts
             sessionId,
             SessionInfo.UNKNOWN_SEQUENCE_INDEX,
             fixDictionary);
+        sessionIdToContext.put(sessionId, sessionContext);
         allSessions.add(sessionContext);
         return sessionContext;
     }
@@ -368,6 +409,8 @@ public class SessionContexts
 
                     updateChecksum(sectorFramer.sectorStart(), sectorFramer.checksumOffset());
                     mappedFile.force();
+
+                    replicateRecord(keyPosition);
                 }
             }
         }
@@ -382,25 +425,16 @@ public class SessionContexts
 
     void sequenceReset(final long sessionId, final long resetTime)
     {
-        final Entry<CompositeKey, SessionContext> entry = lookupById(sessionId);
-        if (entry != null)
+        final SessionContext context = lookupById(sessionId);
+        if (context != null)
         {
-            final SessionContext context = entry.getValue();
             context.onSequenceReset(resetTime);
         }
     }
 
-    Entry<CompositeKey, SessionContext> lookupById(final long sessionId)
+    SessionContext lookupById(final long sessionId)
     {
-        for (final Entry<CompositeKey, SessionContext> entry : compositeToContext.entrySet())
-        {
-            if (entry.getValue().sessionId() == sessionId)
-            {
-                return entry;
-            }
-        }
-
-        return null;
+        return sessionIdToContext.get(sessionId);
     }
 
     // TODO: optimisation, more efficient checksumming, only checksum new data
@@ -431,6 +465,7 @@ public class SessionContexts
 
         counter = LOWEST_VALID_SESSION_ID;
         compositeToContext.clear();
+        sessionIdToContext.clear();
         allSessions.clear();
 
         if (backupLocation != null)
@@ -439,6 +474,8 @@ public class SessionContexts
         }
 
         resetBuffer();
+
+        replicateReset();
     }
 
     private void resetBuffer()
@@ -475,6 +512,8 @@ public class SessionContexts
                 .lastSequenceResetTime(context.lastSequenceResetTime());
 
             updateSectorChecksum(filePosition);
+
+            replicateRecord(filePosition);
         }
     }
 
@@ -516,4 +555,344 @@ public class SessionContexts
     {
         return filePosition;
     }
+
+    /**
+     * Applies a session id change that has been replicated from the {@link SessionContexts} of a primary engine.
+     * Only to be used by a standby engine, which has no sessions of its own.
+     *
+     * @param buffer the buffer containing the replicated change.
+     * @param offset the offset of the change within the buffer.
+     * @param length the length of the change.
+     * @param header the header of the fragment that the change was received in.
+     */
+    public void onReplicationFragment(
+        final DirectBuffer buffer, final int offset, final int length, final Header header)
+    {
+        final MessageHeaderDecoder replicationHeaderDecoder = this.replicationHeaderDecoder;
+        replicationHeaderDecoder.wrap(buffer, offset);
+        final int templateId = replicationHeaderDecoder.templateId();
+        if (templateId == ResetSessionIdsDecoder.TEMPLATE_ID)
+        {
+            reset(null);
+        }
+        else if (templateId == SessionIdsSnapshotBeginDecoder.TEMPLATE_ID)
+        {
+            // Discards any snapshot that the primary didn't finish publishing
+            isStagingSnapshot = true;
+            stagedSnapshotLength = 0;
+        }
+        else if (templateId == SessionIdDecoder.TEMPLATE_ID)
+        {
+            if (isStagingSnapshot)
+            {
+                stageSnapshotRecord(buffer, offset, length);
+            }
+            else
+            {
+                onReplicatedSessionId(buffer, offset);
+            }
+        }
+        else if (templateId == SessionIdsSnapshotEndDecoder.TEMPLATE_ID && isStagingSnapshot)
+        {
+            applyStagedSnapshot();
+        }
+    }
+
+    private void stageSnapshotRecord(final DirectBuffer buffer, final int offset, final int length)
+    {
+        final ExpandableArrayBuffer stagedSnapshot = this.stagedSnapshot;
+        int stagedSnapshotLength = this.stagedSnapshotLength;
+        stagedSnapshot.putInt(stagedSnapshotLength, length);
+        stagedSnapshotLength += SIZE_OF_INT;
+        stagedSnapshot.putBytes(stagedSnapshotLength, buffer, offset, length);
+        this.stagedSnapshotLength = stagedSnapshotLength + length;
+    }
+
+    // Resetting removes anything that was reset on the primary whilst the standby was disconnected.
+    private void applyStagedSnapshot()
+    {
+        isStagingSnapshot = false;
+        reset(null);
+
+        final ExpandableArrayBuffer stagedSnapshot = this.stagedSnapshot;
+        final int stagedSnapshotLength = this.stagedSnapshotLength;
+        int offset = 0;
+        while (offset < stagedSnapshotLength)
+        {
+            final int length = stagedSnapshot.getInt(offset);
+            offset += SIZE_OF_INT;
+            onReplicatedSessionId(stagedSnapshot, offset);
+            offset += length;
+        }
+        this.stagedSnapshotLength = 0;
+    }
+
+    private void onReplicatedSessionId(final DirectBuffer buffer, final int offset)
+    {
+        final MessageHeaderDecoder replicationHeaderDecoder = this.replicationHeaderDecoder;
+        replicationHeaderDecoder.wrap(buffer, offset);
+        sessionIdDecoder.wrap(
+            buffer,
+            offset + HEADER_SIZE,
+            replicationHeaderDecoder.blockLength(),
+            replicationHeaderDecoder.version());
+        onReplicatedSessionId(buffer);
+    }
+
+    private void onReplicatedSessionId(final DirectBuffer buffer)
+    {
+        final long sessionId = sessionIdDecoder.sessionId();
+        final int sequenceIndex = sessionIdDecoder.sequenceIndex();
+        final long lastLogonTime = sessionIdDecoder.logonTime();
+        final long lastSequenceResetTime = sessionIdDecoder.lastSequenceResetTime();
+        final int compositeKeyLength = sessionIdDecoder.compositeKeyLength();
+        final String lastFixDictionary = sessionIdDecoder.lastFixDictionary();
+        final CompositeKey compositeKey = idStrategy.load(buffer, sessionIdDecoder.limit(), compositeKeyLength);
+        if (compositeKey == null)
+        {
+            errorHandler.onError(new IllegalStateException(
+                "Unable to load the composite key of replicated session id " + sessionId));
+            return;
+        }
+
+        final FixDictionary fixDictionary = FixDictionary.of(FixDictionary.find(lastFixDictionary));
+        final SessionContext context = sessionIdToContext.get(sessionId);
+        if (context == null)
+        {
+            final SessionContext sessionContext = new SessionContext(
+                compositeKey,
+                sessionId,
+                sequenceIndex,
+                lastLogonTime,
+                lastSequenceResetTime,
+                this,
+                0,
+                initialSequenceIndex,
+                fixDictionary);
+            allocateNewSlot(sessionContext);
+            compositeToContext.put(compositeKey, sessionContext);
+            sessionIdToContext.put(sessionId, sessionContext);
+            allSessions.add(sessionContext);
+            counter = Math.max(counter, sessionId + 1);
+        }
+        else
+        {
+            context.onReplicated(sequenceIndex, lastLogonTime, lastSequenceResetTime, fixDictionary);
+        }
+    }
+
+    void replicationPublication(final ExclusivePublication replicationPublication)
+    {
+        this.replicationPublication = replicationPublication;
+    }
+
+    /**
+     * Publishes a snapshot of all the session ids when a standby engine connects, or reconnects, to the replication
+     * publication. A snapshot that is back pressured carries on from where it left off on the next call, followed by
+     * any records that were written whilst it was being published.
+     *
+     * @return the amount of work done.
+     */
+    int pollReplication()
+    {
+        final ExclusivePublication replicationPublication = this.replicationPublication;
+        if (replicationPublication == null)
+        {
+            return 0;
+        }
+
+        final boolean isConnected = replicationPublication.isConnected();
+        if (isConnected != replicationConnected)
+        {
+            // A standby that has connected needs a snapshot whether or not anything was missed whilst disconnected.
+            replicationConnected = isConnected;
+            restartSnapshot();
+        }
+
+        if (!isConnected)
+        {
+            return 0;
+        }
+
+        int work = 0;
+        if (replicationState == ReplicationState.SNAPSHOT_BEGIN)
+        {
+            snapshotBeginEncoder.wrapAndApplyHeader(replicationBuffer, 0, headerEncoder);
+            if (!offerReplication(replicationBuffer, 0, HEADER_SIZE + snapshotBeginEncoder.encodedLength()))
+            {
+                return work;
+            }
+
+            work++;
+            snapshotSessionId = LOWEST_VALID_SESSION_ID;
+            replicationState = ReplicationState.SNAPSHOT_RECORDS;
+        }
+
+        if (replicationState == ReplicationState.SNAPSHOT_RECORDS)
+        {
+            // Sessions that are created whilst publishing the snapshot are also published by it.
+            while (snapshotSessionId < counter)
+            {
+                final SessionContext context = lookupById(snapshotSessionId);
+                if (context != null && context.filePosition() != OUT_OF_SPACE)
+                {
+                    final int length = encodeRecord(context.filePosition());
+                    if (!offerReplication(replicationBuffer, 0, length))
+                    {
+                        return work;
+                    }
+
+                    work++;
+                }
+                snapshotSessionId++;
+            }
+
+            replicationState = ReplicationState.SNAPSHOT_END;
+        }
+
+        if (replicationState == ReplicationState.SNAPSHOT_END)
+        {
+            snapshotEndEncoder.wrapAndApplyHeader(replicationBuffer, 0, headerEncoder);
+            if (!offerReplication(replicationBuffer, 0, HEADER_SIZE + snapshotEndEncoder.encodedLength()))
+            {
+                return work;
+            }
+
+            work++;
+            replicationState = ReplicationState.QUEUED;
+        }
+
+        if (replicationState == ReplicationState.QUEUED)
+        {
+            final ExpandableArrayBuffer queuedReplication = this.queuedReplication;
+            final int queuedReplicationLength = this.queuedReplicationLength;
+            int queuedReplicationPosition = this.queuedReplicationPosition;
+            while (queuedReplicationPosition < queuedReplicationLength)
+            {
+                final int length = queuedReplication.getInt(queuedReplicationPosition);
+                final int offset = queuedReplicationPosition + SIZE_OF_INT;
+                if (!offerReplication(queuedReplication, offset, length))
+                {
+                    // The offer may have restarted the snapshot, which discards the queue
+                    if (replicationState == ReplicationState.QUEUED)
+                    {
+                        this.queuedReplicationPosition = queuedReplicationPosition;
+                    }
+                    return work;
+                }
+
+                work++;
+                queuedReplicationPosition = offset + length;
+            }
+
+            this.queuedReplicationPosition = 0;
+            this.queuedReplicationLength = 0;
+            replicationState = ReplicationState.IN_SYNC;
+        }
+
+        return work;
+    }
+
+    private void restartSnapshot()
+    {
+        replicationState = ReplicationState.SNAPSHOT_BEGIN;
+        queuedReplicationPosition = 0;
+        queuedReplicationLength = 0;
+    }
+
+    // Nothing needs publishing until the snapshot starts as it publishes every record.
+    private boolean isReplicatingChanges()
+    {
+        return replicationConnected && replicationState != ReplicationState.SNAPSHOT_BEGIN;
+    }
+
+    private void replicateReset()
+    {
+        if (!isReplicatingChanges())
+        {
+            return;
+        }
+
+        if (replicationState == ReplicationState.SNAPSHOT_RECORDS ||
+            replicationState == ReplicationState.SNAPSHOT_END)
+        {
+            // The snapshot's position is meaningless once session ids are reset, so start a new one.
+            restartSnapshot();
+            return;
+        }
+
+        resetSessionIdsEncoder.wrapAndApplyHeader(replicationBuffer, 0, headerEncoder);
+
+        replicateChange(HEADER_SIZE + resetSessionIdsEncoder.encodedLength());
+    }
+
+    private void replicateRecord(final int recordPosition)
+    {
+        if (!isReplicatingChanges())
+        {
+            return;
+        }
+
+        replicateChange(encodeRecord(recordPosition));
+    }
+
+    private int encodeRecord(final int recordPosition)
+    {
+        sessionIdDecoder.wrap(buffer, recordPosition, actingBlockLength, actingVersion);
+        final int compositeKeyLength = sessionIdDecoder.compositeKeyLength();
+        sessionIdDecoder.skipLastFixDictionary();
+        final int recordLength = sessionIdDecoder.limit() + compositeKeyLength - recordPosition;
+
+        headerEncoder
+            .wrap(replicationBuffer, 0)
+            .blockLength(actingBlockLength)
+            .templateId(sessionIdEncoder.sbeTemplateId())
+            .schemaId(sessionIdEncoder.sbeSchemaId())
+            .version(actingVersion);
+        replicationBuffer.putBytes(HEADER_SIZE, buffer, recordPosition, recordLength);
+
+        return HEADER_SIZE + recordLength;
+    }
+
+    // Publishes the change in the replication buffer, or queues it up if it can't be published yet.
+    private void replicateChange(final int length)
+    {
+        if (replicationState == ReplicationState.IN_SYNC)
+        {
+            if (offerReplication(replicationBuffer, 0, length) ||
+                replicationState != ReplicationState.IN_SYNC)
+            {
+                return;
+            }
+
+            replicationState = ReplicationState.QUEUED;
+        }
+
+        final ExpandableArrayBuffer queuedReplication = this.queuedReplication;
+        final int queuedReplicationLength = this.queuedReplicationLength;
+        queuedReplication.putInt(queuedReplicationLength, length);
+        queuedReplication.putBytes(queuedReplicationLength + SIZE_OF_INT, replicationBuffer, 0, length);
+        this.queuedReplicationLength = queuedReplicationLength + SIZE_OF_INT + length;
+    }
+
+    private boolean offerReplication(final DirectBuffer buffer, final int offset, final int length)
+    {
+        final long position = replicationPublication.offer(buffer, offset, length);
+        if (position == NOT_CONNECTED)
+        {
+            // The standby may have missed anything, so it needs a new snapshot once it connects again
+            restartSnapshot();
+        }
+
+        return position >= 0;
+    }
+
+    private enum ReplicationState
+    {
+        SNAPSHOT_BEGIN,
+        SNAPSHOT_RECORDS,
+        SNAPSHOT_END,
+        QUEUED,
+        IN_SYNC
+    }
 }
@@ -49,6 +49,8 @@ public final class FixArchivePrinter
     private final IntHashSet queryStreamIds = new IntHashSet();
     private String aeronDirectoryName = null;
     private String aeronChannel = null;
+    private String logFileDir = null;
+    private long beginTimestampInclusive = Long.MIN_VALUE;
     private int inboundStreamId = DEFAULT_INBOUND_LIBRARY_STREAM;
     private int archiveScannerStreamId = DEFAULT_ARCHIVE_SCANNER_STREAM;
     private FixMessagePredicate predicate = FixMessagePredicates.alwaysTrue();
@@ -62,7 +64,7 @@ public final class FixArchivePrinter
         parseArgs(args);
         validateArgs();
         scanArchive(aeronDirectoryName, aeronChannel, queryStreamIds, predicate, follow, headerPredicate,
-            archiveScannerStreamId, fixDictionaryType);
+            archiveScannerStreamId, fixDictionaryType, logFileDir, beginTimestampInclusive);
     }
 
     private void parseArgs(final String[] args)
@@ -97,7 +99,8 @@ public final class FixArchivePrinter
             switch (optionName)
             {
                 case "from":
-                    predicate = from(parseLong(optionValue)).and(predicate);
+                    beginTimestampInclusive = parseLong(optionValue);
+                    predicate = from(beginTimestampInclusive).and(predicate);
                     break;
 
                 case "to":
@@ -149,6 +152,10 @@ public final class FixArchivePrinter
                     aeronChannel = optionValue;
                     break;
 
+                case "log-file-dir":
+                    logFileDir = optionValue;
+                    break;
+
                 case "fix-dictionary":
                     fixDictionaryType = FixDictionary.find(optionValue);
                     break;
@@ -190,7 +197,9 @@ public final class FixArchivePrinter
         final boolean follow,
         final Predicate<SessionHeaderDecoder> headerPredicate,
         final int archiveScannerStreamId,
-        final Class<? extends FixDictionary> fixDictionaryType)
+        final Class<? extends FixDictionary> fixDictionaryType,
+        final String logFileDir,
+        final long beginTimestampInclusive)
     {
         final FixDictionary fixDictionary = fixDictionaryType == null ? null : FixDictionary.of(fixDictionaryType);
         FixMessagePredicate predicate = otherPredicate;
@@ -201,7 +210,8 @@ public final class FixArchivePrinter
 
         final FixArchiveScanner.Configuration configuration = new FixArchiveScanner.Configuration()
             .aeronDirectoryName(aeronDirectoryName)
-            .idleStrategy(CommonConfiguration.backoffIdleStrategy());
+            .idleStrategy(CommonConfiguration.backoffIdleStrategy())
+            .logFileDir(logFileDir);
 
         try (FixArchiveScanner scanner = new FixArchiveScanner(configuration))
         {
@@ -211,7 +221,8 @@ public final class FixArchivePrinter
                 filterBy(FixArchivePrinter::print, predicate),
                 new LazyILinkMessagePrinter(DEFAULT_INBOUND_LIBRARY_STREAM),
                 follow,
-                archiveScannerStreamId);
+                archiveScannerStreamId,
+                beginTimestampInclusive);
         }
     }
 
@@ -240,6 +251,12 @@ public final class FixArchivePrinter
             "Specifies the aeron channel that was used to by the engine",
             true);
 
+        printOption(
+            "log-file-dir",
+            "Specifies the log file directory of the engine, if provided then its time indices are used to skip" +
+            " messages before the --from time",
+            false);
+
         printOption(
             "fix-dictionary",
             "The class name of the Fix Dictionary to use, default is used if this is not provided",
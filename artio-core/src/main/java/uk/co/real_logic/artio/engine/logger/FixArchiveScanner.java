@@ -49,12 +49,14 @@ public class FixArchiveScanner implements AutoCloseable
     private final AeronArchive aeronArchive;
     private final IdleStrategy idleStrategy;
     private final int compactionSize;
+    private final String logFileDir;
 
     public static class Configuration
     {
         private String aeronDirectoryName;
         private IdleStrategy idleStrategy;
         private int compactionSize = DEFAULT_COMPACTION_SIZE;
+        private String logFileDir;
 
         public Configuration()
         {
@@ -92,12 +94,33 @@ public class FixArchiveScanner implements AutoCloseable
         {
             return compactionSize;
         }
+
+        /**
+         * Sets the log file directory of the engine whose archive is being scanned. If this is set then the time
+         * indices that the engine writes into this directory are used to skip messages that are before the start of
+         * the time range of a scan.
+         *
+         * @param logFileDir the log file directory of the engine.
+         * @return this
+         * @see uk.co.real_logic.artio.engine.EngineConfiguration#logFileDir(String)
+         */
+        public Configuration logFileDir(final String logFileDir)
+        {
+            this.logFileDir = logFileDir;
+            return this;
+        }
+
+        public String logFileDir()
+        {
+            return logFileDir;
+        }
     }
 
     public FixArchiveScanner(final Configuration configuration)
     {
         this.idleStrategy = configuration.idleStrategy();
         compactionSize = configuration.compactionSize;
+        logFileDir = configuration.logFileDir();
 
         final Aeron.Context aeronContext = new Aeron.Context().aeronDirectoryName(configuration.aeronDirectoryName());
         aeron = Aeron.connect(aeronContext);
@@ -134,12 +157,38 @@ public class FixArchiveScanner implements AutoCloseable
         final ILinkMessageConsumer iLinkHandler,
         final boolean follow,
         final int archiveScannerStreamId)
+    {
+        scan(aeronChannel, queryStreamIds, fixHandler, iLinkHandler, follow, archiveScannerStreamId, Long.MIN_VALUE);
+    }
+
+    /**
+     * Scan the archive for messages.
+     *
+     * @param aeronChannel the aeron channel that the engine archived messages on.
+     * @param queryStreamIds the library streams to scan.
+     * @param fixHandler the handler for FIX messages.
+     * @param iLinkHandler the handler for iLink3 messages, can be null.
+     * @param follow true if the scan should continue following recordings that are still in progress.
+     * @param archiveScannerStreamId the stream id to replay the archive on.
+     * @param beginTimestampInclusive messages before this timestamp may be skipped by the scan if
+     *                                {@link Configuration#logFileDir(String)} has been set. Handlers still need to
+     *                                filter by timestamp, for example with {@link FixMessagePredicates#from(long)},
+     *                                as the time index is coarse grained.
+     */
+    public void scan(
+        final String aeronChannel,
+        final IntHashSet queryStreamIds,
+        final FixMessageConsumer fixHandler,
+        final ILinkMessageConsumer iLinkHandler,
+        final boolean follow,
+        final int archiveScannerStreamId,
+        final long beginTimestampInclusive)
     {
         try (Subscription replaySubscription = aeron.addSubscription(IPC_CHANNEL, archiveScannerStreamId))
         {
             final RecordingPoller[] pollers = queryStreamIds
                 .stream()
-                .map(id -> makePoller(id, replaySubscription, follow, aeronChannel))
+                .map(id -> makePoller(id, replaySubscription, follow, aeronChannel, beginTimestampInclusive))
                 .toArray(RecordingPoller[]::new);
 
             final StreamTimestampZipper timestampZipper = new StreamTimestampZipper(
@@ -182,7 +231,8 @@ public class FixArchiveScanner implements AutoCloseable
         final int queryStreamId,
         final Subscription replaySubscription,
         final boolean follow,
-        final String aeronChannel)
+        final String aeronChannel,
+        final long beginTimestampInclusive)
     {
         final List<ArchiveLocation> archiveLocations = new ArrayList<>();
 
@@ -222,11 +272,35 @@ public class FixArchiveScanner implements AutoCloseable
             }
         }
 
+        if (logFileDir != null && beginTimestampInclusive != Long.MIN_VALUE)
+        {
+            skipToBeginTimestamp(queryStreamId, archiveLocations, beginTimestampInclusive);
+        }
+
         archiveLocations.sort(BY_REVERSE_POSITION);
 
         return new RecordingPoller(replaySubscription, queryStreamId, archiveLocations);
     }
 
+    private void skipToBeginTimestamp(
+        final int queryStreamId, final List<ArchiveLocation> archiveLocations, final long beginTimestampInclusive)
+    {
+        try (TimeIndexReader timeIndexReader = new TimeIndexReader(logFileDir, queryStreamId))
+        {
+            for (final ArchiveLocation location : archiveLocations)
+            {
+                final long indexedPosition = timeIndexReader.startPosition(
+                    location.recordingId, beginTimestampInclusive);
+                if (indexedPosition > location.startPosition)
+                {
+                    final long stopPosition = location.stopPosition;
+                    location.startPosition = stopPosition == NULL_POSITION ?
+                        indexedPosition : Math.min(indexedPosition, stopPosition);
+                }
+            }
+        }
+    }
+
     static class ReversePositionComparator implements Comparator<ArchiveLocation>
     {
         public int compare(final ArchiveLocation archiveLocation1, final ArchiveLocation archiveLocation2)
@@ -244,8 +318,8 @@ public class FixArchiveScanner implements AutoCloseable
     static class ArchiveLocation
     {
         final long recordingId;
-        final long startPosition;
 
+        long startPosition;
         long stopPosition;
 
         ArchiveLocation(
@@ -263,7 +337,8 @@ public class FixArchiveScanner implements AutoCloseable
 
         public long length()
         {
-            return startPosition == NULL_POSITION ? NULL_POSITION : stopPosition - startPosition;
+            return startPosition == NULL_POSITION || stopPosition == NULL_POSITION ?
+                NULL_POSITION : stopPosition - startPosition;
         }
 
         public String toString()
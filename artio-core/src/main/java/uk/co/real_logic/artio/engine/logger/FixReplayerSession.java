@@ -59,11 +59,6 @@ class FixReplayerSession extends ReplayerSession
         SEND_COMPLETE_MESSAGE
     }
 
-    // Safe to share between multiple instances due to single threaded nature of the replayer
-    private static final FixMessageEncoder FIX_MESSAGE_ENCODER = new FixMessageEncoder();
-    private static final FixMessageDecoder FIX_MESSAGE = new FixMessageDecoder();
-    private static final AsciiBuffer ASCII_BUFFER = new MutableAsciiBuffer();
-
     private final GapFillEncoder gapFillEncoder;
 
     private final PossDupEnabler possDupEnabler;
@@ -77,6 +72,10 @@ class FixReplayerSession extends ReplayerSession
 
     private int lastSeqNo;
 
+    // Next sequence number to replay from the recent message cache, or NONE if replaying from the archive
+    private int nextCachedSeqNo = NONE;
+    private int cachedReplayedMessages;
+
     private int beginGapFillSeqNum = NONE;
 
     private State state;
@@ -131,6 +130,20 @@ class FixReplayerSession extends ReplayerSession
         state = State.REPLAYING;
     }
 
+    void query()
+    {
+        final RecentMessageCache recentMessageCache = replayer.recentMessageCache;
+        if (recentMessageCache != null &&
+            recentMessageCache.contains(sessionId, sequenceIndex, beginSeqNo, endSeqNo))
+        {
+            nextCachedSeqNo = beginSeqNo;
+        }
+        else
+        {
+            super.query();
+        }
+    }
+
     MessageTracker messageTracker()
     {
         return new FixMessageTracker(REPLAY, this, sessionId);
@@ -139,7 +152,7 @@ class FixReplayerSession extends ReplayerSession
     private void onPreCommit(final MutableDirectBuffer buffer, final int offset)
     {
         final int frameOffset = offset + MessageHeaderEncoder.ENCODED_LENGTH;
-        FIX_MESSAGE_ENCODER
+        replayer.replayFixMessageEncoder
             .wrap(buffer, frameOffset)
             .connection(connectionId);
     }
@@ -159,34 +172,36 @@ class FixReplayerSession extends ReplayerSession
     public Action onFragment(
         final DirectBuffer srcBuffer, final int srcOffset, final int srcLength, final Header header)
     {
+        final FixMessageDecoder fixMessage = replayer.replayFixMessageDecoder;
         replayer.messageHeaderDecoder.wrap(srcBuffer, srcOffset);
         final int actingBlockLength = replayer.messageHeaderDecoder.blockLength();
         final int offset = srcOffset + MessageHeaderDecoder.ENCODED_LENGTH;
         final int version = replayer.messageHeaderDecoder.version();
 
-        FIX_MESSAGE.wrap(
+        fixMessage.wrap(
             srcBuffer,
             offset,
             actingBlockLength,
             version);
 
         final int metaDataAdjustment = version >= metaDataSinceVersion() ?
-            metaDataHeaderLength() + FIX_MESSAGE.metaDataLength() : 0;
+            metaDataHeaderLength() + fixMessage.metaDataLength() : 0;
         final int messageFrameBlockLength = MESSAGE_FRAME_BLOCK_LENGTH + metaDataAdjustment;
         final int messageOffset = srcOffset + messageFrameBlockLength;
         final int messageLength = srcLength - messageFrameBlockLength;
 
         final int msgSeqNum = sequenceNumberExtractor.extract(srcBuffer, messageOffset, messageLength);
-        final long messageType = MessageTypeExtractor.getMessageType(FIX_MESSAGE);
+        final long messageType = MessageTypeExtractor.getMessageType(fixMessage);
 
-        ASCII_BUFFER.wrap(srcBuffer);
+        final AsciiBuffer asciiBuffer = replayer.replayAsciiBuffer;
+        asciiBuffer.wrap(srcBuffer);
         replayHandler.onReplayedMessage(
-            ASCII_BUFFER,
+            asciiBuffer,
             messageOffset,
             messageLength,
-            FIX_MESSAGE.libraryId(),
-            FIX_MESSAGE.session(),
-            FIX_MESSAGE.sequenceIndex(),
+            fixMessage.libraryId(),
+            fixMessage.session(),
+            fixMessage.sequenceIndex(),
             messageType);
 
         if (gapFillMessageTypes.contains(messageType))
@@ -211,7 +226,14 @@ class FixReplayerSession extends ReplayerSession
             }
 
             final Action action = possDupEnabler.enablePossDupFlag(
-                srcBuffer, messageOffset, messageLength, srcOffset, srcLength, metaDataAdjustment);
+                srcBuffer,
+                messageOffset,
+                messageLength,
+                srcOffset,
+                srcLength,
+                metaDataAdjustment,
+                fixMessage.sendingTimeOffset(),
+                fixMessage.possDupOffset());
             if (action != ABORT)
             {
                 lastSeqNo = msgSeqNum;
@@ -234,7 +256,7 @@ class FixReplayerSession extends ReplayerSession
             final MutableDirectBuffer destBuffer = bufferClaim.buffer();
             final MutableAsciiBuffer gapFillBuffer = gapFillEncoder.buffer();
 
-            FIX_MESSAGE_ENCODER
+            replayer.replayFixMessageEncoder
                 .wrapAndApplyHeader(destBuffer, destOffset, replayer.messageHeaderEncoder)
                 .libraryId(ENGINE_LIBRARY_ID)
                 .messageType(SEQUENCE_RESET_MESSAGE_TYPE)
@@ -278,6 +300,20 @@ class FixReplayerSession extends ReplayerSession
         {
             case REPLAYING:
                 DebugLogger.log(REPLAY_ATTEMPT, "ReplayerSession: REPLAYING step");
+                if (nextCachedSeqNo != NONE)
+                {
+                    if (!replayFromCache())
+                    {
+                        return false;
+                    }
+
+                    if (nextCachedSeqNo != NONE)
+                    {
+                        state = State.CHECK_REPLAY;
+                        return attemptReplay();
+                    }
+                }
+
                 if (replayOperation.attemptReplay())
                 {
                     state = State.CHECK_REPLAY;
@@ -301,10 +337,46 @@ class FixReplayerSession extends ReplayerSession
         }
     }
 
+    // returns true if the cached replay has finished, either because every message was replayed or because the
+    // remaining messages were evicted from the cache and have to be replayed from the archive.
+    private boolean replayFromCache()
+    {
+        final RecentMessageCache recentMessageCache = replayer.recentMessageCache;
+        final int endSeqNo = this.endSeqNo;
+        while (nextCachedSeqNo <= endSeqNo)
+        {
+            final Action action = recentMessageCache.replay(sessionId, sequenceIndex, nextCachedSeqNo, this);
+            if (action == null)
+            {
+                DebugLogger.log(REPLAY, "Recent messages evicted from cache, replaying remainder from archive");
+                replayOperation = replayQuery.query(
+                    sessionId,
+                    nextCachedSeqNo,
+                    sequenceIndex,
+                    endSeqNo,
+                    sequenceIndex,
+                    REPLAY,
+                    messageTracker());
+                nextCachedSeqNo = NONE;
+                return true;
+            }
+            else if (action == ABORT)
+            {
+                return false;
+            }
+
+            cachedReplayedMessages++;
+            nextCachedSeqNo++;
+        }
+
+        return true;
+    }
+
     private boolean completeReplay()
     {
         // Load state needed to complete the replay
-        final int replayedMessages = replayOperation.replayedMessages();
+        final int replayedMessages = cachedReplayedMessages +
+            (replayOperation == null ? 0 : replayOperation.replayedMessages());
 
         // If the last N messages were admin messages then we need to send a gapfill
         // after the replay query has run.
@@ -366,6 +438,7 @@ class FixReplayerSession extends ReplayerSession
             ", bytesInBuffer=" + bytesInBuffer +
             ", maxBytesInBuffer=" + maxBytesInBuffer +
             ", lastSeqNo=" + lastSeqNo +
+            ", nextCachedSeqNo=" + nextCachedSeqNo +
             ", beginGapFillSeqNum=" + beginGapFillSeqNum +
             ", state=" + state +
             ", connectionId=" + connectionId +
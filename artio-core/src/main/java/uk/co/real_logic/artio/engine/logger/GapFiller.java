@@ -89,6 +89,7 @@ public class GapFiller implements ProtocolHandler, Agent
         final int sequenceIndex,
         final long messageType,
         final long timestamp,
+        final long publishedTimestamp,
         final MessageStatus status,
         final int sequenceNumber,
         final long position,
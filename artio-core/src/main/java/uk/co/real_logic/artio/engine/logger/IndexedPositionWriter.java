@@ -23,6 +23,8 @@ import uk.co.real_logic.artio.messages.*;
 import uk.co.real_logic.artio.storage.messages.IndexedPositionDecoder;
 import uk.co.real_logic.artio.storage.messages.IndexedPositionEncoder;
 
+import java.util.function.IntConsumer;
+
 import static io.aeron.archive.status.RecordingPos.NULL_RECORDING_ID;
 import static uk.co.real_logic.artio.engine.SectorFramer.OUT_OF_SPACE;
 
@@ -101,6 +103,8 @@ class IndexedPositionWriter
                 .version(actingVersion);
 
             checksumFramer.updateChecksums();
+            // The header hasn't been written to disk yet.
+            checksumFramer.markAllDirty();
         }
         else
         {
@@ -164,6 +168,16 @@ class IndexedPositionWriter
         checksumFramer.updateChecksums();
     }
 
+    void updateDirtyChecksums(final IntConsumer onSectorUpdated)
+    {
+        checksumFramer.updateDirtyChecksums(onSectorUpdated);
+    }
+
+    void markAllDirty()
+    {
+        checksumFramer.markAllDirty();
+    }
+
     AtomicBuffer buffer()
     {
         return buffer;
@@ -172,6 +186,7 @@ class IndexedPositionWriter
     private void putPosition(final long position, final AtomicBuffer buffer, final int offset)
     {
         buffer.putLongVolatile(offset + POSITION_OFFSET, position);
+        checksumFramer.markDirty(offset);
     }
 
     public void trackPosition(final int aeronSessionId, final long endPosition)
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2015-2020 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.logbuffer.ControlledFragmentHandler;
+import io.aeron.logbuffer.ControlledFragmentHandler.Action;
+import io.aeron.logbuffer.Header;
+import org.agrona.BitUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.ErrorHandler;
+import org.agrona.collections.Long2ObjectCache;
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.engine.SequenceNumberExtractor;
+import uk.co.real_logic.artio.messages.*;
+
+import java.nio.ByteBuffer;
+import java.util.function.LongFunction;
+
+import static io.aeron.logbuffer.FrameDescriptor.BEGIN_FRAG_FLAG;
+import static io.aeron.logbuffer.FrameDescriptor.UNFRAGMENTED;
+import static uk.co.real_logic.artio.engine.SequenceNumberExtractor.NO_SEQUENCE_NUMBER;
+import static uk.co.real_logic.artio.engine.logger.Replayer.MOST_RECENT_MESSAGE;
+import static uk.co.real_logic.artio.messages.FixMessageDecoder.*;
+import static uk.co.real_logic.artio.messages.MessageStatus.OK;
+
+/**
+ * Keeps the most recently sent FIX messages of each session in a bounded off-heap ring so that resend requests
+ * for them can be served without starting an archive replay.
+ *
+ * Each ring only holds a contiguous run of sequence numbers for a single sequence index, anything that breaks the
+ * run, such as a sequence reset or a message too large to cache, starts a new run. Fragmented messages are never
+ * cached. Queries that aren't entirely covered by a run should be replayed from the archive.
+ *
+ * This is an {@link Index} fed by the outbound indexer and is only safe to query from the same thread, which is
+ * the case for the {@link Replayer} when there's a single replayer shard.
+ */
+public class RecentMessageCache implements Index
+{
+    private static final int NO_SEQUENCE_INDEX = -1;
+
+    private static final int LENGTH_OFFSET = 0;
+    private static final int MESSAGE_OFFSET = BitUtil.SIZE_OF_LONG;
+
+    private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
+    private final FixMessageDecoder messageFrame = new FixMessageDecoder();
+    private final ResetSequenceNumberDecoder resetSequenceNumber = new ResetSequenceNumberDecoder();
+    private final RedactSequenceUpdateDecoder redactSequenceUpdate = new RedactSequenceUpdateDecoder();
+
+    private final LongFunction<SessionMessages> newSessionMessages = SessionMessages::new;
+    private final Long2ObjectCache<SessionMessages> fixSessionIdToMessages;
+    private final SequenceNumberExtractor sequenceNumberExtractor;
+    private final int requiredStreamId;
+    private final int messagesPerSession;
+    private final int mask;
+    private final int maxMessageLength;
+    private final int slotLength;
+
+    /**
+     * Create the cache.
+     *
+     * @param requiredStreamId the stream id of the outbound library stream.
+     * @param messagesPerSession the number of messages to keep for each session, must be a power of two.
+     * @param maxMessageLength the maximum length of a cached message, including its message frame.
+     * @param cacheNumSets the number of sets in the cache of sessions.
+     * @param cacheSetSize the size of each set in the cache of sessions.
+     * @param errorHandler the error handler for sequence number extraction errors.
+     */
+    public RecentMessageCache(
+        final int requiredStreamId,
+        final int messagesPerSession,
+        final int maxMessageLength,
+        final int cacheNumSets,
+        final int cacheSetSize,
+        final ErrorHandler errorHandler)
+    {
+        if (!BitUtil.isPowerOfTwo(messagesPerSession))
+        {
+            throw new IllegalArgumentException(
+                "messagesPerSession must be a positive power of two: " + messagesPerSession);
+        }
+
+        this.requiredStreamId = requiredStreamId;
+        this.messagesPerSession = messagesPerSession;
+        this.maxMessageLength = maxMessageLength;
+        mask = messagesPerSession - 1;
+        slotLength = BitUtil.align(MESSAGE_OFFSET + maxMessageLength, BitUtil.SIZE_OF_LONG);
+        sequenceNumberExtractor = new SequenceNumberExtractor(errorHandler);
+        fixSessionIdToMessages = new Long2ObjectCache<>(cacheNumSets, cacheSetSize, SessionMessages::close);
+    }
+
+    public void onFragment(final DirectBuffer buffer, final int offset, final int length, final Header header)
+    {
+        if (header.streamId() != requiredStreamId)
+        {
+            return;
+        }
+
+        final byte flags = header.flags();
+        if ((flags & BEGIN_FRAG_FLAG) != BEGIN_FRAG_FLAG)
+        {
+            return;
+        }
+
+        final MessageHeaderDecoder messageHeader = this.messageHeader;
+        messageHeader.wrap(buffer, offset);
+        final int templateId = messageHeader.templateId();
+        final int blockLength = messageHeader.blockLength();
+        final int version = messageHeader.version();
+        final int frameOffset = offset + MessageHeaderDecoder.ENCODED_LENGTH;
+
+        switch (templateId)
+        {
+            case FixMessageDecoder.TEMPLATE_ID:
+            {
+                final FixMessageDecoder messageFrame = this.messageFrame;
+                messageFrame.wrap(buffer, frameOffset, blockLength, version);
+                if (messageFrame.status() != OK)
+                {
+                    return;
+                }
+
+                final long fixSessionId = messageFrame.session();
+                if ((flags & UNFRAGMENTED) != UNFRAGMENTED || length > maxMessageLength)
+                {
+                    clear(fixSessionId);
+                    return;
+                }
+
+                final int sequenceIndex = messageFrame.sequenceIndex();
+                int bodyOffset = frameOffset + blockLength;
+                if (version >= metaDataSinceVersion())
+                {
+                    bodyOffset += metaDataHeaderLength() + messageFrame.metaDataLength();
+                    messageFrame.skipMetaData();
+                }
+                final int bodyLength = messageFrame.bodyLength();
+                bodyOffset += bodyHeaderLength();
+
+                final int sequenceNumber = sequenceNumberExtractor.extract(buffer, bodyOffset, bodyLength);
+                if (sequenceNumber != NO_SEQUENCE_NUMBER)
+                {
+                    fixSessionIdToMessages
+                        .computeIfAbsent(fixSessionId, newSessionMessages)
+                        .onMessage(sequenceIndex, sequenceNumber, buffer, offset, length);
+                }
+                break;
+            }
+
+            case ResetSequenceNumberDecoder.TEMPLATE_ID:
+            {
+                resetSequenceNumber.wrap(buffer, frameOffset, blockLength, version);
+                clear(resetSequenceNumber.session());
+                break;
+            }
+
+            case RedactSequenceUpdateDecoder.TEMPLATE_ID:
+            {
+                redactSequenceUpdate.wrap(buffer, frameOffset, blockLength, version);
+                clear(redactSequenceUpdate.session());
+                break;
+            }
+        }
+    }
+
+    /**
+     * Check whether every message in a range is cached.
+     *
+     * @param fixSessionId the session to lookup.
+     * @param sequenceIndex the sequence index of the range.
+     * @param beginSequenceNumber the first sequence number of the range, inclusive.
+     * @param endSequenceNumber the last sequence number of the range, inclusive.
+     * @return true if every message in the range is cached, false otherwise.
+     */
+    public boolean contains(
+        final long fixSessionId,
+        final int sequenceIndex,
+        final int beginSequenceNumber,
+        final int endSequenceNumber)
+    {
+        if (endSequenceNumber == MOST_RECENT_MESSAGE || endSequenceNumber < beginSequenceNumber)
+        {
+            return false;
+        }
+
+        final SessionMessages messages = fixSessionIdToMessages.get(fixSessionId);
+        return messages != null &&
+            messages.sequenceIndex == sequenceIndex &&
+            messages.firstSequenceNumber <= beginSequenceNumber &&
+            endSequenceNumber <= messages.lastSequenceNumber;
+    }
+
+    /**
+     * Passes a cached message to a handler.
+     *
+     * @param fixSessionId the session of the message.
+     * @param sequenceIndex the sequence index of the message.
+     * @param sequenceNumber the sequence number of the message.
+     * @param handler the handler to pass the message to, with a null {@link Header}.
+     * @return the action returned by the handler or null if the message is no longer cached.
+     */
+    public Action replay(
+        final long fixSessionId,
+        final int sequenceIndex,
+        final int sequenceNumber,
+        final ControlledFragmentHandler handler)
+    {
+        if (!contains(fixSessionId, sequenceIndex, sequenceNumber, sequenceNumber))
+        {
+            return null;
+        }
+
+        final UnsafeBuffer buffer = fixSessionIdToMessages.get(fixSessionId).buffer;
+        final int slotOffset = slotOffset(sequenceNumber);
+        final int length = buffer.getInt(slotOffset + LENGTH_OFFSET);
+        return handler.onFragment(buffer, slotOffset + MESSAGE_OFFSET, length, null);
+    }
+
+    private void clear(final long fixSessionId)
+    {
+        final SessionMessages messages = fixSessionIdToMessages.get(fixSessionId);
+        if (messages != null)
+        {
+            messages.clear();
+        }
+    }
+
+    private int slotOffset(final int sequenceNumber)
+    {
+        return (sequenceNumber & mask) * slotLength;
+    }
+
+    public void onCatchup(
+        final DirectBuffer buffer, final int offset, final int length, final Header header, final long recordingId)
+    {
+        // Only messages sent whilst the engine is running are cached.
+    }
+
+    public void readLastPosition(final IndexedPositionConsumer consumer)
+    {
+        // Not persisted, so there's nothing to catch up on.
+    }
+
+    public void close()
+    {
+        fixSessionIdToMessages.clear();
+    }
+
+    private final class SessionMessages implements AutoCloseable
+    {
+        private final UnsafeBuffer buffer;
+
+        private int sequenceIndex;
+        private int firstSequenceNumber;
+        private int lastSequenceNumber;
+
+        SessionMessages(final long fixSessionId)
+        {
+            buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(messagesPerSession * slotLength));
+            clear();
+        }
+
+        void onMessage(
+            final int sequenceIndex,
+            final int sequenceNumber,
+            final DirectBuffer srcBuffer,
+            final int srcOffset,
+            final int srcLength)
+        {
+            if (sequenceIndex != this.sequenceIndex || sequenceNumber != lastSequenceNumber + 1)
+            {
+                this.sequenceIndex = sequenceIndex;
+                firstSequenceNumber = sequenceNumber;
+            }
+
+            final UnsafeBuffer buffer = this.buffer;
+            final int slotOffset = slotOffset(sequenceNumber);
+            buffer.putInt(slotOffset + LENGTH_OFFSET, srcLength);
+            buffer.putBytes(slotOffset + MESSAGE_OFFSET, srcBuffer, srcOffset, srcLength);
+
+            lastSequenceNumber = sequenceNumber;
+            if (lastSequenceNumber - firstSequenceNumber >= messagesPerSession)
+            {
+                firstSequenceNumber = lastSequenceNumber - messagesPerSession + 1;
+            }
+        }
+
+        void clear()
+        {
+            sequenceIndex = NO_SEQUENCE_INDEX;
+            firstSequenceNumber = 0;
+            lastSequenceNumber = -1;
+        }
+
+        public void close()
+        {
+            clear();
+        }
+    }
+}
@@ -40,6 +40,7 @@ import static uk.co.real_logic.artio.engine.SequenceNumberExtractor.NO_SEQUENCE_
 import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.*;
 import static uk.co.real_logic.artio.messages.FixMessageDecoder.*;
 import static uk.co.real_logic.artio.messages.MessageStatus.OK;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.NO_RECEIVED_SEQUENCE_NUMBER;
 
 /**
  * Builds an index of a composite key of session id and sequence number for a given stream.
@@ -175,8 +176,10 @@ public class ReplayIndex implements Index
                     offset += bodyHeaderLength();
 
                     final long fixSessionId = messageFrame.session();
-                    final int sequenceNumber = sequenceNumberExtractor.extract(
-                        srcBuffer, offset, messageFrame.bodyLength());
+                    final int receivedSequenceNumber = messageFrame.receivedSequenceNumber();
+                    final int sequenceNumber = receivedSequenceNumber > NO_RECEIVED_SEQUENCE_NUMBER ?
+                        receivedSequenceNumber :
+                        sequenceNumberExtractor.extract(srcBuffer, offset, messageFrame.bodyLength());
                     final int sequenceIndex = messageFrame.sequenceIndex();
 
                     if (sequenceNumber != NO_SEQUENCE_NUMBER)
@@ -113,6 +113,18 @@ public class ReplayQuery implements AutoCloseable
             .query(beginSequenceNumber, beginSequenceIndex, endSequenceNumber, endSequenceIndex, logTag, tracker);
     }
 
+    // Looks up the recording ranges of a query without creating a replay operation for them.
+    List<RecordingRange> queryRanges(
+        final long sessionId,
+        final int beginSequenceNumber,
+        final int beginSequenceIndex,
+        final int endSequenceNumber,
+        final int endSequenceIndex)
+    {
+        return lookupSessionQuery(sessionId)
+            .queryRanges(beginSequenceNumber, beginSequenceIndex, endSequenceNumber, endSequenceIndex);
+    }
+
     public void queryStartPositions(final Long2LongHashMap newStartPositions)
     {
         final LongHashSet allSessionIds = listReplayIndexSessionIds(logFileDirFile, requiredStreamId);
@@ -191,6 +203,18 @@ public class ReplayQuery implements AutoCloseable
             final int endSequenceNumber,
             final int endSequenceIndex,
             final LogTag logTag, final MessageTracker messageTracker)
+        {
+            final List<RecordingRange> ranges = queryRanges(
+                beginSequenceNumber, beginSequenceIndex, endSequenceNumber, endSequenceIndex);
+
+            return newReplayOperation(ranges, logTag, messageTracker);
+        }
+
+        List<RecordingRange> queryRanges(
+            final int beginSequenceNumber,
+            final int beginSequenceIndex,
+            final int endSequenceNumber,
+            final int endSequenceIndex)
         {
             final int actingBlockLength = this.actingBlockLength;
             final int actingVersion = this.actingVersion;
@@ -201,8 +225,9 @@ public class ReplayQuery implements AutoCloseable
             final List<RecordingRange> ranges = new ArrayList<>();
             RecordingRange currentRange = null;
 
-            long iteratorPosition = getIteratorPosition();
-            long stopIteratingPosition = iteratorPosition + capacity;
+            final long oldestPosition = Math.max(0, beginChangeVolatile(buffer) - capacity);
+            long stopIteratingPosition = oldestPosition + capacity;
+            long iteratorPosition = searchStartPosition(beginSequenceNumber, beginSequenceIndex, oldestPosition);
 
             int lastSequenceNumber = -1;
             while (iteratorPosition < stopIteratingPosition)
@@ -269,7 +294,53 @@ public class ReplayQuery implements AutoCloseable
                 ranges.add(currentRange);
             }
 
-            return newReplayOperation(ranges, logTag, messageTracker);
+            return ranges;
+        }
+
+        // Binary searches the written records for the position of the first record at or after the beginning of the
+        // query, or the position after the last record if there isn't one. Records are written in sequence index
+        // then sequence number order, so the ring buffer is a sorted array starting at its oldest record. If the
+        // writer laps a record whilst it's being read then the search continues over the records that remain.
+        private long searchStartPosition(
+            final int beginSequenceNumber, final int beginSequenceIndex, final long oldestPosition)
+        {
+            final int actingBlockLength = this.actingBlockLength;
+            final int actingVersion = this.actingVersion;
+            final int capacity = this.capacity;
+
+            long low = oldestPosition / RECORD_LENGTH;
+            long high = endChangeVolatile(buffer) / RECORD_LENGTH;
+            while (low < high)
+            {
+                final long middle = (low + high) >>> 1;
+                final long position = middle * RECORD_LENGTH;
+
+                final int offset = offset(position, capacity);
+                indexRecord.wrap(buffer, offset, actingBlockLength, actingVersion);
+                final int sequenceIndex = indexRecord.sequenceIndex();
+                final int sequenceNumber = indexRecord.sequenceNumber();
+
+                UNSAFE.loadFence(); // LoadLoad required so previous loads don't move past version check below.
+
+                final long oldestUnchangedPosition = beginChangeVolatile(buffer) - capacity;
+                if (position < oldestUnchangedPosition)
+                {
+                    // Lapped by writer
+                    low = Math.max(low, oldestUnchangedPosition / RECORD_LENGTH);
+                    high = Math.max(low, high);
+                }
+                else if (sequenceIndex < beginSequenceIndex ||
+                    (sequenceIndex == beginSequenceIndex && sequenceNumber < beginSequenceNumber))
+                {
+                    low = middle + 1;
+                }
+                else
+                {
+                    high = middle;
+                }
+            }
+
+            return low * RECORD_LENGTH;
         }
 
         private long skipToStart(final int beginSequenceNumber, final long iteratorPosition, final int sequenceNumber)
@@ -22,10 +22,12 @@ import io.aeron.logbuffer.ControlledFragmentHandler;
 import io.aeron.logbuffer.Header;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
+import org.agrona.MutableDirectBuffer;
 import org.agrona.collections.IntHashSet;
 import org.agrona.collections.Long2ObjectHashMap;
 import org.agrona.collections.LongHashSet;
 import org.agrona.concurrent.*;
+import org.agrona.concurrent.ringbuffer.RingBuffer;
 import org.agrona.concurrent.status.AtomicCounter;
 import uk.co.real_logic.artio.DebugLogger;
 import uk.co.real_logic.artio.FixGatewayException;
@@ -59,6 +61,10 @@ import static uk.co.real_logic.artio.util.MessageTypeEncoding.packMessageType;
  * This agent subscribes to the stream of incoming fix data messages. It parses
  * Resend Request messages and searches the log, using the replay index to find
  * relevant messages to resend.
+ *
+ * When resend requests are partitioned between replayer shards each shard runs on its own thread with its own
+ * replay publication and {@link ReplayerCommandQueue}, and reads the messages for its sessions from a ring buffer
+ * that a {@link ShardedReplayer} copies them to rather than from the inbound stream.
  */
 public class Replayer implements Agent, ControlledFragmentHandler
 {
@@ -78,6 +84,8 @@ public class Replayer implements Agent, ControlledFragmentHandler
     final MessageHeaderDecoder messageHeaderDecoder = new MessageHeaderDecoder();
     final MessageHeaderEncoder messageHeaderEncoder = new MessageHeaderEncoder();
     final ReplayCompleteEncoder replayCompleteEncoder = new ReplayCompleteEncoder();
+    // Null if recent messages aren't cached
+    final RecentMessageCache recentMessageCache;
 
     // FIX specific state.
     private final LongHashSet gapFillMessageTypes;
@@ -88,6 +96,9 @@ public class Replayer implements Agent, ControlledFragmentHandler
         "Not processing Resend Request for %s because it has already disconnected %n");
 
     // For FixReplayerSession, safe to share rather than allocate for each FixReplayerSession
+    final FixMessageEncoder replayFixMessageEncoder = new FixMessageEncoder();
+    final FixMessageDecoder replayFixMessageDecoder = new FixMessageDecoder();
+    final AsciiBuffer replayAsciiBuffer = new MutableAsciiBuffer();
     final CharFormatter completeNotRecentFormatter = new CharFormatter(
         "ReplayerSession: completeReplay-!upToMostRecent replayedMessages=%s " +
         "endSeqNo=%s beginSeqNo=%s expectedCount=%s%n");
@@ -126,13 +137,18 @@ public class Replayer implements Agent, ControlledFragmentHandler
     private final IdleStrategy idleStrategy;
     private final ErrorHandler errorHandler;
     private final int maxClaimAttempts;
+    // Null when this is a shard, which reads from the shardBuffer instead
     private final Subscription inboundSubscription;
+    // Null when this isn't a shard
+    private final RingBuffer shardBuffer;
+    private final ControlledMessageHandler onShardMessage = this::onShardMessage;
     private final String agentNamePrefix;
     private final EpochClock clock;
     private final ReplayHandler replayHandler;
     private final ILink3RetransmitHandler iLink3RetransmitHandler;
     private final SenderSequenceNumbers senderSequenceNumbers;
     private final UtcTimestampEncoder utcTimestampEncoder;
+    private final int shardIndex;
 
     public Replayer(
         final ReplayQuery outboundReplayQuery,
@@ -155,7 +171,10 @@ public class Replayer implements Agent, ControlledFragmentHandler
         final EpochFractionFormat epochFractionFormat,
         final AtomicCounter currentReplayCount,
         final int maxConcurrentSessionReplays,
-        final EpochNanoClock nanoClock)
+        final EpochNanoClock nanoClock,
+        final RecentMessageCache recentMessageCache,
+        final RingBuffer shardBuffer,
+        final int shardIndex)
     {
         this.outboundReplayQuery = outboundReplayQuery;
         this.publication = publication;
@@ -176,6 +195,9 @@ public class Replayer implements Agent, ControlledFragmentHandler
         this.currentReplayCount = currentReplayCount;
         this.maxConcurrentSessionReplays = maxConcurrentSessionReplays;
         this.nanoClock = nanoClock;
+        this.recentMessageCache = recentMessageCache;
+        this.shardBuffer = shardBuffer;
+        this.shardIndex = shardIndex;
 
         gapFillMessageTypes = new LongHashSet();
         gapfillOnReplayMessageTypes.forEach(messageTypeAsString ->
@@ -270,6 +292,25 @@ public class Replayer implements Agent, ControlledFragmentHandler
         }
     }
 
+    private ControlledMessageHandler.Action onShardMessage(
+        final int msgTypeId, final MutableDirectBuffer buffer, final int index, final int length)
+    {
+        switch (onFragment(buffer, index, length, null))
+        {
+            case ABORT:
+                return ControlledMessageHandler.Action.ABORT;
+
+            case BREAK:
+                return ControlledMessageHandler.Action.BREAK;
+
+            case COMMIT:
+                return ControlledMessageHandler.Action.COMMIT;
+
+            default:
+                return ControlledMessageHandler.Action.CONTINUE;
+        }
+    }
+
     private void onDisconnect(final long connectionId)
     {
         iLinkConnectionIds.remove(connectionId);
@@ -446,6 +487,11 @@ public class Replayer implements Agent, ControlledFragmentHandler
 
         int work = replayerCommandQueue.poll();
         work += pollReplayerChannels();
+        if (shardBuffer != null)
+        {
+            return work + shardBuffer.controlledRead(onShardMessage, POLL_LIMIT);
+        }
+
         return work + inboundSubscription.controlledPoll(this, POLL_LIMIT);
     }
 
@@ -518,7 +564,7 @@ public class Replayer implements Agent, ControlledFragmentHandler
 
     public String roleName()
     {
-        return agentNamePrefix + "Replayer";
+        return shardBuffer == null ? agentNamePrefix + "Replayer" : agentNamePrefix + "Replayer-" + shardIndex;
     }
 
 }
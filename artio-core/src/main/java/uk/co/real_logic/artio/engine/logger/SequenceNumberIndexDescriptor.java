@@ -88,4 +88,9 @@ final class SequenceNumberIndexDescriptor
     {
         return new File(indexFilePath + "-writable");
     }
+
+    public static File journalFile(final String indexFilePath)
+    {
+        return new File(indexFilePath + "-journal");
+    }
 }
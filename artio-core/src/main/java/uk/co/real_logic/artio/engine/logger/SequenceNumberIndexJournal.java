@@ -0,0 +1,199 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.CloseHelper;
+import org.agrona.LangUtil;
+import org.agrona.collections.IntArrayList;
+import org.agrona.concurrent.AtomicBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.CommonConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static java.nio.file.StandardOpenOption.*;
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+import static uk.co.real_logic.artio.engine.SectorFramer.SECTOR_SIZE;
+
+/**
+ * Journal of the sectors of the sequence number index that have changed since it was last flushed. Sectors are
+ * written to the journal and committed before they're copied into the index file, so if the copy is interrupted
+ * the index file can be repaired by replaying the journal when it is next opened.
+ *
+ * File consists of:
+ *
+ * Number of committed sectors
+ * Multiple entries of: sector offset, sector contents
+ */
+class SequenceNumberIndexJournal implements AutoCloseable
+{
+    static final int COMMITTED_SECTORS_OFFSET = 0;
+    static final int HEADER_LENGTH = SIZE_OF_LONG;
+    static final int SECTOR_OFFSET_OFFSET = 0;
+    static final int SECTOR_CONTENTS_OFFSET = SIZE_OF_INT;
+    static final int ENTRY_LENGTH = SECTOR_CONTENTS_OFFSET + SECTOR_SIZE;
+
+    private final ByteBuffer headerByteBuffer = ByteBuffer.allocateDirect(HEADER_LENGTH);
+    private final UnsafeBuffer headerBuffer = new UnsafeBuffer(headerByteBuffer);
+    private final ByteBuffer entryByteBuffer = ByteBuffer.allocateDirect(ENTRY_LENGTH);
+    private final UnsafeBuffer entryBuffer = new UnsafeBuffer(entryByteBuffer);
+    private final FileChannel fileChannel;
+
+    SequenceNumberIndexJournal(final File file)
+    {
+        FileChannel fileChannel = null;
+        try
+        {
+            fileChannel = FileChannel.open(file.toPath(), CREATE, READ, WRITE);
+        }
+        catch (final IOException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+        }
+        this.fileChannel = fileChannel;
+    }
+
+    /**
+     * Durably write sectors to the journal.
+     *
+     * @param source the buffer containing the sectors.
+     * @param sectorOffsets the offsets of the sectors within the buffer.
+     */
+    void commit(final AtomicBuffer source, final IntArrayList sectorOffsets)
+    {
+        final UnsafeBuffer entryBuffer = this.entryBuffer;
+        final int size = sectorOffsets.size();
+        long filePosition = HEADER_LENGTH;
+        for (int i = 0; i < size; i++)
+        {
+            final int sectorOffset = sectorOffsets.getInt(i);
+            entryBuffer.putInt(SECTOR_OFFSET_OFFSET, sectorOffset);
+            entryBuffer.putBytes(SECTOR_CONTENTS_OFFSET, source, sectorOffset, SECTOR_SIZE);
+            write(entryByteBuffer, filePosition);
+            filePosition += ENTRY_LENGTH;
+        }
+        force();
+
+        writeCommittedSectors(size);
+    }
+
+    /**
+     * Copy any committed sectors into the destination buffer.
+     *
+     * @param destination the buffer to recover the sectors into.
+     * @return the number of sectors recovered.
+     */
+    int recover(final AtomicBuffer destination)
+    {
+        read(headerByteBuffer, 0);
+        final int committedSectors = headerBuffer.getInt(COMMITTED_SECTORS_OFFSET);
+
+        final UnsafeBuffer entryBuffer = this.entryBuffer;
+        long filePosition = HEADER_LENGTH;
+        for (int i = 0; i < committedSectors; i++)
+        {
+            read(entryByteBuffer, filePosition);
+            final int sectorOffset = entryBuffer.getInt(SECTOR_OFFSET_OFFSET);
+            destination.putBytes(sectorOffset, entryBuffer, SECTOR_CONTENTS_OFFSET, SECTOR_SIZE);
+            filePosition += ENTRY_LENGTH;
+        }
+
+        return committedSectors;
+    }
+
+    /**
+     * Mark the committed sectors as having been copied into the index file.
+     */
+    void clear()
+    {
+        writeCommittedSectors(0);
+    }
+
+    private void writeCommittedSectors(final int committedSectors)
+    {
+        headerBuffer.putInt(COMMITTED_SECTORS_OFFSET, committedSectors);
+        write(headerByteBuffer, 0);
+        force();
+    }
+
+    private void write(final ByteBuffer byteBuffer, final long filePosition)
+    {
+        try
+        {
+            byteBuffer.clear();
+            long position = filePosition;
+            while (byteBuffer.hasRemaining())
+            {
+                position += fileChannel.write(byteBuffer, position);
+            }
+        }
+        catch (final IOException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+        }
+    }
+
+    private void read(final ByteBuffer byteBuffer, final long filePosition)
+    {
+        try
+        {
+            byteBuffer.clear();
+            long position = filePosition;
+            while (byteBuffer.hasRemaining())
+            {
+                final int read = fileChannel.read(byteBuffer, position);
+                if (read == -1)
+                {
+                    // An empty journal has nothing committed in it.
+                    while (byteBuffer.hasRemaining())
+                    {
+                        byteBuffer.put((byte)0);
+                    }
+                    return;
+                }
+                position += read;
+            }
+        }
+        catch (final IOException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+        }
+    }
+
+    private void force()
+    {
+        if (CommonConfiguration.FORCE_WRITES)
+        {
+            try
+            {
+                fileChannel.force(false);
+            }
+            catch (final IOException e)
+            {
+                LangUtil.rethrowUnchecked(e);
+            }
+        }
+    }
+
+    public void close()
+    {
+        CloseHelper.close(fileChannel);
+    }
+}
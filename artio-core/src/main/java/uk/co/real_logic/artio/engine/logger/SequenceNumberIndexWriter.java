@@ -22,6 +22,7 @@ import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
 import org.agrona.LangUtil;
 import org.agrona.collections.CollectionUtil;
+import org.agrona.collections.IntArrayList;
 import org.agrona.collections.Long2LongHashMap;
 import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.EpochClock;
@@ -43,6 +44,7 @@ import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.IntConsumer;
 import java.util.function.Predicate;
 
 import static io.aeron.archive.status.RecordingPos.NULL_RECORDING_ID;
@@ -52,11 +54,15 @@ import static uk.co.real_logic.artio.engine.SectorFramer.*;
 import static uk.co.real_logic.artio.engine.SequenceNumberExtractor.NO_SEQUENCE_NUMBER;
 import static uk.co.real_logic.artio.engine.logger.SequenceNumberIndexDescriptor.*;
 import static uk.co.real_logic.artio.messages.FixMessageDecoder.metaDataSinceVersion;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.NO_RECEIVED_SEQUENCE_NUMBER;
 import static uk.co.real_logic.artio.storage.messages.LastKnownSequenceNumberEncoder.SCHEMA_VERSION;
 
 /**
  * Writes updates into an in-memory buffer. This buffer is then flushed down to disk. A passing place
  * file is used to ensure that there's a recoverable option if it fails.
+ *
+ * In journalled mode only the sectors that have changed since the last flush are written. They're committed to a
+ * journal file and then copied into the index file in place, rather than copying the whole buffer and flipping files.
  */
 public class SequenceNumberIndexWriter implements Index
 {
@@ -101,6 +107,10 @@ public class SequenceNumberIndexWriter implements Index
     private final int indexedPositionsOffset;
     private final IndexedPositionWriter positionWriter;
     private final ILinkSequenceNumberExtractor iLinkSequenceNumberExtractor;
+    private final SequenceNumberIndexJournal journal;
+    private final IntArrayList dirtySectorOffsets = new IntArrayList();
+    private final IntConsumer onDirtySector = dirtySectorOffsets::addInt;
+    private final IntConsumer onDirtyPositionSector = this::onDirtyPositionSector;
 
     private MappedFile writableFile;
     private MappedFile indexFile;
@@ -118,6 +128,7 @@ public class SequenceNumberIndexWriter implements Index
         final int streamId,
         final RecordingIdLookup recordingIdLookup,
         final long indexFileStateFlushTimeoutInMs,
+        final boolean journalled,
         final EpochClock clock,
         final String metaDataDir,
         final Long2LongHashMap connectionIdToILinkUuid)
@@ -142,7 +153,15 @@ public class SequenceNumberIndexWriter implements Index
         final File writeableFile = writableFile(indexFilePath);
         writablePath = writeableFile.toPath();
         passingPlacePath = passingFile(indexFilePath).toPath();
-        writableFile = MappedFile.map(writeableFile, fileCapacity);
+        if (journalled)
+        {
+            journal = new SequenceNumberIndexJournal(journalFile(indexFilePath));
+        }
+        else
+        {
+            journal = null;
+            writableFile = MappedFile.map(writeableFile, fileCapacity);
+        }
         sequenceNumberExtractor = new SequenceNumberExtractor(errorHandler);
 
         // TODO: Fsync parent directory
@@ -151,6 +170,11 @@ public class SequenceNumberIndexWriter implements Index
             inMemoryBuffer, indexedPositionsOffset, errorHandler, 0, "SequenceNumberIndex");
         try
         {
+            if (journal != null)
+            {
+                recoverJournal();
+            }
+
             initialiseBuffer();
             positionWriter = new IndexedPositionWriter(
                 positionsBuffer(inMemoryBuffer, indexedPositionsOffset),
@@ -172,12 +196,22 @@ public class SequenceNumberIndexWriter implements Index
         }
         catch (final Exception e)
         {
+            CloseHelper.close(journal);
             CloseHelper.close(writableFile);
             indexFile.close();
             throw e;
         }
     }
 
+    private void recoverJournal()
+    {
+        if (journal.recover(indexFile.buffer()) > 0)
+        {
+            indexFile.force();
+            journal.clear();
+        }
+    }
+
     private RandomAccessFile openMetaDataFile(final File metaDataLocation)
     {
         RandomAccessFile file = null;
@@ -365,7 +399,10 @@ public class SequenceNumberIndexWriter implements Index
         offset += FixMessageDecoder.bodyHeaderLength();
         final long sessionId = messageFrame.session();
 
-        final int msgSeqNum = sequenceNumberExtractor.extract(buffer, offset, messageFrame.bodyLength());
+        final int receivedSequenceNumber = messageFrame.receivedSequenceNumber();
+        final int msgSeqNum = receivedSequenceNumber > NO_RECEIVED_SEQUENCE_NUMBER ?
+            receivedSequenceNumber :
+            sequenceNumberExtractor.extract(buffer, offset, messageFrame.bodyLength());
         if (msgSeqNum != NO_SEQUENCE_NUMBER)
         {
             final int position = saveRecord(msgSeqNum, sessionId, messagePosition, NO_REQUIRED_POSITION, false);
@@ -392,7 +429,7 @@ public class SequenceNumberIndexWriter implements Index
         final long correlationId = writeMetaData.correlationId();
         final int metaDataOffset = writeMetaData.metaDataOffset();
 
-        if (framerContext == null || metaDataFile == null)
+        if (metaDataFile == null)
         {
             writeMetaDataResponse(libraryId, correlationId, MetaDataStatus.FILE_ERROR);
 
@@ -489,6 +526,12 @@ public class SequenceNumberIndexWriter implements Index
 
     private void writeMetaDataResponse(final int libraryId, final long correlationId, final MetaDataStatus status)
     {
+        // A StandbyEngine has no framer, the primary engine replies to the library
+        if (framerContext == null)
+        {
+            return;
+        }
+
         final WriteMetaDataResponse response = new WriteMetaDataResponse(libraryId, correlationId, status);
         if (!sendResponse(response))
         {
@@ -565,10 +608,17 @@ public class SequenceNumberIndexWriter implements Index
 
     private void updateFile()
     {
-        checksumFramer.updateChecksums();
-        positionWriter.updateChecksums();
-        saveFile();
-        flipFiles();
+        if (journal != null)
+        {
+            saveDirtySectors();
+        }
+        else
+        {
+            checksumFramer.updateChecksums();
+            positionWriter.updateChecksums();
+            saveFile();
+            flipFiles();
+        }
         hasSavedRecordSinceFileUpdate = false;
         lastUpdatedFileTimeInMs = clock.time();
     }
@@ -580,6 +630,37 @@ public class SequenceNumberIndexWriter implements Index
         syncMetaDataFile();
     }
 
+    private void saveDirtySectors()
+    {
+        final IntArrayList dirtySectorOffsets = this.dirtySectorOffsets;
+        dirtySectorOffsets.clear();
+        checksumFramer.updateDirtyChecksums(onDirtySector);
+        positionWriter.updateDirtyChecksums(onDirtyPositionSector);
+
+        if (!dirtySectorOffsets.isEmpty())
+        {
+            journal.commit(inMemoryBuffer, dirtySectorOffsets);
+
+            final AtomicBuffer fileBuffer = indexFile.buffer();
+            final int size = dirtySectorOffsets.size();
+            for (int i = 0; i < size; i++)
+            {
+                final int sectorOffset = dirtySectorOffsets.getInt(i);
+                fileBuffer.putBytes(sectorOffset, inMemoryBuffer, sectorOffset, SECTOR_SIZE);
+            }
+            indexFile.force();
+
+            journal.clear();
+        }
+
+        syncMetaDataFile();
+    }
+
+    private void onDirtyPositionSector(final int positionsSectorOffset)
+    {
+        dirtySectorOffsets.addInt(indexedPositionsOffset + positionsSectorOffset);
+    }
+
     private void syncMetaDataFile()
     {
         if (metaDataFile != null)
@@ -642,7 +723,7 @@ public class SequenceNumberIndexWriter implements Index
 
     public boolean isOpen()
     {
-        return writableFile.isOpen();
+        return indexFile.isOpen();
     }
 
     public void close()
@@ -657,7 +738,8 @@ public class SequenceNumberIndexWriter implements Index
         finally
         {
             indexFile.close();
-            writableFile.close();
+            CloseHelper.close(writableFile);
+            CloseHelper.close(journal);
 
             if (metaDataFile != null)
             {
@@ -825,6 +907,7 @@ public class SequenceNumberIndexWriter implements Index
 
     private void initialiseBlankBuffer()
     {
+        checksumFramer.markAllDirty();
         LoggerUtil.initialiseBuffer(
             inMemoryBuffer,
             fileHeaderEncoder,
@@ -878,6 +961,7 @@ public class SequenceNumberIndexWriter implements Index
         final long value)
     {
         inMemoryBuffer.putLongOrdered(recordOffset + MESSAGE_POSITION_OFFSET, value);
+        checksumFramer.markDirty(recordOffset);
     }
 
     private void putSequenceNumber(
@@ -885,6 +969,7 @@ public class SequenceNumberIndexWriter implements Index
         final int value)
     {
         inMemoryBuffer.putIntOrdered(recordOffset + SEQUENCE_NUMBER_OFFSET, value);
+        checksumFramer.markDirty(recordOffset);
     }
 
     private int getSequenceNumber(final int recordOffset)
@@ -902,6 +987,7 @@ public class SequenceNumberIndexWriter implements Index
         final int value)
     {
         inMemoryBuffer.putIntOrdered(recordOffset + META_DATA_OFFSET, value);
+        checksumFramer.markDirty(recordOffset);
     }
 
     private int getMetaData(
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.Subscription;
+import io.aeron.logbuffer.ControlledFragmentHandler;
+import io.aeron.logbuffer.Header;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.AgentRunner;
+import org.agrona.concurrent.ringbuffer.RingBuffer;
+import uk.co.real_logic.artio.dictionary.generation.Exceptions;
+import uk.co.real_logic.artio.messages.*;
+
+import java.util.concurrent.ThreadFactory;
+
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static org.agrona.concurrent.AgentRunner.startOnThread;
+import static uk.co.real_logic.artio.messages.MessageHeaderDecoder.ENCODED_LENGTH;
+
+/**
+ * Partitions resend requests between {@link Replayer} shards that each run on their own thread.
+ *
+ * This agent is the only reader of the inbound stream on behalf of the shards, so it's only decoded once however many
+ * shards there are. Resend requests and session dictionaries are copied to the ring buffer of the shard that owns the
+ * session, disconnects and iLink3 connects are copied to every shard's ring buffer as they're keyed by connection
+ * id and all other messages are skipped.
+ *
+ * The shards' threads are started and stopped along with this agent.
+ */
+public class ShardedReplayer implements Agent, ControlledFragmentHandler
+{
+    static final int SHARD_MESSAGE_TYPE_ID = 1;
+
+    private static final int POLL_LIMIT = 10;
+
+    private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
+    private final ValidResendRequestDecoder validResendRequest = new ValidResendRequestDecoder();
+    private final ManageSessionDecoder manageSession = new ManageSessionDecoder();
+
+    private final Subscription inboundSubscription;
+    private final RingBuffer[] shardBuffers;
+    private final AgentRunner[] shardRunners;
+    private final ThreadFactory threadFactory;
+    private final String agentNamePrefix;
+
+    // The shard to resume a broadcast from when a shard's ring buffer was full
+    private int nextBroadcastShardIndex;
+
+    public ShardedReplayer(
+        final Subscription inboundSubscription,
+        final RingBuffer[] shardBuffers,
+        final AgentRunner[] shardRunners,
+        final ThreadFactory threadFactory,
+        final String agentNamePrefix)
+    {
+        this.inboundSubscription = inboundSubscription;
+        this.shardBuffers = shardBuffers;
+        this.shardRunners = shardRunners;
+        this.threadFactory = threadFactory;
+        this.agentNamePrefix = agentNamePrefix;
+    }
+
+    public void onStart()
+    {
+        for (final AgentRunner shardRunner : shardRunners)
+        {
+            startOnThread(shardRunner, threadFactory);
+        }
+    }
+
+    public int doWork()
+    {
+        return inboundSubscription.controlledPoll(this, POLL_LIMIT);
+    }
+
+    public Action onFragment(final DirectBuffer buffer, final int offset, final int length, final Header header)
+    {
+        messageHeader.wrap(buffer, offset);
+        final int templateId = messageHeader.templateId();
+        final int blockLength = messageHeader.blockLength();
+        final int version = messageHeader.version();
+
+        switch (templateId)
+        {
+            case ValidResendRequestDecoder.TEMPLATE_ID:
+            {
+                validResendRequest.wrap(buffer, offset + ENCODED_LENGTH, blockLength, version);
+
+                return copyToShard(validResendRequest.session(), buffer, offset, length);
+            }
+
+            case ManageSessionDecoder.TEMPLATE_ID:
+            {
+                manageSession.wrap(buffer, offset + ENCODED_LENGTH, blockLength, version);
+
+                return copyToShard(manageSession.session(), buffer, offset, length);
+            }
+
+            case ILinkConnectDecoder.TEMPLATE_ID:
+            case RequestDisconnectDecoder.TEMPLATE_ID:
+            case DisconnectDecoder.TEMPLATE_ID:
+            {
+                return broadcast(buffer, offset, length);
+            }
+
+            default:
+            {
+                return CONTINUE;
+            }
+        }
+    }
+
+    static int shardIndex(final long sessionId, final int shardCount)
+    {
+        return (int)Math.floorMod(sessionId, (long)shardCount);
+    }
+
+    private Action copyToShard(final long sessionId, final DirectBuffer buffer, final int offset, final int length)
+    {
+        final RingBuffer shardBuffer = shardBuffers[shardIndex(sessionId, shardBuffers.length)];
+
+        return shardBuffer.write(SHARD_MESSAGE_TYPE_ID, buffer, offset, length) ? CONTINUE : ABORT;
+    }
+
+    private Action broadcast(final DirectBuffer buffer, final int offset, final int length)
+    {
+        final RingBuffer[] shardBuffers = this.shardBuffers;
+        for (int shardIndex = nextBroadcastShardIndex; shardIndex < shardBuffers.length; shardIndex++)
+        {
+            if (!shardBuffers[shardIndex].write(SHARD_MESSAGE_TYPE_ID, buffer, offset, length))
+            {
+                // The fragment is redelivered, so don't copy it to the shards that already have it.
+                nextBroadcastShardIndex = shardIndex;
+                return ABORT;
+            }
+        }
+
+        nextBroadcastShardIndex = 0;
+        return CONTINUE;
+    }
+
+    public void onClose()
+    {
+        Exceptions.closeAll(shardRunners);
+    }
+
+    public String roleName()
+    {
+        return agentNamePrefix + "ShardedReplayer";
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.BitUtil;
+import org.agrona.concurrent.AtomicBuffer;
+
+import java.io.File;
+
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+
+/**
+ * Describes the layout of the time index file, which maps timestamps to positions within the recordings of a stream.
+ *
+ * Each record says that every message in the recording before the position has a timestamp before the record's
+ * timestamp. Records are stored in a ring buffer, so the oldest records are overwritten once the file is full.
+ *
+ * Buffer Consists of:
+ *
+ * Begin change position
+ * End change position
+ * Multiple records of: recording id, timestamp, position
+ */
+public final class TimeIndexDescriptor
+{
+    private static final int BEGIN_CHANGE_OFFSET = 0;
+    private static final int END_CHANGE_OFFSET = BEGIN_CHANGE_OFFSET + SIZE_OF_LONG;
+
+    public static final int INITIAL_RECORD_OFFSET = BitUtil.CACHE_LINE_LENGTH;
+
+    static final int RECORDING_ID_OFFSET = 0;
+    static final int TIMESTAMP_OFFSET = RECORDING_ID_OFFSET + SIZE_OF_LONG;
+    static final int POSITION_OFFSET = TIMESTAMP_OFFSET + SIZE_OF_LONG;
+    public static final int RECORD_LENGTH = 32;
+
+    private TimeIndexDescriptor()
+    {
+    }
+
+    static File timeIndexFile(final String logFileDir, final int streamId)
+    {
+        return new File(logFileDir + File.separator + "time-index-" + streamId);
+    }
+
+    static void endChangeOrdered(final AtomicBuffer buffer, final long changePosition)
+    {
+        buffer.putLongOrdered(END_CHANGE_OFFSET, changePosition);
+    }
+
+    static long endChangeVolatile(final AtomicBuffer buffer)
+    {
+        return buffer.getLongVolatile(END_CHANGE_OFFSET);
+    }
+
+    static void beginChangeOrdered(final AtomicBuffer buffer, final long changePosition)
+    {
+        buffer.putLongOrdered(BEGIN_CHANGE_OFFSET, changePosition);
+    }
+
+    static long beginChangeVolatile(final AtomicBuffer buffer)
+    {
+        return buffer.getLongVolatile(BEGIN_CHANGE_OFFSET);
+    }
+
+    static int recordCapacity(final int indexFileSize)
+    {
+        return indexFileSize - INITIAL_RECORD_OFFSET;
+    }
+
+    static int offset(final long changePosition, final int capacity)
+    {
+        return INITIAL_RECORD_OFFSET + ((int)changePosition & (capacity - 1));
+    }
+
+    static void checkIndexFileSize(final int indexFileSize)
+    {
+        final int recordCapacity = recordCapacity(indexFileSize);
+        if (!BitUtil.isPowerOfTwo(recordCapacity) || recordCapacity < RECORD_LENGTH)
+        {
+            throw new IllegalArgumentException(
+                "Time index file size must be a power of 2 + INITIAL_RECORD_OFFSET: indexFileSize=" + indexFileSize);
+        }
+    }
+}
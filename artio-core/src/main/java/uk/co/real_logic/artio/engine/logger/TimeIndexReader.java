@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.IoUtil;
+import org.agrona.concurrent.AtomicBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+
+import static io.aeron.archive.client.AeronArchive.NULL_POSITION;
+import static org.agrona.UnsafeAccess.UNSAFE;
+import static uk.co.real_logic.artio.engine.logger.TimeIndexDescriptor.*;
+
+/**
+ * Looks up positions within a recording to start scanning from for a given timestamp, using the index written by
+ * {@link TimeIndexWriter}.
+ */
+class TimeIndexReader implements AutoCloseable
+{
+    private final MappedByteBuffer mappedBuffer;
+    private final AtomicBuffer buffer;
+    private final int capacity;
+
+    TimeIndexReader(final String logFileDir, final int streamId)
+    {
+        final File file = timeIndexFile(logFileDir, streamId);
+        if (file.exists())
+        {
+            mappedBuffer = IoUtil.mapExistingFile(file, file.getName());
+            buffer = new UnsafeBuffer(mappedBuffer);
+            capacity = recordCapacity(buffer.capacity());
+        }
+        else
+        {
+            mappedBuffer = null;
+            buffer = null;
+            capacity = 0;
+        }
+    }
+
+    /**
+     * Find the latest position within a recording that a scan for messages with timestamps at or after
+     * <code>beginTimestampInclusive</code> can start from without missing any messages.
+     *
+     * @param recordingId the recording to scan.
+     * @param beginTimestampInclusive the lowest timestamp of a message that the scan is interested in.
+     * @return the position to start the scan from or {@link io.aeron.archive.client.AeronArchive#NULL_POSITION} if
+     * the index doesn't contain a suitable position.
+     */
+    long startPosition(final long recordingId, final long beginTimestampInclusive)
+    {
+        final AtomicBuffer buffer = this.buffer;
+        if (buffer == null)
+        {
+            return NULL_POSITION;
+        }
+
+        final int capacity = this.capacity;
+        final long endChangePosition = endChangeVolatile(buffer);
+        long position = Math.max(0, endChangePosition - capacity);
+        long startPosition = NULL_POSITION;
+        long startTimestamp = Long.MIN_VALUE;
+
+        while (position < endChangePosition)
+        {
+            final int offset = offset(position, capacity);
+            final long recordRecordingId = buffer.getLong(offset + RECORDING_ID_OFFSET);
+            final long timestamp = buffer.getLong(offset + TIMESTAMP_OFFSET);
+            final long recordPosition = buffer.getLong(offset + POSITION_OFFSET);
+
+            UNSAFE.loadFence();
+            final long beginChangePosition = beginChangeVolatile(buffer);
+            if (position + capacity < beginChangePosition)
+            {
+                // The record has been overwritten whilst we read it, skip to the oldest record that's still valid.
+                position = beginChangePosition - capacity;
+                continue;
+            }
+
+            if (recordRecordingId == recordingId && timestamp <= beginTimestampInclusive &&
+                timestamp >= startTimestamp)
+            {
+                startPosition = recordPosition;
+                startTimestamp = timestamp;
+            }
+
+            position += RECORD_LENGTH;
+        }
+
+        return startPosition;
+    }
+
+    public void close()
+    {
+        if (mappedBuffer != null)
+        {
+            IoUtil.unmap(mappedBuffer);
+        }
+    }
+}
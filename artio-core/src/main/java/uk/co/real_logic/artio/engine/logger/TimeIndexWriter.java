@@ -0,0 +1,174 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.logbuffer.Header;
+import org.agrona.BitUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.IoUtil;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.concurrent.AtomicBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.ILinkMessageDecoder;
+import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
+
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+import static io.aeron.archive.status.RecordingPos.NULL_RECORDING_ID;
+import static io.aeron.logbuffer.FrameDescriptor.BEGIN_FRAG_FLAG;
+import static io.aeron.logbuffer.FrameDescriptor.FRAME_ALIGNMENT;
+import static org.agrona.UnsafeAccess.UNSAFE;
+import static uk.co.real_logic.artio.engine.logger.TimeIndexDescriptor.*;
+
+/**
+ * Builds a coarse index from message timestamps to the positions of messages within the recordings of a stream, so
+ * that scans of the archive for a time range can start from part way through a recording.
+ *
+ * An index record is written at most once per period for each recording, when the first message whose timestamp is
+ * at or after the next period boundary is seen.
+ */
+public class TimeIndexWriter implements Index
+{
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
+    private final FixMessageDecoder fixMessage = new FixMessageDecoder();
+    private final ILinkMessageDecoder iLinkMessage = new ILinkMessageDecoder();
+    private final Long2LongHashMap recordingIdToNextTimestamp = new Long2LongHashMap(NO_TIMESTAMP);
+
+    private final int requiredStreamId;
+    private final long periodInNs;
+    private final RecordingIdLookup recordingIdLookup;
+    private final ByteBuffer wrappedBuffer;
+    private final AtomicBuffer buffer;
+    private final int capacity;
+
+    public TimeIndexWriter(
+        final String logFileDir,
+        final int requiredStreamId,
+        final int indexFileSize,
+        final long periodInNs,
+        final RecordingIdLookup recordingIdLookup)
+    {
+        checkIndexFileSize(indexFileSize);
+
+        this.requiredStreamId = requiredStreamId;
+        this.periodInNs = periodInNs;
+        this.recordingIdLookup = recordingIdLookup;
+
+        wrappedBuffer = LoggerUtil.map(timeIndexFile(logFileDir, requiredStreamId), indexFileSize);
+        buffer = new UnsafeBuffer(wrappedBuffer);
+        capacity = recordCapacity(buffer.capacity());
+
+        // Reset the positions in case we stopped part way through writing a record.
+        endChangeOrdered(buffer, beginChangeVolatile(buffer));
+    }
+
+    public void onFragment(final DirectBuffer buffer, final int offset, final int length, final Header header)
+    {
+        if (header.streamId() == requiredStreamId)
+        {
+            onFragment(buffer, offset, header, NULL_RECORDING_ID);
+        }
+    }
+
+    public void onCatchup(
+        final DirectBuffer buffer, final int offset, final int length, final Header header, final long recordingId)
+    {
+        onFragment(buffer, offset, header, recordingId);
+    }
+
+    private void onFragment(
+        final DirectBuffer buffer, final int offset, final Header header, final long knownRecordingId)
+    {
+        if ((header.flags() & BEGIN_FRAG_FLAG) != BEGIN_FRAG_FLAG)
+        {
+            return;
+        }
+
+        final MessageHeaderDecoder messageHeader = this.messageHeader;
+        messageHeader.wrap(buffer, offset);
+        final int templateId = messageHeader.templateId();
+        final int blockLength = messageHeader.blockLength();
+        final int version = messageHeader.version();
+        final int messageOffset = offset + MessageHeaderDecoder.ENCODED_LENGTH;
+
+        final long timestamp;
+        if (templateId == FixMessageDecoder.TEMPLATE_ID)
+        {
+            fixMessage.wrap(buffer, messageOffset, blockLength, version);
+            timestamp = fixMessage.timestamp();
+        }
+        else if (templateId == ILinkMessageDecoder.TEMPLATE_ID)
+        {
+            iLinkMessage.wrap(buffer, messageOffset, blockLength, version);
+            timestamp = iLinkMessage.enqueueTime();
+        }
+        else
+        {
+            return;
+        }
+
+        final long recordingId = knownRecordingId == NULL_RECORDING_ID ?
+            recordingIdLookup.getRecordingId(header.sessionId()) : knownRecordingId;
+        final long nextTimestamp = recordingIdToNextTimestamp.get(recordingId);
+
+        // Nothing is known about the messages before the first one that we see, so it isn't indexed.
+        if (nextTimestamp != NO_TIMESTAMP && timestamp >= nextTimestamp)
+        {
+            final long beginPosition = header.position() - BitUtil.align(header.frameLength(), FRAME_ALIGNMENT);
+            onRecord(recordingId, nextTimestamp, beginPosition);
+        }
+
+        if (nextTimestamp == NO_TIMESTAMP || timestamp >= nextTimestamp)
+        {
+            recordingIdToNextTimestamp.put(recordingId, timestamp - Math.floorMod(timestamp, periodInNs) + periodInNs);
+        }
+    }
+
+    private void onRecord(final long recordingId, final long timestamp, final long position)
+    {
+        final AtomicBuffer buffer = this.buffer;
+        final long beginChangePosition = beginChangeVolatile(buffer);
+        final long changePosition = beginChangePosition + RECORD_LENGTH;
+
+        beginChangeOrdered(buffer, changePosition);
+        UNSAFE.storeFence();
+
+        final int offset = offset(beginChangePosition, capacity);
+        buffer.putLong(offset + RECORDING_ID_OFFSET, recordingId);
+        buffer.putLong(offset + TIMESTAMP_OFFSET, timestamp);
+        buffer.putLong(offset + POSITION_OFFSET, position);
+
+        endChangeOrdered(buffer, changePosition);
+    }
+
+    public void readLastPosition(final IndexedPositionConsumer consumer)
+    {
+        // Deliberately blank: the index is coarse, so it doesn't need to catch up on messages that were
+        // recorded but not indexed before a restart.
+    }
+
+    public void close()
+    {
+        if (wrappedBuffer instanceof MappedByteBuffer)
+        {
+            IoUtil.unmap((MappedByteBuffer)wrappedBuffer);
+        }
+    }
+}
@@ -77,8 +77,7 @@ public class FixLibrary extends GatewayProcess
         {
             scheduler.configure(configuration.aeronContext());
             init(configuration);
-            final LibraryTimers timers = new LibraryTimers(
-                configuration.epochNanoClock(), fixCounters.negativeTimestamps());
+            final LibraryTimers timers = new LibraryTimers(configuration.epochNanoClock(), fixCounters);
             initMonitoringAgent(timers.all(), configuration, null, null);
 
             final LibraryTransport transport = new LibraryTransport(configuration, fixCounters, aeron);
@@ -64,6 +64,7 @@ public final class LibraryConfiguration extends CommonConfiguration
     };
 
     public static final SessionProxyFactory DEFAULT_SESSION_PROXY_FACTORY = DirectSessionProxy::new;
+    public static final boolean DEFAULT_DEADLINE_SESSION_POLLING = false;
 
     private final int libraryId;
 
@@ -87,6 +88,7 @@ public final class LibraryConfiguration extends CommonConfiguration
     private LibraryScheduler scheduler = new DefaultLibraryScheduler();
     private String libraryName = "";
     private SessionProxyFactory sessionProxyFactory = DEFAULT_SESSION_PROXY_FACTORY;
+    private boolean deadlineSessionPolling = DEFAULT_DEADLINE_SESSION_POLLING;
 
     /**
      * When a new session connects to the gateway you register a callback handler to find
@@ -227,6 +229,25 @@ public final class LibraryConfiguration extends CommonConfiguration
         return this;
     }
 
+    /**
+     * Sets whether sessions are only polled when their next heartbeat or timeout deadline is due, or when their
+     * state changes, rather than on every duty cycle of the library. This reduces the duty cycle cost of libraries
+     * that own a large number of mostly idle sessions.
+     *
+     * @param deadlineSessionPolling true to only poll sessions when they're due, false to poll them all the time.
+     * @return this
+     */
+    public LibraryConfiguration deadlineSessionPolling(final boolean deadlineSessionPolling)
+    {
+        this.deadlineSessionPolling = deadlineSessionPolling;
+        return this;
+    }
+
+    public boolean deadlineSessionPolling()
+    {
+        return deadlineSessionPolling;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -124,6 +124,9 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
 
     private final Long2ObjectHashMap<ILink3Subscription> connectionIdToILink3Subscription = new Long2ObjectHashMap<>();
 
+    // null unless sessions are only polled when their deadlines are due
+    private final SessionPollScheduler sessionPollScheduler;
+
     private static final ErrorHandler THROW_ERRORS = LangUtil::rethrowUnchecked;
 
     // Used when checking the consistency of the session ids
@@ -137,6 +140,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
     private final SessionIdStrategy sessionIdStrategy;
     private final Timer sessionTimer;
     private final Timer receiveTimer;
+    private final Timer deliveryTimer;
     private final SessionExistsHandler sessionExistsHandler;
     private final boolean enginesAreClustered;
     private final FixCounters fixCounters;
@@ -205,6 +209,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
 
         this.sessionTimer = timers.sessionTimer();
         this.receiveTimer = timers.receiveTimer();
+        this.deliveryTimer = timers.deliveryTimer();
 
         this.configuration = configuration;
         this.sessionIdStrategy = configuration.sessionIdStrategy();
@@ -213,6 +218,8 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
         this.enginesAreClustered = configuration.libraryAeronChannels().size() > 1;
         this.epochFractionClock = EpochFractionClocks.create(
             epochClock, configuration.epochNanoClock(), configuration.sessionEpochFractionFormat());
+        this.sessionPollScheduler = configuration.deadlineSessionPolling() ?
+            new SessionPollScheduler(epochClock.time()) : null;
     }
 
     boolean isConnected()
@@ -329,7 +336,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
 
     void disableSession(final InternalSession session)
     {
-        sessions = ArrayUtil.remove(sessions, session);
+        removeSession(session);
         session.disable();
         cacheSession(session);
     }
@@ -734,13 +741,21 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
 
     private int pollSessions(final long timeInMs)
     {
-        final InternalSession[] sessions = this.sessions;
         int total = 0;
 
-        for (int i = 0, size = sessions.length; i < size; i++)
+        final SessionPollScheduler sessionPollScheduler = this.sessionPollScheduler;
+        if (sessionPollScheduler != null)
         {
-            final InternalSession session = sessions[i];
-            total += session.poll(timeInMs);
+            total += sessionPollScheduler.poll(timeInMs);
+        }
+        else
+        {
+            final InternalSession[] sessions = this.sessions;
+            for (int i = 0, size = sessions.length; i < size; i++)
+            {
+                final InternalSession session = sessions[i];
+                total += session.poll(timeInMs);
+            }
         }
 
         final ILink3Connection[] iLink3Connections = this.iLink3Connections;
@@ -766,7 +781,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
             {
                 this.pendingInitiatorSessions = pendingSessions = ArrayUtil.remove(pendingSessions, i);
                 size--;
-                sessions = ArrayUtil.add(sessions, session);
+                addSession(session);
             }
             else
             {
@@ -1120,7 +1135,25 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
         }
         else
         {
-            sessions = ArrayUtil.add(sessions, session);
+            addSession(session);
+        }
+    }
+
+    private void addSession(final InternalSession session)
+    {
+        sessions = ArrayUtil.add(sessions, session);
+        if (sessionPollScheduler != null)
+        {
+            sessionPollScheduler.add(session);
+        }
+    }
+
+    private void removeSession(final InternalSession session)
+    {
+        sessions = ArrayUtil.remove(sessions, session);
+        if (sessionPollScheduler != null)
+        {
+            sessionPollScheduler.remove(session);
         }
     }
 
@@ -1134,6 +1167,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
         final int sequenceIndex,
         final long messageType,
         final long timestamp,
+        final long publishedTimestamp,
         final MessageStatus status,
         final int sequenceNumber,
         final long position,
@@ -1154,6 +1188,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
                     sequenceIndex,
                     messageType,
                     timestamp,
+                    publishedTimestamp,
                     status,
                     position);
             }
@@ -1203,7 +1238,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
                     session.close();
                     // session will be in either pendingInitiatorSessions or sessions
                     pendingInitiatorSessions = ArrayUtil.remove(pendingInitiatorSessions, session);
-                    sessions = ArrayUtil.remove(sessions, session);
+                    removeSession(session);
                     cacheSession(session);
                 }
 
@@ -1398,7 +1433,8 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
                 long.class,
                 boolean.class,
                 long.class,
-                EpochNanoClock.class);
+                EpochNanoClock.class,
+                FixCounters.class);
 
             return (ILink3Connection)constructor.newInstance(
                 configuration,
@@ -1413,7 +1449,8 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
                 lastSentSequenceNumber,
                 newlyAllocated,
                 lastUuid,
-                this.configuration.epochNanoClock());
+                this.configuration.epochNanoClock(),
+                fixCounters);
         }
         catch (final InvocationTargetException e)
         {
@@ -1596,6 +1633,10 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
                     subscriber.onTimeout(libraryId);
                 }
                 session.disable();
+                if (sessionPollScheduler != null)
+                {
+                    sessionPollScheduler.remove(session);
+                }
                 // TODO(Nick): Maybe we shouldn't be creating a lot of arrays and batch this up?
                 sessions = ArrayUtil.remove(sessions, i);
                 cacheSession(session);
@@ -1740,6 +1781,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
             parser,
             session,
             receiveTimer,
+            deliveryTimer,
             sessionTimer,
             this);
         subscriber.reply(reply);
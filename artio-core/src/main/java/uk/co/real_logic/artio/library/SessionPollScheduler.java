@@ -0,0 +1,129 @@
+/*
+ * Copyright 2015-2020 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.library;
+
+import org.agrona.DeadlineTimerWheel;
+import org.agrona.collections.Long2ObjectHashMap;
+import uk.co.real_logic.artio.session.InternalSession;
+import uk.co.real_logic.artio.session.SessionPollTimeListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static uk.co.real_logic.artio.session.InternalSession.NO_POLL_TIMER;
+import static uk.co.real_logic.artio.session.Session.NO_POLL_REQUIRED;
+
+/**
+ * Polls sessions only when their next heartbeat or timeout deadline is due, or when their state has changed,
+ * rather than polling every session on every duty cycle.
+ *
+ * Each session has at most one timer in the wheel for its next poll time. Deadlines that get later, for example
+ * when a message is sent or received, aren't tracked eagerly: the session is polled at the old deadline, finds
+ * nothing to do and gets rescheduled. Deadlines that get earlier are reported via {@link SessionPollTimeListener}.
+ */
+class SessionPollScheduler implements SessionPollTimeListener, DeadlineTimerWheel.TimerHandler
+{
+    static final long TICK_RESOLUTION_IN_MS = 8;
+    static final int TICKS_PER_WHEEL = 1024;
+
+    private final DeadlineTimerWheel timerWheel;
+    private final Long2ObjectHashMap<InternalSession> timerIdToSession = new Long2ObjectHashMap<>();
+    private final List<InternalSession> dueSessions = new ArrayList<>();
+
+    SessionPollScheduler(final long timeInMs)
+    {
+        timerWheel = new DeadlineTimerWheel(TimeUnit.MILLISECONDS, timeInMs, TICK_RESOLUTION_IN_MS, TICKS_PER_WHEEL);
+    }
+
+    void add(final InternalSession session)
+    {
+        session.pollTimeListener(this);
+        schedule(session);
+    }
+
+    void remove(final InternalSession session)
+    {
+        session.pollTimeListener(null);
+        cancel(session);
+    }
+
+    public void onPollTimeChanged(final InternalSession session)
+    {
+        schedule(session);
+    }
+
+    int poll(final long timeInMs)
+    {
+        final DeadlineTimerWheel timerWheel = this.timerWheel;
+
+        // The wheel advances one tick per poll, so catch up if the duty cycle has been slower than a tick.
+        do
+        {
+            timerWheel.poll(timeInMs, this, Integer.MAX_VALUE);
+        }
+        while (timerWheel.currentTickTime() <= timeInMs);
+
+        // Sessions are polled outside of the wheel's poll as polling can change their state and reschedule them.
+        final List<InternalSession> dueSessions = this.dueSessions;
+        int total = 0;
+        for (int i = 0, size = dueSessions.size(); i < size; i++)
+        {
+            final InternalSession session = dueSessions.get(i);
+            total += session.poll(timeInMs);
+            schedule(session);
+        }
+        dueSessions.clear();
+
+        return total;
+    }
+
+    public boolean onTimerExpiry(final TimeUnit timeUnit, final long now, final long timerId)
+    {
+        final InternalSession session = timerIdToSession.remove(timerId);
+        if (session != null)
+        {
+            session.pollTimerId(NO_POLL_TIMER);
+            dueSessions.add(session);
+        }
+
+        return true;
+    }
+
+    private void schedule(final InternalSession session)
+    {
+        cancel(session);
+
+        final long nextPollTimeInMs = session.nextPollTimeInMs();
+        if (nextPollTimeInMs != NO_POLL_REQUIRED)
+        {
+            final long timerId = timerWheel.scheduleTimer(nextPollTimeInMs);
+            session.pollTimerId(timerId);
+            timerIdToSession.put(timerId, session);
+        }
+    }
+
+    private void cancel(final InternalSession session)
+    {
+        final long timerId = session.pollTimerId();
+        if (timerId != NO_POLL_TIMER)
+        {
+            timerWheel.cancelTimer(timerId);
+            timerIdToSession.remove(timerId);
+            session.pollTimerId(NO_POLL_TIMER);
+        }
+    }
+}
@@ -28,6 +28,7 @@ import java.util.function.BooleanSupplier;
 
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.*;
 import static uk.co.real_logic.artio.messages.GatewayError.UNABLE_TO_LOGON;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.NO_PUBLISHED_TIMESTAMP;
 
 class SessionSubscriber implements AutoCloseable, SessionProcessHandler
 {
@@ -35,6 +36,7 @@ class SessionSubscriber implements AutoCloseable, SessionProcessHandler
     private final SessionParser parser;
     private final InternalSession session;
     private final Timer receiveTimer;
+    private final Timer deliveryTimer;
     private final Timer sessionTimer;
     private final LibraryPoller libraryPoller;
 
@@ -47,6 +49,7 @@ class SessionSubscriber implements AutoCloseable, SessionProcessHandler
         final SessionParser parser,
         final InternalSession session,
         final Timer receiveTimer,
+        final Timer deliveryTimer,
         final Timer sessionTimer,
         final LibraryPoller libraryPoller)
     {
@@ -54,6 +57,7 @@ class SessionSubscriber implements AutoCloseable, SessionProcessHandler
         this.parser = parser;
         this.session = session;
         this.receiveTimer = receiveTimer;
+        this.deliveryTimer = deliveryTimer;
         this.sessionTimer = sessionTimer;
         this.libraryPoller = libraryPoller;
         this.session.sessionProcessHandler(this);
@@ -67,10 +71,16 @@ class SessionSubscriber implements AutoCloseable, SessionProcessHandler
         final int sequenceIndex,
         final long messageType,
         final long timestamp,
+        final long publishedTimestamp,
         final MessageStatus status,
         final long position)
     {
-        final long now = receiveTimer.recordSince(timestamp);
+        final long sessionId = session.id();
+        final long now = receiveTimer.recordSince(sessionId, timestamp);
+        if (publishedTimestamp > NO_PUBLISHED_TIMESTAMP)
+        {
+            deliveryTimer.recordSince(sessionId, publishedTimestamp);
+        }
 
         final OnMessageInfo info = this.info;
         info.status(status);
@@ -158,7 +168,7 @@ class SessionSubscriber implements AutoCloseable, SessionProcessHandler
         }
         finally
         {
-            sessionTimer.recordSince(now);
+            sessionTimer.recordSince(sessionId, now);
         }
     }
 
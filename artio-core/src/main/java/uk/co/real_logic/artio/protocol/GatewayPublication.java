@@ -17,6 +17,7 @@ package uk.co.real_logic.artio.protocol;
 
 import io.aeron.ExclusivePublication;
 import io.aeron.logbuffer.BufferClaim;
+import io.aeron.protocol.DataHeaderFlyweight;
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.EpochNanoClock;
@@ -29,15 +30,22 @@ import uk.co.real_logic.artio.engine.ConnectedSessionInfo;
 import uk.co.real_logic.artio.engine.RecordingCoordinator;
 import uk.co.real_logic.artio.messages.*;
 import uk.co.real_logic.artio.messages.ControlNotificationEncoder.SessionsEncoder;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
 import java.util.List;
 
 import static io.aeron.logbuffer.FrameDescriptor.FRAME_ALIGNMENT;
+import static io.aeron.logbuffer.FrameDescriptor.PADDING_FRAME_TYPE;
+import static io.aeron.logbuffer.FrameDescriptor.TERM_OFFSET;
+import static io.aeron.logbuffer.FrameDescriptor.frameLengthOrdered;
+import static io.aeron.logbuffer.FrameDescriptor.frameType;
+import static io.aeron.logbuffer.FrameDescriptor.termOffsetOffset;
 import static io.aeron.protocol.DataHeaderFlyweight.BEGIN_FLAG;
 import static io.aeron.protocol.DataHeaderFlyweight.END_FLAG;
 import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.agrona.BitUtil.align;
+import static uk.co.real_logic.artio.CommonConfiguration.TIME_MESSAGES;
 import static uk.co.real_logic.artio.DebugLogger.logSbeMessage;
 import static uk.co.real_logic.artio.LogTag.*;
 import static uk.co.real_logic.artio.messages.ErrorDecoder.messageHeaderLength;
@@ -54,6 +62,15 @@ public class GatewayPublication extends ClaimablePublication
 
     public static final int FRAMED_MESSAGE_SIZE = MessageHeaderEncoder.ENCODED_LENGTH + FRAME_SIZE;
 
+    // Used for the sendingTimeOffset and possDupOffset of a frame when the sender hasn't recorded them.
+    public static final int NO_FIELD_OFFSET = 0;
+
+    // Used for the receivedSequenceNumber of a frame when the receiver hasn't recorded it.
+    public static final int NO_RECEIVED_SEQUENCE_NUMBER = 0;
+
+    // Used for the publishedTimestamp of a frame when message timing is disabled or it isn't an inbound frame.
+    public static final long NO_PUBLISHED_TIMESTAMP = 0;
+
     private static final byte[] NO_BYTES = {};
     private static final DirectBuffer NO_METADATA = new UnsafeBuffer(NO_BYTES);
 
@@ -150,6 +167,13 @@ public class GatewayPublication extends ClaimablePublication
     private final int maxPayloadLength;
     private final int maxInitialBodyLength;
 
+    // State of a FIX message that has been claimed by claimMessage()
+    private final MutableAsciiBuffer claimedMessageBuffer = new MutableAsciiBuffer();
+    private int claimedFixMessageOffset;
+    private int claimedMetaDataLength;
+    private int claimedMessageOffset;
+    private long claimedPosition;
+
     public GatewayPublication(
         final ExclusivePublication dataPublication,
         final AtomicCounter fails,
@@ -202,6 +226,62 @@ public class GatewayPublication extends ClaimablePublication
         final int sequenceNumber,
         final DirectBuffer metaDataBuffer,
         final int metaDataUpdateOffset)
+    {
+        return saveMessage(
+            srcBuffer,
+            srcOffset,
+            srcLength,
+            libraryId,
+            messageType,
+            sessionId,
+            sequenceIndex,
+            connectionId,
+            status,
+            sequenceNumber,
+            metaDataBuffer,
+            metaDataUpdateOffset,
+            NO_FIELD_OFFSET,
+            NO_FIELD_OFFSET);
+    }
+
+    /**
+     * Saves a FIX message along with the offsets of its SendingTime and PossDupFlag values, which lets the message
+     * be resent without having to parse it.
+     *
+     * @param srcBuffer the buffer containing the FIX message.
+     * @param srcOffset the offset within srcBuffer that the FIX message starts at.
+     * @param srcLength the length of the FIX message.
+     * @param libraryId the id of the library sending the message.
+     * @param messageType the long encoded message type.
+     * @param sessionId the id of the session sending the message.
+     * @param sequenceIndex the sequence index of the session sending the message.
+     * @param connectionId the id of the connection of the session sending the message.
+     * @param status the status of the message.
+     * @param sequenceNumber the sequence number of the message.
+     * @param metaDataBuffer the metadata to associate with this message, or null if there isn't any.
+     * @param metaDataUpdateOffset the offset within the session's metadata buffer.
+     * @param sendingTimeOffset the offset of the SendingTime value from the start of the message or
+     *                          {@link #NO_FIELD_OFFSET} if it isn't known.
+     * @param possDupOffset the offset of the PossDupFlag value from the start of the message or
+     *                      {@link #NO_FIELD_OFFSET} if the message doesn't have one.
+     * @return the position in the stream that corresponds to the end of this message or a negative
+     * number indicating an error status.
+     */
+    public long saveMessage(
+        final DirectBuffer srcBuffer,
+        final int srcOffset,
+        final int srcLength,
+        final int libraryId,
+        final long messageType,
+        final long sessionId,
+        final int sequenceIndex,
+        final long connectionId,
+        final MessageStatus status,
+        final int sequenceNumber,
+        final DirectBuffer metaDataBuffer,
+        final int metaDataUpdateOffset,
+        final int sendingTimeOffset,
+        final int possDupOffset)
     {
         return saveMessage(
             srcBuffer,
@@ -216,7 +296,11 @@ public class GatewayPublication extends ClaimablePublication
             sequenceNumber,
             clock.nanoTime(),
             metaDataBuffer,
-            metaDataUpdateOffset);
+            metaDataUpdateOffset,
+            sendingTimeOffset,
+            possDupOffset,
+            NO_RECEIVED_SEQUENCE_NUMBER,
+            NO_PUBLISHED_TIMESTAMP);
     }
 
     public long saveMessage(
@@ -248,6 +332,59 @@ public class GatewayPublication extends ClaimablePublication
             0);
     }
 
+    /**
+     * Saves a FIX message received from a counter-party along with its MsgSeqNum, which lets the message be
+     * indexed without having to parse it. When message timing is enabled the time that it's published is also
+     * saved, so that libraries can time its delivery.
+     *
+     * @param srcBuffer the buffer containing the FIX message.
+     * @param srcOffset the offset within srcBuffer that the FIX message starts at.
+     * @param srcLength the length of the FIX message.
+     * @param libraryId the id of the library that the message is for.
+     * @param messageType the long encoded message type.
+     * @param sessionId the id of the session that received the message.
+     * @param sequenceIndex the sequence index of the session that received the message.
+     * @param connectionId the id of the connection that the message was received on.
+     * @param status the status of the message.
+     * @param timestamp the time that the message was read.
+     * @param receivedSequenceNumber the MsgSeqNum of the message or {@link #NO_RECEIVED_SEQUENCE_NUMBER} if it
+     *                               isn't known.
+     * @return the position in the stream that corresponds to the end of this message or a negative
+     * number indicating an error status.
+     */
+    public long saveReceivedMessage(
+        final DirectBuffer srcBuffer,
+        final int srcOffset,
+        final int srcLength,
+        final int libraryId,
+        final long messageType,
+        final long sessionId,
+        final int sequenceIndex,
+        final long connectionId,
+        final MessageStatus status,
+        final long timestamp,
+        final int receivedSequenceNumber)
+    {
+        return saveMessage(
+            srcBuffer,
+            srcOffset,
+            srcLength,
+            libraryId,
+            messageType,
+            sessionId,
+            sequenceIndex,
+            connectionId,
+            status,
+            0,
+            timestamp,
+            null,
+            0,
+            NO_FIELD_OFFSET,
+            NO_FIELD_OFFSET,
+            receivedSequenceNumber,
+            TIME_MESSAGES ? clock.nanoTime() : NO_PUBLISHED_TIMESTAMP);
+    }
+
     public long saveMessage(
         final DirectBuffer srcBuffer,
         final int srcOffset,
@@ -260,8 +397,47 @@ public class GatewayPublication extends ClaimablePublication
         final MessageStatus status,
         final int sequenceNumber,
         final long timestamp,
-        final DirectBuffer srcMetaDataBuffer,
+        final DirectBuffer metaDataBuffer,
         final int metaDataUpdateOffset)
+    {
+        return saveMessage(
+            srcBuffer,
+            srcOffset,
+            srcLength,
+            libraryId,
+            messageType,
+            sessionId,
+            sequenceIndex,
+            connectionId,
+            status,
+            sequenceNumber,
+            timestamp,
+            metaDataBuffer,
+            metaDataUpdateOffset,
+            NO_FIELD_OFFSET,
+            NO_FIELD_OFFSET,
+            NO_RECEIVED_SEQUENCE_NUMBER,
+            NO_PUBLISHED_TIMESTAMP);
+    }
+
+    private long saveMessage(
+        final DirectBuffer srcBuffer,
+        final int srcOffset,
+        final int srcLength,
+        final int libraryId,
+        final long messageType,
+        final long sessionId,
+        final int sequenceIndex,
+        final long connectionId,
+        final MessageStatus status,
+        final int sequenceNumber,
+        final long timestamp,
+        final DirectBuffer srcMetaDataBuffer,
+        final int metaDataUpdateOffset,
+        final int sendingTimeOffset,
+        final int possDupOffset,
+        final int receivedSequenceNumber,
+        final long publishedTimestamp)
     {
         final DirectBuffer metaDataBuffer = srcMetaDataBuffer == null ? NO_METADATA : srcMetaDataBuffer;
         final int metaDataLength = metaDataBuffer.capacity();
@@ -323,6 +499,10 @@ public class GatewayPublication extends ClaimablePublication
             .status(status)
             .sequenceNumber(sequenceNumber)
             .metaDataUpdateOffset(metaDataUpdateOffset)
+            .sendingTimeOffset(sendingTimeOffset)
+            .possDupOffset(possDupOffset)
+            .receivedSequenceNumber(receivedSequenceNumber)
+            .publishedTimestamp(publishedTimestamp)
             .putMetaData(metaDataBuffer, 0, metaDataLength)
             .putBody(srcBuffer, srcFragmentOffset, srcFragmentLength);
 
@@ -361,6 +541,223 @@ public class GatewayPublication extends ClaimablePublication
         return position;
     }
 
+    /**
+     * Claims space in the log buffer for a FIX message of up to maxMessageLength bytes so that the message can be
+     * encoded directly into the log buffer rather than being copied into it. If this method returns successfully
+     * then the message should be written into {@link #claimedMessageBuffer()} at or after
+     * {@link #claimedMessageOffset()} and then {@link #commitMessage(int, int)} or {@link #abortMessage()} called.
+     *
+     * Unused space is turned into a padding frame on commit, so maxMessageLength should be a close upper bound of
+     * the message's length. Messages that would need to be fragmented can't be claimed, use saveMessage() to send
+     * them.
+     *
+     * @param maxMessageLength the maximum length of the FIX message that will be written into the claim.
+     * @param libraryId the id of the library sending the message.
+     * @param messageType the long encoded message type.
+     * @param sessionId the id of the session sending the message.
+     * @param sequenceIndex the sequence index of the session sending the message.
+     * @param connectionId the id of the connection of the session sending the message.
+     * @param status the status of the message.
+     * @param sequenceNumber the sequence number of the message.
+     * @param srcMetaDataBuffer the metadata to associate with this message, or null if there isn't any.
+     * @param metaDataUpdateOffset the offset within the session's metadata buffer.
+     * @return the position in the stream that corresponds to the end of the claimed space or a negative
+     * number indicating an error status.
+     * @throws IllegalArgumentException if the message would need to be fragmented.
+     */
+    public long claimMessage(
+        final int maxMessageLength,
+        final int libraryId,
+        final long messageType,
+        final long sessionId,
+        final int sequenceIndex,
+        final long connectionId,
+        final MessageStatus status,
+        final int sequenceNumber,
+        final DirectBuffer srcMetaDataBuffer,
+        final int metaDataUpdateOffset)
+    {
+        final DirectBuffer metaDataBuffer = srcMetaDataBuffer == null ? NO_METADATA : srcMetaDataBuffer;
+        final int metaDataLength = metaDataBuffer.capacity();
+
+        // Aligned so that any unused space can be turned into a padding frame on commit
+        final int framedLength = align(
+            DataHeaderFlyweight.HEADER_LENGTH + FRAMED_MESSAGE_SIZE + maxMessageLength + metaDataLength,
+            FRAME_ALIGNMENT) - DataHeaderFlyweight.HEADER_LENGTH;
+        if (framedLength > maxPayloadLength)
+        {
+            throw new IllegalArgumentException(String.format(
+                "Unable to claim a message of up to %d bytes with %d bytes of metadata, max payload length is %d",
+                maxMessageLength,
+                metaDataLength,
+                maxPayloadLength));
+        }
+
+        final long position = claim(framedLength);
+        if (position < 0)
+        {
+            return position;
+        }
+
+        int offset = bufferClaim.offset();
+        final MutableDirectBuffer destBuffer = bufferClaim.buffer();
+
+        header.wrap(destBuffer, offset)
+            .blockLength(fixMessage.sbeBlockLength())
+            .templateId(fixMessage.sbeTemplateId())
+            .schemaId(fixMessage.sbeSchemaId())
+            .version(fixMessage.sbeSchemaVersion());
+
+        offset += header.encodedLength();
+
+        fixMessage.wrap(destBuffer, offset)
+            .libraryId(libraryId)
+            .messageType(messageType)
+            .session(sessionId)
+            .sequenceIndex(sequenceIndex)
+            .connection(connectionId)
+            .timestamp(clock.nanoTime())
+            .status(status)
+            .sequenceNumber(sequenceNumber)
+            .metaDataUpdateOffset(metaDataUpdateOffset)
+            .sendingTimeOffset(NO_FIELD_OFFSET)
+            .possDupOffset(NO_FIELD_OFFSET)
+            .receivedSequenceNumber(NO_RECEIVED_SEQUENCE_NUMBER)
+            .publishedTimestamp(NO_PUBLISHED_TIMESTAMP)
+            .putMetaData(metaDataBuffer, 0, metaDataLength);
+
+        claimedFixMessageOffset = offset;
+        claimedMetaDataLength = metaDataLength;
+        claimedMessageOffset = fixMessage.limit() + FixMessageEncoder.bodyHeaderLength();
+        claimedMessageBuffer.wrap(destBuffer);
+        claimedPosition = position;
+
+        return position;
+    }
+
+    /**
+     * Gets the buffer to write a claimed FIX message into.
+     *
+     * @return the buffer to write a claimed FIX message into.
+     * @see #claimMessage(int, int, long, long, int, long, MessageStatus, int, DirectBuffer, int)
+     */
+    public MutableAsciiBuffer claimedMessageBuffer()
+    {
+        return claimedMessageBuffer;
+    }
+
+    /**
+     * Gets the offset within {@link #claimedMessageBuffer()} that the claimed FIX message starts at. The bytes
+     * before this offset must not be modified.
+     *
+     * @return the offset within {@link #claimedMessageBuffer()} that the claimed FIX message starts at.
+     * @see #claimMessage(int, int, long, long, int, long, MessageStatus, int, DirectBuffer, int)
+     */
+    public int claimedMessageOffset()
+    {
+        return claimedMessageOffset;
+    }
+
+    /**
+     * Commits a claimed FIX message. If the message was written after {@link #claimedMessageOffset()} it's moved
+     * back to start there. Any claimed space that the message doesn't use is turned into padding.
+     *
+     * @param messageOffset the offset within {@link #claimedMessageBuffer()} where the message was written.
+     * @param messageLength the length of the message that was written.
+     * @return the position in the stream that corresponds to the end of the claimed space, which includes any
+     * padding after this message.
+     * @throws IllegalArgumentException if the message was written before {@link #claimedMessageOffset()} or doesn't
+     *                                  fit within the claimed space, the claim is aborted if this happens.
+     * @see #claimMessage(int, int, long, long, int, long, MessageStatus, int, DirectBuffer, int)
+     */
+    public long commitMessage(final int messageOffset, final int messageLength)
+    {
+        return commitMessage(messageOffset, messageLength, NO_FIELD_OFFSET, NO_FIELD_OFFSET);
+    }
+
+    /**
+     * Commits a claimed FIX message along with the offsets of its SendingTime and PossDupFlag values, see
+     * {@link #commitMessage(int, int)}.
+     *
+     * @param messageOffset the offset within {@link #claimedMessageBuffer()} where the message was written.
+     * @param messageLength the length of the message that was written.
+     * @param sendingTimeOffset the offset of the SendingTime value from the start of the message or
+     *                          {@link #NO_FIELD_OFFSET} if it isn't known.
+     * @param possDupOffset the offset of the PossDupFlag value from the start of the message or
+     *                      {@link #NO_FIELD_OFFSET} if the message doesn't have one.
+     * @return the position in the stream that corresponds to the end of the claimed space, which includes any
+     * padding after this message.
+     * @throws IllegalArgumentException if the message was written before {@link #claimedMessageOffset()} or doesn't
+     *                                  fit within the claimed space, the claim is aborted if this happens.
+     */
+    public long commitMessage(
+        final int messageOffset, final int messageLength, final int sendingTimeOffset, final int possDupOffset)
+    {
+        final int claimedMessageOffset = this.claimedMessageOffset;
+        final UnsafeBuffer destBuffer = (UnsafeBuffer)bufferClaim.buffer();
+
+        if (messageOffset < claimedMessageOffset)
+        {
+            bufferClaim.abort();
+            throw new IllegalArgumentException(String.format(
+                "Message written at %d, before the claimed offset of %d", messageOffset, claimedMessageOffset));
+        }
+
+        // Checked explicitly as buffer bounds checks may be disabled and an overrun would make the padding negative
+        final int claimedLength = destBuffer.capacity();
+        if (messageLength < 0 || messageOffset + messageLength > claimedLength)
+        {
+            bufferClaim.abort();
+            throw new IllegalArgumentException(String.format(
+                "Message of length %d written at %d doesn't fit within the claimed length of %d",
+                messageLength,
+                messageOffset,
+                claimedLength));
+        }
+
+        if (messageOffset != claimedMessageOffset)
+        {
+            destBuffer.putBytes(claimedMessageOffset, destBuffer, messageOffset, messageLength);
+        }
+
+        putBodyLength(messageLength, claimedFixMessageOffset, claimedMetaDataLength, destBuffer);
+        putFieldOffsets(sendingTimeOffset, possDupOffset, claimedFixMessageOffset, destBuffer);
+
+        DebugLogger.log(FIX_MESSAGE_FLOW, "Enqueued ", destBuffer, claimedMessageOffset, messageLength);
+
+        // The claim is frame aligned, so the unused space after the aligned end of the message can be committed as
+        // a padding frame, which subscribers skip, leaving the message's frame with its exact length.
+        final int frameLength = claimedMessageOffset + messageLength;
+        final int paddingOffset = align(frameLength, FRAME_ALIGNMENT);
+        final int paddingLength = claimedLength - paddingOffset;
+        if (paddingLength > 0)
+        {
+            destBuffer.putBytes(paddingOffset, destBuffer, 0, DataHeaderFlyweight.HEADER_LENGTH);
+            frameType(destBuffer, paddingOffset, PADDING_FRAME_TYPE);
+            destBuffer.putInt(
+                termOffsetOffset(paddingOffset),
+                destBuffer.getInt(TERM_OFFSET, LITTLE_ENDIAN) + paddingOffset,
+                LITTLE_ENDIAN);
+            frameLengthOrdered(destBuffer, paddingOffset, paddingLength);
+        }
+
+        frameLengthOrdered(destBuffer, 0, frameLength);
+
+        // The padding frame is part of the stream, so subscribers and the archive only reach this position once
+        // they've passed it.
+        return claimedPosition;
+    }
+
+    /**
+     * Aborts a claimed FIX message, it won't be sent.
+     *
+     * @see #claimMessage(int, int, long, long, int, long, MessageStatus, int, DirectBuffer, int)
+     */
+    public void abortMessage()
+    {
+        bufferClaim.abort();
+    }
+
     private void putBodyLength(
         final int srcLength, final int offset, final int metaDataLength, final MutableDirectBuffer destBuffer)
     {
@@ -368,6 +765,18 @@ public class GatewayPublication extends ClaimablePublication
         destBuffer.putInt(position, srcLength, LITTLE_ENDIAN);
     }
 
+    private void putFieldOffsets(
+        final int sendingTimeOffset,
+        final int possDupOffset,
+        final int offset,
+        final MutableDirectBuffer destBuffer)
+    {
+        destBuffer.putInt(
+            offset + FixMessageEncoder.sendingTimeOffsetEncodingOffset(), sendingTimeOffset, LITTLE_ENDIAN);
+        destBuffer.putInt(
+            offset + FixMessageEncoder.possDupOffsetEncodingOffset(), possDupOffset, LITTLE_ENDIAN);
+    }
+
     public long saveManageSession(
         final int libraryId,
         final long connection,
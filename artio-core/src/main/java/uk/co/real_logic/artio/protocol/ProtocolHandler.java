@@ -32,6 +32,7 @@ public interface ProtocolHandler
         int sequenceIndex,
         long messageType,
         long timestamp,
+        long publishedTimestamp,
         MessageStatus status,
         int sequenceNumber,
         long position,
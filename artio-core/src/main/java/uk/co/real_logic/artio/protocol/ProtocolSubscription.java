@@ -155,6 +155,7 @@ public final class ProtocolSubscription implements ControlledFragmentHandler
             messageFrame.sequenceIndex(),
             messageType,
             messageFrame.timestamp(),
+            messageFrame.publishedTimestamp(),
             messageFrame.status(),
             messageFrame.sequenceNumber(),
             position,
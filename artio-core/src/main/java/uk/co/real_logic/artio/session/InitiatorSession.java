@@ -89,6 +89,11 @@ public class InitiatorSession extends InternalSession
         return null;
     }
 
+    public long nextPollTimeInMs()
+    {
+        return state() == SessionState.CONNECTED && id() != UNKNOWN ? 0 : super.nextPollTimeInMs();
+    }
+
     public int poll(final long time)
     {
         int actions = 0;
@@ -39,6 +39,11 @@ public class InternalSession extends Session implements AutoCloseable
     public static final int INITIAL_END_OF_RESEND_REQUEST_RANGE = 0;
     public static final boolean INITIAL_AWAITING_HEARTBEAT = false;
 
+    public static final long NO_POLL_TIMER = -1;
+
+    private SessionPollTimeListener pollTimeListener;
+    private long pollTimerId = NO_POLL_TIMER;
+
     public InternalSession(
         final int heartbeatIntervalInS,
         final long connectionId,
@@ -91,6 +96,35 @@ public class InternalSession extends Session implements AutoCloseable
         return super.poll(time);
     }
 
+    public long nextPollTimeInMs()
+    {
+        return super.nextPollTimeInMs();
+    }
+
+    public void pollTimeListener(final SessionPollTimeListener pollTimeListener)
+    {
+        this.pollTimeListener = pollTimeListener;
+    }
+
+    void onPollTimeChanged()
+    {
+        final SessionPollTimeListener pollTimeListener = this.pollTimeListener;
+        if (pollTimeListener != null)
+        {
+            pollTimeListener.onPollTimeChanged(this);
+        }
+    }
+
+    public long pollTimerId()
+    {
+        return pollTimerId;
+    }
+
+    public void pollTimerId(final long pollTimerId)
+    {
+        this.pollTimerId = pollTimerId;
+    }
+
     public void disable()
     {
         super.disable();
@@ -60,6 +60,7 @@ import static uk.co.real_logic.artio.library.SessionConfiguration.NO_RESEND_REQU
 import static uk.co.real_logic.artio.messages.DisconnectReason.*;
 import static uk.co.real_logic.artio.messages.MessageStatus.OK;
 import static uk.co.real_logic.artio.messages.SessionState.*;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.NO_FIELD_OFFSET;
 import static uk.co.real_logic.artio.session.DirectSessionProxy.NO_LAST_MSG_SEQ_NUM_PROCESSED;
 import static uk.co.real_logic.artio.session.InternalSession.*;
 
@@ -72,6 +73,7 @@ public class Session
 {
     public static final int UNKNOWN = -1;
     public static final long UNKNOWN_TIME = -1;
+    public static final long NO_POLL_REQUIRED = Long.MAX_VALUE;
 
     static final short ACTIVE_VALUE = 3;
     static final short LOGGING_OUT_VALUE = 5;
@@ -94,6 +96,11 @@ public class Session
     private static final char[] TEST_REQ_ID_CHARS = TEST_REQ_ID.toCharArray();
     private static final int NO_LOGOUT_REJECT_REASON = -1;
 
+    /**
+     * The number of bytes that generated encoders reserve before a message's body for the BodyLength field's value.
+     */
+    private static final int RESERVED_BODY_LENGTH_DIGITS = 10;
+
     private final UtcTimestampEncoder timestampEncoder;
 
     protected final SessionIdStrategy sessionIdStrategy;
@@ -161,6 +168,13 @@ public class Session
     private int logoutRejectReason = NO_LOGOUT_REJECT_REASON;
     private FixDictionary fixDictionary;
 
+    // State of a message that has been claimed by tryClaim()
+    private int claimedSeqNum;
+    private int claimedMessageOffset;
+    private int claimedMessageLength;
+    private int claimedSendingTimeOffset;
+    private int claimedPossDupOffset;
+
     public Session(
         final int heartbeatIntervalInS,
         final long connectionId,
@@ -559,14 +573,150 @@ public class Session
     {
         validateCanSendMessage();
 
-        final int sentSeqNum = prepare(encoder.header());
+        final SessionHeaderEncoder header = encoder.header();
+        final int sentSeqNum = prepare(header);
 
         final long result = encoder.encode(asciiBuffer, 0);
         final int length = Encoder.length(result);
         final int offset = Encoder.offset(result);
         final long type = encoder.messageType();
 
-        return trySend(asciiBuffer, offset, length, sentSeqNum, type, metaDataBuffer, metaDataUpdateOffset);
+        return trySend(
+            asciiBuffer,
+            offset,
+            length,
+            sentSeqNum,
+            type,
+            metaDataBuffer,
+            metaDataUpdateOffset,
+            fieldOffset(header.sendingTimeValueOffset(), offset),
+            fieldOffset(header.possDupFlagValueOffset(), offset));
+    }
+
+    /**
+     * Tries to claim space for a message on this session and encodes the message directly into the in memory log
+     * buffer, rather than encoding it into the session's buffer and then copying it into the log buffer. If this
+     * method returns successfully then the {@link #commit()} method should be used to commit the message. See
+     * {{@link #trySend(Encoder)}} for scenarios where this could fail.
+     *
+     * The space claimed is based upon maxMessageLength rather than the encoded length of the message, any unused
+     * space is released as padding in the log buffer when the message is committed, so maxMessageLength should be a
+     * close upper bound of the message's length.
+     *
+     * @param encoder          the encoder of the message to be sent
+     * @param maxMessageLength the maximum length of the encoded message, including its header and trailer.
+     * @return the position in the stream that corresponds to the end of the claimed space or a negative
+     * number indicating an error status.
+     * @throws IndexOutOfBoundsException if the encoded message is longer than maxMessageLength, the claim is aborted
+     *                                   if this happens.
+     * @throws IllegalArgumentException if maxMessageLength is too large for the message to be claimed in a single
+     *                                  fragment, use {@link #trySend(Encoder)} to send larger messages.
+     * @throws NotConnectedException if the underlying Publication to the FixEngine has been closed or its max position
+     *                               exceeded.
+     * @see #tryClaim(Encoder, int, DirectBuffer, int)
+     */
+    public long tryClaim(final Encoder encoder, final int maxMessageLength)
+    {
+        return tryClaim(encoder, maxMessageLength, null, 0);
+    }
+
+    /**
+     * Tries to claim space for a message on this session and encodes the message directly into the in memory log
+     * buffer. See {{@link #tryClaim(Encoder, int)}} for details.
+     *
+     * @param encoder              the encoder of the message to be sent
+     * @param maxMessageLength     the maximum length of the encoded message, including its header and trailer.
+     * @param metaDataBuffer       the metadata to associate with this message.
+     * @param metaDataUpdateOffset the offset within the session's metadata buffer.
+     * @return the position in the stream that corresponds to the end of the claimed space or a negative
+     * number indicating an error status.
+     * @see #tryClaim(Encoder, int)
+     * @see uk.co.real_logic.artio.library.FixLibrary#writeMetaData(long, int, DirectBuffer, int, int)
+     */
+    public long tryClaim(
+        final Encoder encoder,
+        final int maxMessageLength,
+        final DirectBuffer metaDataBuffer,
+        final int metaDataUpdateOffset)
+    {
+        validateCanSendMessage();
+
+        final SessionHeaderEncoder header = encoder.header();
+        final int sentSeqNum = prepare(header);
+
+        // Encoders reserve space for the BodyLength field's value before the body and then write the BeginString
+        // and BodyLength fields backwards from the body, so the message only starts at the claimed offset if the
+        // BodyLength has as many digits as we've allowed for. Any difference is removed on commit.
+        final int bodyLengthDigits = MutableAsciiBuffer.lengthInAscii(maxMessageLength);
+        final GatewayPublication outboundPublication = this.outboundPublication;
+        final long position = outboundPublication.claimMessage(
+            maxMessageLength + bodyLengthDigits - 1, libraryId, encoder.messageType(), id(), sequenceIndex(),
+            connectionId, OK, sentSeqNum, metaDataBuffer, metaDataUpdateOffset);
+
+        if (position > 0)
+        {
+            final int encodeOffset =
+                outboundPublication.claimedMessageOffset() - RESERVED_BODY_LENGTH_DIGITS + bodyLengthDigits;
+
+            try
+            {
+                final long result = encoder.encode(outboundPublication.claimedMessageBuffer(), encodeOffset);
+                final int messageOffset = Encoder.offset(result);
+                claimedMessageOffset = messageOffset;
+                claimedMessageLength = Encoder.length(result);
+                claimedSendingTimeOffset = fieldOffset(header.sendingTimeValueOffset(), messageOffset);
+                claimedPossDupOffset = fieldOffset(header.possDupFlagValueOffset(), messageOffset);
+            }
+            catch (final RuntimeException e)
+            {
+                outboundPublication.abortMessage();
+                throw e;
+            }
+
+            claimedSeqNum = sentSeqNum;
+        }
+
+        return position;
+    }
+
+    /**
+     * Commit a message that has been claimed. Do not overlap sending other messages or polling the FixLibrary
+     * with claiming and committing your own message - just claim and commit it immediately.
+     *
+     * @throws IllegalArgumentException if the encoded message doesn't fit within the claimed space, the claim is
+     *                                  aborted if this happens.
+     * @see #tryClaim(Encoder, int)
+     * @see #tryClaim(Encoder, int, DirectBuffer, int)
+     * @see #abort()
+     */
+    public void commit()
+    {
+        final GatewayPublication outboundPublication = this.outboundPublication;
+        final int claimedMessageOffset = this.claimedMessageOffset;
+        final int claimedMessageLength = this.claimedMessageLength;
+
+        DebugLogger.log(
+            FIX_MESSAGE,
+            "Sent ",
+            outboundPublication.claimedMessageBuffer(),
+            claimedMessageOffset,
+            claimedMessageLength);
+
+        final long position = outboundPublication.commitMessage(
+            claimedMessageOffset, claimedMessageLength, claimedSendingTimeOffset, claimedPossDupOffset);
+        lastSentMsgSeqNum(claimedSeqNum, position);
+    }
+
+    /**
+     * Abort a message that has been claimed, it won't be sent and the sent sequence number isn't incremented.
+     *
+     * @see #tryClaim(Encoder, int)
+     * @see #tryClaim(Encoder, int, DirectBuffer, int)
+     * @see #commit()
+     */
+    public void abort()
+    {
+        outboundPublication.abortMessage();
     }
 
     /**
@@ -646,12 +796,35 @@ public class Session
         final long messageType,
         final DirectBuffer metaDataBuffer,
         final int metaDataUpdateOffset)
+    {
+        return trySend(
+            messageBuffer,
+            offset,
+            length,
+            seqNum,
+            messageType,
+            metaDataBuffer,
+            metaDataUpdateOffset,
+            NO_FIELD_OFFSET,
+            NO_FIELD_OFFSET);
+    }
+
+    private long trySend(
+        final DirectBuffer messageBuffer,
+        final int offset,
+        final int length,
+        final int seqNum,
+        final long messageType,
+        final DirectBuffer metaDataBuffer,
+        final int metaDataUpdateOffset,
+        final int sendingTimeOffset,
+        final int possDupOffset)
     {
         validateCanSendMessage();
 
         final long position = outboundPublication.saveMessage(
             messageBuffer, offset, length, libraryId, messageType, id(), sequenceIndex(), connectionId, OK, seqNum,
-            metaDataBuffer, metaDataUpdateOffset);
+            metaDataBuffer, metaDataUpdateOffset, sendingTimeOffset, possDupOffset);
 
         if (position > 0)
         {
@@ -688,6 +861,12 @@ public class Session
         return trySend(messageBuffer, offset, length, seqNum, messageType, metaDataBuffer, metaDataUpdateOffset);
     }
 
+    // Converts an offset within the encoding buffer into one relative to the start of the message.
+    private static int fieldOffset(final int valueOffset, final int messageOffset)
+    {
+        return valueOffset > messageOffset ? valueOffset - messageOffset : NO_FIELD_OFFSET;
+    }
+
     /**
      * Check if the session is in a state where it can send a message.
      * <p>
@@ -1824,17 +2003,26 @@ public class Session
         incNextReceivedInboundMessageTime(time);
         sendingHeartbeatIntervalInMs = (long)(heartbeatIntervalInMs * HEARTBEAT_PAUSE_FACTOR);
         nextRequiredHeartbeatTimeInMs = time + sendingHeartbeatIntervalInMs;
+        onPollTimeChanged();
     }
 
     protected Session state(final SessionState state)
     {
         this.state = state;
+        onPollTimeChanged();
         return this;
     }
 
     void id(final long id)
     {
         this.id = id;
+        onPollTimeChanged();
+    }
+
+    // Called when the session's nextPollTimeInMs() might have moved earlier, deadlines that only ever get later,
+    // such as sending a message, don't call this.
+    void onPollTimeChanged()
+    {
     }
 
     protected long time()
@@ -1936,6 +2124,37 @@ public class Session
         close();
     }
 
+    /**
+     * Gets the earliest time at which {@link #poll(long)} might need to do some work given the session's current
+     * state. A session doesn't need to be polled before this time unless its state changes.
+     *
+     * @return the earliest time at which the session needs to be polled, 0 if it needs to be polled immediately
+     * or {@link #NO_POLL_REQUIRED} if it doesn't need to be polled until its state changes.
+     */
+    long nextPollTimeInMs()
+    {
+        switch (state().value())
+        {
+            case DISCONNECTING_VALUE:
+            case LOGGING_OUT_VALUE:
+            case LOGGING_OUT_AND_DISCONNECTING_VALUE:
+                return 0;
+
+            case AWAITING_LOGOUT_VALUE:
+                return awaitingLogoutTimeoutInMs + 1;
+
+            case DISCONNECTED_VALUE:
+            case DISABLED_VALUE:
+                return NO_POLL_REQUIRED;
+
+            case ACTIVE_VALUE:
+                return Math.min(nextRequiredHeartbeatTimeInMs, nextRequiredInboundMessageTimeInMs);
+
+            default:
+                return nextRequiredInboundMessageTimeInMs;
+        }
+    }
+
     int poll(final long time)
     {
         final short state = state().value();
@@ -16,22 +16,38 @@
 package uk.co.real_logic.artio.timing;
 
 import org.agrona.concurrent.EpochNanoClock;
-import org.agrona.concurrent.status.AtomicCounter;
+import uk.co.real_logic.artio.FixCounters;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
 
+import static uk.co.real_logic.artio.CommonConfiguration.TIMING_SESSION_GROUPS;
+
 public class EngineTimers
 {
+    private final Timer readTimer;
     private final Timer outboundTimer;
     private final Timer sendTimer;
-    private final List<Timer> timers;
+    private final List<Timer> timers = new ArrayList<>();
+
+    public EngineTimers(final EpochNanoClock clock, final FixCounters fixCounters)
+    {
+        outboundTimer = new Timer(clock, "Outbound", 1, fixCounters, TIMING_SESSION_GROUPS);
+        sendTimer = new Timer(clock, "Send", 2, fixCounters, TIMING_SESSION_GROUPS);
+        readTimer = new Timer(clock, "Read", 3, fixCounters, TIMING_SESSION_GROUPS);
+        outboundTimer.addTo(timers);
+        sendTimer.addTo(timers);
+        readTimer.addTo(timers);
+    }
 
-    public EngineTimers(final EpochNanoClock clock, final AtomicCounter negativeTimestamps)
+    /**
+     * Times from a message being read from a TCP connection until it has been published to the libraries.
+     *
+     * @return the timer.
+     */
+    public Timer readTimer()
     {
-        outboundTimer = new Timer(clock, "Outbound", 1, negativeTimestamps);
-        sendTimer = new Timer(clock, "Send", 2, negativeTimestamps);
-        timers = Arrays.asList(outboundTimer, sendTimer);
+        return readTimer;
     }
 
     public Timer outboundTimer()
@@ -33,6 +33,7 @@ import static java.nio.file.StandardOpenOption.*;
 class HistogramLogWriter implements HistogramHandler
 {
     private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final int BUFFER_SIZE_PER_TIMER = 64 * 1024;
 
     private final FileChannel logFile;
     private final ByteBuffer buffer;
@@ -41,7 +42,7 @@ class HistogramLogWriter implements HistogramHandler
     HistogramLogWriter(final int numberOfTimers, final String logFile, final ErrorHandler errorHandler)
     {
         this.errorHandler = errorHandler;
-        buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        buffer = ByteBuffer.allocateDirect(Math.max(BUFFER_SIZE, numberOfTimers * BUFFER_SIZE_PER_TIMER));
         buffer.putInt(numberOfTimers);
         this.logFile = open(logFile);
     }
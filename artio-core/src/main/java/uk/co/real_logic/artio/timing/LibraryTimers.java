@@ -17,21 +17,38 @@ package uk.co.real_logic.artio.timing;
 
 import org.agrona.concurrent.EpochNanoClock;
 import org.agrona.concurrent.status.AtomicCounter;
+import uk.co.real_logic.artio.FixCounters;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import static uk.co.real_logic.artio.CommonConfiguration.TIMING_SESSION_GROUPS;
+
 public class LibraryTimers
 {
     private final Timer sessionTimer;
     private final Timer receiveTimer;
+    private final Timer deliveryTimer;
     private final List<Timer> timers;
 
     public LibraryTimers(final EpochNanoClock clock, final AtomicCounter negativeTimestamps)
     {
         sessionTimer = new Timer(clock, "Session", -1, negativeTimestamps);
         receiveTimer = new Timer(clock, "Receive", -2, negativeTimestamps);
-        timers = Arrays.asList(sessionTimer, receiveTimer);
+        deliveryTimer = new Timer(clock, "Delivery", -3, negativeTimestamps);
+        timers = Arrays.asList(sessionTimer, receiveTimer, deliveryTimer);
+    }
+
+    public LibraryTimers(final EpochNanoClock clock, final FixCounters fixCounters)
+    {
+        sessionTimer = new Timer(clock, "Session", -1, fixCounters, TIMING_SESSION_GROUPS);
+        receiveTimer = new Timer(clock, "Receive", -2, fixCounters, TIMING_SESSION_GROUPS);
+        deliveryTimer = new Timer(clock, "Delivery", -3, fixCounters, TIMING_SESSION_GROUPS);
+        timers = new ArrayList<>();
+        sessionTimer.addTo(timers);
+        receiveTimer.addTo(timers);
+        deliveryTimer.addTo(timers);
     }
 
     public Timer sessionTimer()
@@ -39,11 +56,26 @@ public class LibraryTimers
         return sessionTimer;
     }
 
+    /**
+     * Times from a message being read from a TCP connection by the engine until the library's onMessage is called.
+     *
+     * @return the timer.
+     */
     public Timer receiveTimer()
     {
         return receiveTimer;
     }
 
+    /**
+     * Times from a message being published to the libraries by the engine until the library's onMessage is called.
+     *
+     * @return the timer.
+     */
+    public Timer deliveryTimer()
+    {
+        return deliveryTimer;
+    }
+
     public List<Timer> all()
     {
         return timers;
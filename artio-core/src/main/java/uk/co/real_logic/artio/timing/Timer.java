@@ -19,12 +19,19 @@ import org.HdrHistogram.Histogram;
 import org.HdrHistogram.SingleWriterRecorder;
 import org.agrona.concurrent.EpochNanoClock;
 import org.agrona.concurrent.status.AtomicCounter;
+import uk.co.real_logic.artio.FixCounters;
+
+import java.util.List;
 
 import static uk.co.real_logic.artio.CommonConfiguration.TIME_MESSAGES;
 
 public class Timer
 {
+    static final int MAX_SESSION_GROUPS = 999;
+
     private static final int NUMBER_OF_SIGNIFICANT_VALUE_DIGITS = 3;
+    private static final int SESSION_GROUP_ID_MULTIPLIER = MAX_SESSION_GROUPS + 1;
+    private static final Timer[] NO_SESSION_GROUP_TIMERS = new Timer[0];
 
     // Only written to on recording thread
     private final SingleWriterRecorder recorder = new SingleWriterRecorder(NUMBER_OF_SIGNIFICANT_VALUE_DIGITS);
@@ -33,15 +40,84 @@ public class Timer
     private final EpochNanoClock clock;
     private final int id;
     private final String name;
+    private final Timer[] sessionGroupTimers;
+    // Only set for session group timers, the max latency of the most recently logged interval.
+    private final AtomicCounter maxLatency;
     // Only accessed upon logging thread
     private Histogram histogram;
 
     public Timer(final EpochNanoClock clock, final String name, final int id, final AtomicCounter negativeTimestamps)
+    {
+        this(clock, name, id, negativeTimestamps, NO_SESSION_GROUP_TIMERS, null);
+    }
+
+    /**
+     * Creates a timer that also records each value into the timer for the group of the session that it was recorded
+     * for, when using {@link #recordSince(long, long)}.
+     *
+     * @param clock the clock to record the end of an interval with.
+     * @param name the name of the timer in the histogram log.
+     * @param id the id of the timer in the histogram log, session group timers are given ids derived from it.
+     * @param fixCounters the counters to allocate the negative timestamps counter and max latency counters from.
+     * @param sessionGroupCount the number of session groups, can be 0.
+     */
+    public Timer(
+        final EpochNanoClock clock,
+        final String name,
+        final int id,
+        final FixCounters fixCounters,
+        final int sessionGroupCount)
+    {
+        this(clock, name, id, fixCounters.negativeTimestamps(),
+            sessionGroupTimers(clock, name, id, fixCounters, sessionGroupCount), null);
+    }
+
+    private Timer(
+        final EpochNanoClock clock,
+        final String name,
+        final int id,
+        final AtomicCounter negativeTimestamps,
+        final Timer[] sessionGroupTimers,
+        final AtomicCounter maxLatency)
     {
         this.clock = clock;
         this.name = name;
         this.id = id;
         this.negativeTimestamps = negativeTimestamps;
+        this.sessionGroupTimers = sessionGroupTimers;
+        this.maxLatency = maxLatency;
+    }
+
+    private static Timer[] sessionGroupTimers(
+        final EpochNanoClock clock,
+        final String name,
+        final int id,
+        final FixCounters fixCounters,
+        final int sessionGroupCount)
+    {
+        if (sessionGroupCount < 0 || sessionGroupCount > MAX_SESSION_GROUPS)
+        {
+            throw new IllegalArgumentException(
+                "The number of session groups must be between 0 and " + MAX_SESSION_GROUPS + " but was " +
+                sessionGroupCount);
+        }
+
+        final Timer[] sessionGroupTimers = new Timer[sessionGroupCount];
+        for (int i = 0; i < sessionGroupCount; i++)
+        {
+            // Ids keep the sign of the overall timer's id so engine and library timers never collide
+            final int groupId = id * SESSION_GROUP_ID_MULTIPLIER + Integer.signum(id) * (i + 1);
+            final String groupName = name + " session group " + i;
+            sessionGroupTimers[i] = new Timer(
+                clock,
+                groupName,
+                groupId,
+                fixCounters.negativeTimestamps(),
+                NO_SESSION_GROUP_TIMERS,
+                fixCounters.timerMaxLatency(groupName));
+        }
+
+        return sessionGroupTimers;
     }
 
     public long recordSince(final long timestamp)
@@ -57,6 +133,25 @@ public class Timer
         return 0;
     }
 
+    /**
+     * Records the time since a timestamp for both all sessions and the group of the given session.
+     *
+     * @param sessionId the id of the session that the interval was for.
+     * @param timestamp the start of the interval, in nanoseconds.
+     * @return the end of the interval, or 0 if message timing is disabled.
+     */
+    public long recordSince(final long sessionId, final long timestamp)
+    {
+        if (TIME_MESSAGES)
+        {
+            final long time = clock.nanoTime();
+            recordValue(sessionId, time - timestamp);
+            return time;
+        }
+
+        return 0;
+    }
+
     void recordValue(final long duration)
     {
         if (duration > 0)
@@ -69,6 +164,27 @@ public class Timer
         }
     }
 
+    void recordValue(final long sessionId, final long duration)
+    {
+        recordValue(duration);
+
+        final Timer[] sessionGroupTimers = this.sessionGroupTimers;
+        final int sessionGroupCount = sessionGroupTimers.length;
+        if (sessionGroupCount > 0 && duration > 0)
+        {
+            sessionGroupTimers[(int)Math.floorMod(sessionId, (long)sessionGroupCount)].recorder.recordValue(duration);
+        }
+    }
+
+    void addTo(final List<Timer> timers)
+    {
+        timers.add(this);
+        for (final Timer sessionGroupTimer : sessionGroupTimers)
+        {
+            timers.add(sessionGroupTimer);
+        }
+    }
+
     int id()
     {
         return id;
@@ -82,6 +198,12 @@ public class Timer
     Histogram getTimings()
     {
         histogram = recorder.getIntervalHistogram(histogram);
+
+        if (maxLatency != null)
+        {
+            maxLatency.setOrdered(histogram.getMaxValue());
+        }
+
         return histogram;
     }
 }
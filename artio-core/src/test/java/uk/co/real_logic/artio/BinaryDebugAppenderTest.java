@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.AbstractDebugAppender.ThreadLocalAppender;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertEquals;
+
+public class BinaryDebugAppenderTest
+{
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String NEW_LINE = System.lineSeparator();
+    private static final String MESSAGE = "Received 8=FIX.4.4\0019=5\00135=0\00110=000\001" + NEW_LINE;
+
+    private File file;
+    private BinaryDebugAppender appender;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        file = File.createTempFile("artio-debug", ".bin");
+        appender = new BinaryDebugAppender(file, BUFFER_SIZE);
+    }
+
+    @After
+    public void tearDown()
+    {
+        appender.close();
+        file.delete();
+    }
+
+    @Test
+    public void shouldDecodeLoggedLinesIntoPrintedFormat() throws IOException
+    {
+        final ThreadLocalAppender localAppender = appender.makeLocalAppender();
+
+        localAppender.log(LogTag.FIX_MESSAGE, new StringBuilder(MESSAGE));
+        localAppender.log(LogTag.FIX_CONNECTION, new StringBuilder("Disconnected" + NEW_LINE));
+
+        final String[] lines = decode().split(NEW_LINE);
+        assertEquals(2, lines.length);
+        final String threadName = Thread.currentThread().getName();
+        assertLine(lines[0], threadName, "[FIX_MESSAGE]" + MESSAGE);
+        assertLine(lines[1], threadName, "[FIX_CONNECTION]Disconnected" + NEW_LINE);
+    }
+
+    @Test
+    public void shouldDecodeLinesLoggedFromDifferentThreads() throws Exception
+    {
+        final Thread thread = new Thread(
+            () -> appender.makeLocalAppender().log(LogTag.FIX_MESSAGE, new StringBuilder(MESSAGE)),
+            "other-thread");
+        thread.start();
+        thread.join();
+
+        appender.makeLocalAppender().log(LogTag.FIX_MESSAGE, new StringBuilder(MESSAGE));
+
+        final String[] lines = decode().split(NEW_LINE);
+        assertEquals(2, lines.length);
+        assertLine(lines[0], "other-thread", "[FIX_MESSAGE]" + MESSAGE);
+        assertLine(lines[1], Thread.currentThread().getName(), "[FIX_MESSAGE]" + MESSAGE);
+    }
+
+    private void assertLine(final String line, final String threadName, final String taggedMessage)
+    {
+        final int timestampEnd = line.indexOf(':');
+        assertThat(Long.parseLong(line.substring(0, timestampEnd)), greaterThan(0L));
+        assertEquals(threadName + taggedMessage, line.substring(timestampEnd + 1) + NEW_LINE);
+    }
+
+    private String decode() throws IOException
+    {
+        appender.close();
+
+        final StringWriter output = new StringWriter();
+        try (InputStream input = new FileInputStream(file))
+        {
+            BinaryDebugLogDecoder.decode(input, output);
+        }
+        return output.toString();
+    }
+}
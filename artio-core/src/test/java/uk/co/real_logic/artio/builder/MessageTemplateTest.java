@@ -0,0 +1,101 @@
+/*
+ * Copyright 2015-2020 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.builder;
+
+import org.junit.Test;
+import uk.co.real_logic.artio.EncodingException;
+import uk.co.real_logic.artio.fields.UtcTimestampEncoder;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import static org.junit.Assert.assertEquals;
+
+public class MessageTemplateTest
+{
+    private static final int MSG_SEQ_NUM = 34;
+    private static final int SENDING_TIME = 52;
+    private static final int TEST_REQ_ID = 112;
+
+    private final UtcTimestampEncoder timestampEncoder = new UtcTimestampEncoder();
+    private final TestRequestEncoder testRequest = new TestRequestEncoder();
+    private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[8 * 1024]);
+    private final MutableAsciiBuffer expectedBuffer = new MutableAsciiBuffer(new byte[8 * 1024]);
+
+    {
+        testRequest
+            .header()
+            .senderCompID("sender")
+            .targetCompID("target");
+    }
+
+    @Test
+    public void shouldEncodeTheSameMessageAsTheEncoder()
+    {
+        setVariableFields(1, 1_000L, "first");
+        final MessageTemplate template = new MessageTemplate(testRequest, MSG_SEQ_NUM, SENDING_TIME, TEST_REQ_ID);
+
+        assertEquals(MSG_SEQ_NUM, template.variableTag(0));
+        assertEquals(SENDING_TIME, template.variableTag(1));
+        assertEquals(TEST_REQ_ID, template.variableTag(2));
+
+        assertEncodesSameMessage(template, 2, 2_000L, "second");
+        assertEncodesSameMessage(template, 1234, 123_456_789L, "a longer test req id");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectMissingVariableField()
+    {
+        setVariableFields(1, 1_000L, "first");
+
+        new MessageTemplate(testRequest, MSG_SEQ_NUM, 55);
+    }
+
+    @Test(expected = EncodingException.class)
+    public void shouldRejectMessageWithoutEveryVariableField()
+    {
+        setVariableFields(1, 1_000L, "first");
+        final MessageTemplate template = new MessageTemplate(testRequest, MSG_SEQ_NUM, TEST_REQ_ID);
+
+        template.wrap(buffer, 0).putInt(2).finish();
+    }
+
+    private void assertEncodesSameMessage(
+        final MessageTemplate template, final int msgSeqNum, final long sendingTime, final String testReqId)
+    {
+        setVariableFields(msgSeqNum, sendingTime, testReqId);
+        final long expectedResult = testRequest.encode(expectedBuffer, 0);
+        final String expected = expectedBuffer.getAscii(Encoder.offset(expectedResult), Encoder.length(expectedResult));
+
+        final int sendingTimeLength = timestampEncoder.encode(sendingTime);
+        final long result = template
+            .wrap(buffer, 100)
+            .putInt(msgSeqNum)
+            .putBytes(timestampEncoder.buffer(), sendingTimeLength)
+            .putAscii(testReqId)
+            .finish();
+
+        assertEquals(expected, buffer.getAscii(Encoder.offset(result), Encoder.length(result)));
+    }
+
+    private void setVariableFields(final int msgSeqNum, final long sendingTime, final String testReqId)
+    {
+        final int sendingTimeLength = timestampEncoder.encode(sendingTime);
+        testRequest
+            .testReqID(testReqId)
+            .header()
+            .msgSeqNum(msgSeqNum)
+            .sendingTime(timestampEncoder.buffer(), sendingTimeLength);
+    }
+}
@@ -4,9 +4,11 @@ import org.agrona.concurrent.UnsafeBuffer;
 import org.junit.Test;
 import uk.co.real_logic.artio.dictionary.LongDictionary;
 import uk.co.real_logic.artio.otf.OtfParser;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
 import static java.nio.charset.StandardCharsets.US_ASCII;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static uk.co.real_logic.artio.engine.logger.ReplayerTest.MESSAGE_REQUIRING_LONGER_BODY_LENGTH;
 
 public class PossDupFinderTest
@@ -44,4 +46,47 @@ public class PossDupFinderTest
         assertEquals(12, possDupFinder.bodyLengthOffset());
         assertEquals(2, possDupFinder.lengthOfBodyLength());
     }
+
+    @Test
+    public void shouldFindSameFieldsFromRecordedOffsetsAsParsing()
+    {
+        final int messageOffset = FIRST_MESSAGE.length;
+        buffer.putBytes(0, FIRST_MESSAGE);
+        buffer.putBytes(messageOffset, SECOND_MESSAGE);
+        final String message = new String(SECOND_MESSAGE, US_ASCII);
+        final int sendingTimeOffset = message.indexOf("52=") + 3;
+        final int possDupOffset = message.indexOf("43=") + 3;
+
+        parser.onMessage(buffer, messageOffset, SECOND_MESSAGE.length);
+        final int parsedPossDupOffset = possDupFinder.possDupOffset();
+        final int parsedSendingTimeOffset = possDupFinder.sendingTimeOffset();
+        final int parsedSendingTimeLength = possDupFinder.sendingTimeLength();
+        final int parsedBodyLength = possDupFinder.bodyLength();
+        final int parsedBodyLengthOffset = possDupFinder.bodyLengthOffset();
+        final int parsedLengthOfBodyLength = possDupFinder.lengthOfBodyLength();
+
+        assertTrue(possDupFinder.onRecordedOffsets(
+            new MutableAsciiBuffer(buffer), messageOffset, SECOND_MESSAGE.length, sendingTimeOffset, possDupOffset));
+
+        assertEquals(parsedPossDupOffset, possDupFinder.possDupOffset());
+        assertEquals(parsedSendingTimeOffset, possDupFinder.sendingTimeOffset());
+        assertEquals(parsedSendingTimeLength, possDupFinder.sendingTimeLength());
+        assertEquals(parsedBodyLength, possDupFinder.bodyLength());
+        assertEquals(parsedBodyLengthOffset, possDupFinder.bodyLengthOffset());
+        assertEquals(parsedLengthOfBodyLength, possDupFinder.lengthOfBodyLength());
+    }
+
+    @Test
+    public void shouldNotFindPossDupFromRecordedOffsetsWhenNotRecorded()
+    {
+        buffer.putBytes(0, FIRST_MESSAGE);
+        final int sendingTimeOffset = new String(FIRST_MESSAGE, US_ASCII).indexOf("52=") + 3;
+
+        assertTrue(possDupFinder.onRecordedOffsets(
+            new MutableAsciiBuffer(buffer), 0, FIRST_MESSAGE.length, sendingTimeOffset, 0));
+
+        assertEquals(PossDupFinder.NO_ENTRY, possDupFinder.possDupOffset());
+        assertEquals(sendingTimeOffset, possDupFinder.sendingTimeOffset());
+        assertEquals("20161206-11:04:51.461".length(), possDupFinder.sendingTimeLength());
+    }
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine;
+
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.BusySpinIdleStrategy;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.mockito.Mockito.*;
+import static uk.co.real_logic.artio.Timing.assertEventuallyTrue;
+
+public class ShardedFramerEngineSchedulerTest
+{
+    private final Agent framer = mock(Agent.class);
+    private final Agent shard0 = mock(Agent.class);
+    private final Agent shard1 = mock(Agent.class);
+    private final Agent archivingAgent = mock(Agent.class);
+    private final Agent monitoringAgent = mock(Agent.class);
+    private final EngineConfiguration configuration = mock(EngineConfiguration.class);
+    private final Agent conductorAgent = mock(Agent.class);
+    private final ErrorHandler mockErrorHandler = mock(ErrorHandler.class);
+    private final RecordingCoordinator recordingCoordinator = mock(RecordingCoordinator.class);
+
+    @Before
+    public void setUp()
+    {
+        when(configuration.framerIdleStrategy()).thenReturn(new BusySpinIdleStrategy());
+        when(configuration.archiverIdleStrategy()).thenReturn(new BusySpinIdleStrategy());
+        when(configuration.monitoringThreadIdleStrategy()).thenReturn(new BusySpinIdleStrategy());
+        when(configuration.threadFactory()).thenReturn(Thread::new);
+
+        when(framer.roleName()).thenReturn("framer");
+        when(shard0.roleName()).thenReturn("shard0");
+        when(shard1.roleName()).thenReturn("shard1");
+        when(archivingAgent.roleName()).thenReturn("archiver");
+        when(monitoringAgent.roleName()).thenReturn("monitoring");
+    }
+
+    @Test
+    public void shouldRunAndCloseShardsOnTheirOwnThreads() throws Exception
+    {
+        try (EngineScheduler scheduler = new ShardedFramerEngineScheduler(BusySpinIdleStrategy::new))
+        {
+            scheduler.launch(
+                configuration,
+                mockErrorHandler,
+                framer,
+                Arrays.asList(shard0, shard1),
+                archivingAgent,
+                monitoringAgent,
+                conductorAgent,
+                recordingCoordinator);
+
+            assertEventuallyTrue(
+                "Failed to invoke framer shards",
+                () ->
+                {
+                    verify(framer, atLeastOnce()).doWork();
+                    verify(shard0, atLeastOnce()).doWork();
+                    verify(shard1, atLeastOnce()).doWork();
+                });
+        }
+
+        verify(framer).onClose();
+        verify(shard0).onClose();
+        verify(shard1).onClose();
+        verify(recordingCoordinator).close();
+        verifyNoInteractions(mockErrorHandler);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2015-2020 Real Logic Limited, Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.*;
+
+public class AuthenticationExecutorTest
+{
+    private final AtomicCounter pendingAuthentications = mock(AtomicCounter.class);
+    private final AtomicCounter rejectedAuthentications = mock(AtomicCounter.class);
+    private final AuthenticationExecutor executor = new AuthenticationExecutor(
+        1, 1, "", pendingAuthentications, rejectedAuthentications);
+
+    @After
+    public void close()
+    {
+        executor.close();
+    }
+
+    @Test
+    public void shouldRunAuthenticationsOnPool() throws InterruptedException
+    {
+        final CountDownLatch authenticated = new CountDownLatch(1);
+
+        assertTrue(executor.execute(authenticated::countDown));
+
+        assertTrue(authenticated.await(10, TimeUnit.SECONDS));
+        verify(rejectedAuthentications, never()).increment();
+    }
+
+    @Test
+    public void shouldRejectAuthenticationsWhenQueueIsFull() throws InterruptedException
+    {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        assertTrue(executor.execute(() ->
+        {
+            started.countDown();
+            awaitUninterruptibly(release);
+        }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        assertTrue(executor.execute(() -> {}));
+        assertFalse(executor.execute(() -> {}));
+
+        verify(rejectedAuthentications, times(1)).increment();
+        release.countDown();
+    }
+
+    private static void awaitUninterruptibly(final CountDownLatch latch)
+    {
+        try
+        {
+            latch.await();
+        }
+        catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
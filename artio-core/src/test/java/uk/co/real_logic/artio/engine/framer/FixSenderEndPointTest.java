@@ -49,8 +49,9 @@ public class FixSenderEndPointTest
     private static final int BODY_LENGTH = 84;
     private static final int LENGTH = FRAME_SIZE + BODY_LENGTH;
     private static final int FRAGMENT_LENGTH = alignTerm(HEADER_LENGTH + FRAME_SIZE + BODY_LENGTH);
-    private static final long BEGIN_POSITION = 8000;
+    private static final long BEGIN_POSITION = 7968;
     private static final int MAX_BYTES_IN_BUFFER = 3 * BODY_LENGTH;
+    private static final int WRITE_BATCH_SIZE = 4 * BODY_LENGTH;
 
     private final TcpChannel tcpChannel = mock(TcpChannel.class);
     private final AtomicCounter bytesInBuffer = fakeCounter();
@@ -78,7 +79,25 @@ public class FixSenderEndPointTest
         DEFAULT_SLOW_CONSUMER_TIMEOUT_IN_MS,
         0,
         senderSequenceNumber,
-        messageTimingHandler);
+        messageTimingHandler,
+        0);
+
+    private final FixSenderEndPoint batchingEndPoint = new FixSenderEndPoint(
+        CONNECTION_ID,
+        LIBRARY_ID,
+        libraryBlockablePosition,
+        replayBlockablePosition,
+        tcpChannel,
+        bytesInBuffer,
+        invalidLibraryAttempts,
+        errorHandler,
+        framer,
+        MAX_BYTES_IN_BUFFER,
+        DEFAULT_SLOW_CONSUMER_TIMEOUT_IN_MS,
+        0,
+        senderSequenceNumber,
+        messageTimingHandler,
+        WRITE_BATCH_SIZE);
 
     @Test
     public void shouldRetrySlowConsumerMessage()
@@ -418,6 +437,76 @@ public class FixSenderEndPointTest
         verifyNoMoreErrors();
     }
 
+    @Test
+    public void shouldWriteBatchedMessagesInASingleWrite() throws IOException
+    {
+        batchChannelWillWrite(2 * BODY_LENGTH);
+
+        onBatchedOutboundMessage(1, POSITION);
+        onBatchedOutboundMessage(2, POSITION + FRAGMENT_LENGTH);
+        verify(tcpChannel, never()).write(any(ByteBuffer.class));
+        assertTrue(batchingEndPoint.hasBatchedWrites());
+
+        batchingEndPoint.flushWriteBatch();
+
+        verify(tcpChannel, times(1)).write(any(ByteBuffer.class));
+        verify(messageTimingHandler).onMessage(1, CONNECTION_ID);
+        verify(messageTimingHandler).onMessage(2, CONNECTION_ID);
+        assertFalse(batchingEndPoint.hasBatchedWrites());
+        assertBytesInBuffer(0);
+        verifyNoMoreErrors();
+    }
+
+    @Test
+    public void shouldBecomeSlowConsumerWhenBatchedWriteIsPartial()
+    {
+        final int firstWrites = 41;
+        batchChannelWillWrite(BODY_LENGTH + firstWrites);
+
+        onBatchedOutboundMessage(1, POSITION);
+        onBatchedOutboundMessage(2, POSITION + FRAGMENT_LENGTH);
+        onBatchedOutboundMessage(3, POSITION + 2 * FRAGMENT_LENGTH);
+
+        batchingEndPoint.flushWriteBatch();
+
+        verify(messageTimingHandler).onMessage(1, CONNECTION_ID);
+        verifyNoMoreInteractions(messageTimingHandler);
+        assertBytesInBuffer(BODY_LENGTH - firstWrites + BODY_LENGTH);
+        assertTrue(batchingEndPoint.isSlowConsumer());
+        verifySlowConsumerDisconnect(never());
+    }
+
+    @Test
+    public void shouldFlushBatchBeforeWritingAMessageLargerThanTheBatch() throws IOException
+    {
+        batchChannelWillWrite(BODY_LENGTH);
+
+        onBatchedOutboundMessage(1, POSITION);
+        batchingEndPoint.onOutboundMessage(
+            LIBRARY_ID, buffer, 0, WRITE_BATCH_SIZE + 1, 2, POSITION + FRAGMENT_LENGTH, 0);
+
+        verify(tcpChannel, times(2)).write(any(ByteBuffer.class));
+        verify(messageTimingHandler).onMessage(1, CONNECTION_ID);
+        assertFalse(batchingEndPoint.hasBatchedWrites());
+    }
+
+    private void onBatchedOutboundMessage(final int sequenceNumber, final long position)
+    {
+        batchingEndPoint.onOutboundMessage(LIBRARY_ID, buffer, 0, BODY_LENGTH, sequenceNumber, position, 0);
+    }
+
+    private void batchChannelWillWrite(final int bodyLength)
+    {
+        try
+        {
+            when(tcpChannel.write(any(ByteBuffer.class))).thenReturn(bodyLength);
+        }
+        catch (final IOException e)
+        {
+            LangUtil.rethrowUnchecked(e);
+        }
+    }
+
     private void byteBufferNotWritten()
     {
         byteBufferWritten(never());
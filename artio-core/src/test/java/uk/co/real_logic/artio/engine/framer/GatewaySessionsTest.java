@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.After;
+import org.junit.Test;
+import uk.co.real_logic.artio.FixCounters;
+import uk.co.real_logic.artio.decoder.AbstractLogonDecoder;
+import uk.co.real_logic.artio.dictionary.FixDictionary;
+import uk.co.real_logic.artio.engine.EngineConfiguration;
+import uk.co.real_logic.artio.engine.logger.SequenceNumberIndexReader;
+import uk.co.real_logic.artio.fields.EpochFractionFormat;
+import uk.co.real_logic.artio.protocol.GatewayPublication;
+import uk.co.real_logic.artio.session.SessionCustomisationStrategy;
+import uk.co.real_logic.artio.session.SessionIdStrategy;
+import uk.co.real_logic.artio.validation.SessionPersistenceStrategy;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GatewaySessionsTest
+{
+    private final AbstractLogonDecoder blockingLogon = mock(AbstractLogonDecoder.class);
+    private final AbstractLogonDecoder timedOutLogon = mock(AbstractLogonDecoder.class);
+    private final AbstractLogonDecoder nextLogon = mock(AbstractLogonDecoder.class);
+
+    private final CountDownLatch blockingAuthenticationStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseBlockingAuthentication = new CountDownLatch(1);
+    private final CountDownLatch nextAuthenticationComplete = new CountDownLatch(1);
+    private final Queue<AbstractLogonDecoder> authenticatedLogons = new ConcurrentLinkedQueue<>();
+
+    private final FixCounters fixCounters = mock(FixCounters.class);
+    private final GatewaySessions gatewaySessions;
+
+    public GatewaySessionsTest()
+    {
+        when(fixCounters.pendingAuthentications()).thenReturn(mock(AtomicCounter.class));
+        when(fixCounters.rejectedAuthentications()).thenReturn(mock(AtomicCounter.class));
+
+        final EngineConfiguration configuration = new EngineConfiguration()
+            .authenticationStrategy(this::authenticateLogon)
+            .authenticationThreadCount(1)
+            .authenticationQueueCapacity(2);
+
+        gatewaySessions = new GatewaySessions(
+            new FakeEpochClock(),
+            mock(GatewayPublication.class),
+            mock(GatewayPublication.class),
+            mock(SessionIdStrategy.class),
+            mock(SessionCustomisationStrategy.class),
+            fixCounters,
+            configuration,
+            mock(ErrorHandler.class),
+            mock(SessionContexts.class),
+            SessionPersistenceStrategy.alwaysTransient(),
+            mock(SequenceNumberIndexReader.class),
+            mock(SequenceNumberIndexReader.class),
+            EpochFractionFormat.MILLISECONDS);
+    }
+
+    @After
+    public void close()
+    {
+        releaseBlockingAuthentication.countDown();
+        gatewaySessions.close();
+    }
+
+    @Test
+    public void shouldNotAuthenticateLogonThatTimesOutWhilstQueued() throws InterruptedException
+    {
+        authenticate(blockingLogon, 1);
+        assertTrue(blockingAuthenticationStarted.await(10, TimeUnit.SECONDS));
+
+        final AcceptorLogonResult timedOutResult = authenticate(timedOutLogon, 2);
+        authenticate(nextLogon, 3);
+
+        // As the receiver end point does when the authentication timeout disconnects it
+        timedOutResult.onDisconnect();
+        releaseBlockingAuthentication.countDown();
+
+        // The pool has a single thread so the timed out logon's task has run once the next logon is authenticated
+        assertTrue(nextAuthenticationComplete.await(10, TimeUnit.SECONDS));
+
+        assertThat(authenticatedLogons, contains(blockingLogon, nextLogon));
+        assertFalse(timedOutResult.poll());
+        assertFalse(timedOutResult.isAccepted());
+    }
+
+    private AcceptorLogonResult authenticate(final AbstractLogonDecoder logon, final long connectionId)
+    {
+        return gatewaySessions.authenticate(
+            logon,
+            connectionId,
+            mock(GatewaySession.class),
+            mock(TcpChannel.class),
+            mock(FixDictionary.class),
+            mock(Framer.class));
+    }
+
+    private boolean authenticateLogon(final AbstractLogonDecoder logon)
+    {
+        if (logon == blockingLogon)
+        {
+            blockingAuthenticationStarted.countDown();
+            awaitUninterruptibly(releaseBlockingAuthentication);
+        }
+
+        authenticatedLogons.add(logon);
+
+        if (logon == nextLogon)
+        {
+            nextAuthenticationComplete.countDown();
+        }
+
+        return true;
+    }
+
+    private static void awaitUninterruptibly(final CountDownLatch latch)
+    {
+        try
+        {
+            latch.await();
+        }
+        catch (final InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
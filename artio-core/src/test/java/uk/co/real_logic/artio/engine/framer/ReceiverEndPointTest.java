@@ -35,6 +35,7 @@ import uk.co.real_logic.artio.protocol.GatewayPublication;
 import uk.co.real_logic.artio.session.CompositeKey;
 import uk.co.real_logic.artio.session.InternalSession;
 import uk.co.real_logic.artio.session.SessionIdStrategy;
+import uk.co.real_logic.artio.timing.Timer;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -64,6 +65,7 @@ public class ReceiverEndPointTest
     private static final int LOGON_LEN = LOGON_MESSAGE.length;
     private static final int OUT_OF_REQUIRED_ORDER_MSG_LEN = TAG_SPECIFIED_OUT_OF_REQUIRED_ORDER_MESSAGE_BYTES.length;
     private static final long TIMESTAMP = 1000L;
+    private static final int EG_MESSAGE_SEQUENCE_NUMBER = 4;
     // private static final long BACKPRESSURED_TIMESTAMP = 2000L;
 
     private final AcceptorLogonResult pendingAuth = createSuccessfulPendingAuth();
@@ -72,6 +74,7 @@ public class ReceiverEndPointTest
     private final GatewayPublication publication = mock(GatewayPublication.class);
     private final SessionContexts mockSessionContexts = mock(SessionContexts.class);
     private final AtomicCounter messagesRead = mock(AtomicCounter.class);
+    private final AtomicCounter backpressuredTime = mock(AtomicCounter.class);
     private final ErrorHandler errorHandler = mock(ErrorHandler.class);
     private final Framer framer = mock(Framer.class);
     private final GatewaySession gatewaySession = mock(GatewaySession.class);
@@ -146,9 +149,10 @@ public class ReceiverEndPointTest
         endPoint = new FixReceiverEndPoint(
             mockChannel, BUFFER_SIZE, publication,
             CONNECTION_ID, sessionId, SEQUENCE_INDEX + 1, mockSessionContexts,
-            messagesRead, framer, errorHandler, LIBRARY_ID,
+            messagesRead, backpressuredTime, framer, errorHandler, LIBRARY_ID,
             mockGatewaySessions,
             mockClock,
+            mock(Timer.class),
             new AcceptorFixDictionaryLookup(FixDictionary.of(FixDictionary.findDefault()), new HashMap<>()),
             new FixReceiverEndPoint.FixReceiverEndPointFormatters());
         endPoint.gatewaySession(gatewaySession);
@@ -199,6 +203,19 @@ public class ReceiverEndPointTest
         sessionReceivesOneMessage();
     }
 
+    @Test
+    public void shouldRecordMsgSeqNumOfFramedMessage()
+    {
+        theEndpointReceivesACompleteMessage();
+
+        polls(MSG_LEN);
+
+        verify(publication).saveReceivedMessage(
+            anyBuffer(), eq(0), eq(MSG_LEN), eq(LIBRARY_ID),
+            eq(MESSAGE_TYPE), eq(SESSION_ID), eq(SEQUENCE_INDEX), eq(CONNECTION_ID),
+            eq(OK), eq(TIMESTAMP), eq(EG_MESSAGE_SEQUENCE_NUMBER));
+    }
+
     @Test
     public void shouldFrameValidFixMessageWhenBackpressuredSelectionKeyCase()
     {
@@ -214,6 +231,21 @@ public class ReceiverEndPointTest
         sessionReceivesOneMessage();
     }
 
+    @Test
+    public void shouldRecordTimeSpentBackpressured()
+    {
+        firstSaveAttemptIsBackPressured();
+
+        theEndpointReceivesACompleteMessage();
+        polls(-MSG_LEN);
+
+        verify(backpressuredTime, never()).getAndAddOrdered(anyLong());
+
+        assertTrue(endPoint.retryFrameMessages());
+
+        verify(backpressuredTime).getAndAddOrdered(anyLong());
+    }
+
     @Test
     public void shouldFrameValidFixMessageWhenBackpressuredPollingCase()
     {
@@ -480,7 +512,7 @@ public class ReceiverEndPointTest
     private void firstSaveAttemptIsBackPressured()
     {
         when(publication
-            .saveMessage(
+            .saveReceivedMessage(
                 anyBuffer(),
                 anyInt(),
                 anyInt(),
@@ -490,8 +522,8 @@ public class ReceiverEndPointTest
                 anyInt(),
                 anyLong(),
                 any(),
-                anyInt(),
-                anyLong()))
+                anyLong(),
+                anyInt()))
             .thenReturn(BACK_PRESSURED, POSITION);
     }
 
@@ -561,16 +593,16 @@ public class ReceiverEndPointTest
     private long savesFramedMessages(
         final int numberOfMessages, final MessageStatus status, final int msgLen, final long messageType)
     {
-        return verify(publication, times(numberOfMessages)).saveMessage(
+        return verify(publication, times(numberOfMessages)).saveReceivedMessage(
             anyBuffer(), eq(0), eq(msgLen), eq(LIBRARY_ID),
             eq(messageType), eq(SESSION_ID), eq(SEQUENCE_INDEX), eq(CONNECTION_ID),
-            eq(status), eq(0), eq(TIMESTAMP));
+            eq(status), eq(TIMESTAMP), anyInt());
     }
 
     private void savesTwoFramedMessages(final int firstMessageSaveAttempts)
     {
         final InOrder inOrder = Mockito.inOrder(publication);
-        inOrder.verify(publication, times(firstMessageSaveAttempts)).saveMessage(
+        inOrder.verify(publication, times(firstMessageSaveAttempts)).saveReceivedMessage(
             anyBuffer(),
             eq(0),
             eq(MSG_LEN),
@@ -580,10 +612,10 @@ public class ReceiverEndPointTest
             eq(SEQUENCE_INDEX),
             eq(CONNECTION_ID),
             eq(OK),
-            eq(0),
-            eq(TIMESTAMP));
+            eq(TIMESTAMP),
+            eq(EG_MESSAGE_SEQUENCE_NUMBER));
 
-        inOrder.verify(publication, times(1)).saveMessage(
+        inOrder.verify(publication, times(1)).saveReceivedMessage(
             anyBuffer(),
             eq(MSG_LEN),
             eq(MSG_LEN),
@@ -593,8 +625,8 @@ public class ReceiverEndPointTest
             eq(SEQUENCE_INDEX),
             eq(CONNECTION_ID),
             eq(OK),
-            eq(0),
-            eq(TIMESTAMP));
+            eq(TIMESTAMP),
+            eq(EG_MESSAGE_SEQUENCE_NUMBER));
 
         inOrder.verifyNoMoreInteractions();
     }
@@ -15,20 +15,22 @@
  */
 package uk.co.real_logic.artio.engine.framer;
 
+import org.agrona.ErrorHandler;
 import org.junit.Test;
 
 import java.util.Arrays;
 import java.util.function.LongConsumer;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 import static uk.co.real_logic.artio.engine.framer.ReceiverEndPoints.disconnectILinkConnections;
 
 public class ReceiverEndPointsTest
 {
     private static final int LIBRARY_ID = 1;
+    private static final int SHARD_QUEUE_CAPACITY = 1024;
 
     private final LongConsumer removeFunc = mock(LongConsumer.class);
 
@@ -70,6 +72,80 @@ public class ReceiverEndPointsTest
         assertSame(endPoints, result);
     }
 
+    @Test
+    public void shouldCarryOnPollingOtherEndPointsWhenPollingFairly()
+    {
+        final FixReceiverEndPoint backpressured = backpressuredEndPoint();
+        final FixReceiverEndPoint other = mock(FixReceiverEndPoint.class);
+
+        try (ReceiverEndPoints receiverEndPoints = new ReceiverEndPoints(
+            mock(ErrorHandler.class), new FramerShard[0], true))
+        {
+            receiverEndPoints.add(other);
+            receiverEndPoints.add(backpressured);
+
+            receiverEndPoints.pollEndPoints();
+            receiverEndPoints.pollEndPoints();
+
+            verify(backpressured).poll();
+            verify(backpressured).retryFrameMessages();
+            verify(other, times(2)).poll();
+
+            when(backpressured.retryFrameMessages()).thenReturn(true);
+            receiverEndPoints.pollEndPoints();
+
+            verify(backpressured, times(2)).retryFrameMessages();
+            verify(backpressured, times(2)).poll();
+            verify(other, times(3)).poll();
+        }
+    }
+
+    @Test
+    public void shouldRetryAddingEndPointsToAFullShardWithoutBlocking() throws Exception
+    {
+        final ErrorHandler errorHandler = mock(ErrorHandler.class);
+        final FramerShard shard = new FramerShard(0, errorHandler, "");
+        final FixReceiverEndPoint[] endPoints = new FixReceiverEndPoint[SHARD_QUEUE_CAPACITY + 1];
+        for (int i = 0; i < endPoints.length; i++)
+        {
+            endPoints[i] = mock(FixReceiverEndPoint.class);
+        }
+        final FixReceiverEndPoint lastEndPoint = endPoints[SHARD_QUEUE_CAPACITY];
+
+        try (ReceiverEndPoints receiverEndPoints = new ReceiverEndPoints(
+            errorHandler, new FramerShard[]{ shard }, false))
+        {
+            // Shard hasn't run yet, so its queue fills up before the last end point is added
+            for (final FixReceiverEndPoint endPoint : endPoints)
+            {
+                receiverEndPoints.add(endPoint);
+                verify(endPoint).shard(shard);
+            }
+            assertEquals(endPoints.length, receiverEndPoints.size());
+
+            receiverEndPoints.pollEndPoints();
+            shard.doWork();
+            verify(endPoints[0]).register(any());
+            verify(lastEndPoint, never()).register(any());
+
+            receiverEndPoints.pollEndPoints();
+            shard.doWork();
+            verify(lastEndPoint).register(any());
+        }
+        finally
+        {
+            shard.onClose();
+        }
+    }
+
+    private FixReceiverEndPoint backpressuredEndPoint()
+    {
+        final FixReceiverEndPoint endPoint = mock(FixReceiverEndPoint.class);
+        when(endPoint.connectionId()).thenReturn(1L);
+        when(endPoint.poll()).thenReturn(-10, 10);
+        return endPoint;
+    }
+
     private ReceiverEndPoint[] makeEndPoints()
     {
         final ReceiverEndPoint[] endPoints = new ReceiverEndPoint[5];
@@ -15,6 +15,8 @@
  */
 package uk.co.real_logic.artio.engine.framer;
 
+import io.aeron.ExclusivePublication;
+import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
 import org.agrona.IoUtil;
 import org.agrona.concurrent.AtomicBuffer;
@@ -27,6 +29,7 @@ import uk.co.real_logic.artio.engine.EngineConfiguration;
 import uk.co.real_logic.artio.engine.MappedFile;
 import uk.co.real_logic.artio.fixt.FixDictionaryImpl;
 import uk.co.real_logic.artio.session.CompositeKey;
+import uk.co.real_logic.artio.session.Session;
 import uk.co.real_logic.artio.session.SessionIdStrategy;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
@@ -45,6 +48,7 @@ import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.*;
 import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_INITIAL_SEQUENCE_INDEX;
@@ -55,8 +59,11 @@ public class SessionContextsTest
 {
     private static final int BUFFER_SIZE = 8 * 1024;
     private static final int TEST_INITIAL_SEQUENCE = 721;
+    private static final int SNAPSHOT_SESSION_COUNT = 30;
+    private static final int OFFERS_PER_POLL = 3;
 
     private final long time = System.currentTimeMillis();
+
     private final ErrorHandler errorHandler = mock(ErrorHandler.class);
     private final AtomicBuffer buffer = new UnsafeBuffer(ByteBuffer.allocate(BUFFER_SIZE));
     private final MappedFile mappedFile = mock(MappedFile.class);
@@ -72,6 +79,10 @@ public class SessionContextsTest
     private final CompositeKey otherSession = idStrategy.onInitiateLogon(
         "acceptor", null, null, "initiator", null, null);
 
+    // The standby that replicated session ids are handed to, see replicateTo()
+    private SessionContexts replicationTarget;
+    private int offersUntilBackPressured = Integer.MAX_VALUE;
+
     @Test
     public void sessionContextsAreUnique()
     {
@@ -202,6 +213,26 @@ public class SessionContextsTest
             contextsAfterRestart.onLogon(keys.get(i), fixDictionary)));
     }
 
+    @Test
+    public void looksUpSessionContextsById()
+    {
+        final SessionContext aContext = sessionContexts.onLogon(aSession, fixDictionary);
+        final SessionContext bContext = sessionContexts.onLogon(bSession, fixDictionary);
+
+        assertEquals(aContext, sessionContexts.lookupById(aContext.sessionId()));
+        assertEquals(bContext, sessionContexts.lookupById(bContext.sessionId()));
+        assertNull(sessionContexts.lookupById(bContext.sessionId() + 1));
+
+        final SessionContexts sessionContextsAfterRestart = newSessionContexts(buffer);
+        assertValuesEqual(aContext, sessionContextsAfterRestart.lookupById(aContext.sessionId()));
+        assertValuesEqual(bContext, sessionContextsAfterRestart.lookupById(bContext.sessionId()));
+
+        sessionContexts.onDisconnect(aContext.sessionId());
+        sessionContexts.onDisconnect(bContext.sessionId());
+        sessionContexts.reset(null);
+        assertNull(sessionContexts.lookupById(aContext.sessionId()));
+    }
+
     @Test
     public void resetsSessionContexts()
     {
@@ -287,7 +318,7 @@ public class SessionContextsTest
 
         // Restart with compaction
         sessionContexts = newSessionContexts(buffer);
-        final SessionContext reloadedAContext = sessionContexts.lookupById(sessionIdA).getValue();
+        final SessionContext reloadedAContext = sessionContexts.lookupById(sessionIdA);
         assertEquals(fixtDictionary.getClass(), reloadedAContext.lastFixDictionary().getClass());
         final int filePosition3 = sessionContexts.filePosition();
         assertThat(filePosition3, lessThan(filePosition2));
@@ -315,10 +346,220 @@ public class SessionContextsTest
         // Check that reloaded information is read
         final SessionContexts sessionContexts2 = newSessionContexts(oldBuffer);
         assertThat(sessionContexts2.allSessions(), hasSize(1));
-        final SessionContext newContext = sessionContexts2.lookupById(context.sessionId()).getValue();
+        final SessionContext newContext = sessionContexts2.lookupById(context.sessionId());
         assertEquals(fixtDictionary.getClass(), newContext.lastFixDictionary().getClass());
     }
 
+    @Test
+    public void shouldReplicateSessionIdChangesToStandby()
+    {
+        final SessionContexts standby = newStandby();
+        replicateTo(standby, true);
+
+        final SessionContext aContext = sessionContexts.onLogon(aSession, fixDictionary);
+        sessionContexts.pollReplication();
+        final SessionContext bContext = sessionContexts.onLogon(bSession, fixDictionary);
+        aContext.onSequenceReset(time);
+
+        assertValuesEqual(aContext, standby.lookupById(aContext.sessionId()));
+        assertValuesEqual(bContext, standby.lookupById(bContext.sessionId()));
+        assertEquals(time, standby.lookupById(aContext.sessionId()).lastSequenceResetTime());
+        assertEquals(bContext.sessionId(), standby.lookupSessionId(bSession));
+
+        // Standby carries on allocating session ids after the primary's.
+        final SessionContext cContext = standby.onLogon(cSession, fixDictionary);
+        assertEquals(bContext.sessionId() + 1, cContext.sessionId());
+
+        standby.onDisconnect(cContext.sessionId());
+        sessionContexts.onDisconnect(aContext.sessionId());
+        sessionContexts.onDisconnect(bContext.sessionId());
+        sessionContexts.reset(null);
+        assertNull(standby.lookupById(bContext.sessionId()));
+    }
+
+    @Test
+    public void shouldReplicateSnapshotOnceStandbyConnects()
+    {
+        final SessionContexts standby = newStandby();
+        final ExclusivePublication publication = replicateTo(standby, false);
+
+        final SessionContext aContext = sessionContexts.onLogon(aSession, fixDictionary);
+        sessionContexts.pollReplication();
+        assertNull(standby.lookupById(aContext.sessionId()));
+
+        when(publication.isConnected()).thenReturn(true);
+        // The beginning of the snapshot, its record and its end
+        assertEquals(3, sessionContexts.pollReplication());
+        assertEquals(0, sessionContexts.pollReplication());
+
+        assertValuesEqual(aContext, standby.lookupById(aContext.sessionId()));
+    }
+
+    @Test
+    public void shouldReplicateSnapshotWhenStandbyReconnects()
+    {
+        final ExclusivePublication publication = replicateTo(newStandby(), true);
+
+        final SessionContext aContext = sessionContexts.onLogon(aSession, fixDictionary);
+        sessionContexts.pollReplication();
+
+        when(publication.isConnected()).thenReturn(false);
+        assertEquals(0, sessionContexts.pollReplication());
+
+        // A new standby that has missed nothing whilst disconnected, as nothing was published
+        final SessionContexts newStandby = newStandby();
+        replicationTarget = newStandby;
+        when(publication.isConnected()).thenReturn(true);
+        assertEquals(3, sessionContexts.pollReplication());
+
+        assertValuesEqual(aContext, newStandby.lookupById(aContext.sessionId()));
+    }
+
+    @Test
+    public void shouldKeepStandbySessionIdsUntilSnapshotIsComplete()
+    {
+        final SessionContexts standby = newStandby();
+        final ExclusivePublication publication = replicateTo(standby, true);
+
+        final SessionContext aContext = sessionContexts.onLogon(aSession, fixDictionary);
+        final SessionContext bContext = sessionContexts.onLogon(bSession, fixDictionary);
+        sessionContexts.pollReplication();
+
+        // Reconnect and back pressure the snapshot after its first record
+        when(publication.isConnected()).thenReturn(false);
+        sessionContexts.pollReplication();
+        when(publication.isConnected()).thenReturn(true);
+        offersUntilBackPressured = 2;
+        sessionContexts.pollReplication();
+
+        assertValuesEqual(aContext, standby.lookupById(aContext.sessionId()));
+        assertValuesEqual(bContext, standby.lookupById(bContext.sessionId()));
+
+        // Carries on with the remaining record and the end of the snapshot
+        offersUntilBackPressured = Integer.MAX_VALUE;
+        assertEquals(2, sessionContexts.pollReplication());
+
+        assertValuesEqual(aContext, standby.lookupById(aContext.sessionId()));
+        assertValuesEqual(bContext, standby.lookupById(bContext.sessionId()));
+    }
+
+    @Test
+    public void shouldRemoveSessionIdsResetWhilstStandbyWasDisconnected()
+    {
+        final SessionContexts standby = newStandby();
+        final ExclusivePublication publication = replicateTo(standby, true);
+
+        final SessionContext aContext = sessionContexts.onLogon(aSession, fixDictionary);
+        sessionContexts.pollReplication();
+
+        when(publication.isConnected()).thenReturn(false);
+        sessionContexts.pollReplication();
+        sessionContexts.onDisconnect(aContext.sessionId());
+        sessionContexts.reset(null);
+        final SessionContext bContext = sessionContexts.onLogon(bSession, fixDictionary);
+        assertEquals(aContext.sessionId(), bContext.sessionId());
+
+        when(publication.isConnected()).thenReturn(true);
+        assertEquals(3, sessionContexts.pollReplication());
+
+        assertEquals(Session.UNKNOWN, standby.lookupSessionId(aSession));
+        assertEquals(bContext.sessionId(), standby.lookupSessionId(bSession));
+        assertValuesEqual(bContext, standby.lookupById(bContext.sessionId()));
+    }
+
+    @Test
+    public void shouldResumeSnapshotThatIsLargerThanThePublicationWindow()
+    {
+        final SessionContexts standby = newStandby();
+        replicateTo(standby, true);
+
+        final List<SessionContext> contexts = IntStream.range(0, SNAPSHOT_SESSION_COUNT)
+            .mapToObj(i -> sessionContexts.onLogon(
+                idStrategy.onInitiateLogon("sender" + i, null, null, "target", null, null), fixDictionary))
+            .collect(toList());
+        final SessionContext firstContext = contexts.get(0);
+
+        offersUntilBackPressured = OFFERS_PER_POLL;
+        assertEquals(OFFERS_PER_POLL, sessionContexts.pollReplication());
+        assertNull(standby.lookupById(firstContext.sessionId()));
+
+        // Changes to records that have already been published are queued up behind the snapshot
+        firstContext.onSequenceReset(time);
+        final SessionContext lateContext = sessionContexts.onLogon(cSession, fixDictionary);
+
+        int polls = 1;
+        offersUntilBackPressured = OFFERS_PER_POLL;
+        while (sessionContexts.pollReplication() > 0)
+        {
+            assertThat("Snapshot never completed", polls, lessThan(SNAPSHOT_SESSION_COUNT));
+            offersUntilBackPressured = OFFERS_PER_POLL;
+            polls++;
+        }
+
+        assertThat(polls, greaterThan(SNAPSHOT_SESSION_COUNT / OFFERS_PER_POLL));
+        for (final SessionContext context : contexts)
+        {
+            assertValuesEqual(context, standby.lookupById(context.sessionId()));
+        }
+        assertEquals(time, standby.lookupById(firstContext.sessionId()).lastSequenceResetTime());
+        assertValuesEqual(lateContext, standby.lookupById(lateContext.sessionId()));
+    }
+
+    @Test
+    public void shouldQueueChangesThatAreBackPressuredOnceInSync()
+    {
+        final SessionContexts standby = newStandby();
+        replicateTo(standby, true);
+
+        final SessionContext aContext = sessionContexts.onLogon(aSession, fixDictionary);
+        sessionContexts.pollReplication();
+
+        offersUntilBackPressured = 0;
+        final SessionContext bContext = sessionContexts.onLogon(bSession, fixDictionary);
+        aContext.onSequenceReset(time);
+        assertNull(standby.lookupById(bContext.sessionId()));
+
+        // Only the queued changes are published, rather than a new snapshot
+        offersUntilBackPressured = Integer.MAX_VALUE;
+        assertEquals(2, sessionContexts.pollReplication());
+
+        assertValuesEqual(bContext, standby.lookupById(bContext.sessionId()));
+        assertEquals(time, standby.lookupById(aContext.sessionId()).lastSequenceResetTime());
+    }
+
+    private SessionContexts newStandby()
+    {
+        final MappedFile standbyFile = mock(MappedFile.class);
+        when(standbyFile.buffer()).thenReturn(new UnsafeBuffer(ByteBuffer.allocate(BUFFER_SIZE)));
+        return new SessionContexts(standbyFile, idStrategy, DEFAULT_INITIAL_SEQUENCE_INDEX, errorHandler);
+    }
+
+    private ExclusivePublication replicateTo(final SessionContexts standby, final boolean connected)
+    {
+        replicationTarget = standby;
+        final ExclusivePublication publication = mock(ExclusivePublication.class);
+        when(publication.isConnected()).thenReturn(connected);
+        when(publication.offer(any(DirectBuffer.class), anyInt(), anyInt())).then(inv ->
+        {
+            if (!publication.isConnected())
+            {
+                return ExclusivePublication.NOT_CONNECTED;
+            }
+
+            if (offersUntilBackPressured == 0)
+            {
+                return ExclusivePublication.BACK_PRESSURED;
+            }
+            offersUntilBackPressured--;
+
+            replicationTarget.onReplicationFragment(
+                inv.getArgument(0), inv.getArgument(1), inv.getArgument(2), null);
+            return 1L;
+        });
+        sessionContexts.replicationPublication(publication);
+        return publication;
+    }
+
     private FixDictionary fixtDictionary()
     {
         return FixDictionary.of(FixDictionaryImpl.class);
@@ -37,6 +37,8 @@ import static uk.co.real_logic.artio.CommonConfiguration.DEFAULT_OUTBOUND_LIBRAR
 import static uk.co.real_logic.artio.TestFixtures.MESSAGE_BUFFER_SIZE_IN_BYTES;
 import static uk.co.real_logic.artio.engine.logger.Replayer.SIZE_OF_LENGTH_FIELD;
 import static uk.co.real_logic.artio.messages.FixMessageDecoder.metaDataHeaderLength;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.NO_FIELD_OFFSET;
+import static uk.co.real_logic.artio.protocol.GatewayPublication.NO_RECEIVED_SEQUENCE_NUMBER;
 
 public class AbstractLogTest
 {
@@ -81,6 +83,13 @@ public class AbstractLogTest
     protected int logEntryLength;
     protected int offset;
 
+    // Whether the frames of encoded messages record the offsets of their SendingTime and PossDupFlag values
+    protected boolean recordFieldOffsets;
+    private int sendingTimeOffset = NO_FIELD_OFFSET;
+    private int possDupOffset = NO_FIELD_OFFSET;
+    // The MsgSeqNum that the frames of encoded messages record, as the receiver does for inbound messages
+    protected int receivedSequenceNumber = NO_RECEIVED_SEQUENCE_NUMBER;
+
     protected void bufferContainsExampleMessage(final boolean hasPossDupFlag)
     {
         bufferContainsExampleMessage(hasPossDupFlag, SESSION_ID, SEQUENCE_NUMBER, SEQUENCE_INDEX);
@@ -148,6 +157,14 @@ public class AbstractLogTest
         final int encodedOffset = Encoder.offset(result);
         asciiBuffer = new MutableAsciiBuffer(asciiBuffer, encodedOffset, logEntryLength);
 
+        if (recordFieldOffsets)
+        {
+            sendingTimeOffset = header.sendingTimeValueOffset() - encodedOffset;
+            final int possDupFlagValueOffset = header.possDupFlagValueOffset();
+            possDupOffset = possDupFlagValueOffset == SessionHeaderEncoder.NO_VALUE_OFFSET ?
+                NO_FIELD_OFFSET : possDupFlagValueOffset - encodedOffset;
+        }
+
         bufferContainsMessage(sessionId, sequenceIndex, asciiBuffer, messageType);
     }
 
@@ -166,6 +183,9 @@ public class AbstractLogTest
             .connection(CONNECTION_ID)
             .sequenceIndex(sequenceIndex)
             .libraryId(LIBRARY_ID)
+            .sendingTimeOffset(sendingTimeOffset)
+            .possDupOffset(possDupOffset)
+            .receivedSequenceNumber(receivedSequenceNumber)
             .putMetaData(new byte[0], 0, 0)
             .putBody(asciiBuffer, 0, logEntryLength);
 
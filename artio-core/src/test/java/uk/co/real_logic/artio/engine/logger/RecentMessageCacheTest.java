@@ -0,0 +1,154 @@
+/*
+ * Copyright 2015-2020 Real Logic Limited, Adaptive Financial Consulting Ltd., Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.logbuffer.ControlledFragmentHandler.Action;
+import io.aeron.logbuffer.Header;
+import org.agrona.DirectBuffer;
+import org.agrona.ErrorHandler;
+import org.junit.Test;
+import uk.co.real_logic.artio.messages.ResetSequenceNumberEncoder;
+
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static io.aeron.logbuffer.FrameDescriptor.BEGIN_FRAG_FLAG;
+import static io.aeron.logbuffer.FrameDescriptor.UNFRAGMENTED;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static uk.co.real_logic.artio.engine.logger.Replayer.MOST_RECENT_MESSAGE;
+
+public class RecentMessageCacheTest extends AbstractLogTest
+{
+    private static final int MESSAGES_PER_SESSION = 4;
+    private static final int MAX_MESSAGE_LENGTH = 512;
+
+    private final Header fragmentHeader = mock(Header.class);
+    private final RecentMessageCache cache = new RecentMessageCache(
+        STREAM_ID, MESSAGES_PER_SESSION, MAX_MESSAGE_LENGTH, 2, 2, mock(ErrorHandler.class));
+
+    private int replayedLength;
+    private String replayedMessage;
+
+    @Test
+    public void shouldContainIndexedMessages()
+    {
+        indexExampleMessages(1, 3);
+
+        assertTrue(cache.contains(SESSION_ID, SEQUENCE_INDEX, 1, 3));
+        assertTrue(cache.contains(SESSION_ID, SEQUENCE_INDEX, 2, 2));
+        assertFalse(cache.contains(SESSION_ID, SEQUENCE_INDEX, 1, 4));
+        assertFalse(cache.contains(SESSION_ID, SEQUENCE_INDEX + 1, 1, 3));
+        assertFalse(cache.contains(SESSION_ID_2, SEQUENCE_INDEX, 1, 3));
+        assertFalse(cache.contains(SESSION_ID, SEQUENCE_INDEX, 1, MOST_RECENT_MESSAGE));
+    }
+
+    @Test
+    public void shouldReplayCachedMessage()
+    {
+        indexExampleMessages(1, 2);
+        bufferContainsExampleMessage(false, SESSION_ID, 2, SEQUENCE_INDEX);
+        final String expectedMessage = buffer.getStringWithoutLengthAscii(START, fragmentLength());
+
+        assertEquals(CONTINUE, cache.replay(SESSION_ID, SEQUENCE_INDEX, 2, this::onReplayedMessage));
+
+        assertEquals(fragmentLength(), replayedLength);
+        assertEquals(expectedMessage, replayedMessage);
+    }
+
+    @Test
+    public void shouldEvictOldestMessagesOnceFull()
+    {
+        indexExampleMessages(1, MESSAGES_PER_SESSION + 2);
+
+        assertFalse(cache.contains(SESSION_ID, SEQUENCE_INDEX, 2, MESSAGES_PER_SESSION + 2));
+        assertTrue(cache.contains(SESSION_ID, SEQUENCE_INDEX, 3, MESSAGES_PER_SESSION + 2));
+        assertNull(cache.replay(SESSION_ID, SEQUENCE_INDEX, 2, this::onReplayedMessage));
+    }
+
+    @Test
+    public void shouldStartNewRunOnSequenceNumberGap()
+    {
+        indexExampleMessages(1, 2);
+        indexExampleMessages(5, 6);
+
+        assertFalse(cache.contains(SESSION_ID, SEQUENCE_INDEX, 1, 6));
+        assertTrue(cache.contains(SESSION_ID, SEQUENCE_INDEX, 5, 6));
+    }
+
+    @Test
+    public void shouldStartNewRunOnFragmentedMessage()
+    {
+        indexExampleMessages(1, 2);
+
+        bufferContainsExampleMessage(false, SESSION_ID, 3, SEQUENCE_INDEX);
+        onFragment(BEGIN_FRAG_FLAG);
+        indexExampleMessages(4, 4);
+
+        assertFalse(cache.contains(SESSION_ID, SEQUENCE_INDEX, 1, 2));
+        assertTrue(cache.contains(SESSION_ID, SEQUENCE_INDEX, 4, 4));
+    }
+
+    @Test
+    public void shouldClearOnSequenceNumberReset()
+    {
+        indexExampleMessages(1, 2);
+
+        final ResetSequenceNumberEncoder resetSequenceNumber = new ResetSequenceNumberEncoder();
+        resetSequenceNumber
+            .wrapAndApplyHeader(buffer, START, header)
+            .session(SESSION_ID);
+        when(fragmentHeader.streamId()).thenReturn(STREAM_ID);
+        when(fragmentHeader.flags()).thenReturn(UNFRAGMENTED);
+        cache.onFragment(buffer, START, header.encodedLength() + resetSequenceNumber.encodedLength(), fragmentHeader);
+
+        assertFalse(cache.contains(SESSION_ID, SEQUENCE_INDEX, 1, 2));
+    }
+
+    @Test
+    public void shouldIgnoreOtherStreams()
+    {
+        bufferContainsExampleMessage(false, SESSION_ID, 1, SEQUENCE_INDEX);
+        when(fragmentHeader.streamId()).thenReturn(STREAM_ID + 1);
+        when(fragmentHeader.flags()).thenReturn(UNFRAGMENTED);
+        cache.onFragment(buffer, START, fragmentLength(), fragmentHeader);
+
+        assertFalse(cache.contains(SESSION_ID, SEQUENCE_INDEX, 1, 1));
+    }
+
+    private void indexExampleMessages(final int beginSeqNo, final int endSeqNo)
+    {
+        for (int sequenceNumber = beginSeqNo; sequenceNumber <= endSeqNo; sequenceNumber++)
+        {
+            bufferContainsExampleMessage(false, SESSION_ID, sequenceNumber, SEQUENCE_INDEX);
+            onFragment(UNFRAGMENTED);
+        }
+    }
+
+    private void onFragment(final byte flags)
+    {
+        when(fragmentHeader.streamId()).thenReturn(STREAM_ID);
+        when(fragmentHeader.flags()).thenReturn(flags);
+        cache.onFragment(buffer, START, fragmentLength(), fragmentHeader);
+    }
+
+    private Action onReplayedMessage(
+        final DirectBuffer buffer, final int offset, final int length, final Header header)
+    {
+        replayedLength = length;
+        replayedMessage = buffer.getStringWithoutLengthAscii(offset, length);
+        return CONTINUE;
+    }
+}
@@ -283,6 +283,39 @@ public class ReplayIndexTest extends AbstractLogTest
         verifyMessagesRead(expectedMessages);
     }
 
+    @Test(timeout = 20_000L)
+    public void shouldQueryAfterAGapInSequenceNumbers()
+    {
+        IntStream.rangeClosed(1, 5).forEach(
+            (seqNum) -> indexExampleMessage(SESSION_ID, seqNum, SEQUENCE_INDEX));
+        IntStream.rangeClosed(20, 25).forEach(
+            (seqNum) -> indexExampleMessage(SESSION_ID, seqNum, SEQUENCE_INDEX));
+
+        final int msgCount = query(21, SEQUENCE_INDEX, 23, SEQUENCE_INDEX);
+
+        assertEquals(3, msgCount);
+        verifyMessagesRead(3);
+    }
+
+    @Test(timeout = 20_000L)
+    public void shouldQueryWithinALaterSequenceIndexWhenBufferFull()
+    {
+        final int totalMessages =
+            (DEFAULT_REPLAY_INDEX_FILE_SIZE - MessageHeaderEncoder.ENCODED_LENGTH) / RECORD_LENGTH;
+        final int nextSequenceIndex = SEQUENCE_INDEX + 1;
+        final int endSequenceNumber = totalMessages / 2;
+
+        IntStream.rangeClosed(1, totalMessages).forEach(
+            (seqNum) -> indexExampleMessage(SESSION_ID, seqNum, SEQUENCE_INDEX));
+        IntStream.rangeClosed(1, endSequenceNumber).forEach(
+            (seqNum) -> indexExampleMessage(SESSION_ID, seqNum, nextSequenceIndex));
+
+        final int msgCount = query(10, nextSequenceIndex, 19, nextSequenceIndex);
+
+        assertEquals(10, msgCount);
+        verifyMessagesRead(10);
+    }
+
     @Test(timeout = 20_000L)
     public void shouldUpdatePositionForIndexedRecord()
     {
@@ -27,6 +27,9 @@ import org.agrona.collections.IntHashSet;
 import org.agrona.concurrent.EpochClock;
 import org.agrona.concurrent.IdleStrategy;
 import org.agrona.concurrent.OffsetEpochNanoClock;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.ringbuffer.OneToOneRingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBuffer;
 import org.agrona.concurrent.status.AtomicCounter;
 import org.junit.After;
 import org.junit.Before;
@@ -47,8 +50,10 @@ import uk.co.real_logic.artio.engine.SenderSequenceNumbers;
 import uk.co.real_logic.artio.fields.EpochFractionFormat;
 import uk.co.real_logic.artio.fields.RejectReason;
 import uk.co.real_logic.artio.fields.UtcTimestampDecoder;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
 import uk.co.real_logic.artio.messages.ReplayCompleteDecoder;
+import uk.co.real_logic.artio.messages.ValidResendRequestEncoder;
 import uk.co.real_logic.artio.util.AsciiBuffer;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
@@ -61,12 +66,14 @@ import static java.nio.charset.StandardCharsets.US_ASCII;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.junit.Assert.*;
+import static org.agrona.concurrent.ringbuffer.RingBufferDescriptor.TRAILER_LENGTH;
 import static org.mockito.Mockito.*;
 import static uk.co.real_logic.artio.CommonConfiguration.DEFAULT_NAME_PREFIX;
 import static uk.co.real_logic.artio.decoder.ExampleMessageDecoder.MESSAGE_TYPE;
 import static uk.co.real_logic.artio.engine.EngineConfiguration.*;
 import static uk.co.real_logic.artio.engine.PossDupEnabler.ORIG_SENDING_TIME_PREFIX_AS_STR;
 import static uk.co.real_logic.artio.engine.logger.Replayer.MESSAGE_FRAME_BLOCK_LENGTH;
+import static uk.co.real_logic.artio.engine.logger.ShardedReplayer.SHARD_MESSAGE_TYPE_ID;
 import static uk.co.real_logic.artio.messages.FixMessageDecoder.metaDataHeaderLength;
 import static uk.co.real_logic.artio.util.CustomMatchers.sequenceEqualsAscii;
 
@@ -81,6 +88,8 @@ public class ReplayerTest extends AbstractLogTest
             "112=a12345678910123456789101234567891012345\00110=005\001").getBytes(US_ASCII);
 
     private static final int MAX_CLAIM_ATTEMPTS = 100;
+    private static final int CACHED_MESSAGES_PER_SESSION = 4;
+    private static final int MAX_CACHED_MESSAGE_LENGTH = 512;
 
     private final ReplayQuery replayQuery = mock(ReplayQuery.class);
     private final Subscription subscription = mock(Subscription.class);
@@ -95,6 +104,8 @@ public class ReplayerTest extends AbstractLogTest
     private final ReplayOperation replayOperation = mock(ReplayOperation.class);
     private final AtomicCounter bytesInBufferCounter = mock(AtomicCounter.class);
     private final AtomicCounter currentReplayCounter = mock(AtomicCounter.class);
+    private final RecentMessageCache recentMessageCache = new RecentMessageCache(
+        STREAM_ID, CACHED_MESSAGES_PER_SESSION, MAX_CACHED_MESSAGE_LENGTH, 2, 2, errorHandler);
 
     private Replayer replayer;
 
@@ -113,7 +124,17 @@ public class ReplayerTest extends AbstractLogTest
 
         setReplayedMessages(1);
 
-        replayer = new Replayer(
+        replayer = newReplayer(null);
+    }
+
+    private Replayer newReplayer(final RecentMessageCache recentMessageCache)
+    {
+        return newReplayer(recentMessageCache, null);
+    }
+
+    private Replayer newReplayer(final RecentMessageCache recentMessageCache, final RingBuffer shardBuffer)
+    {
+        return new Replayer(
             replayQuery,
             publication,
             claim,
@@ -134,7 +155,10 @@ public class ReplayerTest extends AbstractLogTest
             EpochFractionFormat.MILLISECONDS,
             currentReplayCounter,
             DEFAULT_MAX_CONCURRENT_SESSION_REPLAYS,
-            new OffsetEpochNanoClock());
+            new OffsetEpochNanoClock(),
+            recentMessageCache,
+            shardBuffer,
+            0);
     }
 
     private void setReplayedMessages(final int replayedMessages)
@@ -157,6 +181,24 @@ public class ReplayerTest extends AbstractLogTest
         verifyPublicationOnlyPayloadQueried();
     }
 
+    @Test
+    public void shouldReadResendRequestsFromShardBufferWhenSharded()
+    {
+        final RingBuffer shardBuffer = new OneToOneRingBuffer(new UnsafeBuffer(new byte[4096 + TRAILER_LENGTH]));
+        replayer = newReplayer(null, shardBuffer);
+
+        final long result = bufferHasResendRequest(END_SEQ_NO);
+        final UnsafeBuffer validResendRequestBuffer = new UnsafeBuffer(new byte[1024]);
+        final int length = encodeValidResendRequest(validResendRequestBuffer, result);
+        assertTrue(shardBuffer.write(SHARD_MESSAGE_TYPE_ID, validResendRequestBuffer, 0, length));
+
+        replayer.doWork();
+
+        verifyQueriedService(END_SEQ_NO);
+        verifyNoInteractions(subscription);
+        assertEquals(DEFAULT_NAME_PREFIX + "Replayer-0", replayer.roleName());
+    }
+
     @Test
     public void shouldPublishMessagesWithSetPossDupFlag()
     {
@@ -580,6 +622,167 @@ public class ReplayerTest extends AbstractLogTest
         });
     }
 
+    @Test
+    public void shouldPublishMessagesWithSetPossDupFlagUsingRecordedFieldOffsets()
+    {
+        recordFieldOffsets = true;
+        onReplay(END_SEQ_NO, inv -> true);
+
+        bufferContainsExampleMessage(true);
+
+        final int srcLength = fragmentLength();
+        setupMessage(srcLength);
+
+        onFragment(srcLength);
+
+        assertHasResentWithPossDupFlag(srcLength, times(1));
+        assertFrameFieldOffsetsMatchMessage();
+    }
+
+    @Test
+    public void shouldPublishMessagesWithoutSetPossDupFlagUsingRecordedFieldOffsets()
+    {
+        recordFieldOffsets = true;
+        onReplay(END_SEQ_NO, inv ->
+        {
+            bufferContainsExampleMessage(false);
+            final int srcLength = fragmentLength();
+            setupCapturingClaim();
+
+            onFragment(srcLength);
+
+            assertHasResentWithPossDupFlag(claimedLength, times(1));
+            assertThat(resultAsciiBuffer, sequenceEqualsAscii("8=FIX.4.4\0019=86\001", offset + 1));
+            assertEndsWithValidChecksum(offset + 1);
+            assertFrameFieldOffsetsMatchMessage();
+
+            return true;
+        });
+    }
+
+    @Test
+    public void shouldReplayRangeFromRecentMessageCache()
+    {
+        final int endSeqNo = endSeqNoForTwoMessages();
+        useRecentMessageCache();
+        cacheExampleMessages(BEGIN_SEQ_NO, endSeqNo);
+        setupCapturingClaim();
+
+        onCachedResendRequest(endSeqNo);
+
+        replayer.doWork();
+
+        assertHasResentWithPossDupFlag(claimedLength, times(2));
+        assertResentSequenceNumber(endSeqNo);
+        verifyNoInteractions(replayQuery);
+
+        replayer.doWork();
+
+        verifyReplayCompleteMessageSent();
+    }
+
+    @Test
+    public void shouldResumeReplayFromRecentMessageCacheWhenBackPressured()
+    {
+        final int endSeqNo = endSeqNoForTwoMessages();
+        useRecentMessageCache();
+        cacheExampleMessages(BEGIN_SEQ_NO, endSeqNo);
+        setupCapturingClaim();
+        backpressureTryClaimAfterCommit();
+
+        onCachedResendRequest(endSeqNo);
+
+        // First message resent, second back pressured
+        replayer.doWork();
+
+        assertHasResentWithPossDupFlag(claimedLength, times(1));
+        assertResentSequenceNumber(BEGIN_SEQ_NO);
+
+        setupCapturingClaim();
+        doNothing().when(claim).commit();
+
+        // Second message resent from the cache
+        replayer.doWork();
+
+        assertHasResentWithPossDupFlag(claimedLength, times(2));
+        assertResentSequenceNumber(endSeqNo);
+        verifyNoInteractions(replayQuery);
+
+        replayer.doWork();
+
+        verifyReplayCompleteMessageSent();
+    }
+
+    @Test
+    public void shouldReplayRemainderFromArchiveWhenEvictedFromRecentMessageCache()
+    {
+        final int endSeqNo = endSeqNoForTwoMessages();
+        useRecentMessageCache();
+        cacheExampleMessages(BEGIN_SEQ_NO, endSeqNo);
+        setupCapturingClaim();
+        backpressureTryClaimAfterCommit();
+
+        onCachedResendRequest(endSeqNo);
+
+        // First message resent from the cache, second back pressured
+        replayer.doWork();
+
+        assertResentSequenceNumber(BEGIN_SEQ_NO);
+
+        // Second message evicted before it gets resent
+        cacheExampleMessages(endSeqNo + 1, endSeqNo + CACHED_MESSAGES_PER_SESSION);
+        setupCapturingClaim();
+        doNothing().when(claim).commit();
+
+        // The archive replays the one remaining message, completeReplay() reports an error unless it adds this to
+        // the message replayed from the cache.
+        setReplayedMessages(1);
+        whenReplayQueried().then(inv ->
+        {
+            onExampleMessage(endSeqNo);
+
+            return true;
+        });
+
+        replayer.doWork();
+
+        verify(replayQuery).query(
+            eq(SESSION_ID),
+            eq(endSeqNo),
+            eq(SEQUENCE_INDEX),
+            eq(endSeqNo),
+            eq(SEQUENCE_INDEX),
+            any(),
+            any());
+        assertHasResentWithPossDupFlag(claimedLength, times(2));
+        assertResentSequenceNumber(endSeqNo);
+
+        replayer.doWork();
+
+        verifyReplayCompleteMessageSent();
+    }
+
+    @Test
+    public void shouldGapFillTrailingAdminMessagesFromRecentMessageCache()
+    {
+        final int endSeqNo = endSeqNoForTwoMessages();
+        useRecentMessageCache();
+        cacheExampleMessages(BEGIN_SEQ_NO, BEGIN_SEQ_NO);
+        cacheTestRequest(endSeqNo);
+        final int offset = setupCapturingClaim();
+
+        onCachedResendRequest(endSeqNo);
+
+        replayer.doWork();
+
+        assertSentGapFill(endSeqNo, endSeqNo + 1, offset, times(2));
+        verifyNoInteractions(replayQuery);
+
+        replayer.doWork();
+
+        verifyReplayCompleteMessageSent();
+    }
+
     @After
     public void shouldHaveNoMoreErrors()
     {
@@ -594,6 +797,53 @@ public class ReplayerTest extends AbstractLogTest
         reset(publication);
     }
 
+    private void useRecentMessageCache()
+    {
+        replayer = newReplayer(recentMessageCache);
+    }
+
+    private void cacheExampleMessages(final int beginSeqNo, final int endSeqNo)
+    {
+        for (int sequenceNumber = beginSeqNo; sequenceNumber <= endSeqNo; sequenceNumber++)
+        {
+            bufferContainsExampleMessage(true, SESSION_ID, sequenceNumber, SEQUENCE_INDEX);
+            cacheFragment();
+        }
+    }
+
+    private void cacheTestRequest(final int sequenceNumber)
+    {
+        bufferContainsTestRequest(sequenceNumber);
+        cacheFragment();
+    }
+
+    private void cacheFragment()
+    {
+        when(fragmentHeader.streamId()).thenReturn(STREAM_ID);
+        recentMessageCache.onFragment(buffer, START, fragmentLength(), fragmentHeader);
+    }
+
+    private void onCachedResendRequest(final int endSeqNo)
+    {
+        final long result = bufferHasResendRequest(endSeqNo);
+        onRequestResendMessage(result, endSeqNo);
+    }
+
+    private void backpressureTryClaimAfterCommit()
+    {
+        doAnswer(inv ->
+        {
+            backpressureTryClaim();
+            return null;
+        }).when(claim).commit();
+    }
+
+    private void assertResentSequenceNumber(final int sequenceNumber)
+    {
+        final String resultAsAscii = resultAsciiBuffer.getAscii(0, resultAsciiBuffer.capacity());
+        assertThat(resultAsAscii, containsString("\00134=" + sequenceNumber + "\001"));
+    }
+
     private void assertResentGapFillThenMessage(final int endSeqNo, final int offset, final int srcLength)
     {
         doAnswer(commitInv ->
@@ -746,6 +996,21 @@ public class ReplayerTest extends AbstractLogTest
             any());
     }
 
+    private void assertFrameFieldOffsetsMatchMessage()
+    {
+        final FixMessageDecoder frame = new FixMessageDecoder();
+        frame.wrap(
+            resultBuffer,
+            offset() + MessageHeaderDecoder.ENCODED_LENGTH,
+            FixMessageDecoder.BLOCK_LENGTH,
+            FixMessageDecoder.SCHEMA_VERSION);
+        final int messageOffset = offset + 1;
+        final String message = resultAsciiBuffer.getAscii(messageOffset, resultBuffer.capacity() - messageOffset);
+
+        assertEquals(message, message.indexOf("\00152=") + 4, frame.sendingTimeOffset());
+        assertEquals(message, message.indexOf("\00143=") + 4, frame.possDupOffset());
+    }
+
     private void assertResultBufferHasSetPossDupFlagAndSendingTimeUpdates()
     {
         final String resultAsAscii = resultAsciiBuffer.getAscii(0, resultAsciiBuffer.capacity());
@@ -758,6 +1023,21 @@ public class ReplayerTest extends AbstractLogTest
             containsString("52=" + DATE_TIME_STR + '\001'));
     }
 
+    private int encodeValidResendRequest(final UnsafeBuffer validResendRequestBuffer, final long result)
+    {
+        final ValidResendRequestEncoder validResendRequest = new ValidResendRequestEncoder();
+        validResendRequest
+            .wrapAndApplyHeader(validResendRequestBuffer, 0, header)
+            .session(SESSION_ID)
+            .connection(CONNECTION_ID)
+            .beginSequenceNumber(BEGIN_SEQ_NO)
+            .endSequenceNumber(END_SEQ_NO)
+            .sequenceIndex(SEQUENCE_INDEX)
+            .putBody(buffer, Encoder.offset(result), Encoder.length(result));
+
+        return MessageHeaderDecoder.ENCODED_LENGTH + validResendRequest.encodedLength();
+    }
+
     private void onRequestResendMessage(final long result, final int endSeqNo)
     {
         onRequestResendMessageWithSession(result, Action.COMMIT, SESSION_ID, CONNECTION_ID, BEGIN_SEQ_NO, endSeqNo);
@@ -25,6 +25,7 @@ import io.aeron.archive.codecs.SourceLocation;
 import org.agrona.CloseHelper;
 import org.agrona.ErrorHandler;
 import org.agrona.IoUtil;
+import org.agrona.collections.IntArrayList;
 import org.agrona.collections.Long2LongHashMap;
 import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
@@ -33,6 +34,8 @@ import org.hamcrest.Matchers;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import uk.co.real_logic.artio.FileSystemCorruptionException;
@@ -40,11 +43,13 @@ import uk.co.real_logic.artio.engine.MappedFile;
 import uk.co.real_logic.artio.engine.framer.FakeEpochClock;
 
 import java.io.File;
+import java.util.Arrays;
 
 import static io.aeron.CommonContext.IPC_CHANNEL;
 import static org.agrona.IoUtil.deleteIfExists;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -61,6 +66,7 @@ import static uk.co.real_logic.artio.engine.logger.ErrorHandlerVerifier.verify;
 import static uk.co.real_logic.artio.engine.logger.SequenceNumberIndexDescriptor.*;
 import static uk.co.real_logic.artio.engine.logger.SequenceNumberIndexWriter.SEQUENCE_NUMBER_OFFSET;
 
+@RunWith(Parameterized.class)
 public class SequenceNumberIndexTest extends AbstractLogTest
 {
     private static final int BUFFER_SIZE = 16 * 1024;
@@ -79,6 +85,23 @@ public class SequenceNumberIndexTest extends AbstractLogTest
     private Subscription subscription;
     private RecordingIdLookup recordingIdLookup;
 
+    private final boolean journalled;
+
+    @Parameterized.Parameters(name = "journalled={0}")
+    public static Iterable<Object[]> data()
+    {
+        return Arrays.asList(new Object[][]
+            {
+                {false},
+                {true}
+            });
+    }
+
+    public SequenceNumberIndexTest(final boolean journalled)
+    {
+        this.journalled = journalled;
+    }
+
     @Before
     public void setUp()
     {
@@ -160,6 +183,17 @@ public class SequenceNumberIndexTest extends AbstractLogTest
         assertLastKnownSequenceNumberIs(SESSION_ID, updatedSequenceNumber);
     }
 
+    @Test
+    public void shouldUseSequenceNumberRecordedInFrame()
+    {
+        final int receivedSequenceNumber = 8;
+        this.receivedSequenceNumber = receivedSequenceNumber;
+
+        indexFixMessage();
+
+        assertLastKnownSequenceNumberIs(SESSION_ID, receivedSequenceNumber);
+    }
+
     @Test
     public void shouldValidateBufferItReadsFrom()
     {
@@ -268,6 +302,29 @@ public class SequenceNumberIndexTest extends AbstractLogTest
         verify(errorHandler, times(2), IllegalStateException.class);
     }
 
+    @Test
+    public void shouldRecoverCommittedJournalUponRestart()
+    {
+        assumeTrue(journalled);
+
+        indexFixMessage();
+
+        writer.close();
+
+        // Simulate crashing after committing the journal, but part way through copying its sectors.
+        try (MappedFile mappedFile = newIndexFile();
+            SequenceNumberIndexJournal journal = new SequenceNumberIndexJournal(journalFile(INDEX_FILE_PATH)))
+        {
+            final IntArrayList sectorOffsets = new IntArrayList();
+            sectorOffsets.addInt(0);
+            journal.commit(mappedFile.buffer(), sectorOffsets);
+        }
+        corruptIndexFile(SEQUENCE_NUMBER_OFFSET, SECTOR_SIZE / 2);
+
+        final SequenceNumberIndexReader newReader = newInstanceAfterRestart();
+        assertLastKnownSequenceNumberIs(SESSION_ID, SEQUENCE_NUMBER, newReader);
+    }
+
     private void corruptIndexFile(final int from, final int length)
     {
         try (MappedFile mappedFile = newIndexFile())
@@ -279,7 +336,7 @@ public class SequenceNumberIndexTest extends AbstractLogTest
     @Test
     public void shouldSaveIndexUponRotate()
     {
-        final int requiredMessagesToRoll = 18724;
+        final int requiredMessagesToRoll = 16384;
         for (int i = 0; i <= requiredMessagesToRoll; i++)
         {
             bufferContainsExampleMessage(true, SESSION_ID, SEQUENCE_NUMBER + i, SEQUENCE_INDEX);
@@ -363,7 +420,7 @@ public class SequenceNumberIndexTest extends AbstractLogTest
     {
         final MappedFile indexFile = newIndexFile();
         return new SequenceNumberIndexWriter(inMemoryBuffer, indexFile, errorHandler, STREAM_ID, recordingIdLookup,
-            DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS, clock, null,
+            DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS, journalled, clock, null,
             new Long2LongHashMap(UNK_SESSION));
     }
 
@@ -448,5 +505,6 @@ public class SequenceNumberIndexTest extends AbstractLogTest
         deleteIfExists(new File(INDEX_FILE_PATH));
         deleteIfExists(writableFile(INDEX_FILE_PATH));
         deleteIfExists(passingFile(INDEX_FILE_PATH));
+        deleteIfExists(journalFile(INDEX_FILE_PATH));
     }
 }
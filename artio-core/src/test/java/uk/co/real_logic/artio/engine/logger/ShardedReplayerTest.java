@@ -0,0 +1,208 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.Subscription;
+import io.aeron.logbuffer.ControlledFragmentHandler.Action;
+import io.aeron.logbuffer.Header;
+import org.agrona.collections.LongArrayList;
+import org.agrona.concurrent.AgentRunner;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.ringbuffer.OneToOneRingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBuffer;
+import org.junit.Test;
+import uk.co.real_logic.artio.messages.*;
+
+import java.util.concurrent.Executors;
+
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static org.agrona.concurrent.ringbuffer.RingBufferDescriptor.TRAILER_LENGTH;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static uk.co.real_logic.artio.CommonConfiguration.DEFAULT_NAME_PREFIX;
+import static uk.co.real_logic.artio.engine.logger.ShardedReplayer.SHARD_MESSAGE_TYPE_ID;
+import static uk.co.real_logic.artio.messages.MessageHeaderDecoder.ENCODED_LENGTH;
+
+public class ShardedReplayerTest
+{
+    private static final int SHARD_COUNT = 3;
+    private static final int SHARD_BUFFER_CAPACITY = 1024;
+    private static final long CONNECTION_ID = 5;
+
+    private final MessageHeaderEncoder header = new MessageHeaderEncoder();
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    private final UnsafeBuffer buffer = new UnsafeBuffer(new byte[1024]);
+    private final RingBuffer[] shardBuffers = new RingBuffer[SHARD_COUNT];
+    private final ShardedReplayer shardedReplayer;
+
+    public ShardedReplayerTest()
+    {
+        for (int i = 0; i < SHARD_COUNT; i++)
+        {
+            shardBuffers[i] = newShardBuffer();
+        }
+
+        shardedReplayer = new ShardedReplayer(
+            mock(Subscription.class),
+            shardBuffers,
+            new AgentRunner[0],
+            Executors.defaultThreadFactory(),
+            DEFAULT_NAME_PREFIX);
+    }
+
+    @Test
+    public void shouldCopyResendRequestsToTheShardThatOwnsTheirSession()
+    {
+        for (long sessionId = -3; sessionId <= 5; sessionId++)
+        {
+            assertEquals(CONTINUE, onFragment(encodeValidResendRequest(sessionId)));
+        }
+
+        assertReadResendRequests(0, -3, 0, 3);
+        assertReadResendRequests(1, -2, 1, 4);
+        assertReadResendRequests(2, -1, 2, 5);
+    }
+
+    @Test
+    public void shouldCopyDisconnectsToEveryShard()
+    {
+        assertEquals(CONTINUE, onFragment(encodeDisconnect()));
+
+        for (final RingBuffer shardBuffer : shardBuffers)
+        {
+            assertEquals(1, drain(shardBuffer));
+        }
+    }
+
+    @Test
+    public void shouldResumeBroadcastFromShardWithFullBuffer()
+    {
+        final int length = encodeDisconnect();
+        fillShardBuffer(1, length);
+
+        assertEquals(ABORT, onFragment(length));
+        assertEquals(1, drain(shardBuffers[0]));
+        assertEquals(0, shardBuffers[2].size());
+
+        drain(shardBuffers[1]);
+
+        // The aborted fragment is redelivered
+        assertEquals(CONTINUE, onFragment(length));
+        assertEquals(0, drain(shardBuffers[0]));
+        assertEquals(1, drain(shardBuffers[1]));
+        assertEquals(1, drain(shardBuffers[2]));
+    }
+
+    @Test
+    public void shouldAbortResendRequestWhenItsShardBufferIsFull()
+    {
+        final int length = encodeValidResendRequest(1);
+        fillShardBuffer(1, length);
+
+        assertEquals(ABORT, onFragment(length));
+    }
+
+    @Test
+    public void shouldSkipMessagesThatReplayersIgnore()
+    {
+        new ApplicationHeartbeatEncoder()
+            .wrapAndApplyHeader(buffer, 0, header)
+            .libraryId(1);
+
+        assertEquals(CONTINUE, onFragment(ENCODED_LENGTH + ApplicationHeartbeatEncoder.BLOCK_LENGTH));
+
+        for (final RingBuffer shardBuffer : shardBuffers)
+        {
+            assertEquals(0, shardBuffer.size());
+        }
+    }
+
+    private void assertReadResendRequests(final int shardIndex, final long... expectedSessionIds)
+    {
+        final LongArrayList sessionIds = new LongArrayList();
+        final ValidResendRequestDecoder validResendRequest = new ValidResendRequestDecoder();
+        shardBuffers[shardIndex].read((msgTypeId, buffer, index, length) ->
+        {
+            assertEquals(SHARD_MESSAGE_TYPE_ID, msgTypeId);
+            headerDecoder.wrap(buffer, index);
+            assertEquals(ValidResendRequestDecoder.TEMPLATE_ID, headerDecoder.templateId());
+            validResendRequest.wrap(
+                buffer, index + ENCODED_LENGTH, headerDecoder.blockLength(), headerDecoder.version());
+            sessionIds.addLong(validResendRequest.session());
+        }, Integer.MAX_VALUE);
+
+        assertEquals(sessionIds.toString(), expectedSessionIds.length, sessionIds.size());
+        for (int i = 0; i < expectedSessionIds.length; i++)
+        {
+            assertEquals(expectedSessionIds[i], sessionIds.getLong(i));
+        }
+    }
+
+    private int drain(final RingBuffer shardBuffer)
+    {
+        return shardBuffer.read((msgTypeId, buffer, index, length) -> assertEquals(SHARD_MESSAGE_TYPE_ID, msgTypeId),
+            Integer.MAX_VALUE);
+    }
+
+    private void fillShardBuffer(final int shardIndex, final int length)
+    {
+        final RingBuffer shardBuffer = shardBuffers[shardIndex];
+        int messages = 0;
+        while (shardBuffer.write(SHARD_MESSAGE_TYPE_ID, buffer, 0, length))
+        {
+            messages++;
+        }
+        assertTrue(messages > 0);
+    }
+
+    private Action onFragment(final int length)
+    {
+        return shardedReplayer.onFragment(buffer, 0, length, mock(Header.class));
+    }
+
+    private int encodeValidResendRequest(final long sessionId)
+    {
+        final ValidResendRequestEncoder validResendRequest = new ValidResendRequestEncoder();
+        validResendRequest
+            .wrapAndApplyHeader(buffer, 0, header)
+            .session(sessionId)
+            .connection(CONNECTION_ID)
+            .beginSequenceNumber(1)
+            .endSequenceNumber(2)
+            .sequenceIndex(0)
+            .putBody(new byte[0], 0, 0);
+
+        return ENCODED_LENGTH + validResendRequest.encodedLength();
+    }
+
+    private int encodeDisconnect()
+    {
+        new DisconnectEncoder()
+            .wrapAndApplyHeader(buffer, 0, header)
+            .libraryId(1)
+            .connection(CONNECTION_ID)
+            .reason(DisconnectReason.REMOTE_DISCONNECT);
+
+        return ENCODED_LENGTH + DisconnectEncoder.BLOCK_LENGTH;
+    }
+
+    private static RingBuffer newShardBuffer()
+    {
+        return new OneToOneRingBuffer(new UnsafeBuffer(new byte[SHARD_BUFFER_CAPACITY + TRAILER_LENGTH]));
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.logbuffer.Header;
+import io.aeron.protocol.DataHeaderFlyweight;
+import org.agrona.BitUtil;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.After;
+import org.junit.Test;
+import uk.co.real_logic.artio.messages.FixMessageEncoder;
+import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+
+import java.io.File;
+
+import static io.aeron.archive.client.AeronArchive.NULL_POSITION;
+import static io.aeron.logbuffer.FrameDescriptor.FRAME_ALIGNMENT;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static uk.co.real_logic.artio.engine.logger.TimeIndexDescriptor.INITIAL_RECORD_OFFSET;
+import static uk.co.real_logic.artio.engine.logger.TimeIndexDescriptor.RECORD_LENGTH;
+
+public class TimeIndexTest
+{
+    private static final String LOG_FILE_DIR = IoUtil.tmpDirName() + "time-index-test";
+    private static final int STREAM_ID = 1;
+    private static final long RECORDING_ID = 2;
+    private static final long OTHER_RECORDING_ID = 3;
+    private static final long PERIOD_IN_NS = SECONDS.toNanos(1);
+
+    private final MessageHeaderEncoder messageHeader = new MessageHeaderEncoder();
+    private final FixMessageEncoder fixMessage = new FixMessageEncoder();
+    private final UnsafeBuffer buffer = new UnsafeBuffer(new byte[1024]);
+    private final Header header = mock(Header.class);
+
+    private TimeIndexWriter writer;
+    private long position = 0;
+
+    @After
+    public void tearDown()
+    {
+        if (writer != null)
+        {
+            writer.close();
+        }
+        IoUtil.delete(new File(LOG_FILE_DIR), true);
+    }
+
+    @Test
+    public void shouldFindPositionOfFirstMessageInPeriod()
+    {
+        newWriter(INITIAL_RECORD_OFFSET + 1024);
+
+        onMessage(RECORDING_ID, millis(500));
+        final long firstMessageInSecondPeriod = onMessage(RECORDING_ID, millis(1200));
+        onMessage(RECORDING_ID, millis(1500));
+        final long firstMessageInThirdPeriod = onMessage(RECORDING_ID, millis(2100));
+        onMessage(RECORDING_ID, millis(2200));
+
+        assertStartPosition(NULL_POSITION, RECORDING_ID, millis(700));
+        assertStartPosition(firstMessageInSecondPeriod, RECORDING_ID, millis(1000));
+        assertStartPosition(firstMessageInSecondPeriod, RECORDING_ID, millis(1300));
+        assertStartPosition(firstMessageInThirdPeriod, RECORDING_ID, millis(2100));
+        assertStartPosition(firstMessageInThirdPeriod, RECORDING_ID, millis(5000));
+    }
+
+    @Test
+    public void shouldIndexRecordingsSeparately()
+    {
+        newWriter(INITIAL_RECORD_OFFSET + 1024);
+
+        onMessage(RECORDING_ID, millis(500));
+        onMessage(OTHER_RECORDING_ID, millis(600));
+        final long recordingPosition = onMessage(RECORDING_ID, millis(1200));
+        onMessage(OTHER_RECORDING_ID, millis(1300));
+        final long otherRecordingPosition = onMessage(OTHER_RECORDING_ID, millis(2300));
+
+        assertStartPosition(recordingPosition, RECORDING_ID, millis(2500));
+        assertStartPosition(otherRecordingPosition, OTHER_RECORDING_ID, millis(2500));
+        assertStartPosition(NULL_POSITION, OTHER_RECORDING_ID, millis(900));
+    }
+
+    @Test
+    public void shouldIgnoreOverwrittenRecords()
+    {
+        newWriter(INITIAL_RECORD_OFFSET + 2 * RECORD_LENGTH);
+
+        onMessage(RECORDING_ID, millis(500));
+        onMessage(RECORDING_ID, millis(1500));
+        final long thirdPeriodPosition = onMessage(RECORDING_ID, millis(2500));
+        final long fourthPeriodPosition = onMessage(RECORDING_ID, millis(3500));
+
+        assertStartPosition(NULL_POSITION, RECORDING_ID, millis(1700));
+        assertStartPosition(thirdPeriodPosition, RECORDING_ID, millis(2700));
+        assertStartPosition(fourthPeriodPosition, RECORDING_ID, millis(3700));
+    }
+
+    @Test
+    public void shouldContinueIndexingAfterRestart()
+    {
+        newWriter(INITIAL_RECORD_OFFSET + 1024);
+
+        onMessage(RECORDING_ID, millis(500));
+        final long beforeRestartPosition = onMessage(RECORDING_ID, millis(1500));
+
+        writer.close();
+        newWriter(INITIAL_RECORD_OFFSET + 1024);
+
+        onMessage(RECORDING_ID, millis(2500));
+        final long afterRestartPosition = onMessage(RECORDING_ID, millis(3500));
+
+        assertStartPosition(beforeRestartPosition, RECORDING_ID, millis(2700));
+        assertStartPosition(afterRestartPosition, RECORDING_ID, millis(3700));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldValidateIndexFileSize()
+    {
+        newWriter(1000);
+    }
+
+    private void newWriter(final int indexFileSize)
+    {
+        writer = new TimeIndexWriter(LOG_FILE_DIR, STREAM_ID, indexFileSize, PERIOD_IN_NS, null);
+    }
+
+    private long onMessage(final long recordingId, final long timestamp)
+    {
+        fixMessage
+            .wrapAndApplyHeader(buffer, 0, messageHeader)
+            .timestamp(timestamp)
+            .putMetaData(new byte[0], 0, 0)
+            .putBody(new byte[0], 0, 0);
+
+        final int length = MessageHeaderEncoder.ENCODED_LENGTH + fixMessage.encodedLength();
+        final int frameLength = DataHeaderFlyweight.HEADER_LENGTH + length;
+        final long beginPosition = position;
+        position += BitUtil.align(frameLength, FRAME_ALIGNMENT);
+
+        when(header.flags()).thenReturn((byte)DataHeaderFlyweight.BEGIN_AND_END_FLAGS);
+        when(header.frameLength()).thenReturn(frameLength);
+        when(header.position()).thenReturn(position);
+
+        writer.onCatchup(buffer, 0, length, header, recordingId);
+
+        return beginPosition;
+    }
+
+    private void assertStartPosition(final long expectedPosition, final long recordingId, final long timestamp)
+    {
+        try (TimeIndexReader reader = new TimeIndexReader(LOG_FILE_DIR, STREAM_ID))
+        {
+            assertEquals(expectedPosition, reader.startPosition(recordingId, timestamp));
+        }
+    }
+
+    private static long millis(final long millis)
+    {
+        return MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.library;
+
+import org.junit.Test;
+import uk.co.real_logic.artio.session.InternalSession;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static uk.co.real_logic.artio.library.SessionPollScheduler.TICKS_PER_WHEEL;
+import static uk.co.real_logic.artio.library.SessionPollScheduler.TICK_RESOLUTION_IN_MS;
+import static uk.co.real_logic.artio.session.InternalSession.NO_POLL_TIMER;
+import static uk.co.real_logic.artio.session.Session.NO_POLL_REQUIRED;
+
+public class SessionPollSchedulerTest
+{
+    private static final long START_TIME_IN_MS = 1_000;
+    private static final long DEADLINE_IN_MS = START_TIME_IN_MS + 100;
+    private static final long LATER_DEADLINE_IN_MS = START_TIME_IN_MS + 1_000;
+    // Deadlines are only expired at the resolution of the wheel's ticks
+    private static final long AFTER_TICK_IN_MS = 2 * TICK_RESOLUTION_IN_MS;
+
+    private final SessionPollScheduler scheduler = new SessionPollScheduler(START_TIME_IN_MS);
+    private final InternalSession session = newSession(DEADLINE_IN_MS);
+    private final InternalSession otherSession = newSession(LATER_DEADLINE_IN_MS);
+
+    @Test
+    public void shouldOnlyPollSessionWhenItsDeadlineIsDue()
+    {
+        scheduler.add(session);
+
+        assertEquals(0, scheduler.poll(DEADLINE_IN_MS - AFTER_TICK_IN_MS));
+        verify(session, never()).poll(anyLong());
+
+        assertEquals(1, scheduler.poll(DEADLINE_IN_MS + AFTER_TICK_IN_MS));
+        verify(session).poll(DEADLINE_IN_MS + AFTER_TICK_IN_MS);
+    }
+
+    @Test
+    public void shouldCatchUpOnTicksAfterALongPause()
+    {
+        scheduler.add(session);
+        scheduler.add(otherSession);
+
+        // Longer than a whole turn of the wheel
+        final long timeInMs = START_TIME_IN_MS + 2 * TICKS_PER_WHEEL * TICK_RESOLUTION_IN_MS;
+
+        assertEquals(2, scheduler.poll(timeInMs));
+        verify(session).poll(timeInMs);
+        verify(otherSession).poll(timeInMs);
+    }
+
+    @Test
+    public void shouldRescheduleSessionAfterItIsPolled()
+    {
+        scheduler.add(session);
+        final long firstPollTimeInMs = DEADLINE_IN_MS + AFTER_TICK_IN_MS;
+        when(session.nextPollTimeInMs()).thenReturn(LATER_DEADLINE_IN_MS);
+
+        assertEquals(1, scheduler.poll(firstPollTimeInMs));
+        assertEquals(0, scheduler.poll(LATER_DEADLINE_IN_MS - AFTER_TICK_IN_MS));
+
+        assertEquals(1, scheduler.poll(LATER_DEADLINE_IN_MS + AFTER_TICK_IN_MS));
+        verify(session, times(2)).poll(anyLong());
+    }
+
+    @Test
+    public void shouldRescheduleSessionWhenItsPollTimeMovesEarlier()
+    {
+        scheduler.add(otherSession);
+        final long firstTimerId = otherSession.pollTimerId();
+
+        // As happens when the session's state, id or heartbeat interval changes
+        when(otherSession.nextPollTimeInMs()).thenReturn(DEADLINE_IN_MS);
+        scheduler.onPollTimeChanged(otherSession);
+
+        assertRescheduled(otherSession, firstTimerId);
+        when(otherSession.nextPollTimeInMs()).thenReturn(NO_POLL_REQUIRED);
+
+        assertEquals(1, scheduler.poll(DEADLINE_IN_MS + AFTER_TICK_IN_MS));
+
+        // The timer for the original deadline was cancelled
+        assertEquals(0, scheduler.poll(LATER_DEADLINE_IN_MS + AFTER_TICK_IN_MS));
+        verify(otherSession, times(1)).poll(anyLong());
+    }
+
+    @Test
+    public void shouldRescheduleSessionWhenItsPollTimeMovesLater()
+    {
+        scheduler.add(session);
+        final long firstTimerId = session.pollTimerId();
+
+        when(session.nextPollTimeInMs()).thenReturn(LATER_DEADLINE_IN_MS);
+        scheduler.onPollTimeChanged(session);
+
+        assertRescheduled(session, firstTimerId);
+        assertEquals(0, scheduler.poll(DEADLINE_IN_MS + AFTER_TICK_IN_MS));
+        assertEquals(1, scheduler.poll(LATER_DEADLINE_IN_MS + AFTER_TICK_IN_MS));
+    }
+
+    @Test
+    public void shouldNotScheduleSessionThatDoesNotNeedPolling()
+    {
+        when(session.nextPollTimeInMs()).thenReturn(NO_POLL_REQUIRED);
+        scheduler.add(session);
+
+        assertEquals(NO_POLL_TIMER, session.pollTimerId());
+        assertEquals(0, scheduler.poll(LATER_DEADLINE_IN_MS + AFTER_TICK_IN_MS));
+        verify(session, never()).poll(anyLong());
+    }
+
+    @Test
+    public void shouldNotRescheduleSessionThatNoLongerNeedsPolling()
+    {
+        scheduler.add(session);
+
+        // As happens when a session disconnects
+        when(session.nextPollTimeInMs()).thenReturn(NO_POLL_REQUIRED);
+
+        assertEquals(1, scheduler.poll(DEADLINE_IN_MS + AFTER_TICK_IN_MS));
+        assertEquals(NO_POLL_TIMER, session.pollTimerId());
+
+        assertEquals(0, scheduler.poll(LATER_DEADLINE_IN_MS + AFTER_TICK_IN_MS));
+        verify(session, times(1)).poll(anyLong());
+    }
+
+    @Test
+    public void shouldNotPollRemovedSession()
+    {
+        scheduler.add(session);
+        scheduler.add(otherSession);
+
+        scheduler.remove(session);
+
+        verify(session).pollTimeListener(null);
+        assertEquals(NO_POLL_TIMER, session.pollTimerId());
+
+        assertEquals(1, scheduler.poll(LATER_DEADLINE_IN_MS + AFTER_TICK_IN_MS));
+        verify(session, never()).poll(anyLong());
+        verify(otherSession).poll(anyLong());
+    }
+
+    private void assertRescheduled(final InternalSession session, final long previousTimerId)
+    {
+        final long timerId = session.pollTimerId();
+        assertNotEquals(NO_POLL_TIMER, timerId);
+        assertNotEquals(previousTimerId, timerId);
+    }
+
+    private InternalSession newSession(final long nextPollTimeInMs)
+    {
+        final InternalSession session = mock(InternalSession.class);
+        doCallRealMethod().when(session).pollTimerId();
+        doCallRealMethod().when(session).pollTimerId(anyLong());
+        session.pollTimerId(NO_POLL_TIMER);
+
+        when(session.nextPollTimeInMs()).thenReturn(nextPollTimeInMs);
+        when(session.poll(anyLong())).thenReturn(1);
+
+        return session;
+    }
+}
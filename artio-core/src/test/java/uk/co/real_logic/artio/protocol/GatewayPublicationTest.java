@@ -0,0 +1,167 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.protocol;
+
+import io.aeron.ExclusivePublication;
+import io.aeron.logbuffer.BufferClaim;
+import org.agrona.concurrent.NoOpIdleStrategy;
+import org.agrona.concurrent.OffsetEpochNanoClock;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.messages.MessageStatus;
+
+import java.nio.ByteBuffer;
+
+import static io.aeron.logbuffer.FrameDescriptor.FRAME_ALIGNMENT;
+import static io.aeron.protocol.DataHeaderFlyweight.HEADER_LENGTH;
+import static io.aeron.protocol.HeaderFlyweight.HDR_TYPE_PAD;
+import static io.aeron.protocol.HeaderFlyweight.TYPE_FIELD_OFFSET;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static org.agrona.BitUtil.align;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GatewayPublicationTest
+{
+    private static final int MAX_MESSAGE_LENGTH = 128;
+    private static final int POSITION = 4096;
+
+    private final UnsafeBuffer termBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(4096));
+    private final ExclusivePublication dataPublication = mock(ExclusivePublication.class);
+
+    private GatewayPublication publication;
+
+    @Before
+    public void setUp()
+    {
+        when(dataPublication.maxPayloadLength()).thenReturn(1024);
+        when(dataPublication.tryClaim(anyInt(), any(BufferClaim.class))).then(inv ->
+        {
+            final int length = inv.getArgument(0);
+            final BufferClaim bufferClaim = inv.getArgument(1);
+            bufferClaim.wrap(termBuffer, 0, length + HEADER_LENGTH);
+            return (long)POSITION;
+        });
+
+        publication = new GatewayPublication(
+            dataPublication,
+            mock(AtomicCounter.class),
+            new NoOpIdleStrategy(),
+            new OffsetEpochNanoClock(),
+            1);
+    }
+
+    @Test
+    public void shouldAbortClaimWhenMessageOverfillsIt()
+    {
+        claimMessage();
+
+        final int claimedLength = publication.claimedMessageBuffer().capacity();
+        final int claimedMessageOffset = publication.claimedMessageOffset();
+        final int overfilledLength = claimedLength - claimedMessageOffset + 1;
+
+        try
+        {
+            publication.commitMessage(claimedMessageOffset, overfilledLength);
+            fail("Committed a message that overfilled its claim");
+        }
+        catch (final IllegalArgumentException e)
+        {
+            assertThat(e.getMessage(), containsString("doesn't fit within the claimed length"));
+        }
+
+        assertAborted();
+    }
+
+    @Test
+    public void shouldAbortClaimWhenMessageWrittenAfterOffsetOverfillsIt()
+    {
+        claimMessage();
+
+        final int claimedLength = publication.claimedMessageBuffer().capacity();
+        final int messageOffset = publication.claimedMessageOffset() + 8;
+        final int messageLength = claimedLength - messageOffset + 1;
+
+        try
+        {
+            publication.commitMessage(messageOffset, messageLength);
+            fail("Committed a message that overfilled its claim");
+        }
+        catch (final IllegalArgumentException e)
+        {
+            assertThat(e.getMessage(), containsString("doesn't fit within the claimed length"));
+        }
+
+        assertAborted();
+    }
+
+    @Test
+    public void shouldCommitMessageThatFillsClaim()
+    {
+        claimMessage();
+
+        final int claimedLength = publication.claimedMessageBuffer().capacity();
+        final int claimedMessageOffset = publication.claimedMessageOffset();
+
+        final long position = publication.commitMessage(
+            claimedMessageOffset, claimedLength - claimedMessageOffset);
+
+        assertEquals(POSITION, position);
+        assertEquals(claimedLength, termBuffer.getInt(0, LITTLE_ENDIAN));
+    }
+
+    @Test
+    public void shouldReturnClaimedPositionWhenShortMessagePaddedOut()
+    {
+        claimMessage();
+
+        final int claimedLength = publication.claimedMessageBuffer().capacity();
+        final int claimedMessageOffset = publication.claimedMessageOffset();
+        final int messageLength = 1;
+
+        final long position = publication.commitMessage(claimedMessageOffset, messageLength);
+
+        // The padding frame is part of the stream, so the position is still that of the end of the claim
+        assertEquals(POSITION, position);
+
+        final int frameLength = claimedMessageOffset + messageLength;
+        final int paddingOffset = align(frameLength, FRAME_ALIGNMENT);
+        assertEquals(frameLength, termBuffer.getInt(0, LITTLE_ENDIAN));
+        assertEquals(HDR_TYPE_PAD, termBuffer.getShort(paddingOffset + TYPE_FIELD_OFFSET, LITTLE_ENDIAN));
+        assertEquals(claimedLength - paddingOffset, termBuffer.getInt(paddingOffset, LITTLE_ENDIAN));
+    }
+
+    private void claimMessage()
+    {
+        final long position = publication.claimMessage(
+            MAX_MESSAGE_LENGTH, 1, 'D', 2, 0, 3, MessageStatus.OK, 1, null, 0);
+        assertThat(position, greaterThan(0L));
+    }
+
+    private void assertAborted()
+    {
+        assertEquals(HDR_TYPE_PAD, termBuffer.getShort(TYPE_FIELD_OFFSET, LITTLE_ENDIAN));
+    }
+}
@@ -48,6 +48,7 @@ import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -114,7 +115,9 @@ public abstract class AbstractSessionTest
             any(),
             anyInt(),
             eq(null),
-            eq(0))).thenReturn(POSITION);
+            eq(0),
+            anyInt(),
+            anyInt())).thenReturn(POSITION);
 
         when(sessionProxy.sendResendRequest(anyInt(), anyInt(), anyInt(), eq(SEQUENCE_INDEX), anyInt()))
             .thenReturn(POSITION);
@@ -592,6 +595,77 @@ public abstract class AbstractSessionTest
         verifyDisconnect(times(2));
     }
 
+    @Test
+    public void shouldNotNeedPollingUntilHeartbeatIsDue()
+    {
+        givenActive();
+
+        final long nextPollTimeInMs = session().nextPollTimeInMs();
+        assertThat(nextPollTimeInMs, greaterThan(fakeClock.time()));
+
+        fakeClock.advanceMilliSeconds(nextPollTimeInMs - fakeClock.time() - 1);
+        poll();
+        verify(sessionProxy, never()).sendHeartbeat(anyInt(), anyInt(), anyInt());
+
+        fakeClock.advanceMilliSeconds(1);
+        poll();
+        verify(sessionProxy).sendHeartbeat(anyInt(), eq(SEQUENCE_INDEX), anyInt());
+    }
+
+    @Test
+    public void shouldNeedPollingImmediatelyWhenLoggingOut()
+    {
+        givenActive();
+
+        session().state(LOGGING_OUT);
+
+        assertEquals(0, session().nextPollTimeInMs());
+    }
+
+    @Test
+    public void shouldNotNeedPollingWhenDisconnected()
+    {
+        session().state(DISCONNECTED);
+
+        assertEquals(Session.NO_POLL_REQUIRED, session().nextPollTimeInMs());
+    }
+
+    @Test
+    public void shouldNotifyPollTimeListenerWhenStateChanges()
+    {
+        final SessionPollTimeListener pollTimeListener = mock(SessionPollTimeListener.class);
+        final InternalSession session = (InternalSession)session();
+        session.pollTimeListener(pollTimeListener);
+
+        givenActive();
+
+        verify(pollTimeListener).onPollTimeChanged(session);
+    }
+
+    @Test
+    public void shouldNotifyPollTimeListenerWhenIdChanges()
+    {
+        final SessionPollTimeListener pollTimeListener = mock(SessionPollTimeListener.class);
+        final InternalSession session = (InternalSession)session();
+        session.pollTimeListener(pollTimeListener);
+
+        session.id(SESSION_ID);
+
+        verify(pollTimeListener).onPollTimeChanged(session);
+    }
+
+    @Test
+    public void shouldNotifyPollTimeListenerWhenHeartbeatIntervalChanges()
+    {
+        final SessionPollTimeListener pollTimeListener = mock(SessionPollTimeListener.class);
+        final InternalSession session = (InternalSession)session();
+        session.pollTimeListener(pollTimeListener);
+
+        session.heartbeatIntervalInS(1);
+
+        verify(pollTimeListener).onPollTimeChanged(session);
+    }
+
     @Test
     public void shouldSuppressTimeoutWhenMessageReceived()
     {
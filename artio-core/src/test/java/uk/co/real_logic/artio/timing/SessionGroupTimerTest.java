@@ -0,0 +1,98 @@
+/*
+ * Copyright 2015-2020 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.timing;
+
+import org.agrona.concurrent.EpochNanoClock;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.FixCounters;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class SessionGroupTimerTest
+{
+    private static final int SESSION_GROUPS = 3;
+
+    private final FixCounters fixCounters = mock(FixCounters.class);
+    private final AtomicCounter negativeTimestamps = mock(AtomicCounter.class);
+    private final AtomicCounter maxLatency = mock(AtomicCounter.class);
+    private final List<Timer> timers = new ArrayList<>();
+
+    private Timer timer;
+
+    @Before
+    public void setUp()
+    {
+        when(fixCounters.negativeTimestamps()).thenReturn(negativeTimestamps);
+        when(fixCounters.timerMaxLatency(anyString())).thenReturn(maxLatency);
+
+        timer = new Timer(mock(EpochNanoClock.class), "Outbound", 1, fixCounters, SESSION_GROUPS);
+        timer.addTo(timers);
+    }
+
+    @Test
+    public void shouldListSessionGroupTimersAfterTheTimer()
+    {
+        assertEquals(SESSION_GROUPS + 1, timers.size());
+        assertEquals(timer, timers.get(0));
+        assertEquals("Outbound session group 2", timers.get(3).name());
+        assertEquals(1003, timers.get(3).id());
+    }
+
+    @Test
+    public void shouldRecordValuesIntoTheGroupOfTheSession()
+    {
+        timer.recordValue(1, 10);
+        timer.recordValue(4, 20);
+        timer.recordValue(2, 30);
+
+        assertEquals(3, timer.getTimings().getTotalCount());
+        assertEquals(0, timers.get(1).getTimings().getTotalCount());
+        assertEquals(2, timers.get(2).getTimings().getTotalCount());
+        assertEquals(1, timers.get(3).getTimings().getTotalCount());
+    }
+
+    @Test
+    public void shouldUpdateMaxLatencyCounterOfSessionGroupsWhenLogged()
+    {
+        timer.recordValue(2, 500);
+
+        timers.get(3).getTimings();
+
+        verify(maxLatency).setOrdered(500L);
+    }
+
+    @Test
+    public void shouldNotRecordNegativeDurationsIntoSessionGroups()
+    {
+        timer.recordValue(1, -5);
+
+        verify(negativeTimestamps).increment();
+        assertEquals(0, timers.get(2).getTimings().getTotalCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldValidateNumberOfSessionGroups()
+    {
+        new Timer(mock(EpochNanoClock.class), "Send", 2, fixCounters, Timer.MAX_SESSION_GROUPS + 1);
+    }
+}
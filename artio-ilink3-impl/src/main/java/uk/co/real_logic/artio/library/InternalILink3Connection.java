@@ -18,13 +18,14 @@ package uk.co.real_logic.artio.library;
 import iLinkBinary.*;
 import io.aeron.exceptions.TimeoutException;
 import org.agrona.DirectBuffer;
-import org.agrona.ExpandableArrayBuffer;
 import org.agrona.LangUtil;
 import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.EpochNanoClock;
 import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.AtomicCounter;
 import org.agrona.sbe.MessageEncoderFlyweight;
 import uk.co.real_logic.artio.DebugLogger;
+import uk.co.real_logic.artio.FixCounters;
 import uk.co.real_logic.artio.LogTag;
 import uk.co.real_logic.artio.Pressure;
 import uk.co.real_logic.artio.ilink.*;
@@ -50,7 +51,6 @@ import static uk.co.real_logic.artio.LogTag.ILINK_SESSION;
 import static uk.co.real_logic.artio.ilink.AbstractILink3Offsets.*;
 import static uk.co.real_logic.artio.ilink.AbstractILink3Parser.BOOLEAN_FLAG_TRUE;
 import static uk.co.real_logic.artio.ilink.SimpleOpenFramingHeader.SOFH_LENGTH;
-import static uk.co.real_logic.artio.ilink.SimpleOpenFramingHeader.readSofhMessageSize;
 import static uk.co.real_logic.artio.library.ILink3ConnectionConfiguration.AUTOMATIC_INITIAL_SEQUENCE_NUMBER;
 import static uk.co.real_logic.artio.messages.DisconnectReason.*;
 
@@ -158,10 +158,14 @@ public final class InternalILink3Connection extends ILink3Connection
     private final Consumer<StringBuilder> businessRejectAppendTo = businessReject::appendTo;
 
     // Reorder buffer
-    private int retransmitQueueOffset = 0;
-    private final int maxRetransmitQueueSize;
     private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
-    private final ExpandableArrayBuffer retransmitQueue = new ExpandableArrayBuffer();
+    private final RetransmitQueue retransmitQueue;
+    private final RetransmitQueue.EntryHandler inOrderEntryHandler = this::onInOrderEntry;
+    private final RetransmitQueue.EntryHandler outOfOrderEntryHandler = this::onOutOfOrderEntry;
+    private final SortedSet<RetransmitQueueEntry> outOfOrderEntries = new TreeSet<>();
+    private long expectedFirstInOrderSeqNo;
+    private boolean firstInOrderEntry;
+    private boolean awaitingRetransmitBatches;
 
     private final ILink3Proxy proxy;
     private final ILink3Offsets offsets;
@@ -215,12 +219,15 @@ public final class InternalILink3Connection extends ILink3Connection
         final long lastSentSequenceNumber,
         final boolean newlyAllocated,
         final long lastUuid,
-        final EpochNanoClock epochNanoClock)
+        final EpochNanoClock epochNanoClock,
+        final FixCounters fixCounters)
     {
         this(configuration, connectionId, initiateReply, outboundPublication, inboundPublication, libraryId,
             owner, uuid, lastReceivedSequenceNumber, lastSentSequenceNumber, newlyAllocated, lastUuid, epochNanoClock,
             new ILink3Proxy(connectionId, outboundPublication.dataPublication(), new ILink3BusinessMessageDissector(),
-            epochNanoClock));
+            epochNanoClock),
+            fixCounters.retransmitQueueDepth(connectionId),
+            fixCounters.retransmitQueueMaxTime(connectionId));
     }
 
     InternalILink3Connection(
@@ -237,7 +244,9 @@ public final class InternalILink3Connection extends ILink3Connection
         final boolean newlyAllocated,
         final long lastUuid,
         final EpochNanoClock epochNanoClock,
-        final ILink3Proxy proxy)
+        final ILink3Proxy proxy,
+        final AtomicCounter retransmitQueueDepth,
+        final AtomicCounter retransmitQueueMaxTime)
     {
         this.configuration = configuration;
         this.connectionId = connectionId;
@@ -247,7 +256,7 @@ public final class InternalILink3Connection extends ILink3Connection
         this.libraryId = libraryId;
         this.owner = owner;
         this.handler = configuration.handler();
-        this.maxRetransmitQueueSize = configuration.maxRetransmitQueueSize();
+        this.retransmitQueue = new RetransmitQueue(configuration, retransmitQueueDepth, retransmitQueueMaxTime);
         this.newlyAllocated = newlyAllocated;
         this.epochNanoClock = epochNanoClock;
         this.proxy = proxy;
@@ -477,7 +486,7 @@ public final class InternalILink3Connection extends ILink3Connection
 
     int retransmitQueueSize()
     {
-        return retransmitQueueOffset;
+        return retransmitQueue.size();
     }
 
     void state(final State state)
@@ -869,6 +878,7 @@ public final class InternalILink3Connection extends ILink3Connection
 
         requestDisconnect(FAILED_AUTHENTICATION);
         owner.remove(this);
+        retransmitQueue.close();
     }
 
     public long onEstablishmentAck(
@@ -1151,6 +1161,7 @@ public final class InternalILink3Connection extends ILink3Connection
     void unbindState(final DisconnectReason reason)
     {
         state = State.UNBOUND;
+        retransmitQueue.close();
         handler.onDisconnect(this, reason);
 
         // Complete the reply if we're in the process of trying to establish a connection and we haven't provided
@@ -1335,13 +1346,11 @@ public final class InternalILink3Connection extends ILink3Connection
         return 1;
     }
 
-    // returns true if the enqueue is successful
     private void enqueueRetransmitMessage(
         final DirectBuffer buffer, final int offset, final int totalLength, final long seqNum)
     {
-        final int newQueueSize = retransmitQueueOffset + totalLength;
-
-        if (newQueueSize > maxRetransmitQueueSize)
+        final int headerOffset = offset - HEADER_LENGTH;
+        if (!retransmitQueue.offer(buffer, headerOffset, totalLength, epochNanoClock.nanoTime()))
         {
             // We've hit the maximum size of the retransmit queue, at this point we need to make sure that we don't
             // drop the messages but we can't enqueue them, so we enqueue another retransmit request.
@@ -1365,13 +1374,7 @@ public final class InternalILink3Connection extends ILink3Connection
                     addRetransmitRequest(retransmitRequest.lastUuid, seqNum, 1);
                 }
             }
-
-            return;
         }
-
-        final int headerOffset = offset - HEADER_LENGTH;
-        retransmitQueue.putBytes(retransmitQueueOffset, buffer, headerOffset, totalLength);
-        retransmitQueueOffset = newQueueSize;
     }
 
     private void onBusinessMessage(
@@ -1533,113 +1536,102 @@ public final class InternalILink3Connection extends ILink3Connection
     private void processOutOfOrderRetransmitQueue()
     {
         // A retransmit within a retransmit happened - messages might be out of order and need sorting.
-        final ExpandableArrayBuffer retransmitQueue = this.retransmitQueue;
+        final SortedSet<RetransmitQueueEntry> entries = this.outOfOrderEntries;
         final MessageHeaderDecoder headerDecoder = this.headerDecoder;
-        final SortedSet<RetransmitQueueEntry> entries = new TreeSet<>();
-        long retransmitContiguousSeqNo = this.retransmitContiguousSeqNo;
 
-        int offset = 0;
-        while (offset < retransmitQueueOffset)
-        {
-            final int length = readSofhMessageSize(retransmitQueue, offset);
-
-            final int headerOffset = offset + SOFH_LENGTH;
-            headerDecoder.wrap(retransmitQueue, headerOffset);
-            final int blockLength = headerDecoder.blockLength();
-            final int templateId = headerDecoder.templateId();
-            final int version = headerDecoder.version();
-
-            final int messageOffset = headerOffset + MessageHeaderDecoder.ENCODED_LENGTH;
-            final int seqNum = offsets.seqNum(templateId, retransmitQueue, messageOffset);
-            final long messageUuid = offsets.uuid(templateId, retransmitQueue, messageOffset);
-            if (messageUuid == retransmitUuid && seqNum == retransmitContiguousSeqNo + 1)
-            {
-                onBusinessMessage(retransmitQueue, messageOffset, templateId, blockLength, version, false);
-                retransmitContiguousSeqNo++;
-            }
-            else
-            {
-                entries.add(new RetransmitQueueEntry(messageUuid, seqNum, offset));
-            }
-
-            offset += length;
-        }
+        retransmitQueue.forEach(outOfOrderEntryHandler);
 
         for (final RetransmitQueueEntry entry : entries)
         {
+            final DirectBuffer buffer = entry.buffer;
             final int headerOffset = entry.offset + SOFH_LENGTH;
-            headerDecoder.wrap(retransmitQueue, headerOffset);
+            headerDecoder.wrap(buffer, headerOffset);
             final int blockLength = headerDecoder.blockLength();
             final int templateId = headerDecoder.templateId();
             final int version = headerDecoder.version();
 
             final int messageOffset = headerOffset + MessageHeaderDecoder.ENCODED_LENGTH;
-            onBusinessMessage(retransmitQueue, messageOffset, templateId, blockLength, version, false);
+            onBusinessMessage(buffer, messageOffset, templateId, blockLength, version, false);
         }
 
+        entries.clear();
         this.retransmitContiguousSeqNo = NOT_AWAITING_RETRANSMIT;
-        retransmitQueueOffset = 0;
+        retransmitQueue.clear(epochNanoClock.nanoTime());
     }
 
-    private void processInOrderRetransmitQueue()
+    private boolean onOutOfOrderEntry(final DirectBuffer buffer, final int offset, final int length)
     {
-        final long expectedFirstSeqNo = retransmitFillSeqNo + 1;
-
-        // Simple retransmit queue case - messages are all in order and can all be sent.
-        final ExpandableArrayBuffer retransmitQueue = this.retransmitQueue;
         final MessageHeaderDecoder headerDecoder = this.headerDecoder;
-        int offset = 0;
-        boolean first = true;
-        while (offset < retransmitQueueOffset)
+        final int headerOffset = offset + SOFH_LENGTH;
+        headerDecoder.wrap(buffer, headerOffset);
+        final int blockLength = headerDecoder.blockLength();
+        final int templateId = headerDecoder.templateId();
+        final int version = headerDecoder.version();
+
+        final int messageOffset = headerOffset + MessageHeaderDecoder.ENCODED_LENGTH;
+        final int seqNum = offsets.seqNum(templateId, buffer, messageOffset);
+        final long messageUuid = offsets.uuid(templateId, buffer, messageOffset);
+        if (messageUuid == retransmitUuid && seqNum == retransmitContiguousSeqNo + 1)
         {
-            final int length = readSofhMessageSize(retransmitQueue, offset);
+            onBusinessMessage(buffer, messageOffset, templateId, blockLength, version, false);
+            retransmitContiguousSeqNo++;
+        }
+        else
+        {
+            outOfOrderEntries.add(new RetransmitQueueEntry(messageUuid, seqNum, buffer, offset));
+        }
 
-            final int headerOffset = offset + SOFH_LENGTH;
-            headerDecoder.wrap(retransmitQueue, headerOffset);
-            final int blockLength = headerDecoder.blockLength();
-            final int templateId = headerDecoder.templateId();
-            final int version = headerDecoder.version();
+        return true;
+    }
 
-            final int messageOffset = headerOffset + MessageHeaderDecoder.ENCODED_LENGTH;
-            final int seqNum = offsets.seqNum(templateId, retransmitQueue, messageOffset);
+    private void processInOrderRetransmitQueue()
+    {
+        // Simple retransmit queue case - messages are all in order and can all be sent.
+        expectedFirstInOrderSeqNo = retransmitFillSeqNo + 1;
+        firstInOrderEntry = true;
+        awaitingRetransmitBatches = false;
 
-            if (first)
-            {
-                if (seqNum > expectedFirstSeqNo)
-                {
-                    // If a resend request over 2500 in size has been sent then we will have batched the resend
-                    // request into chunks and we don't want to resend a contiguous queue until we receive the all the
-                    // resend messages
-                    return;
-                }
+        retransmitQueue.drain(inOrderEntryHandler, epochNanoClock.nanoTime());
 
-                first = false;
-            }
+        if (!awaitingRetransmitBatches)
+        {
+            retransmitMaxSeqNo = NOT_AWAITING_RETRANSMIT;
+        }
+    }
 
-            if (retransmitMaxSeqNo == NOT_AWAITING_RETRANSMIT || seqNum <= retransmitMaxSeqNo)
-            {
-                onBusinessMessage(retransmitQueue, messageOffset, templateId, blockLength, version, false);
+    private boolean onInOrderEntry(final DirectBuffer buffer, final int offset, final int length)
+    {
+        final MessageHeaderDecoder headerDecoder = this.headerDecoder;
+        final int headerOffset = offset + SOFH_LENGTH;
+        headerDecoder.wrap(buffer, headerOffset);
+        final int blockLength = headerDecoder.blockLength();
+        final int templateId = headerDecoder.templateId();
+        final int version = headerDecoder.version();
 
-                offset += length;
-            }
-            else
+        final int messageOffset = headerOffset + MessageHeaderDecoder.ENCODED_LENGTH;
+        final int seqNum = offsets.seqNum(templateId, buffer, messageOffset);
+
+        if (firstInOrderEntry)
+        {
+            if (seqNum > expectedFirstInOrderSeqNo)
             {
-                break;
+                // If a resend request over 2500 in size has been sent then we will have batched the resend
+                // request into chunks and we don't want to resend a contiguous queue until we receive the all the
+                // resend messages
+                awaitingRetransmitBatches = true;
+                return false;
             }
-        }
 
-        // shuffle up remaining bytes
-        final int remainder = retransmitQueueOffset - offset;
-        if (remainder > 0)
-        {
-            retransmitQueue.putBytes(0, retransmitQueue, offset, remainder);
-            retransmitQueueOffset = remainder;
+            firstInOrderEntry = false;
         }
-        else
+
+        if (retransmitMaxSeqNo == NOT_AWAITING_RETRANSMIT || seqNum <= retransmitMaxSeqNo)
         {
-            retransmitQueueOffset = 0;
+            onBusinessMessage(buffer, messageOffset, templateId, blockLength, version, false);
+            return true;
         }
-        retransmitMaxSeqNo = NOT_AWAITING_RETRANSMIT;
+
+        return false;
     }
 
     private void addRemainingRetransmitRequests(
@@ -1709,12 +1701,14 @@ public final class InternalILink3Connection extends ILink3Connection
     {
         final long uuid;
         final long seqNum;
+        final DirectBuffer buffer;
         final int offset;
 
-        RetransmitQueueEntry(final long uuid, final long seqNum, final int offset)
+        RetransmitQueueEntry(final long uuid, final long seqNum, final DirectBuffer buffer, final int offset)
         {
             this.uuid = uuid;
             this.seqNum = seqNum;
+            this.buffer = buffer;
             this.offset = offset;
         }
 
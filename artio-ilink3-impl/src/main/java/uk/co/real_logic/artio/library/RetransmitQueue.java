@@ -0,0 +1,337 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.library;
+
+import org.agrona.DirectBuffer;
+import org.agrona.IoUtil;
+import org.agrona.LangUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.AtomicCounter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+
+/**
+ * Queue of the business messages that are received whilst a retransmit is outstanding and can't yet be handed to the
+ * application. Messages are stored off-heap in segments, which are memory mapped from files in the spill directory
+ * once the in-memory limit is reached, and are handed out directly from their segment rather than being copied again.
+ *
+ * The depth counter is the number of bytes queued and the max time counter is the longest time that a message spent
+ * queued since the queue last started filling up, which is when a retransmit starts queueing messages. The counters
+ * are freed when the queue is closed, after which they're no longer updated.
+ */
+final class RetransmitQueue implements AutoCloseable
+{
+    // Entry: enqueue time in nanoseconds, message length, message including the framing header
+    private static final int ENTRY_HEADER_LENGTH = SIZE_OF_LONG + SIZE_OF_INT;
+
+    interface EntryHandler
+    {
+        /**
+         * Called with an entry of the queue, the buffer is only valid during the callback or until the queue is
+         * next modified.
+         *
+         * @param buffer the buffer containing the message.
+         * @param offset the offset of the message's framing header within the buffer.
+         * @param length the length of the message including the framing header.
+         * @return true to carry on with the next entry, false to stop.
+         */
+        boolean onEntry(DirectBuffer buffer, int offset, int length);
+    }
+
+    static final class Segment
+    {
+        final UnsafeBuffer buffer;
+        final File file;
+        int readOffset;
+        int writeOffset;
+
+        Segment(final ByteBuffer byteBuffer, final File file)
+        {
+            this.buffer = new UnsafeBuffer(byteBuffer);
+            this.file = file;
+        }
+
+        boolean isMapped()
+        {
+            return file != null;
+        }
+    }
+
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+    private final int maxSize;
+    private final int segmentSize;
+    private final int maxInMemorySize;
+    private final File spillDirectory;
+    private final AtomicCounter depth;
+    private final AtomicCounter maxTimeInQueueInNs;
+
+    private Segment spareSegment;
+    private int inMemorySize;
+    private int size;
+    private long maxTimeInQueue;
+    private boolean isClosed;
+
+    RetransmitQueue(
+        final ILink3ConnectionConfiguration configuration,
+        final AtomicCounter depth,
+        final AtomicCounter maxTimeInQueueInNs)
+    {
+        this.maxSize = configuration.maxRetransmitQueueSize();
+        this.segmentSize = configuration.retransmitQueueSegmentSize();
+        this.maxInMemorySize = configuration.maxInMemoryRetransmitQueueSize();
+        final String spillDirectory = configuration.retransmitQueueSpillDirectory();
+        this.spillDirectory = spillDirectory == null ? null : new File(spillDirectory);
+        this.depth = depth;
+        this.maxTimeInQueueInNs = maxTimeInQueueInNs;
+    }
+
+    /**
+     * Copy a message to the end of the queue.
+     *
+     * @param buffer the buffer containing the message.
+     * @param offset the offset of the message's framing header within the buffer.
+     * @param length the length of the message including the framing header.
+     * @param timeInNs the current time in nanoseconds.
+     * @return true if the message was enqueued, false if that would exceed the maximum size of the queue.
+     */
+    boolean offer(final DirectBuffer buffer, final int offset, final int length, final long timeInNs)
+    {
+        final int size = this.size;
+        final int newSize = size + length;
+        if (newSize > maxSize)
+        {
+            return false;
+        }
+
+        if (size == 0)
+        {
+            // Only report the time in queue of the messages queued from now on
+            maxTimeInQueue = 0;
+        }
+
+        final int entryLength = ENTRY_HEADER_LENGTH + length;
+        Segment segment = segments.peekLast();
+        if (segment == null || segment.buffer.capacity() - segment.writeOffset < entryLength)
+        {
+            segment = newSegment(entryLength);
+            segments.addLast(segment);
+        }
+
+        final UnsafeBuffer segmentBuffer = segment.buffer;
+        final int entryOffset = segment.writeOffset;
+        segmentBuffer.putLong(entryOffset, timeInNs);
+        segmentBuffer.putInt(entryOffset + SIZE_OF_LONG, length);
+        segmentBuffer.putBytes(entryOffset + ENTRY_HEADER_LENGTH, buffer, offset, length);
+        segment.writeOffset = entryOffset + entryLength;
+
+        this.size = newSize;
+        updateDepth(newSize);
+        return true;
+    }
+
+    /**
+     * Hands entries from the head of the queue to the handler, removing each one that the handler accepts, until the
+     * handler rejects an entry or the queue is empty.
+     *
+     * @param handler the handler to pass entries to.
+     * @param timeInNs the current time in nanoseconds.
+     */
+    void drain(final EntryHandler handler, final long timeInNs)
+    {
+        final ArrayDeque<Segment> segments = this.segments;
+        Segment segment;
+        while ((segment = segments.peekFirst()) != null)
+        {
+            final UnsafeBuffer segmentBuffer = segment.buffer;
+            while (segment.readOffset < segment.writeOffset)
+            {
+                final int entryOffset = segment.readOffset;
+                final int length = segmentBuffer.getInt(entryOffset + SIZE_OF_LONG);
+                if (!handler.onEntry(segmentBuffer, entryOffset + ENTRY_HEADER_LENGTH, length))
+                {
+                    updateDepth(size);
+                    return;
+                }
+
+                onTimeInQueue(timeInNs - segmentBuffer.getLong(entryOffset));
+                segment.readOffset = entryOffset + ENTRY_HEADER_LENGTH + length;
+                size -= length;
+            }
+
+            release(segments.pollFirst());
+        }
+
+        updateDepth(size);
+    }
+
+    /**
+     * Hands every entry of the queue to the handler in order, without removing them, until the handler rejects an
+     * entry.
+     *
+     * @param handler the handler to pass entries to.
+     */
+    void forEach(final EntryHandler handler)
+    {
+        for (final Segment segment : segments)
+        {
+            final UnsafeBuffer segmentBuffer = segment.buffer;
+            int entryOffset = segment.readOffset;
+            while (entryOffset < segment.writeOffset)
+            {
+                final int length = segmentBuffer.getInt(entryOffset + SIZE_OF_LONG);
+                if (!handler.onEntry(segmentBuffer, entryOffset + ENTRY_HEADER_LENGTH, length))
+                {
+                    return;
+                }
+
+                entryOffset += ENTRY_HEADER_LENGTH + length;
+            }
+        }
+    }
+
+    /**
+     * Removes every entry from the queue.
+     *
+     * @param timeInNs the current time in nanoseconds.
+     */
+    void clear(final long timeInNs)
+    {
+        final Segment head = segments.peekFirst();
+        if (head != null && head.readOffset < head.writeOffset)
+        {
+            onTimeInQueue(timeInNs - head.buffer.getLong(head.readOffset));
+        }
+
+        releaseSegments();
+        size = 0;
+        updateDepth(0);
+    }
+
+    int size()
+    {
+        return size;
+    }
+
+    // Closed both when the connection is unbound and when its negotiation is rejected
+    public void close()
+    {
+        releaseSegments();
+        spareSegment = null;
+        size = 0;
+
+        if (!isClosed)
+        {
+            isClosed = true;
+            depth.close();
+            maxTimeInQueueInNs.close();
+        }
+    }
+
+    // The counters' slots may have been reused by the time a closed queue is modified
+    private void updateDepth(final int depth)
+    {
+        if (!isClosed)
+        {
+            this.depth.setOrdered(depth);
+        }
+    }
+
+    private void onTimeInQueue(final long timeInQueue)
+    {
+        if (timeInQueue > maxTimeInQueue)
+        {
+            maxTimeInQueue = timeInQueue;
+            if (!isClosed)
+            {
+                maxTimeInQueueInNs.setOrdered(timeInQueue);
+            }
+        }
+    }
+
+    private Segment newSegment(final int entryLength)
+    {
+        // Oversized messages get a segment of their own
+        if (entryLength > segmentSize)
+        {
+            return new Segment(ByteBuffer.allocateDirect(entryLength), null);
+        }
+
+        final Segment spareSegment = this.spareSegment;
+        if (spareSegment != null)
+        {
+            this.spareSegment = null;
+            return spareSegment;
+        }
+
+        if (spillDirectory == null || inMemorySize + segmentSize <= maxInMemorySize)
+        {
+            inMemorySize += segmentSize;
+            return new Segment(ByteBuffer.allocateDirect(segmentSize), null);
+        }
+
+        try
+        {
+            final File file = File.createTempFile("retransmit-queue-", ".dat", spillDirectory);
+            return new Segment(IoUtil.mapNewFile(file, segmentSize), file);
+        }
+        catch (final IOException ex)
+        {
+            LangUtil.rethrowUnchecked(ex);
+            return null;
+        }
+    }
+
+    private void releaseSegments()
+    {
+        final Iterator<Segment> it = segments.iterator();
+        while (it.hasNext())
+        {
+            release(it.next());
+            it.remove();
+        }
+    }
+
+    private void release(final Segment segment)
+    {
+        if (segment.isMapped())
+        {
+            IoUtil.unmap((MappedByteBuffer)segment.buffer.byteBuffer());
+            IoUtil.delete(segment.file, true);
+        }
+        else if (segment.buffer.capacity() == segmentSize)
+        {
+            // Keep one in-memory segment around so that small retransmits don't allocate.
+            segment.readOffset = 0;
+            segment.writeOffset = 0;
+            if (spareSegment == null)
+            {
+                spareSegment = segment;
+            }
+            else
+            {
+                inMemorySize -= segmentSize;
+            }
+        }
+    }
+}
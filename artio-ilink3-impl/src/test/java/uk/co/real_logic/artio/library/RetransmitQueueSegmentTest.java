@@ -0,0 +1,215 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.library;
+
+import org.agrona.DirectBuffer;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.After;
+import org.junit.Test;
+import uk.co.real_logic.artio.ilink.ILink3ConnectionHandler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class RetransmitQueueSegmentTest
+{
+    private static final int MESSAGE_LENGTH = 20;
+    // Two entries fit in a segment
+    private static final int SEGMENT_SIZE = 64;
+
+    private final AtomicCounter depth = mock(AtomicCounter.class);
+    private final AtomicCounter maxTimeInQueue = mock(AtomicCounter.class);
+    private final UnsafeBuffer message = new UnsafeBuffer(new byte[MESSAGE_LENGTH]);
+    private final List<Byte> received = new ArrayList<>();
+
+    private File spillDirectory;
+    private RetransmitQueue queue;
+
+    @After
+    public void tearDown()
+    {
+        queue.close();
+        if (spillDirectory != null)
+        {
+            IoUtil.delete(spillDirectory, true);
+        }
+    }
+
+    @Test
+    public void shouldSpillSegmentsBeyondInMemoryLimitIntoFiles() throws IOException
+    {
+        spillDirectory = Files.createTempDirectory("retransmit-queue").toFile();
+        newQueue(1024);
+
+        offer(1, 2, 3, 4, 5, 6);
+
+        assertEquals(2, spillDirectory.list().length);
+
+        queue.drain(this::onEntry, 0);
+
+        assertThat(received, contains((byte)1, (byte)2, (byte)3, (byte)4, (byte)5, (byte)6));
+        assertEquals(0, queue.size());
+        assertEquals(0, spillDirectory.list().length);
+    }
+
+    @Test
+    public void shouldStopDrainingWhenHandlerRejectsEntry()
+    {
+        newQueue(1024);
+
+        offer(1, 2, 3, 4, 5);
+
+        queue.drain((buffer, offset, length) -> onEntry(buffer, offset, length) && received.size() < 3, 0);
+
+        assertThat(received, contains((byte)1, (byte)2, (byte)3));
+        assertEquals(3 * MESSAGE_LENGTH, queue.size());
+
+        received.clear();
+        queue.drain(this::onEntry, 0);
+
+        assertThat(received, contains((byte)3, (byte)4, (byte)5));
+        assertEquals(0, queue.size());
+        verify(depth).setOrdered(0);
+    }
+
+    @Test
+    public void shouldVisitEntriesWithoutRemovingThem()
+    {
+        newQueue(1024);
+
+        offer(1, 2, 3);
+
+        queue.forEach(this::onEntry);
+
+        assertThat(received, contains((byte)1, (byte)2, (byte)3));
+        assertEquals(3 * MESSAGE_LENGTH, queue.size());
+
+        queue.clear(0);
+
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void shouldRejectMessagesBeyondMaximumSize()
+    {
+        newQueue(2 * MESSAGE_LENGTH);
+
+        offer(1, 2);
+        message.setMemory(0, MESSAGE_LENGTH, (byte)3);
+
+        assertFalse(queue.offer(message, 0, MESSAGE_LENGTH, 0));
+        assertEquals(2 * MESSAGE_LENGTH, queue.size());
+    }
+
+    @Test
+    public void shouldRecordMaximumTimeInQueue()
+    {
+        newQueue(1024);
+
+        message.setMemory(0, MESSAGE_LENGTH, (byte)1);
+        assertTrue(queue.offer(message, 0, MESSAGE_LENGTH, 10));
+        message.setMemory(0, MESSAGE_LENGTH, (byte)2);
+        assertTrue(queue.offer(message, 0, MESSAGE_LENGTH, 50));
+
+        queue.drain(this::onEntry, 110);
+
+        verify(maxTimeInQueue).setOrdered(100);
+    }
+
+    @Test
+    public void shouldResetMaximumTimeInQueueForNextRetransmit()
+    {
+        newQueue(1024);
+
+        assertTrue(queue.offer(message, 0, MESSAGE_LENGTH, 10));
+        queue.drain(this::onEntry, 110);
+        verify(maxTimeInQueue).setOrdered(100);
+
+        assertTrue(queue.offer(message, 0, MESSAGE_LENGTH, 200));
+        queue.drain(this::onEntry, 230);
+        verify(maxTimeInQueue).setOrdered(30);
+    }
+
+    @Test
+    public void shouldNotUpdateCountersOnceClosed()
+    {
+        newQueue(1024);
+
+        queue.close();
+
+        assertTrue(queue.offer(message, 0, MESSAGE_LENGTH, 10));
+        queue.drain(this::onEntry, 110);
+        assertTrue(queue.offer(message, 0, MESSAGE_LENGTH, 200));
+        queue.clear(230);
+        queue.close();
+
+        verify(depth).close();
+        verify(maxTimeInQueue).close();
+        verify(depth, never()).setOrdered(anyLong());
+        verify(maxTimeInQueue, never()).setOrdered(anyLong());
+    }
+
+    private boolean onEntry(final DirectBuffer buffer, final int offset, final int length)
+    {
+        assertEquals(MESSAGE_LENGTH, length);
+        received.add(buffer.getByte(offset));
+        return true;
+    }
+
+    private void offer(final int... values)
+    {
+        for (final int value : values)
+        {
+            message.setMemory(0, MESSAGE_LENGTH, (byte)value);
+            assertTrue(queue.offer(message, 0, MESSAGE_LENGTH, 0));
+        }
+    }
+
+    private void newQueue(final int maxSize)
+    {
+        final ILink3ConnectionConfiguration.Builder builder = new ILink3ConnectionConfiguration.Builder()
+            .host("localhost")
+            .port(123)
+            .handler(mock(ILink3ConnectionHandler.class))
+            .firmId("DEFGH")
+            .userKey("somethingprivate")
+            .accessKeyId("12345678901234567890")
+            .sessionId("ABC")
+            .maxRetransmitQueueSizeInBytes(maxSize)
+            .retransmitQueueSegmentSizeInBytes(SEGMENT_SIZE);
+
+        if (spillDirectory != null)
+        {
+            // Only the first segment is in memory
+            builder.retransmitQueueSpill(spillDirectory.getAbsolutePath(), SEGMENT_SIZE);
+        }
+
+        queue = new RetransmitQueue(builder.build(), depth, maxTimeInQueue);
+    }
+}
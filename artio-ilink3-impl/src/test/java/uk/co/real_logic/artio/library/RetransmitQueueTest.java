@@ -18,6 +18,7 @@ package uk.co.real_logic.artio.library;
 import iLinkBinary.*;
 import org.agrona.concurrent.EpochNanoClock;
 import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.AtomicCounter;
 import org.hamcrest.Matcher;
 import org.hamcrest.Matchers;
 import org.junit.After;
@@ -99,7 +100,9 @@ public class RetransmitQueueTest
             false,
             LAST_UUID,
             clock,
-            proxy);
+            proxy,
+            mock(AtomicCounter.class),
+            mock(AtomicCounter.class));
 
         verify(proxy).businessMessageLogger();
     }
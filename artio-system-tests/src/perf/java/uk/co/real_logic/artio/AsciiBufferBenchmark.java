@@ -0,0 +1,145 @@
+/*
+ * Copyright 2015-2020 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.concurrent.TimeUnit;
+
+import static uk.co.real_logic.artio.util.AsciiBuffer.SEPARATOR;
+import static uk.co.real_logic.artio.util.AsciiBuffer.UNKNOWN_INDEX;
+
+/**
+ * Compares the word at a time scanning, checksum and integer parsing methods of {@link MutableAsciiBuffer} with
+ * byte at a time equivalents when run over every field of realistic messages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AsciiBufferBenchmark
+{
+    private static final byte EQUALS = (byte)'=';
+
+    @Param({"NEW_ORDER_SINGLE", "LOGON"})
+    public String message;
+
+    private MutableAsciiBuffer buffer;
+    private int length;
+
+    @Setup
+    public void setup()
+    {
+        buffer = new MutableAsciiBuffer(
+            "NEW_ORDER_SINGLE".equals(message) ? TestData.NEW_ORDER_SINGLE : TestData.LOGON);
+        length = buffer.capacity();
+    }
+
+    @Benchmark
+    public void scanFields(final Blackhole bh)
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+        final int length = this.length;
+        int index = 0;
+        while (index < length)
+        {
+            final int equalsIndex = buffer.scan(index, length, EQUALS);
+            final int separatorIndex = buffer.scan(equalsIndex + 1, length, SEPARATOR);
+            bh.consume(equalsIndex);
+            index = separatorIndex + 1;
+        }
+    }
+
+    @Benchmark
+    public void scanFieldsByteAtATime(final Blackhole bh)
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+        final int length = this.length;
+        int index = 0;
+        while (index < length)
+        {
+            final int equalsIndex = scanByteAtATime(buffer, index, length, EQUALS);
+            final int separatorIndex = scanByteAtATime(buffer, equalsIndex + 1, length, SEPARATOR);
+            bh.consume(equalsIndex);
+            index = separatorIndex + 1;
+        }
+    }
+
+    @Benchmark
+    public int computeChecksum()
+    {
+        return buffer.computeChecksum(0, length);
+    }
+
+    @Benchmark
+    public int computeChecksumByteAtATime()
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+        int total = 0;
+        for (int index = 0, length = this.length; index < length; index++)
+        {
+            total += buffer.getByte(index);
+        }
+
+        return total % 256;
+    }
+
+    @Benchmark
+    public void parseIntFields(final Blackhole bh)
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+        final int length = this.length;
+        int index = 0;
+        while (index < length)
+        {
+            final int equalsIndex = buffer.scan(index, length, EQUALS);
+            bh.consume(buffer.getNatural(index, equalsIndex));
+            index = buffer.scan(equalsIndex + 1, length, SEPARATOR) + 1;
+        }
+    }
+
+    @Benchmark
+    public void parseIntFieldsByteAtATime(final Blackhole bh)
+    {
+        final MutableAsciiBuffer buffer = this.buffer;
+        final int length = this.length;
+        int index = 0;
+        while (index < length)
+        {
+            final int equalsIndex = buffer.scan(index, length, EQUALS);
+            bh.consume(buffer.parseNaturalIntAscii(index, equalsIndex - index));
+            index = buffer.scan(equalsIndex + 1, length, SEPARATOR) + 1;
+        }
+    }
+
+    private static int scanByteAtATime(
+        final MutableAsciiBuffer buffer, final int startInclusive, final int endExclusive, final byte terminator)
+    {
+        for (int i = startInclusive; i < endExclusive; i++)
+        {
+            if (buffer.getByte(i) == terminator)
+            {
+                return i;
+            }
+        }
+
+        return UNKNOWN_INDEX;
+    }
+}
@@ -20,11 +20,15 @@ import org.openjdk.jmh.infra.Blackhole;
 import uk.co.real_logic.artio.builder.Validation;
 import uk.co.real_logic.artio.decoder.HeaderDecoder;
 import uk.co.real_logic.artio.decoder.LogonDecoder;
+import uk.co.real_logic.artio.decoder.NewOrderSingleDecoder;
+import uk.co.real_logic.artio.fields.DecimalFloat;
 import uk.co.real_logic.artio.util.AsciiBuffer;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
 import java.util.concurrent.TimeUnit;
 
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
 @State(Scope.Benchmark)
 @BenchmarkMode(Mode.AverageTime)
 @OutputTimeUnit(TimeUnit.NANOSECONDS)
@@ -35,6 +39,10 @@ public class StubDecoderBenchmark
 {
     private final LogonDecoder logonDecoder = new LogonDecoder();
     private final AsciiBuffer buffer = new MutableAsciiBuffer(TestData.LOGON);
+    private final NewOrderSingleDecoder newOrderSingleDecoder = new NewOrderSingleDecoder();
+    private final AsciiBuffer newOrderSingleBuffer = new MutableAsciiBuffer(TestData.PRICED_NEW_ORDER_SINGLE);
+    private final AsciiBuffer priceBuffer = new MutableAsciiBuffer("-0.000125".getBytes(US_ASCII));
+    private final DecimalFloat price = new DecimalFloat();
 
     @Setup
     public void setup()
@@ -78,4 +86,18 @@ public class StubDecoderBenchmark
         bh.consume(logonDecoder.username());
     }
 
+    @Benchmark
+    public void decodePricedNewOrderSingle(final Blackhole bh)
+    {
+        bh.consume(newOrderSingleDecoder.decode(newOrderSingleBuffer, 0, newOrderSingleBuffer.capacity()));
+
+        bh.consume(newOrderSingleDecoder.price());
+        bh.consume(newOrderSingleDecoder.orderQtyData().orderQty());
+    }
+
+    @Benchmark
+    public DecimalFloat getPrice()
+    {
+        return priceBuffer.getFloat(price, 0, priceBuffer.capacity());
+    }
 }
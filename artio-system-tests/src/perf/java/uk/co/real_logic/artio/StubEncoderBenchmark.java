@@ -18,6 +18,7 @@ package uk.co.real_logic.artio;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 import uk.co.real_logic.artio.builder.LogonEncoder;
+import uk.co.real_logic.artio.builder.MessageTemplate;
 import uk.co.real_logic.artio.fields.UtcTimestampEncoder;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
@@ -40,6 +41,8 @@ public class StubEncoderBenchmark
     private final char[] password = "password".toCharArray();
     private final char[] username = "username".toCharArray();
 
+    private MessageTemplate logonTemplate;
+
     @Setup
     public void setup()
     {
@@ -47,6 +50,17 @@ public class StubEncoderBenchmark
             .header()
             .senderCompID("ABC_DEFG01")
             .targetCompID("CCG");
+
+        // Only MsgSeqNum (34) and SendingTime (52) change between messages encoded from the template
+        logonEncoder
+            .password(password)
+            .username(username)
+            .maxMessageSize(512)
+            .heartBtInt(10)
+            .header()
+            .msgSeqNum(sequenceNumber)
+            .sendingTime(timestampEncoder.buffer(), timestampEncoder.encode(System.currentTimeMillis()));
+        logonTemplate = new MessageTemplate(logonEncoder, 34, 52);
     }
 
     @Benchmark
@@ -66,4 +80,16 @@ public class StubEncoderBenchmark
         bh.consume(logonEncoder.encode(buffer, 0));
     }
 
+    @Benchmark
+    public void encodeLogonFromTemplate(final Blackhole bh)
+    {
+        final UtcTimestampEncoder timestampEncoder = this.timestampEncoder;
+
+        bh.consume(logonTemplate
+            .wrap(buffer, 0)
+            .putInt(sequenceNumber)
+            .putBytes(timestampEncoder.buffer(), timestampEncoder.encode(System.currentTimeMillis()))
+            .finish());
+    }
+
 }
@@ -15,7 +15,16 @@
  */
 package uk.co.real_logic.artio;
 
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.builder.Encoder;
+import uk.co.real_logic.artio.builder.TestRequestEncoder;
+import uk.co.real_logic.artio.fields.UtcTimestampEncoder;
+import uk.co.real_logic.artio.messages.FixMessageEncoder;
+import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+import uk.co.real_logic.artio.messages.MessageStatus;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
 import java.nio.charset.StandardCharsets;
 
@@ -27,8 +36,78 @@ public final class TestData
         "52=20090323-15:40:29\00156=CCG\001115=XYZ\00111=NF 0542/03232009\00154=1\00138=100\00155=CVS\00140=1" +
         "\00159=0\00147=A\00160=20090323-15:40:29\00121=1\001207=N\00110=194\001").getBytes(StandardCharsets.US_ASCII));
 
+    public static final UnsafeBuffer PRICED_NEW_ORDER_SINGLE = new UnsafeBuffer(
+        ("8=FIX.4.4\0019=142\00135=D\00134=4\00149=ABC_DEFG01\00152=20090323-15:40:29.123\00156=CCG\001" +
+        "11=NF 0542/03232009\00155=CVS\00154=1\00160=20090323-15:40:29.123\00138=1250.50\00140=2\00144=-0.000125" +
+        "\00110=213\001").getBytes(StandardCharsets.US_ASCII));
+
     public static final UnsafeBuffer LOGON = new UnsafeBuffer(
         ("8=FIX.4.4\0019=0103\00135=A\00149=ABC_DEFG01\00156=CCG\00134=10\001" +
         "52=20150514-15:57:31.336\00198=0\001108=10\001383=512\001553=username" +
         "\001554=password\00110=243\001").getBytes(StandardCharsets.US_ASCII));
+
+    public static final long NEW_ORDER_SINGLE_MESSAGE_TYPE = 'D';
+    public static final long TEST_REQUEST_MESSAGE_TYPE = '1';
+
+    // Writes a framed TestRequest message with the given MsgSeqNum, returning the length of the framed message.
+    public static int putTestRequestFrame(
+        final MutableDirectBuffer buffer,
+        final int offset,
+        final long sessionId,
+        final int sequenceIndex,
+        final int msgSeqNum)
+    {
+        final UtcTimestampEncoder timestampEncoder = new UtcTimestampEncoder();
+        final TestRequestEncoder testRequest = new TestRequestEncoder();
+        testRequest
+            .testReqID("benchmark")
+            .header()
+            .senderCompID("sender")
+            .targetCompID("target")
+            .msgSeqNum(msgSeqNum)
+            .sendingTime(timestampEncoder.buffer(), timestampEncoder.encode(0));
+
+        final MutableAsciiBuffer body = new MutableAsciiBuffer(new byte[1024]);
+        final long result = testRequest.encode(body, 0);
+
+        return putFixMessageFrame(
+            buffer,
+            offset,
+            sessionId,
+            sequenceIndex,
+            body,
+            Encoder.offset(result),
+            Encoder.length(result),
+            TEST_REQUEST_MESSAGE_TYPE);
+    }
+
+    // Writes a FIX message in the frame that the engine stores it in on the library streams, returning the length of
+    // the framed message.
+    public static int putFixMessageFrame(
+        final MutableDirectBuffer buffer,
+        final int offset,
+        final long sessionId,
+        final int sequenceIndex,
+        final DirectBuffer body,
+        final int bodyOffset,
+        final int bodyLength,
+        final long messageType)
+    {
+        final MessageHeaderEncoder header = new MessageHeaderEncoder();
+        final FixMessageEncoder messageFrame = new FixMessageEncoder();
+
+        messageFrame
+            .wrapAndApplyHeader(buffer, offset, header)
+            .messageType(messageType)
+            .session(sessionId)
+            .connection(1)
+            .timestamp(0)
+            .status(MessageStatus.OK)
+            .libraryId(1)
+            .sequenceIndex(sequenceIndex)
+            .putMetaData(new byte[0], 0, 0)
+            .putBody(body, bodyOffset, bodyLength);
+
+        return MessageHeaderEncoder.ENCODED_LENGTH + messageFrame.encodedLength();
+    }
 }
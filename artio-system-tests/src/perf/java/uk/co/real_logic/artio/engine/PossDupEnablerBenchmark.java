@@ -0,0 +1,94 @@
+/*
+ * Copyright 2015-2020 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine;
+
+import io.aeron.logbuffer.BufferClaim;
+import io.aeron.logbuffer.ControlledFragmentHandler.Action;
+import io.aeron.protocol.DataHeaderFlyweight;
+import org.agrona.concurrent.SystemEpochClock;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.LogTag;
+import uk.co.real_logic.artio.TestData;
+import uk.co.real_logic.artio.fields.UtcTimestampEncoder;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
+
+import java.util.concurrent.TimeUnit;
+
+import static uk.co.real_logic.artio.TestData.NEW_ORDER_SINGLE;
+import static uk.co.real_logic.artio.TestData.NEW_ORDER_SINGLE_MESSAGE_TYPE;
+
+/**
+ * Adds the PossDupFlag and OrigSendingTime fields to a message being resent, claiming the copy from a buffer rather
+ * than a publication.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PossDupEnablerBenchmark
+{
+    private static final int MAX_PAYLOAD_LENGTH = 8 * 1024;
+    private static final int MESSAGE_FRAME_BLOCK_LENGTH =
+        MessageHeaderDecoder.ENCODED_LENGTH + FixMessageDecoder.BLOCK_LENGTH + FixMessageDecoder.bodyHeaderLength();
+
+    private final UnsafeBuffer srcBuffer = new UnsafeBuffer(new byte[MAX_PAYLOAD_LENGTH]);
+    private final UnsafeBuffer claimBuffer = new UnsafeBuffer(new byte[DataHeaderFlyweight.HEADER_LENGTH +
+        2 * MAX_PAYLOAD_LENGTH]);
+    private final BufferClaim bufferClaim = new BufferClaim();
+
+    private PossDupEnabler possDupEnabler;
+    private int srcLength;
+    private int metaDataAdjustment;
+
+    @Setup
+    public void setup()
+    {
+        srcLength = TestData.putFixMessageFrame(
+            srcBuffer, 0, 1, 0, NEW_ORDER_SINGLE, 0, NEW_ORDER_SINGLE.capacity(), NEW_ORDER_SINGLE_MESSAGE_TYPE);
+        metaDataAdjustment = FixMessageDecoder.metaDataHeaderLength();
+
+        possDupEnabler = new PossDupEnabler(
+            new UtcTimestampEncoder(),
+            bufferClaim,
+            this::claim,
+            (buffer, offset) -> {},
+            message -> {},
+            Throwable::printStackTrace,
+            new SystemEpochClock(),
+            MAX_PAYLOAD_LENGTH,
+            LogTag.FIX_MESSAGE);
+    }
+
+    private boolean claim(final int totalLength, final int messageLength)
+    {
+        bufferClaim.wrap(claimBuffer, 0, DataHeaderFlyweight.HEADER_LENGTH + totalLength);
+        return true;
+    }
+
+    @Benchmark
+    public Action enablePossDupFlag()
+    {
+        final int srcLength = this.srcLength;
+        final int messageOffset = MESSAGE_FRAME_BLOCK_LENGTH + metaDataAdjustment;
+
+        return possDupEnabler.enablePossDupFlag(
+            srcBuffer, messageOffset, srcLength - messageOffset, 0, srcLength, metaDataAdjustment);
+    }
+}
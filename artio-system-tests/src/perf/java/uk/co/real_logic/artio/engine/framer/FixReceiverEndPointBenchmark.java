@@ -0,0 +1,132 @@
+/*
+ * Copyright 2015-2020 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import io.aeron.Aeron;
+import io.aeron.ExclusivePublication;
+import io.aeron.Subscription;
+import io.aeron.driver.MediaDriver;
+import io.aeron.driver.ThreadingMode;
+import io.aeron.logbuffer.FragmentHandler;
+import org.agrona.CloseHelper;
+import org.agrona.concurrent.NoOpIdleStrategy;
+import org.agrona.concurrent.OffsetEpochNanoClock;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.agrona.concurrent.status.CountersReader;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.protocol.GatewayPublication;
+import uk.co.real_logic.artio.timing.Timer;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+import static uk.co.real_logic.artio.TestData.NEW_ORDER_SINGLE;
+
+/**
+ * Frames inbound messages read from a TCP connection that always has data and publishes them to an IPC
+ * publication on an embedded media driver. The messages belong to an already logged on session.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class FixReceiverEndPointBenchmark
+{
+    private static final String CHANNEL = "aeron:ipc";
+    private static final int STREAM_ID = 1;
+    private static final long CONNECTION_ID = 1;
+    private static final long SESSION_ID = 2;
+    private static final int LIBRARY_ID = 3;
+    private static final int MESSAGES_PER_INVOCATION = 10;
+    private static final int RECEIVER_BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_CLAIM_ATTEMPTS = 1024;
+
+    private final FragmentHandler dropFragment = (buffer, offset, length, header) -> {};
+
+    private MediaDriver mediaDriver;
+    private Aeron aeron;
+    private Subscription subscription;
+    private FixReceiverEndPoint endPoint;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        mediaDriver = MediaDriver.launchEmbedded(new MediaDriver.Context()
+            .threadingMode(ThreadingMode.SHARED)
+            .dirDeleteOnShutdown(true));
+        aeron = Aeron.connect(new Aeron.Context().aeronDirectoryName(mediaDriver.aeronDirectoryName()));
+        subscription = aeron.addSubscription(CHANNEL, STREAM_ID);
+        final ExclusivePublication publication = aeron.addExclusivePublication(CHANNEL, STREAM_ID);
+        while (!publication.isConnected())
+        {
+            Thread.yield();
+        }
+
+        final UnsafeBuffer countersBuffer = new UnsafeBuffer(new byte[4 * CountersReader.COUNTER_LENGTH]);
+        final OffsetEpochNanoClock clock = new OffsetEpochNanoClock();
+        final GatewayPublication gatewayPublication = new GatewayPublication(
+            publication, new AtomicCounter(countersBuffer, 0), new NoOpIdleStrategy(), clock, MAX_CLAIM_ATTEMPTS);
+
+        final StubSocketChannel socketChannel = new StubSocketChannel(
+            NEW_ORDER_SINGLE, NEW_ORDER_SINGLE.capacity(), MESSAGES_PER_INVOCATION);
+
+        endPoint = new FixReceiverEndPoint(
+            new TcpChannel(socketChannel),
+            RECEIVER_BUFFER_SIZE,
+            gatewayPublication,
+            CONNECTION_ID,
+            SESSION_ID,
+            0,
+            stub(SessionContexts.class),
+            new AtomicCounter(countersBuffer, 1),
+            new AtomicCounter(countersBuffer, 2),
+            stub(Framer.class),
+            Throwable::printStackTrace,
+            LIBRARY_ID,
+            stub(GatewaySessions.class),
+            clock,
+            new Timer(clock, "Read", 1, new AtomicCounter(countersBuffer, 3)),
+            null,
+            new FixReceiverEndPoint.FixReceiverEndPointFormatters());
+        endPoint.gatewaySession(stub(GatewaySession.class));
+    }
+
+    // Stub only mocks don't record their invocations, so they don't grow over the course of a benchmark.
+    private static <T> T stub(final Class<T> type)
+    {
+        return mock(type, withSettings().stubOnly());
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        CloseHelper.closeAll(aeron, mediaDriver);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES_PER_INVOCATION)
+    public int poll()
+    {
+        final int bytesRead = endPoint.poll();
+        subscription.poll(dropFragment, Integer.MAX_VALUE);
+        return bytesRead;
+    }
+}
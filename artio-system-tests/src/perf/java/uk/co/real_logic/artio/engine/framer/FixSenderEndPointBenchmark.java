@@ -0,0 +1,110 @@
+/*
+ * Copyright 2015-2020 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.concurrent.NoOpIdleStrategy;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.agrona.concurrent.status.CountersReader;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.engine.ReplayerCommandQueue;
+import uk.co.real_logic.artio.engine.SenderSequenceNumbers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static uk.co.real_logic.artio.TestData.NEW_ORDER_SINGLE;
+
+/**
+ * Writes outbound messages to a TCP connection that always accepts the whole write, either one write per message
+ * or batched into a single write.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class FixSenderEndPointBenchmark
+{
+    private static final long CONNECTION_ID = 1;
+    private static final int LIBRARY_ID = 2;
+    private static final int MESSAGES_PER_INVOCATION = 10;
+    private static final int MAX_BYTES_IN_BUFFER = 4 * 1024 * 1024;
+    private static final long SLOW_CONSUMER_TIMEOUT_IN_MS = 10_000;
+
+    @Param({"0", "4096"})
+    public int writeBatchSize;
+
+    private final UnsafeBuffer message = new UnsafeBuffer(ByteBuffer.allocateDirect(NEW_ORDER_SINGLE.capacity()));
+
+    private FixSenderEndPoint endPoint;
+    private int messageLength;
+    private int sequenceNumber;
+    private long position;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        messageLength = NEW_ORDER_SINGLE.capacity();
+        message.putBytes(0, NEW_ORDER_SINGLE, 0, messageLength);
+
+        final UnsafeBuffer countersBuffer = new UnsafeBuffer(new byte[2 * CountersReader.COUNTER_LENGTH]);
+        final AtomicCounter bytesInBuffer = new AtomicCounter(countersBuffer, 0);
+        final AtomicCounter invalidLibraryAttempts = new AtomicCounter(countersBuffer, 1);
+        final SenderSequenceNumbers senderSequenceNumbers = new SenderSequenceNumbers(
+            new ReplayerCommandQueue(new NoOpIdleStrategy()));
+
+        endPoint = new FixSenderEndPoint(
+            CONNECTION_ID,
+            LIBRARY_ID,
+            new BlockablePosition(),
+            new BlockablePosition(),
+            new TcpChannel(new StubSocketChannel()),
+            bytesInBuffer,
+            invalidLibraryAttempts,
+            Throwable::printStackTrace,
+            null,
+            MAX_BYTES_IN_BUFFER,
+            SLOW_CONSUMER_TIMEOUT_IN_MS,
+            System.currentTimeMillis(),
+            senderSequenceNumbers.onNewSender(CONNECTION_ID, bytesInBuffer),
+            null,
+            writeBatchSize);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES_PER_INVOCATION)
+    public void onOutboundMessages()
+    {
+        final FixSenderEndPoint endPoint = this.endPoint;
+        final int messageLength = this.messageLength;
+        final long timeInMs = System.currentTimeMillis();
+
+        for (int i = 0; i < MESSAGES_PER_INVOCATION; i++)
+        {
+            position += messageLength;
+            endPoint.onOutboundMessage(
+                LIBRARY_ID, message, 0, messageLength, ++sequenceNumber, position, timeInMs);
+        }
+
+        if (endPoint.hasBatchedWrites())
+        {
+            endPoint.flushWriteBatch();
+        }
+    }
+}
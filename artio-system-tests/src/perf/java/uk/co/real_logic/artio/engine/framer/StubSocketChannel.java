@@ -0,0 +1,171 @@
+/*
+ * Copyright 2015-2020 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketOption;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.spi.SelectorProvider;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * A connected socket channel without a network: every write is consumed in full and every read returns as many
+ * copies of a message as fit in the buffer, up to a limit.
+ */
+class StubSocketChannel extends SocketChannel
+{
+    private static final SocketAddress ADDRESS = InetSocketAddress.createUnresolved("localhost", 9999);
+
+    private final byte[] message;
+    private final int maxMessagesPerRead;
+
+    StubSocketChannel(final DirectBuffer message, final int messageLength, final int maxMessagesPerRead)
+    {
+        super(SelectorProvider.provider());
+        this.message = new byte[messageLength];
+        message.getBytes(0, this.message);
+        this.maxMessagesPerRead = maxMessagesPerRead;
+    }
+
+    StubSocketChannel()
+    {
+        this(new UnsafeBuffer(new byte[0]), 0, 0);
+    }
+
+    public int read(final ByteBuffer dst)
+    {
+        final byte[] message = this.message;
+        final int messageLength = message.length;
+
+        int read = 0;
+        for (int i = 0; i < maxMessagesPerRead && dst.remaining() >= messageLength; i++)
+        {
+            dst.put(message);
+            read += messageLength;
+        }
+
+        return read;
+    }
+
+    public long read(final ByteBuffer[] dsts, final int offset, final int length)
+    {
+        long read = 0;
+        for (int i = offset; i < offset + length; i++)
+        {
+            read += read(dsts[i]);
+        }
+
+        return read;
+    }
+
+    public int write(final ByteBuffer src)
+    {
+        final int written = src.remaining();
+        src.position(src.limit());
+        return written;
+    }
+
+    public long write(final ByteBuffer[] srcs, final int offset, final int length)
+    {
+        long written = 0;
+        for (int i = offset; i < offset + length; i++)
+        {
+            written += write(srcs[i]);
+        }
+
+        return written;
+    }
+
+    public SocketChannel bind(final SocketAddress local)
+    {
+        return this;
+    }
+
+    public <T> SocketChannel setOption(final SocketOption<T> name, final T value)
+    {
+        return this;
+    }
+
+    public <T> T getOption(final SocketOption<T> name)
+    {
+        return null;
+    }
+
+    public Set<SocketOption<?>> supportedOptions()
+    {
+        return Collections.emptySet();
+    }
+
+    public SocketChannel shutdownInput()
+    {
+        return this;
+    }
+
+    public SocketChannel shutdownOutput()
+    {
+        return this;
+    }
+
+    public Socket socket()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    public boolean isConnected()
+    {
+        return true;
+    }
+
+    public boolean isConnectionPending()
+    {
+        return false;
+    }
+
+    public boolean connect(final SocketAddress remote)
+    {
+        return true;
+    }
+
+    public boolean finishConnect()
+    {
+        return true;
+    }
+
+    public SocketAddress getRemoteAddress()
+    {
+        return ADDRESS;
+    }
+
+    public SocketAddress getLocalAddress()
+    {
+        return ADDRESS;
+    }
+
+    protected void implCloseSelectableChannel()
+    {
+    }
+
+    protected void implConfigureBlocking(final boolean block)
+    {
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2015-2020 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.logbuffer.Header;
+import io.aeron.protocol.DataHeaderFlyweight;
+import org.agrona.BitUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import static io.aeron.logbuffer.FrameDescriptor.FRAME_ALIGNMENT;
+import static io.aeron.protocol.DataHeaderFlyweight.BEGIN_FLAG;
+import static io.aeron.protocol.DataHeaderFlyweight.END_FLAG;
+import static io.aeron.protocol.DataHeaderFlyweight.HEADER_LENGTH;
+
+/**
+ * Fragment headers for feeding indices without a publication, each fragment is placed after the previous one in
+ * the stream, and a recording id lookup that knows every recording.
+ */
+final class BenchmarkFragments
+{
+    static final long RECORDING_ID = 1;
+
+    private static final int TERM_LENGTH = 64 * 1024;
+
+    private final DataHeaderFlyweight dataHeader = new DataHeaderFlyweight(new UnsafeBuffer(new byte[HEADER_LENGTH]));
+    private final Header header = new Header(0, Integer.numberOfTrailingZeros(TERM_LENGTH));
+
+    BenchmarkFragments(final int aeronSessionId, final int streamId)
+    {
+        dataHeader
+            .sessionId(aeronSessionId)
+            .streamId(streamId)
+            .termId(0)
+            .termOffset(0);
+        dataHeader.flags((short)(BEGIN_FLAG | END_FLAG));
+        dataHeader.frameLength(0);
+
+        header.buffer(dataHeader);
+        header.offset(0);
+    }
+
+    Header nextHeader(final int length)
+    {
+        final DataHeaderFlyweight dataHeader = this.dataHeader;
+        final int frameLength = HEADER_LENGTH + length;
+
+        int termOffset = dataHeader.termOffset() + BitUtil.align(dataHeader.frameLength(), FRAME_ALIGNMENT);
+        if (termOffset + BitUtil.align(frameLength, FRAME_ALIGNMENT) > TERM_LENGTH)
+        {
+            dataHeader.termId(dataHeader.termId() + 1);
+            termOffset = 0;
+        }
+
+        dataHeader.termOffset(termOffset);
+        dataHeader.frameLength(frameLength);
+
+        return header;
+    }
+
+    static RecordingIdLookup recordingIdLookup()
+    {
+        return new RecordingIdLookup(null, null)
+        {
+            public long getRecordingId(final int aeronSessionId)
+            {
+                return RECORDING_ID;
+            }
+
+            long findRecordingId(final int aeronSessionId)
+            {
+                return RECORDING_ID;
+            }
+        };
+    }
+}
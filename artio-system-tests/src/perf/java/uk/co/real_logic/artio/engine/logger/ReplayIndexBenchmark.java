@@ -0,0 +1,133 @@
+/*
+ * Copyright 2015-2020 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.IoUtil;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.concurrent.NoOpIdleStrategy;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.TestData;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static uk.co.real_logic.artio.CommonConfiguration.DEFAULT_OUTBOUND_LIBRARY_STREAM;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.*;
+import static uk.co.real_logic.artio.engine.SessionInfo.UNK_SESSION;
+
+/**
+ * Indexes sent messages into the replay index and looks up the recording ranges of resend requests from it. Queries
+ * stop short of starting an archive replay, so no archive is needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ReplayIndexBenchmark
+{
+    private static final int STREAM_ID = DEFAULT_OUTBOUND_LIBRARY_STREAM;
+    private static final long INDEXED_SESSION_ID = 1;
+    private static final long QUERIED_SESSION_ID = 2;
+    private static final int MESSAGE_COUNT = 1024;
+    private static final int QUERIED_MESSAGE_COUNT = 4 * 1024;
+    private static final int QUERY_BEGIN_SEQUENCE_NUMBER = 2000;
+    private static final int QUERY_END_SEQUENCE_NUMBER = 2099;
+    private static final int MAX_FRAME_LENGTH = 256;
+
+    private final UnsafeBuffer messages = new UnsafeBuffer(new byte[MESSAGE_COUNT * MAX_FRAME_LENGTH]);
+    private final int[] messageLengths = new int[MESSAGE_COUNT];
+    private final BenchmarkFragments fragments = new BenchmarkFragments(1, STREAM_ID);
+
+    private File logFileDir;
+    private ReplayIndex replayIndex;
+    private ReplayQuery replayQuery;
+    private int messageIndex;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        logFileDir = Files.createTempDirectory("artio-benchmark").toFile();
+        final String logFileDirPath = logFileDir.getAbsolutePath();
+
+        replayIndex = new ReplayIndex(
+            logFileDirPath,
+            STREAM_ID,
+            DEFAULT_REPLAY_INDEX_FILE_SIZE,
+            DEFAULT_LOGGER_CACHE_NUM_SETS,
+            DEFAULT_LOGGER_CACHE_SET_SIZE,
+            LoggerUtil::map,
+            new UnsafeBuffer(new byte[DEFAULT_REPLAY_POSITION_BUFFER_SIZE]),
+            Throwable::printStackTrace,
+            BenchmarkFragments.recordingIdLookup(),
+            new Long2LongHashMap(UNK_SESSION));
+
+        final UnsafeBuffer queriedMessage = new UnsafeBuffer(new byte[MAX_FRAME_LENGTH]);
+        for (int sequenceNumber = 1; sequenceNumber <= QUERIED_MESSAGE_COUNT; sequenceNumber++)
+        {
+            final int length = TestData.putTestRequestFrame(queriedMessage, 0, QUERIED_SESSION_ID, 0, sequenceNumber);
+            replayIndex.onFragment(queriedMessage, 0, length, fragments.nextHeader(length));
+        }
+
+        for (int i = 0; i < MESSAGE_COUNT; i++)
+        {
+            messageLengths[i] = TestData.putTestRequestFrame(
+                messages, i * MAX_FRAME_LENGTH, INDEXED_SESSION_ID, 0, i + 1);
+        }
+
+        replayQuery = new ReplayQuery(
+            logFileDirPath,
+            DEFAULT_LOGGER_CACHE_NUM_SETS,
+            DEFAULT_LOGGER_CACHE_SET_SIZE,
+            LoggerUtil::mapExistingFile,
+            STREAM_ID,
+            new NoOpIdleStrategy(),
+            null,
+            Throwable::printStackTrace,
+            DEFAULT_ARCHIVE_REPLAY_STREAM);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        replayQuery.close();
+        replayIndex.close();
+        IoUtil.delete(logFileDir, true);
+    }
+
+    @Benchmark
+    public void onFragment()
+    {
+        final int messageIndex = this.messageIndex;
+        final int length = messageLengths[messageIndex];
+
+        replayIndex.onFragment(messages, messageIndex * MAX_FRAME_LENGTH, length, fragments.nextHeader(length));
+
+        this.messageIndex = (messageIndex + 1) & (MESSAGE_COUNT - 1);
+    }
+
+    @Benchmark
+    public List<RecordingRange> queryRanges()
+    {
+        return replayQuery.queryRanges(
+            QUERIED_SESSION_ID, QUERY_BEGIN_SEQUENCE_NUMBER, 0, QUERY_END_SEQUENCE_NUMBER, 0);
+    }
+}
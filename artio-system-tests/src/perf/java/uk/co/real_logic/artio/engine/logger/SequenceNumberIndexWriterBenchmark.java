@@ -0,0 +1,98 @@
+/*
+ * Copyright 2015-2020 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.IoUtil;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.concurrent.SystemEpochClock;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.TestData;
+import uk.co.real_logic.artio.engine.MappedFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS;
+import static uk.co.real_logic.artio.engine.SessionInfo.UNK_SESSION;
+
+/**
+ * Indexes the sequence numbers of sent messages, for a single session, into the in memory sequence number index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SequenceNumberIndexWriterBenchmark
+{
+    private static final int STREAM_ID = 1;
+    private static final long SESSION_ID = 1;
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int MESSAGE_COUNT = 1024;
+    private static final int MAX_FRAME_LENGTH = 256;
+
+    private final UnsafeBuffer messages = new UnsafeBuffer(new byte[MESSAGE_COUNT * MAX_FRAME_LENGTH]);
+    private final int[] messageLengths = new int[MESSAGE_COUNT];
+    private final BenchmarkFragments fragments = new BenchmarkFragments(1, STREAM_ID);
+
+    private File logFileDir;
+    private SequenceNumberIndexWriter writer;
+    private int messageIndex;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        for (int i = 0; i < MESSAGE_COUNT; i++)
+        {
+            messageLengths[i] = TestData.putTestRequestFrame(messages, i * MAX_FRAME_LENGTH, SESSION_ID, 0, i + 1);
+        }
+
+        logFileDir = Files.createTempDirectory("artio-benchmark").toFile();
+        writer = new SequenceNumberIndexWriter(
+            new UnsafeBuffer(new byte[BUFFER_SIZE]),
+            MappedFile.map(new File(logFileDir, "sequence_numbers_sent"), BUFFER_SIZE),
+            Throwable::printStackTrace,
+            STREAM_ID,
+            BenchmarkFragments.recordingIdLookup(),
+            DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS,
+            false,
+            new SystemEpochClock(),
+            null,
+            new Long2LongHashMap(UNK_SESSION));
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        writer.close();
+        IoUtil.delete(logFileDir, true);
+    }
+
+    @Benchmark
+    public void onFragment()
+    {
+        final int messageIndex = this.messageIndex;
+        final int length = messageLengths[messageIndex];
+
+        writer.onFragment(messages, messageIndex * MAX_FRAME_LENGTH, length, fragments.nextHeader(length));
+
+        this.messageIndex = (messageIndex + 1) & (MESSAGE_COUNT - 1);
+    }
+}
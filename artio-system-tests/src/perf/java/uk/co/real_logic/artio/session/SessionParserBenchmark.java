@@ -0,0 +1,168 @@
+/*
+ * Copyright 2015-2020 Real Logic Limited.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.session;
+
+import io.aeron.logbuffer.ControlledFragmentHandler.Action;
+import org.agrona.concurrent.EpochClock;
+import org.agrona.concurrent.EpochNanoClock;
+import org.agrona.concurrent.OffsetEpochNanoClock;
+import org.agrona.concurrent.SystemEpochClock;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.agrona.concurrent.status.CountersReader;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.dictionary.FixDictionary;
+import uk.co.real_logic.artio.fields.EpochFractionFormat;
+import uk.co.real_logic.artio.library.OnMessageInfo;
+import uk.co.real_logic.artio.messages.SessionState;
+import uk.co.real_logic.artio.protocol.GatewayPublication;
+import uk.co.real_logic.artio.util.EpochFractionClocks;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+import uk.co.real_logic.artio.validation.MessageValidationStrategy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static org.mockito.Mockito.mock;
+import static uk.co.real_logic.artio.TestData.NEW_ORDER_SINGLE;
+import static uk.co.real_logic.artio.TestData.NEW_ORDER_SINGLE_MESSAGE_TYPE;
+import static uk.co.real_logic.artio.session.SessionIdStrategy.senderAndTarget;
+
+/**
+ * Decodes the session level fields of received messages. The session itself is stubbed out so that only the parser
+ * is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Dfix.codecs.no_validation=true")
+public class SessionParserBenchmark
+{
+    private static final long HEARTBEAT_MESSAGE_TYPE = '0';
+    private static final long POSITION = 1024;
+
+    private final UnsafeBuffer heartbeat = new UnsafeBuffer(
+        ("8=FIX.4.4\0019=0058\00135=0\00134=5\00149=ABC_DEFG01\00152=20090323-15:40:35\00156=CCG\00110=000\001")
+        .getBytes(StandardCharsets.US_ASCII));
+
+    private SessionParser parser;
+
+    @Setup
+    public void setup()
+    {
+        final EpochClock epochClock = new SystemEpochClock();
+        final EpochNanoClock nanoClock = new OffsetEpochNanoClock();
+        final OnMessageInfo messageInfo = new OnMessageInfo();
+        final UnsafeBuffer countersBuffer = new UnsafeBuffer(new byte[2 * CountersReader.COUNTER_LENGTH]);
+
+        final Session session = new StubSession(
+            epochClock,
+            nanoClock,
+            mock(SessionProxy.class),
+            mock(GatewayPublication.class),
+            new AtomicCounter(countersBuffer, 0),
+            new AtomicCounter(countersBuffer, 1),
+            messageInfo);
+
+        parser = new SessionParser(
+            session,
+            MessageValidationStrategy.none(),
+            Throwable::printStackTrace,
+            false,
+            true,
+            messageInfo,
+            senderAndTarget());
+        parser.fixDictionary(FixDictionary.of(FixDictionary.findDefault()));
+    }
+
+    @Benchmark
+    public Action parseApplicationMessage()
+    {
+        return parser.onMessage(
+            NEW_ORDER_SINGLE, 0, NEW_ORDER_SINGLE.capacity(), NEW_ORDER_SINGLE_MESSAGE_TYPE, POSITION);
+    }
+
+    @Benchmark
+    public Action parseHeartbeat()
+    {
+        return parser.onMessage(heartbeat, 0, heartbeat.capacity(), HEARTBEAT_MESSAGE_TYPE, POSITION);
+    }
+
+    static final class StubSession extends Session
+    {
+        StubSession(
+            final EpochClock epochClock,
+            final EpochNanoClock nanoClock,
+            final SessionProxy proxy,
+            final GatewayPublication publication,
+            final AtomicCounter receivedMsgSeqNo,
+            final AtomicCounter sentMsgSeqNo,
+            final OnMessageInfo messageInfo)
+        {
+            super(
+                10,
+                1,
+                epochClock,
+                nanoClock,
+                SessionState.ACTIVE,
+                proxy,
+                publication,
+                publication,
+                senderAndTarget(),
+                Long.MAX_VALUE,
+                receivedMsgSeqNo,
+                sentMsgSeqNo,
+                1,
+                1,
+                0,
+                Long.MAX_VALUE,
+                new MutableAsciiBuffer(),
+                false,
+                SessionCustomisationStrategy.none(),
+                messageInfo,
+                EpochFractionClocks.create(epochClock, nanoClock, EpochFractionFormat.MILLISECONDS));
+        }
+
+        Action onMessage(
+            final int msgSeqNo,
+            final char[] msgType,
+            final int msgTypeLength,
+            final long sendingTime,
+            final long origSendingTime,
+            final boolean isPossDupOrResend,
+            final boolean possDup,
+            final long position)
+        {
+            return CONTINUE;
+        }
+
+        Action onHeartbeat(
+            final int msgSeqNum,
+            final char[] testReqID,
+            final int testReqIDLength,
+            final long sendingTime,
+            final long origSendingTime,
+            final boolean isPossDupOrResend,
+            final boolean possDup,
+            final long position)
+        {
+            return CONTINUE;
+        }
+    }
+}
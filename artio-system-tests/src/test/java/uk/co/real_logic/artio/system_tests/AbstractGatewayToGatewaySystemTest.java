@@ -539,6 +539,14 @@ public class AbstractGatewayToGatewaySystemTest
     }
 
     List<String> getMessagesFromArchive(final EngineConfiguration configuration, final IntHashSet queryStreamIds)
+    {
+        return getMessagesFromArchive(configuration, queryStreamIds, Long.MIN_VALUE);
+    }
+
+    List<String> getMessagesFromArchive(
+        final EngineConfiguration configuration,
+        final IntHashSet queryStreamIds,
+        final long beginTimestampInclusive)
     {
         final List<String> messages = new ArrayList<>();
         final FixMessageConsumer fixMessageConsumer =
@@ -546,7 +554,8 @@ public class AbstractGatewayToGatewaySystemTest
 
         final FixArchiveScanner.Configuration context = new FixArchiveScanner.Configuration()
             .aeronDirectoryName(configuration.aeronContext().aeronDirectoryName())
-            .idleStrategy(CommonConfiguration.backoffIdleStrategy());
+            .idleStrategy(CommonConfiguration.backoffIdleStrategy())
+            .logFileDir(configuration.logFileDir());
 
         try (FixArchiveScanner scanner = new FixArchiveScanner(context))
         {
@@ -556,7 +565,8 @@ public class AbstractGatewayToGatewaySystemTest
                 fixMessageConsumer,
                 null,
                 false,
-                DEFAULT_ARCHIVE_SCANNER_STREAM);
+                DEFAULT_ARCHIVE_SCANNER_STREAM,
+                beginTimestampInclusive);
         }
         return messages;
     }
@@ -20,10 +20,12 @@ import org.agrona.collections.IntHashSet;
 import org.junit.Before;
 import org.junit.Test;
 import uk.co.real_logic.artio.engine.EngineConfiguration;
+import uk.co.real_logic.artio.engine.FixEngine;
 import uk.co.real_logic.artio.library.LibraryConfiguration;
 
 import java.util.List;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static uk.co.real_logic.artio.TestFixtures.largeTestReqId;
@@ -32,6 +34,9 @@ import static uk.co.real_logic.artio.system_tests.SystemTestUtil.*;
 
 public class ArchiveScannerIntegrationTest extends AbstractGatewayToGatewaySystemTest
 {
+    private static final long TIME_INDEX_PERIOD_IN_MS = 1;
+    private static final long TIME_INDEX_PERIOD_IN_NS = MILLISECONDS.toNanos(TIME_INDEX_PERIOD_IN_MS);
+
     private final FakeConnectHandler fakeConnectHandler = new FakeConnectHandler();
 
     @Before
@@ -41,7 +46,9 @@ public class ArchiveScannerIntegrationTest extends AbstractGatewayToGatewaySyste
 
         mediaDriver = launchMediaDriver();
 
-        launchAcceptingEngine();
+        final EngineConfiguration acceptingConfig = acceptingConfig(port, ACCEPTOR_ID, INITIATOR_ID, nanoClock);
+        acceptingConfig.timeIndexPeriodInNs(TIME_INDEX_PERIOD_IN_NS);
+        acceptingEngine = FixEngine.launch(acceptingConfig);
         initiatingEngine = launchInitiatingEngine(libraryAeronPort, nanoClock);
 
         final LibraryConfiguration acceptingLibraryConfig = acceptingLibraryConfig(acceptingHandler, nanoClock);
@@ -105,6 +112,31 @@ public class ArchiveScannerIntegrationTest extends AbstractGatewayToGatewaySyste
         assertArchiveContainsBothMessages("hi");
     }
 
+    @Test
+    public void canScanArchiveFromATimestampUsingTheTimeIndex() throws InterruptedException
+    {
+        setupAndExchangeMessages();
+
+        Thread.sleep(10 * TIME_INDEX_PERIOD_IN_MS);
+        final long beginTimestamp = nanoClock.nanoTime();
+        Thread.sleep(10 * TIME_INDEX_PERIOD_IN_MS);
+
+        final String testReqID = "later";
+        sendTestRequest(initiatingSession, testReqID);
+        assertReceivedSingleHeartbeat(testSystem, initiatingOtfAcceptor, testReqID);
+
+        closeLibrariesAndEngines();
+
+        final EngineConfiguration configuration = acceptingEngine.configuration();
+        final IntHashSet queryStreamIds = new IntHashSet();
+        queryStreamIds.add(configuration.outboundLibraryStream());
+        final List<String> messages = getMessagesFromArchive(configuration, queryStreamIds, beginTimestamp);
+
+        assertThat(messages.toString(), messages, hasItem(containsString("\001112=" + testReqID)));
+        // Messages before the begin timestamp are skipped by the index, rather than just being filtered out.
+        assertThat(messages.toString(), messages, not(hasItem(containsString("35=A\001"))));
+    }
+
     private void closeLibrariesAndEngines()
     {
         CloseHelper.close(initiatingLibrary);
@@ -244,6 +244,66 @@ public class GatewayToGatewaySystemTest extends AbstractGatewayToGatewaySystemTe
         assertThat(position, greaterThan(0L));
     }
 
+    @Test
+    public void messagesCanBeClaimedAndCommitted()
+    {
+        acquireAcceptingSession();
+
+        final String testReqID = testReqId();
+        // A max length that has more digits than the body length of the message
+        final FixMessage message = claimExampleMessageFromInitiatorToAcceptor(testReqID, 1024);
+        assertEquals(initiatingSession.lastSentMsgSeqNum(), message.messageSequenceNumber());
+
+        final FixMessage nextMessage = claimExampleMessageFromInitiatorToAcceptor(testReqID, 200);
+        assertEquals(message.messageSequenceNumber() + 1, nextMessage.messageSequenceNumber());
+
+        final int sequenceNumber = acceptorSendsResendRequest(message.messageSequenceNumber());
+        final FixMessage resentMessage = assertMessageResent(sequenceNumber, EXAMPLE_MESSAGE_MESSAGE_AS_STR, false);
+        assertEquals(testReqID, resentMessage.testReqId());
+    }
+
+    @Test
+    public void abortedClaimsAreNotSent()
+    {
+        acquireAcceptingSession();
+
+        final int lastSentMsgSeqNum = initiatingSession.lastSentMsgSeqNum();
+        final ExampleMessageEncoder exampleMessage = new ExampleMessageEncoder();
+        exampleMessage.testReqID(testReqId());
+        assertThat(initiatingSession.tryClaim(exampleMessage, 1024), greaterThan(0L));
+        initiatingSession.abort();
+
+        try
+        {
+            initiatingSession.tryClaim(exampleMessage, 10);
+            fail("Claimed a message longer than its max length");
+        }
+        catch (final IndexOutOfBoundsException e)
+        {
+            // Deliberately blank: the claim is aborted
+        }
+
+        assertEquals(lastSentMsgSeqNum, initiatingSession.lastSentMsgSeqNum());
+
+        final FixMessage message = exchangeExampleMessageFromInitiatorToAcceptor(testReqId());
+        assertEquals(lastSentMsgSeqNum + 1, message.messageSequenceNumber());
+    }
+
+    private FixMessage claimExampleMessageFromInitiatorToAcceptor(final String testReqID, final int maxMessageLength)
+    {
+        final ExampleMessageEncoder exampleMessage = new ExampleMessageEncoder();
+        exampleMessage.testReqID(testReqID);
+        final long position = initiatingSession.tryClaim(exampleMessage, maxMessageLength);
+        assertThat(position, greaterThan(0L));
+        initiatingSession.commit();
+
+        return testSystem.awaitMessageOf(
+            acceptingOtfAcceptor,
+            EXAMPLE_MESSAGE_MESSAGE_AS_STR,
+            msg -> msg.testReqId().equals(testReqID) &&
+            msg.messageSequenceNumber() == initiatingSession.lastSentMsgSeqNum());
+    }
+
     @Test
     public void gatewayProcessesResendRequestsOfAdminMessages()
     {
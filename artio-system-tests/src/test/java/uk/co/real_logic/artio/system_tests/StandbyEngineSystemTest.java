@@ -0,0 +1,140 @@
+/*
+ * Copyright 2020 Monotonic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.system_tests;
+
+import org.agrona.CloseHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.engine.EngineConfiguration;
+import uk.co.real_logic.artio.engine.FixEngine;
+import uk.co.real_logic.artio.engine.StandbyEngine;
+import uk.co.real_logic.artio.engine.logger.SequenceNumberIndexReader;
+
+import static io.aeron.CommonContext.IPC_CHANNEL;
+import static org.junit.Assert.assertEquals;
+import static uk.co.real_logic.artio.TestFixtures.launchMediaDriver;
+import static uk.co.real_logic.artio.library.SessionConfiguration.AUTOMATIC_INITIAL_SEQUENCE_NUMBER;
+import static uk.co.real_logic.artio.system_tests.SystemTestUtil.*;
+import static uk.co.real_logic.artio.validation.SessionPersistenceStrategy.alwaysPersistent;
+
+public class StandbyEngineSystemTest extends AbstractGatewayToGatewaySystemTest
+{
+    private static final long TEST_TIMEOUT = 20_000L;
+    private static final String STANDBY_LOGS = "standby-logs";
+
+    private StandbyEngine standbyEngine;
+
+    @Before
+    public void launch()
+    {
+        deleteAcceptorLogs();
+        delete(CLIENT_LOGS);
+        delete(STANDBY_LOGS);
+
+        mediaDriver = launchMediaDriver();
+
+        acceptingEngine = FixEngine.launch(acceptingConfig(port, ACCEPTOR_ID, INITIATOR_ID, nanoClock)
+            .sessionPersistenceStrategy(alwaysPersistent())
+            .replicationChannel(IPC_CHANNEL));
+
+        standbyEngine = StandbyEngine.launch(standbyConfig());
+
+        initiatingEngine = launchInitiatingEngine(libraryAeronPort, nanoClock);
+
+        testSystem = new TestSystem();
+        acceptingLibrary = testSystem.connect(acceptingLibraryConfig(acceptingHandler, nanoClock));
+        initiatingLibrary = testSystem.connect(initiatingLibraryConfig(libraryAeronPort, initiatingHandler, nanoClock));
+    }
+
+    @After
+    public void closeStandby()
+    {
+        CloseHelper.close(standbyEngine);
+    }
+
+    @Test(timeout = TEST_TIMEOUT)
+    public void engineLaunchedFromStandbyShouldTakeOverSessions()
+    {
+        connectPersistingSessions();
+        assertTestRequestSentAndReceived(initiatingSession, testSystem, acceptingOtfAcceptor);
+        assertSequenceFromInitToAcceptAt(2, 2);
+
+        final long initiatedSessionId = initiatingSession.id();
+        final long acceptingSessionId = acceptingSession.id();
+
+        logoutInitiatingSession();
+        assertSessionsDisconnected();
+
+        // Both logouts have been indexed by the standby
+        awaitStandbyIndexed(acceptingSessionId, 3);
+
+        takeOverFromStandby();
+
+        connectPersistingSessions();
+
+        assertEquals("initiatedSessionId not stable over failover", initiatedSessionId, initiatingSession.id());
+        assertEquals("acceptingSessionId not stable over failover", acceptingSessionId, acceptingSession.id());
+        assertSequenceFromInitToAcceptAt(4, 4);
+
+        assertTestRequestSentAndReceived(initiatingSession, testSystem, acceptingOtfAcceptor);
+        assertSequenceFromInitToAcceptAt(5, 5);
+    }
+
+    private void connectPersistingSessions()
+    {
+        completeConnectInitiatingSession(connectPersistentSessions(
+            AUTOMATIC_INITIAL_SEQUENCE_NUMBER, AUTOMATIC_INITIAL_SEQUENCE_NUMBER, false));
+        acquireAcceptingSession();
+    }
+
+    private void awaitStandbyIndexed(final long sessionId, final int sequenceNumber)
+    {
+        final EngineConfiguration configuration = standbyEngine.configuration();
+        final SequenceNumberIndexReader sentSequenceNumbers = new SequenceNumberIndexReader(
+            configuration.sentSequenceNumberBuffer(), Throwable::printStackTrace, null, null);
+        final SequenceNumberIndexReader receivedSequenceNumbers = new SequenceNumberIndexReader(
+            configuration.receivedSequenceNumberBuffer(), Throwable::printStackTrace, null, null);
+
+        testSystem.await(
+            "Standby never indexed " + sequenceNumber,
+            () -> sentSequenceNumbers.lastKnownSequenceNumber(sessionId) >= sequenceNumber &&
+            receivedSequenceNumbers.lastKnownSequenceNumber(sessionId) >= sequenceNumber);
+    }
+
+    private void takeOverFromStandby()
+    {
+        closeAcceptingLibrary();
+        closeAcceptingEngine();
+        standbyEngine.close();
+
+        acceptingEngine = FixEngine.launch(
+            acceptingConfig(port, ACCEPTOR_ID, INITIATOR_ID, STANDBY_LOGS, nanoClock)
+            .sessionPersistenceStrategy(alwaysPersistent()));
+
+        clearMessages();
+        acceptingHandler.clearSessionExistsInfos();
+        acceptingLibrary = testSystem.connect(acceptingLibraryConfig(acceptingHandler, nanoClock));
+    }
+
+    private EngineConfiguration standbyConfig()
+    {
+        return acceptingConfig(port, ACCEPTOR_ID, INITIATOR_ID, STANDBY_LOGS, nanoClock)
+            .replicationChannel(IPC_CHANNEL)
+            .monitoringFile(acceptorMonitoringFile("standbyCounters"))
+            .agentNamePrefix("standby-");
+    }
+}